@@ -0,0 +1,170 @@
+package benchmarking;
+
+import dataMath.PolynomialFit;
+import dataMath.PolynomialFitter;
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import org.apache.commons.math3.fitting.PolynomialCurveFitter;
+import org.apache.commons.math3.fitting.WeightedObservedPoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cubic thrust fit on its own, against the iterative least-squares fitter it replaced, for one propeller and for
+ * the whole catalogue in one batch, and a whole evaluation of which it is the last step
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FitBenchmark {
+
+    //The velocity grid every output row comes from, in mph
+    private static final int POINT_COUNT = 86;
+
+    //The largest difference allowed between the closed-form and iterative fits, relative to static thrust
+    private static final double TOLERANCE = 1e-9;
+
+    //The iterative fitter the closed-form fit replaced
+    private final PolynomialCurveFitter iterativeFitter = PolynomialCurveFitter.create(PropellerDataSet.FIT_DEGREE);
+
+    //The propeller measured, the middle one of the catalogue
+    private PropellerDataSet prop;
+
+    //The propeller's static thrust and power-matched curve, the fit's input
+    private double staticThrust;
+    private PowerMatchedCurve curve;
+
+    //Every propeller's evaluation, and their thrust series back to back with room for their coefficients
+    private List<PropellerEvaluation> evaluations;
+    private double[] catalogueSeries;
+    private double[] catalogueCoefficients;
+    private PolynomialFitter fitter;
+
+    /**
+     * Evaluates the catalogue and checks the closed-form fit matches the iterative one for every propeller
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        prop = catalogue.loader.getPropellerDataAt(catalogue.loader.getNumOfProps() / 2);
+        staticThrust = prop.getStaticThrust(MotorConfiguration.DEFAULT);
+        curve = prop.computePowerMatchedCurve(MotorConfiguration.DEFAULT, 1, POINT_COUNT);
+
+        int propCount = catalogue.loader.getNumOfProps();
+        evaluations = new ArrayList<>(propCount);
+        catalogueSeries = new double[propCount * POINT_COUNT];
+        catalogueCoefficients = new double[propCount * (PropellerDataSet.FIT_DEGREE + 1)];
+        fitter = PolynomialFitter.forGrid(1, POINT_COUNT, PropellerDataSet.FIT_DEGREE);
+        for (int p = 0; p < propCount; p++) {
+            PropellerEvaluation evaluation = catalogue.loader.getPropellerDataAt(p)
+                .evaluate(MotorConfiguration.DEFAULT, 1, POINT_COUNT);
+            evaluations.add(evaluation);
+            for (int i = 0; i < POINT_COUNT; i++) {
+                catalogueSeries[p * POINT_COUNT + i] = thrustAt(evaluation.getStaticThrust(), evaluation.getCurve(), i);
+            }
+
+            double[] iterative = iterativeFit(evaluation.getStaticThrust(), evaluation.getCurve());
+            double[] closedForm = evaluation.getFitCoefficients();
+            for (int i = 0; i < POINT_COUNT; i++) {
+                double difference = Math.abs(valueAt(iterative, i) - valueAt(closedForm, i));
+                if (difference > TOLERANCE * Math.max(1, Math.abs(evaluation.getStaticThrust()))) {
+                    throw new IllegalStateException(evaluation.getPropName() + " fits differently at " + i + " mph");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The fit coefficients from the iterative fitter
+     */
+    @Benchmark
+    public double[] iterativeFit() {
+        return iterativeFit(staticThrust, curve);
+    }
+
+    /**
+     * @return The fit coefficients
+     */
+    @Benchmark
+    public double[] fitThrustCurve() {
+        return PropellerDataSet.fitThrustCurve(staticThrust, curve);
+    }
+
+    /**
+     * @return Every propeller's fit coefficients, fitted in one batch without allocating
+     */
+    @Benchmark
+    public double[] fitCatalogue() {
+        fitter.fitAll(catalogueSeries, evaluations.size(), catalogueCoefficients);
+        return catalogueCoefficients;
+    }
+
+    /**
+     * @return Every propeller's fit with its residuals and R squared
+     */
+    @Benchmark
+    public PolynomialFit[] fitCatalogueWithQuality() {
+        return PropellerDataSet.fitThrustCurves(evaluations, PropellerDataSet.FIT_DEGREE);
+    }
+
+    /**
+     * @return The static thrust, power-matched curve and fit
+     */
+    @Benchmark
+    public PropellerEvaluation evaluate() {
+        return prop.evaluate(MotorConfiguration.DEFAULT, 1, POINT_COUNT);
+    }
+
+    /**
+     * @param staticThrust The thrust used for the first point of the curve
+     * @param curve The power-matched curve
+     * @return The iterative fitter's coefficients
+     */
+    private double[] iterativeFit(double staticThrust, PowerMatchedCurve curve) {
+        WeightedObservedPoints points = new WeightedObservedPoints();
+        for (int i = 0; i < curve.getPointCount(); i++) {
+            points.add(curve.getVelocity(i), thrustAt(staticThrust, curve, i));
+        }
+        return iterativeFitter.fit(points.toList());
+    }
+
+    /**
+     * @param staticThrust The thrust used for the first point of the curve
+     * @param curve The power-matched curve
+     * @param point The grid point
+     * @return The thrust fitted at the point, zero where the curve is unreachable
+     */
+    private static double thrustAt(double staticThrust, PowerMatchedCurve curve, int point) {
+        return point == 0 ? staticThrust : curve.isReachable(point) ? curve.getThrust(point) : 0;
+    }
+
+    /**
+     * @param coefficients Polynomial coefficients, constant term first
+     * @param x Where to evaluate
+     * @return The polynomial's value at x
+     */
+    private static double valueAt(double[] coefficients, double x) {
+        double value = 0;
+        for (int k = coefficients.length - 1; k >= 0; k--) {
+            value = value * x + coefficients[k];
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package benchmarking;
+
+import dataServer.PropellerQueryServer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency distribution of PropellerQueryServer requests as seen by eight concurrent clients on the loopback
+ * interface, each sending a random mix of static thrust, thrust curve, RPM and best propeller requests. The fork is
+ * launched with the option serve mode sets, so responses are not held back by Nagle's algorithm.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(8)
+public class HttpQueryBenchmark {
+
+    /**
+     * The server over the synthetic catalogue, shared by every client thread
+     */
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        //The number of request handler threads, one per client
+        private static final int HANDLER_THREADS = 8;
+
+        //The running server, its base URL and every propeller name it serves
+        private PropellerQueryServer server;
+        private String base;
+        private String[] names;
+
+        /**
+         * Starts the server on a free port
+         * @param catalogue The synthetic catalogue
+         * @throws IOException If the server cannot bind
+         */
+        @Setup(Level.Trial)
+        public void setUp(SyntheticCatalogue catalogue) throws IOException {
+            server = new PropellerQueryServer(catalogue.loader, 0, HANDLER_THREADS);
+            server.start();
+            base = "http://127.0.0.1:" + server.getPort();
+            names = new String[catalogue.loader.getNumOfProps()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = URLEncoder.encode(catalogue.loader.getPropellerName(i), "UTF-8");
+            }
+        }
+
+        /**
+         * Stops the server
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.close();
+        }
+    }
+
+    /**
+     * One client's source of requests and its read buffer
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        //The source of randomness, seeded per thread so clients send different mixes
+        private final Random random = new Random(Thread.currentThread().getId());
+
+        //Where response bodies are drained to
+        private final byte[] buffer = new byte[8192];
+    }
+
+    /**
+     * @param server The running server
+     * @param client The calling thread's client
+     * @return The number of body bytes read
+     * @throws IOException If the request fails or is answered with an error
+     */
+    @Benchmark
+    public int request(Server server, Client client) throws IOException {
+        URL url = new URL(server.base + randomRequest(client.random, server.names));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        int status = connection.getResponseCode();
+        int read = 0;
+        try (InputStream body = connection.getInputStream()) {
+            int count;
+            //Drains the body so the connection can be reused
+            while ((count = body.read(client.buffer)) >= 0) {
+                read += count;
+            }
+        }
+        if (status != 200) {
+            throw new IOException(url + " answered " + status);
+        }
+        return read;
+    }
+
+    /**
+     * @param random The source of randomness
+     * @param names Every URL-encoded propeller name
+     * @return The path and query of a random request
+     */
+    @NotNull
+    private static String randomRequest(@NotNull Random random, @NotNull String[] names) {
+        String prop = names[random.nextInt(names.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return "/static-thrust?prop=" + prop;
+            case 1:
+                return "/thrust-curve?prop=" + prop + (random.nextBoolean() ? "&format=binary" : "");
+            case 2:
+                return "/rpm?prop=" + prop + "&velocity=" + random.nextInt(60);
+            default:
+                return "/best?minStaticThrust=" + random.nextInt(10) + "&cruise=" + random.nextInt(60)
+                    + "&rank=cruise_thrust&limit=" + (1 + random.nextInt(10));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package benchmarking;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerTableStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-propeller interpolation paths: velocity bracketing, table interpolation over a velocity grid, power-matched
+ * thrust and RPM at one velocity, static thrust and the whole power-matched curve
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpolationBenchmark {
+
+    //The velocity grid every output row comes from, in mph
+    private static final int POINT_COUNT = 86;
+
+    //The propeller measured, the middle one of the catalogue
+    private PropellerDataSet prop;
+
+    //The motor configuration the propeller is matched against, fast enough that its unloaded RPM never limits the
+    //match, since the single-velocity paths match power alone
+    private final MotorConfiguration motor = MotorConfiguration.DEFAULT.withKV(1000);
+
+    //A velocity the propeller can absorb the power at, and the RPM tables bracketing the budget there
+    private int velocity;
+    private int rpm1;
+    private int rpm2;
+
+    //The grid velocities and the buffer interpolated values are written to
+    private final double[] gridVelocities = new double[POINT_COUNT];
+    private final double[] out = new double[POINT_COUNT];
+
+    /**
+     * Picks the propeller and a velocity in the middle of its power-matched curve, checking the single-velocity paths
+     * agree with the curve there
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        prop = catalogue.loader.getPropellerDataAt(catalogue.loader.getNumOfProps() / 2);
+        for (int i = 0; i < POINT_COUNT; i++) {
+            gridVelocities[i] = i;
+        }
+
+        PowerMatchedCurve curve = prop.computePowerMatchedCurve(motor, 1, POINT_COUNT);
+        if (curve.getReachableCount() < 2) {
+            throw new IllegalStateException(prop.getName() + " cannot absorb the power past 0 mph");
+        }
+        velocity = curve.getReachableCount() / 2;
+        PropellerTableStore tables = prop.getTableStore();
+        for (int t = 0; t < tables.getTableCount() - 1; t++) {
+            if (tables.getRPM(t + 1) > curve.getRPM(velocity)) {
+                rpm1 = tables.getRPM(t);
+                rpm2 = tables.getRPM(t + 1);
+                break;
+            }
+        }
+        if (Math.abs(prop.getDynamicThrust(velocity, rpm1, rpm2, motor) - curve.getThrust(velocity)) > 1e-9
+            || Math.abs(prop.InterpolateRPM(velocity, rpm1, rpm2, motor) - curve.getRPM(velocity)) > 1e-6) {
+            throw new IllegalStateException("Single-velocity interpolation disagrees with the power-matched curve");
+        }
+    }
+
+    /**
+     * @return The lower row of the velocity bracket in the table below the budget
+     */
+    @Benchmark
+    public int findVelocityBracket() {
+        PropellerTableStore tables = prop.getTableStore();
+        return tables.findVelocityBracket(tables.indexOfRPM(rpm1), velocity + 0.5);
+    }
+
+    /**
+     * @return The thrust interpolated at every grid velocity from one RPM table
+     */
+    @Benchmark
+    public double[] interpolateAtVelocities() {
+        prop.interpolateAtVelocities(rpm1, true, gridVelocities, out, POINT_COUNT);
+        return out;
+    }
+
+    /**
+     * @return The power-matched thrust at one velocity
+     */
+    @Benchmark
+    public double getDynamicThrust() {
+        return prop.getDynamicThrust(velocity, rpm1, rpm2, motor);
+    }
+
+    /**
+     * @return The power-matched RPM at one velocity
+     */
+    @Benchmark
+    public double interpolateRPM() {
+        return prop.InterpolateRPM(velocity, rpm1, rpm2, motor);
+    }
+
+    /**
+     * @return The power-matched static thrust
+     */
+    @Benchmark
+    public double getStaticThrust() {
+        return prop.getStaticThrust(motor);
+    }
+
+    /**
+     * @return The power-matched RPM and thrust at every grid velocity
+     */
+    @Benchmark
+    public PowerMatchedCurve computePowerMatchedCurve() {
+        return prop.computePowerMatchedCurve(motor, 1, POINT_COUNT);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarking;
+
+import dataParsing.LazyPropellerDataLoader;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerDataTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one data file from memory, loading the whole catalogue directory from disk sequentially and in parallel,
+ * and indexing it lazily, alone and through to the first propeller looked up by name
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    /**
+     * @param catalogue The synthetic catalogue
+     * @return The parsed middle file of the catalogue
+     * @throws IOException Never, as the content is generated
+     */
+    @Benchmark
+    public PropellerDataSet parseFile(SyntheticCatalogue catalogue) throws IOException {
+        return PropellerDataTokenizer.parse(catalogue.contents.get(catalogue.contents.size() / 2));
+    }
+
+    /**
+     * @param catalogue The synthetic catalogue
+     * @return The catalogue loaded on the calling thread
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PropellerDataLoader loadDirectory(SyntheticCatalogue catalogue) {
+        return new PropellerDataLoader(catalogue.directory.toString(), false);
+    }
+
+    /**
+     * The GC profiler only counts the benchmark thread's allocations, so this one's leaves out the loader's workers
+     * @param catalogue The synthetic catalogue
+     * @return The catalogue loaded on every core
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PropellerDataLoader loadDirectoryParallel(SyntheticCatalogue catalogue) {
+        return new PropellerDataLoader(catalogue.directory.toString(), true);
+    }
+
+    /**
+     * @param catalogue The synthetic catalogue
+     * @return The catalogue indexed by header line, nothing parsed
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PropellerDataLoader indexDirectory(SyntheticCatalogue catalogue) {
+        return new LazyPropellerDataLoader(catalogue.directory.toString());
+    }
+
+    /**
+     * @param catalogue The synthetic catalogue
+     * @return The middle propeller of a freshly indexed catalogue, found by name, the time to a first answer
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PropellerDataSet indexAndLookUp(SyntheticCatalogue catalogue) {
+        PropellerDataLoader lazy = new LazyPropellerDataLoader(catalogue.directory.toString());
+        return lazy.getPropellerData(lazy.getPropellerName(lazy.getNumOfProps() / 2));
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarking;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataSet;
+import dataSimulation.AirframeModel;
+import dataSimulation.MissionResult;
+import dataSimulation.MissionSimulator;
+import dataSimulation.PowerProfile;
+import dataSimulation.ThrustTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 60 second mission at 1 ms steps: one propeller's integration from its thrust table, one propeller's table on its
+ * own, and the whole catalogue tabulated, simulated in parallel and ranked
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MissionBenchmark {
+
+    //The thrust table's grid, matching the simulator's
+    private static final double VELOCITY_STEP = 0.25;
+    private static final int THROTTLE_LEVELS = 21;
+
+    //The motor configuration flown
+    private final MotorConfiguration motor = MotorConfiguration.DEFAULT;
+
+    //A climb-out at full power after a gentle start, then cruise
+    private final MissionSimulator simulator = new MissionSimulator(
+        AirframeModel.DEFAULT, motor, PowerProfile.parse("0:0.3,2:1,30:1,31:0.6"), 50, 60, 0.001
+    );
+
+    //The catalogue, the propeller measured on its own, the middle one, and its thrust table
+    private SyntheticCatalogue catalogue;
+    private PropellerDataSet prop;
+    private ThrustTable table;
+    private int velocityCount;
+
+    /**
+     * Tabulates the measured propeller and checks the table at full throttle matches power-matching each velocity
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        this.catalogue = catalogue;
+        prop = catalogue.loader.getPropellerDataAt(catalogue.loader.getNumOfProps() / 2);
+        velocityCount = (int) Math.ceil(motor.getMaxForwardAirspeed() / VELOCITY_STEP) + 1;
+        table = new ThrustTable(prop, motor, VELOCITY_STEP, velocityCount, THROTTLE_LEVELS);
+
+        double[] velocities = new double[velocityCount];
+        double[] rpms = new double[velocityCount];
+        double[] thrusts = new double[velocityCount];
+        for (int i = 0; i < velocityCount; i++) {
+            velocities[i] = i * VELOCITY_STEP;
+        }
+        prop.computeThrustCurve(velocities, motor, rpms, thrusts, velocityCount);
+        for (int i = 0; i < velocityCount - 1; i++) {
+            double expected = Double.isNaN(thrusts[i]) ? 0 : thrusts[i];
+            if (table.thrustAt(velocities[i], 1) != expected) {
+                throw new IllegalStateException(prop.getName() + " tabulates differently at " + velocities[i] + " mph");
+            }
+        }
+    }
+
+    /**
+     * @return The measured propeller's mission, from its prebuilt table
+     */
+    @Benchmark
+    public MissionResult integrate() {
+        return simulator.simulate(prop.getName(), table);
+    }
+
+    /**
+     * @return The measured propeller's thrust table
+     */
+    @Benchmark
+    public ThrustTable tabulate() {
+        return new ThrustTable(prop, motor, VELOCITY_STEP, velocityCount, THROTTLE_LEVELS);
+    }
+
+    /**
+     * @return Every propeller's mission, ranked
+     */
+    @Benchmark
+    public List<MissionResult> simulateCatalogue() {
+        return simulator.simulateCatalogue(catalogue.loader);
+    }
+}
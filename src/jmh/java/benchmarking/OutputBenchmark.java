@@ -0,0 +1,57 @@
+package benchmarking;
+
+import dataOutput.CalcOutput;
+import dataOutput.OutputFormat;
+import dataOutput.ResultWriter;
+import dataParsing.MotorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating the whole catalogue and writing every row to a new output file, end to end
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputBenchmark {
+
+    //The file format written
+    @Param({"CSV", "COLUMNAR"})
+    public OutputFormat format;
+
+    //Numbers the output files, so each invocation writes a new one
+    private int invocation;
+
+    /**
+     * @param catalogue The synthetic catalogue
+     * @return The number of rows written
+     * @throws IOException If the output cannot be written
+     */
+    @Benchmark
+    public long writeDynamicThrustData(SyntheticCatalogue catalogue) throws IOException {
+        Path outputFile = catalogue.directory.resolve("output-" + invocation++ + format.getExtension());
+        long rowCount;
+        try (ResultWriter writer = format.open(outputFile)) {
+            CalcOutput.writeDynamicThrustData(catalogue.loader, MotorConfiguration.DEFAULT, writer);
+            rowCount = writer.getRowCount();
+        }
+        Files.delete(outputFile);
+        return rowCount;
+    }
+}
@@ -0,0 +1,119 @@
+package benchmarking;
+
+import dataAnalysis.ParetoFrontier;
+import dataAnalysis.ParetoObjective;
+import dataAnalysis.SweepEngine;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The non-dominated results of a motor configuration sweep over the catalogue, found by ParetoFrontier and by an
+ * all-pairs dominance check, after checking both find the same evaluations
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParetoFrontierBenchmark {
+
+    //The objectives traded off
+    private final List<ParetoObjective> objectives = Arrays.asList(
+        ParetoObjective.staticThrust(), ParetoObjective.thrustAt(40), ParetoObjective.rpmAt(40),
+        ParetoObjective.topSpeed()
+    );
+
+    //The frontier search and the sweep results it reduces
+    private final ParetoFrontier frontier = new ParetoFrontier(objectives);
+    private final List<PropellerEvaluation> candidates = new ArrayList<>();
+
+    /**
+     * Sweeps the catalogue over a grid of 24 motor configurations and checks both searches agree
+     * @param catalogue The synthetic catalogue
+     * @throws InterruptedException If interrupted while sweeping
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) throws InterruptedException {
+        List<MotorConfiguration> motors = SweepEngine.configurationGrid(
+            MotorConfiguration.DEFAULT, new double[] {250, 310, 370, 430}, new double[] {14.8, 18.5, 22.2},
+            new double[] {0.8, 1.34}
+        );
+        new SweepEngine().run(catalogue.loader, motors, 1, 86, (index, evaluation) -> candidates.add(evaluation));
+
+        List<PropellerEvaluation> fast = frontier.compute(candidates);
+        List<PropellerEvaluation> slow = allPairs();
+        if (!fast.equals(slow)) {
+            throw new IllegalStateException("Frontiers disagree: " + fast.size() + " vs " + slow.size());
+        }
+    }
+
+    /**
+     * @return The non-dominated evaluations, from the sort-filter skyline
+     */
+    @Benchmark
+    public List<PropellerEvaluation> skyline() {
+        return frontier.compute(candidates);
+    }
+
+    /**
+     * The reference search: every candidate checked against every other
+     * @return The non-dominated evaluations, in input order
+     */
+    @Benchmark
+    public List<PropellerEvaluation> allPairs() {
+        double[][] utilities = new double[candidates.size()][objectives.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            for (int o = 0; o < objectives.size(); o++) {
+                ParetoObjective objective = objectives.get(o);
+                double value = objective.valueOf(candidates.get(i));
+                utilities[i][o] = Double.isNaN(value) ? Double.NEGATIVE_INFINITY
+                    : objective.isMaximized() ? value : -value;
+            }
+        }
+
+        List<PropellerEvaluation> nonDominated = new ArrayList<>();
+        for (int i = 0; i < utilities.length; i++) {
+            boolean dominated = false;
+            for (int j = 0; j < utilities.length && !dominated; j++) {
+                dominated = j != i && dominates(utilities[j], utilities[i]);
+            }
+            if (!dominated) {
+                nonDominated.add(candidates.get(i));
+            }
+        }
+        return nonDominated;
+    }
+
+    /**
+     * @param a The first candidate's utilities
+     * @param b The second candidate's utilities
+     * @return If a is at least as good as b everywhere and better somewhere
+     */
+    private static boolean dominates(@NotNull double[] a, @NotNull double[] b) {
+        boolean better = false;
+        for (int o = 0; o < a.length; o++) {
+            if (a[o] < b[o]) {
+                return false;
+            }
+            better |= a[o] > b[o];
+        }
+        return better;
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarking;
+
+import dataParsing.LegacyDataParser;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerDataTokenizer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing every file of the catalogue from memory with the regex-based LegacyDataParser and with the
+ * PropellerDataTokenizer, after checking both produce identical tables
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    //The raw content of every data file, in catalogue order
+    private List<byte[]> contents;
+
+    /**
+     * Checks the two parsers agree on every file
+     * @param catalogue The synthetic catalogue
+     * @throws IOException If a file has no header line
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) throws IOException {
+        contents = catalogue.contents;
+        for (byte[] file : contents) {
+            PropellerDataSet legacy = LegacyDataParser.parse(reader(file));
+            if (!legacy.hasSameData(PropellerDataTokenizer.parse(file))) {
+                throw new IllegalStateException("Parsers disagree on " + legacy.getName());
+            }
+        }
+    }
+
+    /**
+     * @param blackhole Consumes every parsed file
+     * @throws IOException If a file has no header line
+     */
+    @Benchmark
+    public void parseCatalogueLegacy(Blackhole blackhole) throws IOException {
+        for (byte[] file : contents) {
+            blackhole.consume(LegacyDataParser.parse(reader(file)));
+        }
+    }
+
+    /**
+     * @param blackhole Consumes every parsed file
+     * @throws IOException If a file has no header line
+     */
+    @Benchmark
+    public void parseCatalogueTokenized(Blackhole blackhole) throws IOException {
+        for (byte[] file : contents) {
+            blackhole.consume(PropellerDataTokenizer.parse(file));
+        }
+    }
+
+    /**
+     * @param file The file content
+     * @return A reader over the in-memory content
+     */
+    @NotNull
+    private static BufferedReader reader(@NotNull byte[] file) {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.ISO_8859_1));
+    }
+}
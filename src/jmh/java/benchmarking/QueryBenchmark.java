@@ -0,0 +1,132 @@
+package benchmarking;
+
+import dataAnalysis.PropellerQuery;
+import dataAnalysis.PropellerQueryEngine;
+import dataAnalysis.PropellerSummary;
+import dataParsing.MotorConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency distribution of PropellerQueryEngine queries with random constraint sets, cycling through a fixed set
+ * of queries that are each checked to return the same propellers as an exhaustive filter-and-sort, and a whole build
+ * of the engine
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBenchmark {
+
+    //The number of distinct random queries cycled through
+    private static final int QUERY_COUNT = 4096;
+
+    //The catalogue, the engine over it, and the queries
+    private SyntheticCatalogue catalogue;
+    private PropellerQueryEngine engine;
+    private final PropellerQuery[] queries = new PropellerQuery[QUERY_COUNT];
+
+    //The next query to run
+    private int next;
+
+    /**
+     * Builds the engine, draws the queries and checks the engine answers each the way an exhaustive search does
+     * @param catalogue The synthetic catalogue
+     * @throws InterruptedException If interrupted while building the engine
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) throws InterruptedException {
+        this.catalogue = catalogue;
+        engine = PropellerQueryEngine.build(catalogue.loader, MotorConfiguration.DEFAULT);
+        Random random = new Random(42);
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            queries[q] = randomQuery(random);
+        }
+
+        for (PropellerQuery query : queries) {
+            List<PropellerSummary> expected = new ArrayList<>();
+            for (PropellerSummary summary : engine.getSummaries()) {
+                if (query.matches(summary)) {
+                    expected.add(summary);
+                }
+            }
+            expected.sort((a, b) -> {
+                int byScore = Double.compare(query.score(b), query.score(a));
+                return byScore != 0 ? byScore : Integer.compare(a.getCatalogueIndex(), b.getCatalogueIndex());
+            });
+            expected = expected.subList(0, Math.min(query.getLimit(), expected.size()));
+            if (!expected.equals(engine.query(query))) {
+                throw new IllegalStateException("Engine disagrees with exhaustive search");
+            }
+        }
+    }
+
+    /**
+     * @return The answer to the next random query
+     */
+    @Benchmark
+    public List<PropellerSummary> query() {
+        PropellerQuery query = queries[next];
+        next = (next + 1) % QUERY_COUNT;
+        return engine.query(query);
+    }
+
+    /**
+     * @return A freshly built engine over the whole catalogue
+     * @throws InterruptedException If interrupted while building the engine
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PropellerQueryEngine build() throws InterruptedException {
+        return PropellerQueryEngine.build(catalogue.loader, MotorConfiguration.DEFAULT);
+    }
+
+    /**
+     * @param random The source of randomness
+     * @return A query with a random subset of constraints and a random ranking
+     */
+    @NotNull
+    private static PropellerQuery randomQuery(@NotNull Random random) {
+        PropellerQuery query = PropellerQuery.ANY.withLimit(1 + random.nextInt(10));
+        if (random.nextBoolean()) {
+            query = query.withMinStaticThrust(random.nextDouble() * 15);
+        }
+        if (random.nextBoolean()) {
+            double velocity = random.nextBoolean() ? random.nextInt(86) : random.nextDouble() * 85;
+            query = query.withMinThrustAt(velocity, random.nextDouble() * 8);
+        }
+        if (random.nextBoolean()) {
+            double min = 4 + random.nextInt(10);
+            query = query.withDiameterRange(min, min + random.nextInt(6));
+        }
+        if (random.nextInt(4) == 0) {
+            double min = 3 + random.nextInt(5);
+            query = query.withPitchRange(min, min + random.nextInt(4));
+        }
+        if (random.nextInt(4) == 0) {
+            query = query.withMaxRPM(6000 + random.nextInt(20000));
+        }
+        PropellerQuery.Ranking[] rankings = PropellerQuery.Ranking.values();
+        PropellerQuery.Ranking ranking = rankings[random.nextInt(rankings.length)];
+        if (ranking != PropellerQuery.Ranking.CRUISE_THRUST || query.hasCruiseVelocity()) {
+            query = query.rankedBy(ranking);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,137 @@
+package benchmarking;
+
+import dataAnalysis.CurveDistance;
+import dataAnalysis.SimilarPropeller;
+import dataAnalysis.SimilarityIndex;
+import dataParsing.MotorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Five nearest substitutes for every propeller of the catalogue, from the vantage-point tree and from a scan of every
+ * propeller's features, and a whole build of the index
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimilarityBenchmark {
+
+    //The number of substitutes each query asks for
+    private static final int K = 5;
+
+    //The distance features are compared under
+    @Param({"EUCLIDEAN", "MANHATTAN", "CHEBYSHEV"})
+    public CurveDistance distance;
+
+    //The catalogue, its index, and every propeller's name and features in catalogue order
+    private SyntheticCatalogue catalogue;
+    private SimilarityIndex index;
+    private String[] names;
+    private double[][] features;
+
+    /**
+     * Builds the index and checks it answers every query the way the scan does
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        this.catalogue = catalogue;
+        index = SimilarityIndex.build(catalogue.loader, MotorConfiguration.DEFAULT, distance);
+        names = new String[catalogue.loader.getNumOfProps()];
+        features = new double[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = catalogue.loader.getPropellerDataAt(i).getName();
+            features[i] = SimilarityIndex.featuresOf(
+                catalogue.loader.getPropellerDataAt(i), MotorConfiguration.DEFAULT, SimilarityIndex.DEFAULT_RPM_WEIGHT
+            );
+        }
+
+        for (int query = 0; query < names.length; query++) {
+            List<SimilarPropeller> fromTree = index.nearest(names[query], K);
+            int[] fromScan = scan(query);
+            for (int i = 0; i < K; i++) {
+                if (fromTree.get(i).getCatalogueIndex() != fromScan[i]) {
+                    throw new IllegalStateException("The index disagrees with the scan for " + names[query]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Every propeller's substitutes, from the tree
+     */
+    @Benchmark
+    public List<List<SimilarPropeller>> treeQueries() {
+        List<List<SimilarPropeller>> answers = new ArrayList<>(names.length);
+        for (String name : names) {
+            answers.add(index.nearest(name, K));
+        }
+        return answers;
+    }
+
+    /**
+     * @return Every propeller's substitutes, from a scan of every propeller's features
+     */
+    @Benchmark
+    public List<int[]> scanQueries() {
+        List<int[]> answers = new ArrayList<>(names.length);
+        for (int query = 0; query < names.length; query++) {
+            answers.add(scan(query));
+        }
+        return answers;
+    }
+
+    /**
+     * @return A freshly built index
+     */
+    @Benchmark
+    public SimilarityIndex build() {
+        return SimilarityIndex.build(catalogue.loader, MotorConfiguration.DEFAULT, distance);
+    }
+
+    /**
+     * Measures every other propeller, keeping the K closest by insertion
+     * @param query The catalogue position of the propeller to substitute
+     * @return The catalogue positions of its K closest substitutes, closest first, ties in catalogue order
+     */
+    private int[] scan(int query) {
+        int[] closest = new int[K];
+        double[] closestDistances = new double[K];
+        int found = 0;
+        for (int i = 0; i < features.length; i++) {
+            if (i == query) {
+                continue;
+            }
+            double gap = distance.between(features[query], 0, features[i], 0, features[i].length);
+            if (found == K && gap >= closestDistances[K - 1]) {
+                continue;
+            }
+            int slot = Math.min(found, K - 1);
+            while (slot > 0 && closestDistances[slot - 1] > gap) {
+                closest[slot] = closest[slot - 1];
+                closestDistances[slot] = closestDistances[slot - 1];
+                slot--;
+            }
+            closest[slot] = i;
+            closestDistances[slot] = gap;
+            found = Math.min(found + 1, K);
+        }
+        return closest;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarking;
+
+import dataParsing.PropellerDataLoader;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A full-size synthetic catalogue written to a temporary directory once per trial, shared by every benchmark thread
+ */
+@State(Scope.Benchmark)
+public class SyntheticCatalogue {
+
+    //The number of RPM tables per propeller, 1000 to 20000 RPM like the real catalogue
+    static final int TABLE_COUNT = 20;
+
+    //The directory the data files are written to
+    Path directory;
+
+    //The raw content of every data file, in catalogue order
+    List<byte[]> contents;
+
+    //The catalogue loaded from the directory
+    PropellerDataLoader loader;
+
+    /**
+     * Writes and loads the catalogue
+     * @throws IOException If the files cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("syntheticPropellerData");
+        List<Path> files = SyntheticPropellerData.writeCatalogue(
+            directory, SyntheticPropellerData.maxPropCount(), TABLE_COUNT
+        );
+        contents = new ArrayList<>(files.size());
+        for (Path file : files) {
+            contents.add(Files.readAllBytes(file));
+        }
+        loader = new PropellerDataLoader(directory.toString(), true);
+        if (loader.getNumOfProps() != files.size()) {
+            throw new IllegalStateException("Loaded " + loader.getNumOfProps() + " of " + files.size() + " files");
+        }
+    }
+
+    /**
+     * Deletes the directory and everything written under it
+     * @throws IOException If a file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
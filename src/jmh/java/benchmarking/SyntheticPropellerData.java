@@ -0,0 +1,137 @@
+package benchmarking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Generates propeller data files in the APC PER3 text format, so benchmarks run offline against a catalogue of known
+ * size. Thrust falls and power rises with RPM the way real propellers do, scaled by diameter and pitch, which keeps the
+ * power-matching paths taking the same branches as on real data.
+ */
+public final class SyntheticPropellerData {
+
+    //The diameters, pitches and suffixes every catalogue is built from, in inches
+    private static final double[] DIAMETERS = {5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final double[] PITCHES = {3, 4, 4.5, 5, 6, 7, 8, 10};
+    private static final String[] SUFFIXES = {"", "E", "SF"};
+
+    //The RPM of the first table and the spacing between tables
+    private static final int RPM_STEP = 1000;
+
+    //The number of velocity rows in every RPM table
+    private static final int ROWS_PER_TABLE = 30;
+
+    //Converts RPM times pitch in inches to mph
+    private static final double MPH_PER_RPM_INCH = 1 / 1056.0;
+
+    /**
+     * Not instantiable
+     */
+    private SyntheticPropellerData() {
+    }
+
+    /**
+     * @return The number of distinct propellers a catalogue can hold
+     */
+    public static int maxPropCount() {
+        return DIAMETERS.length * PITCHES.length * SUFFIXES.length;
+    }
+
+    /**
+     * Writes a catalogue of propellers, one PER3_name.dat file each
+     * @param directory The directory to write to, which must exist
+     * @param propCount The number of propellers, at most maxPropCount
+     * @param tableCount The number of RPM tables per propeller
+     * @return The written files, in catalogue order
+     * @throws IOException If a file cannot be written
+     */
+    @NotNull
+    public static List<Path> writeCatalogue(@NotNull Path directory, int propCount, int tableCount) throws IOException {
+        if (propCount > maxPropCount()) {
+            throw new IllegalArgumentException("At most " + maxPropCount() + " propellers can be generated");
+        }
+        List<Path> files = new ArrayList<>(propCount);
+        for (int p = 0; p < propCount; p++) {
+            double diameter = DIAMETERS[p / (PITCHES.length * SUFFIXES.length)];
+            double pitch = PITCHES[p / SUFFIXES.length % PITCHES.length];
+            String name = propName(diameter, pitch, SUFFIXES[p % SUFFIXES.length]);
+
+            Path file = directory.resolve("PER3_" + name + ".dat");
+            Files.write(file, generate(name, diameter, pitch, tableCount));
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Generates the content of one data file
+     * @param name The propeller name, such as 10x4.5E
+     * @param diameter The propeller diameter, in inches
+     * @param pitch The propeller pitch, in inches
+     * @param tableCount The number of RPM tables, the first at 1000 RPM
+     * @return The file content
+     */
+    @NotNull
+    public static byte[] generate(@NotNull String name, double diameter, double pitch, int tableCount) {
+        StringBuilder out = new StringBuilder(tableCount * (ROWS_PER_TABLE + 5) * 80);
+        out.append(String.format(Locale.ROOT, "         %s.dat             (%s.dat)\n\n", name, name));
+        out.append(" ========================================================================\n\n\n");
+
+        double basePower = 0.0012 * Math.pow(diameter / 10, 4) * (pitch / 7);
+        double baseThrust = 0.11 * Math.pow(diameter / 10, 3);
+        double maxAdvanceRatio = pitch / diameter * 1.25;
+
+        for (int t = 1; t <= tableCount; t++) {
+            int rpm = t * RPM_STEP;
+            double scale = rpm / 1000.0;
+            out.append(String.format(Locale.ROOT, "                          PROP RPM = %8d\n\n", rpm));
+            out.append("     V          J         Pe       Ct       Cp       PWR      Torque     Thrust\n");
+            out.append("   (mph)     (Adv_Ratio)   -        -        -       (Hp)     (In-Lbf)    (Lbf)\n");
+
+            double maxVelocity = rpm * pitch * MPH_PER_RPM_INCH * 1.25;
+            for (int row = 0; row < ROWS_PER_TABLE; row++) {
+                double velocity = maxVelocity * row / (ROWS_PER_TABLE - 1);
+                double advanceRatio = velocity / (rpm * diameter * MPH_PER_RPM_INCH);
+                double thrust = baseThrust * scale * scale * (1 - advanceRatio / maxAdvanceRatio * 1.05);
+                double power = basePower * scale * scale * scale * (1 - 0.35 * advanceRatio / maxAdvanceRatio);
+                double torque = power * 63025 / rpm;
+
+                out.append(String.format(
+                    Locale.ROOT, "%7.2f%11.4f%10s%9.4f%9.4f%10.3f%10.3f",
+                    velocity, advanceRatio, row == 0 ? "-NaN" : "0.5000", 0.1, 0.05, power, torque
+                ));
+                //APC files run negative thrust into the torque column, which the parsers have to split
+                out.append(String.format(Locale.ROOT, thrust < 0 ? "%.3f\n" : "%10.3f\n", thrust));
+            }
+            out.append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @param diameter The propeller diameter, in inches
+     * @param pitch The propeller pitch, in inches
+     * @param suffix The APC model suffix
+     * @return The propeller name in APC's diameter x pitch form, such as 10x4.5E
+     */
+    @NotNull
+    private static String propName(double diameter, double pitch, @NotNull String suffix) {
+        return formatInches(diameter) + "x" + formatInches(pitch) + suffix;
+    }
+
+    /**
+     * @param inches A dimension
+     * @return The dimension without a fraction when it is whole
+     */
+    @NotNull
+    private static String formatInches(double inches) {
+        return inches == Math.rint(inches) ? Long.toString((long) inches) : Double.toString(inches);
+    }
+}
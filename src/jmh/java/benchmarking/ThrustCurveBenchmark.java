@@ -0,0 +1,105 @@
+package benchmarking;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Power-matched thrust curves for the whole catalogue on a fine 0.1 mph grid from 0 to 85 mph: the batch API with one
+ * budget and with a budget per velocity, against the grid curve every evaluation builds
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ThrustCurveBenchmark {
+
+    //The grid spacing and size, in mph
+    private static final double VELOCITY_STEP = 0.1;
+    private static final int POINT_COUNT = 851;
+
+    //Every propeller of the catalogue
+    private PropellerDataSet[] props;
+
+    //The motor configuration matched against
+    private final MotorConfiguration motor = MotorConfiguration.DEFAULT;
+
+    //The grid, a budget per grid velocity falling from full power to half, and the output buffers
+    private final double[] velocities = new double[POINT_COUNT];
+    private final double[] budgets = new double[POINT_COUNT];
+    private final double[] rpms = new double[POINT_COUNT];
+    private final double[] thrusts = new double[POINT_COUNT];
+
+    /**
+     * Builds the grid and checks the batch API matches the grid curve at every point the curve reaches
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        props = new PropellerDataSet[catalogue.loader.getNumOfProps()];
+        for (int p = 0; p < props.length; p++) {
+            props[p] = catalogue.loader.getPropellerDataAt(p);
+        }
+        for (int i = 0; i < POINT_COUNT; i++) {
+            velocities[i] = i * VELOCITY_STEP;
+            budgets[i] = motor.getPowerBudget() * (1 - 0.5 * i / (POINT_COUNT - 1));
+        }
+
+        for (PropellerDataSet prop : props) {
+            PowerMatchedCurve curve = prop.computePowerMatchedCurve(motor, VELOCITY_STEP, POINT_COUNT);
+            prop.computeThrustCurve(velocities, motor, rpms, thrusts, POINT_COUNT);
+            for (int i = 0; i < curve.getReachableCount(); i++) {
+                if (rpms[i] != curve.getRPM(i) || thrusts[i] != curve.getThrust(i)) {
+                    throw new IllegalStateException(prop.getName() + " disagrees with its grid curve at " + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param blackhole Consumes each curve
+     */
+    @Benchmark
+    public void batchCurve(Blackhole blackhole) {
+        for (PropellerDataSet prop : props) {
+            prop.computeThrustCurve(velocities, motor, rpms, thrusts, POINT_COUNT);
+            blackhole.consume(thrusts);
+        }
+    }
+
+    /**
+     * @param blackhole Consumes each curve
+     */
+    @Benchmark
+    public void batchCurveVaryingBudget(Blackhole blackhole) {
+        for (PropellerDataSet prop : props) {
+            prop.computeThrustCurve(velocities, budgets, motor.getMaxRPM(), rpms, thrusts, POINT_COUNT);
+            blackhole.consume(thrusts);
+        }
+    }
+
+    /**
+     * @param blackhole Consumes each curve
+     */
+    @Benchmark
+    public void gridCurve(Blackhole blackhole) {
+        for (PropellerDataSet prop : props) {
+            blackhole.consume(prop.computePowerMatchedCurve(motor, VELOCITY_STEP, POINT_COUNT));
+        }
+    }
+}
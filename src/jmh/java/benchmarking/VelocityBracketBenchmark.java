@@ -0,0 +1,139 @@
+package benchmarking;
+
+import dataParsing.PropellerTableStore;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static dataParsing.PropellerTableStore.VELOCITY;
+
+/**
+ * One interpolation at a random table and velocity, bracketed by the original BigDecimal linear scan and by the binary
+ * search in PropellerTableStore. Every query is checked to give the same bracket wherever the scan found one inside
+ * the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VelocityBracketBenchmark {
+
+    //Random (table, velocity) queries per invocation
+    private static final int QUERY_COUNT = 10_000;
+
+    //The store, table and velocity of each query
+    private final PropellerTableStore[] stores = new PropellerTableStore[QUERY_COUNT];
+    private final int[] tables = new int[QUERY_COUNT];
+    private final double[] velocities = new double[QUERY_COUNT];
+
+    /**
+     * Draws the queries and checks the two searches agree on every one of them
+     * @param catalogue The synthetic catalogue
+     */
+    @Setup
+    public void setUp(SyntheticCatalogue catalogue) {
+        //Queries span slightly past each table so out-of-range velocities are measured too
+        Random random = new Random(42);
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            PropellerTableStore store = catalogue.loader.getPropellerDataAt(
+                random.nextInt(catalogue.loader.getNumOfProps())
+            ).getTableStore();
+            int table = random.nextInt(store.getTableCount());
+            stores[q] = store;
+            tables[q] = table;
+            velocities[q] = random.nextDouble() * store.getValue(table, store.getRowCount(table) - 1, VELOCITY) * 1.05;
+        }
+
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            int linear = linearBracket(stores[q], tables[q], velocities[q]);
+            int binary = stores[q].findVelocityBracket(tables[q], velocities[q]);
+            boolean inRange = linear >= 0 && linear + 1 < stores[q].getRowCount(tables[q])
+                && velocities[q] <= stores[q].getValue(tables[q], linear + 1, VELOCITY);
+            if (inRange && linear != binary) {
+                throw new IllegalStateException("Brackets disagree at velocity " + velocities[q]);
+            }
+        }
+    }
+
+    /**
+     * @return The sum of the thrust interpolated for every query, bracketed by the original linear scan
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public double linearScan() {
+        double sum = 0;
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            int lowerRow = linearBracket(stores[q], tables[q], velocities[q]);
+            if (lowerRow >= 0 && lowerRow + 1 < stores[q].getRowCount(tables[q])) {
+                sum += lerpThrust(stores[q], tables[q], lowerRow, velocities[q]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return The sum of the thrust interpolated for every query, bracketed by the binary search
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public double binarySearch() {
+        double sum = 0;
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            int lowerRow = stores[q].findVelocityBracket(tables[q], velocities[q]);
+            if (lowerRow >= 0) {
+                sum += lerpThrust(stores[q], tables[q], lowerRow, velocities[q]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The original search: the first row whose velocity is at least the target, scanned from row 0 with BigDecimal
+     * comparisons
+     * @param store The store to search
+     * @param table The table to search
+     * @param velocity The target velocity
+     * @return The lower row of the bracket, -1 if the target is at or before the first row, or 0 if it is past the
+     * last row, as the original returned
+     */
+    private static int linearBracket(@NotNull PropellerTableStore store, int table, double velocity) {
+        BigDecimal realVelocity = BigDecimal.valueOf(velocity);
+        for (int i = 0; i < store.getRowCount(table); i++) {
+            BigDecimal tableVelocity = BigDecimal.valueOf(store.getValue(table, i, VELOCITY));
+            if (tableVelocity.max(realVelocity).equals(tableVelocity)) {
+                return i - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param store The store to interpolate from
+     * @param table The table to interpolate in
+     * @param lowerRow The lower row of the bracket
+     * @param velocity The target velocity
+     * @return The thrust at the velocity, linearly interpolated between the bracket rows
+     */
+    private static double lerpThrust(@NotNull PropellerTableStore store, int table, int lowerRow, double velocity) {
+        double x0 = store.getValue(table, lowerRow, VELOCITY);
+        double x1 = store.getValue(table, lowerRow + 1, VELOCITY);
+        double y0 = store.getValue(table, lowerRow, PropellerTableStore.THRUST);
+        double y1 = store.getValue(table, lowerRow + 1, PropellerTableStore.THRUST);
+        return y0 + (velocity - x0) * ((y1 - y0) / (x1 - x0));
+    }
+}
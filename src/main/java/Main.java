@@ -1,24 +1,242 @@
+import dataAnalysis.CurveDistance;
+import dataAnalysis.SimilarPropeller;
+import dataAnalysis.SimilarityIndex;
+import dataMetrics.Log;
+import dataMetrics.MetricRegistry;
 import dataOutput.CalcOutput;
+import dataOutput.MissionRankingWriter;
+import dataOutput.OutputFormat;
+import dataOutput.WatchModeOutput;
+import dataParsing.LazyPropellerDataLoader;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerCatalogue;
 import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import dataServer.PropellerQueryServer;
+import dataSimulation.AirframeModel;
+import dataSimulation.MissionResult;
+import dataSimulation.MissionSimulator;
+import dataSimulation.PowerProfile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Initializes and starts this application
  */
 public class Main {
 
+    //The directory propeller data files are loaded from
+    private static final String DATA_PATH = "src/main/resources/propellerData";
+
+    //The metric snapshots written at the end of a run, as JSON and in Prometheus text
+    private static final String[] METRICS_PATHS = {"build/metrics.json", "build/metrics.prom"};
+
+    //The port serve mode listens on when none is given
+    private static final int DEFAULT_PORT = 8080;
+
+    //The speed simulate mode times missions to when none is given, in mph, and every mission's length and time step,
+    //in seconds
+    private static final double DEFAULT_TARGET_SPEED = 50;
+    private static final double MISSION_DURATION = 60;
+    private static final double MISSION_TIME_STEP = 0.001;
+
+    //The number of best propellers simulate mode logs
+    private static final int LOGGED_MISSIONS = 5;
+
+    //The similarity index kept beside the catalogue snapshot, and the number of substitutes similar mode lists when
+    //none is given
+    private static final String SIMILARITY_INDEX_PATH = "build/propellerData.similarity";
+    private static final int DEFAULT_SUBSTITUTES = 5;
+
     /**
      * Gathers all resources, then starts sending data to the webDriver.
+     * @param format The file format to write results in
+     */
+    private void run(OutputFormat format) {
+        PropellerDataLoader dataSets = new PropellerDataLoader(DATA_PATH, true, "build/propellerData.snapshot");
+        CalcOutput.writeDynamicThrustData(dataSets, MotorConfiguration.DEFAULT, format);
+        writeMetrics();
+    }
+
+    /**
+     * Writes the run's metrics, with the time spent in each phase, to every snapshot file
+     */
+    private static void writeMetrics() {
+        for (String path : METRICS_PATHS) {
+            try {
+                MetricRegistry.global().writeSnapshot(Paths.get(path));
+            }
+            catch (IOException e) {
+                Log.warn("Could not write metrics to " + path + ": " + e);
+            }
+        }
+        Log.info("Wrote metrics to " + String.join(" and ", METRICS_PATHS) + ".");
+    }
+
+    /**
+     * Writes the output once, then keeps it up to date as data files are added, changed or removed, until the
+     * process is stopped
+     * @param format The file format to write results in
+     * @throws IOException If the output cannot be written or the data directory cannot be watched
+     * @throws InterruptedException If the main thread is interrupted
+     */
+    private void watch(OutputFormat format) throws IOException, InterruptedException {
+        PropellerCatalogue catalogue = new PropellerCatalogue(DATA_PATH, true);
+        WatchModeOutput output = new WatchModeOutput(
+            catalogue, MotorConfiguration.DEFAULT, format, CalcOutput.newOutputFile(format)
+        );
+        output.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                output.close();
+            }
+            catch (IOException e) {
+                Log.warn("Could not stop watching: " + e);
+            }
+            writeMetrics();
+        }));
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Indexes the catalogue's header lines, then answers queries over HTTP on the loopback interface until the process
+     * is stopped, parsing each propeller the first time a query needs it
+     * @param port The port to listen on
+     * @throws IOException If the port cannot be bound
+     * @throws InterruptedException If the main thread is interrupted
+     */
+    private void serve(int port) throws IOException, InterruptedException {
+        //Turns off Nagle's algorithm for the server's sockets unless the launch chose otherwise; the JDK reads it once,
+        //when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        PropellerDataLoader dataSets = new LazyPropellerDataLoader(DATA_PATH);
+        PropellerQueryServer server = new PropellerQueryServer(
+            dataSets, port, Runtime.getRuntime().availableProcessors() * 2
+        );
+        server.start();
+        Log.info("Serving " + dataSets.getNumOfProps() + " propellers on http://127.0.0.1:" + server.getPort());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Flies the default airframe through a throttle profile behind every propeller, then writes the propellers ranked
+     * by how the mission went
+     * @param targetSpeed The speed to time each mission to, in mph
+     * @param profile The throttle over the mission
+     * @throws IOException If the ranking cannot be written
+     */
+    private void simulate(double targetSpeed, PowerProfile profile) throws IOException {
+        PropellerDataLoader dataSets = new PropellerDataLoader(DATA_PATH, true, "build/propellerData.snapshot");
+        MissionSimulator simulator = new MissionSimulator(
+            AirframeModel.DEFAULT, MotorConfiguration.DEFAULT, profile, targetSpeed, MISSION_DURATION, MISSION_TIME_STEP
+        );
+
+        long start = System.nanoTime();
+        List<MissionResult> ranking = simulator.simulateCatalogue(dataSets);
+        Path outputFile = MissionRankingWriter.writeRanking(ranking);
+        Log.info(String.format(
+            "Simulated %d missions of %d steps in %.1f ms and wrote the ranking to %s.",
+            ranking.size(), simulator.getStepCount(), (System.nanoTime() - start) / 1e6, outputFile
+        ));
+        for (int i = 0; i < Math.min(LOGGED_MISSIONS, ranking.size()); i++) {
+            Log.info((i + 1) + ". " + ranking.get(i));
+        }
+        writeMetrics();
+    }
+
+    /**
+     * Evaluates one propeller on the default motor, parsing only its own data file
+     * @param propName The propeller to evaluate
      */
-    private void run() {
-        PropellerDataLoader dataSets = new PropellerDataLoader("src/main/resources/propellerData");
-        CalcOutput.writeDynamicThrustData(dataSets);
+    private void lookup(String propName) {
+        long start = System.nanoTime();
+        PropellerDataLoader dataSets = new LazyPropellerDataLoader(DATA_PATH);
+        PropellerDataSet prop = dataSets.getPropellerData(propName);
+        if (prop == null) {
+            Log.error("No propeller named " + propName + " in " + DATA_PATH);
+            return;
+        }
+        PropellerEvaluation evaluation = CalcOutput.evaluate(prop, MotorConfiguration.DEFAULT);
+        Log.info(String.format(
+            "%s on %s: %.3f lbf static thrust, power-matched to %.0f mph, thrust formula %s (answered in %.1f ms).",
+            propName, MotorConfiguration.DEFAULT, evaluation.getStaticThrust(),
+            evaluation.getCurve().getMaxReachableVelocity(), evaluation.getThrustFormula(),
+            (System.nanoTime() - start) / 1e6
+        ));
+    }
+
+    /**
+     * Lists the propellers that perform most like the given one on the default motor, using the similarity index kept
+     * beside the catalogue snapshot and rebuilding it when the catalogue has changed
+     * @param propName The propeller to substitute
+     * @param count How many substitutes to list
+     */
+    private void similar(String propName, int count) {
+        PropellerDataLoader dataSets = new PropellerDataLoader(DATA_PATH, true, "build/propellerData.snapshot");
+        SimilarityIndex index = SimilarityIndex.loadOrBuild(
+            Paths.get(SIMILARITY_INDEX_PATH), dataSets, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN
+        );
+        List<SimilarPropeller> substitutes = index.nearest(propName, count);
+        Log.info("Closest substitutes for " + propName + " on " + MotorConfiguration.DEFAULT + ":");
+        for (int i = 0; i < substitutes.size(); i++) {
+            Log.info((i + 1) + ". " + substitutes.get(i));
+        }
+        writeMetrics();
     }
 
     /**
      * Gives an entry point to starting the application
-     * @param args unused command line arguments
+     * @param args "serve" and an optional port (default 8080) to answer queries over HTTP, "simulate" and an optional
+     *             target speed in mph (default 50) and throttle profile (time:throttle pairs, default full throttle)
+     *             to rank propellers by mission, "similar", a propeller name and an optional count (default 5) to
+     *             list the propellers that perform most like it, "lookup" and a propeller name to evaluate just that
+     *             propeller, or an optional "watch" to keep the output up to date, then an optional output format,
+     *             CSV (the default) or COLUMNAR
+     * @throws IOException If watch mode cannot write the output or watch the data directory, the server cannot bind
+     *                     its port, or the mission ranking cannot be written
+     * @throws InterruptedException If watch or serve mode is interrupted
      */
-    public static void main(String[] args) {
-        new Main().run();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equalsIgnoreCase("serve")) {
+            new Main().serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("simulate")) {
+            new Main().simulate(
+                args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_TARGET_SPEED,
+                args.length > 2 ? PowerProfile.parse(args[2]) : PowerProfile.FULL_THROTTLE
+            );
+            return;
+        }
+        if (args.length > 1 && args[0].equalsIgnoreCase("lookup")) {
+            new Main().lookup(args[1]);
+            return;
+        }
+        if (args.length > 1 && args[0].equalsIgnoreCase("similar")) {
+            new Main().similar(args[1], args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SUBSTITUTES);
+            return;
+        }
+
+        boolean watch = args.length > 0 && args[0].equalsIgnoreCase("watch");
+        int formatArg = watch ? 1 : 0;
+        OutputFormat format = args.length > formatArg
+            ? OutputFormat.valueOf(args[formatArg].toUpperCase())
+            : OutputFormat.CSV;
+
+        if (watch) {
+            new Main().watch(format);
+        }
+        else {
+            new Main().run(format);
+        }
     }
-}
\ No newline at end of file
+}
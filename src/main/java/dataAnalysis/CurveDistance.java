@@ -0,0 +1,57 @@
+package dataAnalysis;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The distances a SimilarityIndex can compare curve features under. Each is a true metric, as the index's pruning
+ * relies on the triangle inequality.
+ */
+public enum CurveDistance {
+
+    //The root of the summed squared differences, weighing a large gap anywhere on the curve most
+    EUCLIDEAN {
+        @Override
+        public double between(@NotNull double[] a, int aOffset, @NotNull double[] b, int bOffset, int length) {
+            double sum = 0;
+            for (int i = 0; i < length; i++) {
+                double difference = a[aOffset + i] - b[bOffset + i];
+                sum += difference * difference;
+            }
+            return Math.sqrt(sum);
+        }
+    },
+
+    //The summed absolute differences, the area between two curves
+    MANHATTAN {
+        @Override
+        public double between(@NotNull double[] a, int aOffset, @NotNull double[] b, int bOffset, int length) {
+            double sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += Math.abs(a[aOffset + i] - b[bOffset + i]);
+            }
+            return sum;
+        }
+    },
+
+    //The largest absolute difference, the worst point of two curves
+    CHEBYSHEV {
+        @Override
+        public double between(@NotNull double[] a, int aOffset, @NotNull double[] b, int bOffset, int length) {
+            double max = 0;
+            for (int i = 0; i < length; i++) {
+                max = Math.max(max, Math.abs(a[aOffset + i] - b[bOffset + i]));
+            }
+            return max;
+        }
+    };
+
+    /**
+     * @param a The first feature vector's array
+     * @param aOffset Where the first vector starts
+     * @param b The second feature vector's array
+     * @param bOffset Where the second vector starts
+     * @param length The number of features in each vector
+     * @return The distance between the two vectors
+     */
+    public abstract double between(@NotNull double[] a, int aOffset, @NotNull double[] b, int bOffset, int length);
+}
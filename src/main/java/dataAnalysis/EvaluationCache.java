@@ -0,0 +1,301 @@
+package dataAnalysis;
+
+import dataMetrics.Log;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of propeller evaluations, safe to share between threads. Entries are keyed by
+ * the propeller's name and content fingerprint together with the motor configuration and velocity grid, so a
+ * propeller whose source data changes simply stops matching its old entries, which then age out.
+ *
+ * The cache can be saved to and loaded from a file between runs. Loading against a catalogue drops every entry whose
+ * propeller is gone or whose source data has changed since it was saved.
+ */
+public class EvaluationCache {
+
+    //Identifies an evaluation cache file ("APCE")
+    private static final int MAGIC = 0x41504345;
+
+    //Bumped whenever the layout changes, which invalidates older cache files
+    private static final int FORMAT_VERSION = 1;
+
+    //The most entries kept before the least recently used is evicted
+    private final int maxEntries;
+
+    //The entries, in access order, least recently used first
+    private final LinkedHashMap<Key, PropellerEvaluation> entries;
+
+    //Lookup and eviction counters
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxEntries The most entries kept before the least recently used is evicted
+     */
+    public EvaluationCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, PropellerEvaluation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PropellerEvaluation> eldest) {
+                if (size() > EvaluationCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached evaluation, or evaluates the propeller and caches the result. Evaluation runs outside the
+     * cache's lock, so two threads missing on the same key at once may both evaluate it.
+     * @param prop The propeller to evaluate
+     * @param motor The motor configuration to evaluate against
+     * @param velocityStep The spacing of the power-matched curve's velocity grid, in mph
+     * @param pointCount The number of grid velocities
+     * @return The evaluation
+     */
+    @NotNull
+    public PropellerEvaluation evaluate(@NotNull PropellerDataSet prop, @NotNull MotorConfiguration motor,
+                                        double velocityStep, int pointCount) {
+        Key key = new Key(prop.getName(), prop.getFingerprint(), motor, velocityStep, pointCount);
+        synchronized (this) {
+            PropellerEvaluation cached = entries.get(key);
+            if (cached != null) {
+                hitCount++;
+                return cached;
+            }
+            missCount++;
+        }
+
+        PropellerEvaluation evaluation = prop.evaluate(motor, velocityStep, pointCount);
+        synchronized (this) {
+            entries.put(key, evaluation);
+        }
+        return evaluation;
+    }
+
+    /**
+     * @return The number of cached evaluations
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The most entries kept before the least recently used is evicted
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return How many lookups found a cached evaluation
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return How many lookups had to evaluate
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return How many entries were evicted to stay within the size bound
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The fraction of lookups that found a cached evaluation, 0 before any lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Drops every entry, keeping the counters
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Writes every entry, least recently used first, so loading restores the same eviction order. The file is
+     * written beside its destination and moved into place, so a concurrent reader never sees a partial cache.
+     * @param cacheFile Where to write the cache
+     * @throws IOException If the cache cannot be written
+     */
+    public void save(@NotNull Path cacheFile) throws IOException {
+        List<Map.Entry<Key, PropellerEvaluation>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(tempFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Key, PropellerEvaluation> entry : snapshot) {
+                out.writeLong(entry.getKey().fingerprint);
+                out.writeDouble(entry.getKey().velocityStep);
+                out.writeInt(entry.getKey().pointCount);
+                entry.getValue().writeTo(out);
+            }
+        }
+        catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds the entries of a saved cache whose propeller is in the catalogue with unchanged source data. A missing,
+     * outdated or unreadable file loads nothing.
+     * @param cacheFile The cache to load
+     * @param catalogue The currently loaded propellers
+     * @return How many entries were loaded
+     */
+    public int load(@NotNull Path cacheFile, @NotNull PropellerDataLoader catalogue) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return 0;
+        }
+
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (PropellerDataSet prop : catalogue.getAllPropellerData()) {
+            fingerprints.put(prop.getName(), prop.getFingerprint());
+        }
+
+        List<Map.Entry<Key, PropellerEvaluation>> loaded = new ArrayList<>();
+        try (InputStream fileIn = Files.newInputStream(cacheFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return 0;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long fingerprint = in.readLong();
+                double velocityStep = in.readDouble();
+                int pointCount = in.readInt();
+                PropellerEvaluation evaluation = PropellerEvaluation.readFrom(in);
+
+                Long current = fingerprints.get(evaluation.getPropName());
+                if (current != null && current == fingerprint) {
+                    Key key = new Key(
+                        evaluation.getPropName(), fingerprint, evaluation.getMotor(), velocityStep, pointCount
+                    );
+                    loaded.add(new AbstractMap.SimpleImmutableEntry<>(key, evaluation));
+                }
+            }
+        }
+        catch (IOException e) {
+            Log.warn("Ignoring unreadable evaluation cache " + cacheFile + ": " + e);
+            return 0;
+        }
+
+        synchronized (this) {
+            for (Map.Entry<Key, PropellerEvaluation> entry : loaded) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return loaded.size();
+    }
+
+    /**
+     * @return The cache's size and counters
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(
+            "%d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+            entries.size(), maxEntries, hitCount, missCount, getHitRate() * 100, evictionCount
+        );
+    }
+
+    /**
+     * Identifies one evaluation: which propeller, with which data, against which motor, on which velocity grid
+     */
+    private static final class Key {
+
+        private final String propName;
+        private final long fingerprint;
+        private final MotorConfiguration motor;
+        private final double velocityStep;
+        private final int pointCount;
+
+        /**
+         * @param propName The propeller's name
+         * @param fingerprint The propeller's content fingerprint
+         * @param motor The motor configuration
+         * @param velocityStep The spacing of the velocity grid
+         * @param pointCount The number of grid velocities
+         */
+        Key(String propName, long fingerprint, MotorConfiguration motor, double velocityStep, int pointCount) {
+            this.propName = propName;
+            this.fingerprint = fingerprint;
+            this.motor = motor;
+            this.velocityStep = velocityStep;
+            this.pointCount = pointCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return fingerprint == other.fingerprint && pointCount == other.pointCount
+                && Double.compare(velocityStep, other.velocityStep) == 0
+                && propName.equals(other.propName) && motor.equals(other.motor);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = propName.hashCode();
+            result = 31 * result + Long.hashCode(fingerprint);
+            result = 31 * result + motor.hashCode();
+            result = 31 * result + Double.hashCode(velocityStep);
+            result = 31 * result + pointCount;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package dataAnalysis;
+
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reduces a set of evaluations to the ones no other evaluation dominates, where dominating means being at least as
+ * good on every objective and strictly better on one.
+ *
+ * Uses Sort-Filter-Skyline: candidates are sorted by the sum of their objective utilities, so no candidate can be
+ * dominated by one sorted after it, and each candidate only has to be checked against the frontier found so far.
+ * Large candidate sets are filtered in blocks: every candidate of a block is checked against the frontier found
+ * before the block in parallel on a fork-join pool, then the survivors are checked against each other in order.
+ */
+public class ParetoFrontier {
+
+    //Candidate sets up to this size are filtered on the calling thread
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    //The number of candidates checked together against the frontier found before them
+    private static final int BLOCK_SIZE = 1024;
+
+    //Block ranges below this size are checked directly rather than split further
+    private static final int SPLIT_THRESHOLD = 64;
+
+    //The objectives traded off
+    private final ParetoObjective[] objectives;
+
+    //The pool large candidate sets are filtered on
+    private final ForkJoinPool pool;
+
+    /**
+     * A frontier using every available core
+     * @param objectives The objectives to trade off
+     */
+    public ParetoFrontier(@NotNull List<ParetoObjective> objectives) {
+        this(objectives, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param objectives The objectives to trade off
+     * @param pool The fork-join pool to filter large candidate sets on
+     */
+    public ParetoFrontier(@NotNull List<ParetoObjective> objectives, @NotNull ForkJoinPool pool) {
+        if (objectives.isEmpty()) {
+            throw new IllegalArgumentException("A Pareto frontier needs at least one objective");
+        }
+        this.objectives = objectives.toArray(new ParetoObjective[0]);
+        this.pool = pool;
+    }
+
+    /**
+     * @param candidates The evaluations to reduce, such as every result of a sweep
+     * @return The non-dominated evaluations, in the candidates' iteration order
+     */
+    @NotNull
+    public List<PropellerEvaluation> compute(@NotNull Collection<PropellerEvaluation> candidates) {
+        PropellerEvaluation[] evaluations = candidates.toArray(new PropellerEvaluation[0]);
+        Point[] points = new Point[evaluations.length];
+        for (int i = 0; i < evaluations.length; i++) {
+            double[] utilities = new double[objectives.length];
+            for (int o = 0; o < objectives.length; o++) {
+                utilities[o] = objectives[o].utilityOf(evaluations[i]);
+            }
+            points[i] = new Point(i, utilities);
+        }
+
+        boolean parallel = points.length > PARALLEL_THRESHOLD && pool.getParallelism() > 1;
+        if (parallel) {
+            Arrays.parallelSort(points, Point::compareByDominanceOrder);
+        }
+        else {
+            Arrays.sort(points, Point::compareByDominanceOrder);
+        }
+        Window frontier = new Window(objectives.length);
+
+        //In sorted order a candidate can only be dominated by one before it, so a block is settled by checking it
+        //against the frontier so far, then each survivor against the survivors kept before it in the same block
+        int blockSize = parallel ? BLOCK_SIZE : points.length;
+        boolean[] dominated = new boolean[Math.min(blockSize, points.length)];
+        for (int blockStart = 0; blockStart < points.length; blockStart += blockSize) {
+            int blockEnd = Math.min(blockStart + blockSize, points.length);
+            int settledEnd = frontier.end;
+            if (parallel) {
+                Arrays.fill(dominated, false);
+                pool.invoke(new CheckRange(frontier, settledEnd, points, blockStart, blockEnd, dominated));
+            }
+            for (int i = blockStart; i < blockEnd; i++) {
+                boolean isDominated = parallel
+                    ? dominated[i - blockStart] || frontier.dominates(settledEnd, frontier.end, points[i].utilities)
+                    : frontier.dominates(0, frontier.end, points[i].utilities);
+                if (!isDominated) {
+                    frontier.add(points[i]);
+                }
+            }
+        }
+
+        int[] order = frontier.indexes();
+        Arrays.sort(order);
+        List<PropellerEvaluation> result = new ArrayList<>(order.length);
+        for (int index : order) {
+            result.add(evaluations[index]);
+        }
+        return result;
+    }
+
+    /**
+     * One candidate's utilities, with its position in the input
+     */
+    private static final class Point {
+
+        private final int index;
+        private final double[] utilities;
+        private final double sum;
+
+        /**
+         * @param index The candidate's position in the input
+         * @param utilities The candidate's objective utilities, higher being better
+         */
+        Point(int index, @NotNull double[] utilities) {
+            this.index = index;
+            this.utilities = utilities;
+            double total = 0;
+            for (double utility : utilities) {
+                total += utility;
+            }
+            this.sum = total;
+        }
+
+        /**
+         * Orders points by descending utility sum, then descending utilities in objective order. A point always sorts
+         * before every point it dominates, even when infinite utilities make the sums equal.
+         * @param a The first point
+         * @param b The second point
+         * @return The comparison result
+         */
+        static int compareByDominanceOrder(@NotNull Point a, @NotNull Point b) {
+            int bySum = Double.compare(b.sum, a.sum);
+            if (bySum != 0) {
+                return bySum;
+            }
+            for (int o = 0; o < a.utilities.length; o++) {
+                int byUtility = Double.compare(b.utilities[o], a.utilities[o]);
+                if (byUtility != 0) {
+                    return byUtility;
+                }
+            }
+            return Integer.compare(a.index, b.index);
+        }
+    }
+
+    /**
+     * The frontier found so far, with every point's utilities back to back so dominance checks scan one contiguous
+     * array
+     */
+    private static final class Window {
+
+        private final int dimensions;
+        private double[] utilities;
+        private int[] indexes;
+        private int end;
+
+        /**
+         * @param dimensions The number of objectives
+         */
+        Window(int dimensions) {
+            this.dimensions = dimensions;
+            this.utilities = new double[64 * dimensions];
+            this.indexes = new int[64];
+        }
+
+        /**
+         * @param point The non-dominated point to keep
+         */
+        void add(@NotNull Point point) {
+            if (end == utilities.length) {
+                utilities = Arrays.copyOf(utilities, utilities.length * 2);
+                indexes = Arrays.copyOf(indexes, indexes.length * 2);
+            }
+            System.arraycopy(point.utilities, 0, utilities, end, dimensions);
+            indexes[end / dimensions] = point.index;
+            end += dimensions;
+        }
+
+        /**
+         * @param from The first utility offset to check (inclusive)
+         * @param to The last utility offset to check (exclusive)
+         * @param candidate The candidate's utilities
+         * @return If any kept point in the range is at least as good as the candidate everywhere and better somewhere
+         */
+        boolean dominates(int from, int to, @NotNull double[] candidate) {
+            for (int start = from; start < to; start += dimensions) {
+                boolean better = false;
+                int o = 0;
+                while (o < dimensions) {
+                    double kept = utilities[start + o];
+                    if (kept < candidate[o]) {
+                        break;
+                    }
+                    better |= kept > candidate[o];
+                    o++;
+                }
+                if (o == dimensions && better) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return The input positions of every kept point
+         */
+        @NotNull
+        int[] indexes() {
+            return Arrays.copyOf(indexes, end / dimensions);
+        }
+    }
+
+    /**
+     * Marks the candidates of [from, to) dominated by the first settledEnd utilities of the window, splitting the
+     * range in half until it is small enough to check directly
+     */
+    private static final class CheckRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Window window;
+        private final int settledEnd;
+        private final Point[] points;
+        private final int from;
+        private final int to;
+        private final boolean[] dominated;
+
+        /**
+         * @param window The frontier found before the block
+         * @param settledEnd The end of the window's utilities settled before the block
+         * @param points The sorted candidates
+         * @param from The first candidate to check (inclusive)
+         * @param to The last candidate to check (exclusive)
+         * @param dominated Receives the result for each candidate, indexed from the start of the block
+         */
+        CheckRange(Window window, int settledEnd, Point[] points, int from, int to, boolean[] dominated) {
+            this.window = window;
+            this.settledEnd = settledEnd;
+            this.points = points;
+            this.from = from;
+            this.to = to;
+            this.dominated = dominated;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                int blockStart = from - from % BLOCK_SIZE;
+                for (int i = from; i < to; i++) {
+                    dominated[i - blockStart] = window.dominates(0, settledEnd, points[i].utilities);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new CheckRange(window, settledEnd, points, from, middle, dominated),
+                new CheckRange(window, settledEnd, points, middle, to, dominated)
+            );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package dataAnalysis;
+
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * One quantity a Pareto frontier trades off, read from each evaluation, and whether more of it is better. A value
+ * the propeller cannot reach, such as thrust past its top speed, counts as the worst possible.
+ */
+public final class ParetoObjective {
+
+    //A short label for the objective
+    private final String name;
+
+    //If higher values are better
+    private final boolean maximize;
+
+    //Reads the objective from an evaluation
+    private final ToDoubleFunction<PropellerEvaluation> extractor;
+
+    /**
+     * @param name A short label for the objective
+     * @param maximize If higher values are better
+     * @param extractor Reads the objective from an evaluation
+     */
+    public ParetoObjective(@NotNull String name, boolean maximize,
+                           @NotNull ToDoubleFunction<PropellerEvaluation> extractor) {
+        this.name = name;
+        this.maximize = maximize;
+        this.extractor = extractor;
+    }
+
+    /**
+     * @return Static thrust, more being better
+     */
+    @NotNull
+    public static ParetoObjective staticThrust() {
+        return new ParetoObjective("static thrust", true, PropellerEvaluation::getStaticThrust);
+    }
+
+    /**
+     * @param velocity The velocity, in mph
+     * @return Power-matched thrust at the velocity, more being better
+     */
+    @NotNull
+    public static ParetoObjective thrustAt(double velocity) {
+        return new ParetoObjective(
+            "thrust at " + velocity + " mph", true, evaluation -> evaluation.getCurve().getThrustAt(velocity)
+        );
+    }
+
+    /**
+     * @param velocity The velocity, in mph
+     * @return Power-matched RPM at the velocity, less being better
+     */
+    @NotNull
+    public static ParetoObjective rpmAt(double velocity) {
+        return new ParetoObjective(
+            "RPM at " + velocity + " mph", false, evaluation -> evaluation.getCurve().getRPMAt(velocity)
+        );
+    }
+
+    /**
+     * @return The highest velocity the propeller can absorb the motor's power at, more being better
+     */
+    @NotNull
+    public static ParetoObjective topSpeed() {
+        return new ParetoObjective(
+            "top speed", true, evaluation -> evaluation.getCurve().getMaxReachableVelocity()
+        );
+    }
+
+    /**
+     * @return A short label for the objective
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return If higher values are better
+     */
+    public boolean isMaximized() {
+        return maximize;
+    }
+
+    /**
+     * @param evaluation The evaluation to read
+     * @return The raw objective value, NaN if unreachable
+     */
+    public double valueOf(@NotNull PropellerEvaluation evaluation) {
+        return extractor.applyAsDouble(evaluation);
+    }
+
+    /**
+     * @param evaluation The evaluation to read
+     * @return The objective value oriented so that higher is always better, negative infinity if unreachable
+     */
+    double utilityOf(@NotNull PropellerEvaluation evaluation) {
+        double value = extractor.applyAsDouble(evaluation);
+        if (Double.isNaN(value)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return maximize ? value : -value;
+    }
+
+    /**
+     * @return The objective's label and direction
+     */
+    @Override
+    public String toString() {
+        return (maximize ? "max " : "min ") + name;
+    }
+}
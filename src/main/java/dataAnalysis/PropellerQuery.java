@@ -0,0 +1,293 @@
+package dataAnalysis;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable set of constraints on a propeller, with how to rank the propellers that meet them. Every constraint
+ * starts unset; each with method returns a copy with one more constraint.
+ */
+public final class PropellerQuery {
+
+    /**
+     * What a query ranks matching propellers by, highest first
+     */
+    public enum Ranking {
+        //Thrust at velocity 0
+        STATIC_THRUST,
+        //Power-matched thrust at the query's cruise velocity
+        CRUISE_THRUST,
+        //The highest velocity the propeller can still absorb the motor's power at
+        MAX_VELOCITY
+    }
+
+    //A query matching every propeller, ranked by static thrust
+    public static final PropellerQuery ANY = new PropellerQuery(
+        Double.NEGATIVE_INFINITY, Double.NaN, Double.NEGATIVE_INFINITY,
+        Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+        Double.POSITIVE_INFINITY, null, 10
+    );
+
+    //The least static thrust, in lbf
+    private final double minStaticThrust;
+
+    //The cruise velocity in mph, NaN for none, and the least power-matched thrust there, in lbf
+    private final double cruiseVelocity;
+    private final double minCruiseThrust;
+
+    //The allowed diameter and pitch ranges from the propeller name, in inches
+    private final double minDiameter;
+    private final double maxDiameter;
+    private final double minPitch;
+    private final double maxPitch;
+
+    //The highest power-matched RPM the propeller may need anywhere on its curve
+    private final double maxRPM;
+
+    //The explicit ranking, null to rank by cruise thrust when a cruise velocity is set and static thrust otherwise
+    private final Ranking ranking;
+
+    //How many propellers to return at most
+    private final int limit;
+
+    /**
+     * @param minStaticThrust The least static thrust
+     * @param cruiseVelocity The cruise velocity, NaN for none
+     * @param minCruiseThrust The least thrust at the cruise velocity
+     * @param minDiameter The smallest diameter
+     * @param maxDiameter The largest diameter
+     * @param minPitch The smallest pitch
+     * @param maxPitch The largest pitch
+     * @param maxRPM The RPM ceiling
+     * @param ranking The explicit ranking, or null for the default
+     * @param limit How many propellers to return at most
+     */
+    private PropellerQuery(double minStaticThrust, double cruiseVelocity, double minCruiseThrust, double minDiameter,
+                           double maxDiameter, double minPitch, double maxPitch, double maxRPM, Ranking ranking,
+                           int limit) {
+        this.minStaticThrust = minStaticThrust;
+        this.cruiseVelocity = cruiseVelocity;
+        this.minCruiseThrust = minCruiseThrust;
+        this.minDiameter = minDiameter;
+        this.maxDiameter = maxDiameter;
+        this.minPitch = minPitch;
+        this.maxPitch = maxPitch;
+        this.maxRPM = maxRPM;
+        this.ranking = ranking;
+        this.limit = limit;
+    }
+
+    /**
+     * @param thrust The least static thrust, in lbf
+     * @return A copy of this query with the static thrust constraint
+     */
+    @NotNull
+    public PropellerQuery withMinStaticThrust(double thrust) {
+        return new PropellerQuery(
+            thrust, cruiseVelocity, minCruiseThrust, minDiameter, maxDiameter, minPitch, maxPitch, maxRPM, ranking,
+            limit
+        );
+    }
+
+    /**
+     * @param velocity The cruise velocity, in mph
+     * @param thrust The least power-matched thrust at that velocity, in lbf
+     * @return A copy of this query requiring the thrust at the cruise velocity
+     */
+    @NotNull
+    public PropellerQuery withMinThrustAt(double velocity, double thrust) {
+        if (!(velocity >= 0)) {
+            throw new IllegalArgumentException("Cruise velocity must not be negative");
+        }
+        return new PropellerQuery(
+            minStaticThrust, velocity, thrust, minDiameter, maxDiameter, minPitch, maxPitch, maxRPM, ranking, limit
+        );
+    }
+
+    /**
+     * @param min The smallest diameter, in inches
+     * @param max The largest diameter, in inches
+     * @return A copy of this query with the diameter range
+     */
+    @NotNull
+    public PropellerQuery withDiameterRange(double min, double max) {
+        return new PropellerQuery(
+            minStaticThrust, cruiseVelocity, minCruiseThrust, min, max, minPitch, maxPitch, maxRPM, ranking, limit
+        );
+    }
+
+    /**
+     * @param min The smallest pitch, in inches
+     * @param max The largest pitch, in inches
+     * @return A copy of this query with the pitch range
+     */
+    @NotNull
+    public PropellerQuery withPitchRange(double min, double max) {
+        return new PropellerQuery(
+            minStaticThrust, cruiseVelocity, minCruiseThrust, minDiameter, maxDiameter, min, max, maxRPM, ranking,
+            limit
+        );
+    }
+
+    /**
+     * @param rpm The highest power-matched RPM the propeller may need
+     * @return A copy of this query with the RPM ceiling
+     */
+    @NotNull
+    public PropellerQuery withMaxRPM(double rpm) {
+        return new PropellerQuery(
+            minStaticThrust, cruiseVelocity, minCruiseThrust, minDiameter, maxDiameter, minPitch, maxPitch, rpm,
+            ranking, limit
+        );
+    }
+
+    /**
+     * @param newRanking What to rank matching propellers by
+     * @return A copy of this query with the ranking
+     */
+    @NotNull
+    public PropellerQuery rankedBy(@NotNull Ranking newRanking) {
+        return new PropellerQuery(
+            minStaticThrust, cruiseVelocity, minCruiseThrust, minDiameter, maxDiameter, minPitch, maxPitch, maxRPM,
+            newRanking, limit
+        );
+    }
+
+    /**
+     * @param newLimit How many propellers to return at most
+     * @return A copy of this query with the limit
+     */
+    @NotNull
+    public PropellerQuery withLimit(int newLimit) {
+        if (newLimit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return new PropellerQuery(
+            minStaticThrust, cruiseVelocity, minCruiseThrust, minDiameter, maxDiameter, minPitch, maxPitch, maxRPM,
+            ranking, newLimit
+        );
+    }
+
+    /**
+     * @return The least static thrust, in lbf
+     */
+    public double getMinStaticThrust() {
+        return minStaticThrust;
+    }
+
+    /**
+     * @return If the query constrains the thrust at a cruise velocity
+     */
+    public boolean hasCruiseVelocity() {
+        return !Double.isNaN(cruiseVelocity);
+    }
+
+    /**
+     * @return The cruise velocity in mph, NaN for none
+     */
+    public double getCruiseVelocity() {
+        return cruiseVelocity;
+    }
+
+    /**
+     * @return The least thrust at the cruise velocity, in lbf
+     */
+    public double getMinCruiseThrust() {
+        return minCruiseThrust;
+    }
+
+    /**
+     * @return The smallest diameter, in inches
+     */
+    public double getMinDiameter() {
+        return minDiameter;
+    }
+
+    /**
+     * @return The largest diameter, in inches
+     */
+    public double getMaxDiameter() {
+        return maxDiameter;
+    }
+
+    /**
+     * @return The smallest pitch, in inches
+     */
+    public double getMinPitch() {
+        return minPitch;
+    }
+
+    /**
+     * @return The largest pitch, in inches
+     */
+    public double getMaxPitch() {
+        return maxPitch;
+    }
+
+    /**
+     * @return The highest power-matched RPM the propeller may need
+     */
+    public double getMaxRPM() {
+        return maxRPM;
+    }
+
+    /**
+     * @return What matching propellers are ranked by
+     */
+    @NotNull
+    public Ranking getRanking() {
+        if (ranking != null) {
+            return ranking;
+        }
+        return hasCruiseVelocity() ? Ranking.CRUISE_THRUST : Ranking.STATIC_THRUST;
+    }
+
+    /**
+     * @return How many propellers to return at most
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param summary The propeller to check
+     * @return If the propeller meets every constraint
+     */
+    public boolean matches(@NotNull PropellerSummary summary) {
+        if (!(summary.getStaticThrust() >= minStaticThrust) || !(summary.getMaxRPM() <= maxRPM)) {
+            return false;
+        }
+        if (hasCruiseVelocity() && !(summary.getThrustAt(cruiseVelocity) >= minCruiseThrust)) {
+            return false;
+        }
+        if (minDiameter != Double.NEGATIVE_INFINITY || maxDiameter != Double.POSITIVE_INFINITY) {
+            double diameter = summary.getDiameter();
+            if (!(diameter >= minDiameter && diameter <= maxDiameter)) {
+                return false;
+            }
+        }
+        if (minPitch != Double.NEGATIVE_INFINITY || maxPitch != Double.POSITIVE_INFINITY) {
+            double pitch = summary.getPitch();
+            return pitch >= minPitch && pitch <= maxPitch;
+        }
+        return true;
+    }
+
+    /**
+     * @param summary A matching propeller
+     * @return The propeller's ranking score, higher being better
+     */
+    public double score(@NotNull PropellerSummary summary) {
+        switch (getRanking()) {
+            case CRUISE_THRUST:
+                if (!hasCruiseVelocity()) {
+                    throw new IllegalStateException("Ranking by cruise thrust needs a cruise velocity");
+                }
+                double thrust = summary.getThrustAt(cruiseVelocity);
+                return Double.isNaN(thrust) ? Double.NEGATIVE_INFINITY : thrust;
+            case MAX_VELOCITY:
+                return summary.getMaxVelocity();
+            default:
+                return summary.getStaticThrust();
+        }
+    }
+}
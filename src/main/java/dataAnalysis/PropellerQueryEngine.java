@@ -0,0 +1,383 @@
+package dataAnalysis;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Answers "which propellers best fit these constraints" for one motor configuration. Every propeller is evaluated
+ * once up front, and its static thrust, power-matched thrust at each grid velocity, diameter, pitch, top speed and RPM
+ * ceiling are kept in sorted indexes. A query reads the narrowest index range its constraints allow, so most of the
+ * catalogue is pruned by binary search, and when that range is sorted by the query's own ranking it stops as soon as
+ * the top results are found.
+ */
+public class PropellerQueryEngine {
+
+    //The default velocity grid, matching the whole-mph rows CalcOutput writes
+    public static final double DEFAULT_VELOCITY_STEP = 1;
+    public static final int DEFAULT_POINT_COUNT = 86;
+
+    //The motor every propeller was evaluated against
+    private final MotorConfiguration motor;
+
+    //The spacing and size of the velocity grid the curves were computed on
+    private final double velocityStep;
+    private final int pointCount;
+
+    //Every propeller's summary, in catalogue order
+    private final PropellerSummary[] summaries;
+
+    //Indexes over the summaries, ascending by key
+    private final SortedIndex staticThrustIndex;
+    private final SortedIndex[] thrustAtVelocityIndexes;
+    private final SortedIndex diameterIndex;
+    private final SortedIndex pitchIndex;
+    private final SortedIndex maxRPMIndex;
+    private final SortedIndex maxVelocityIndex;
+
+    /**
+     * @param motor The motor every propeller was evaluated against
+     * @param velocityStep The spacing of the velocity grid
+     * @param pointCount The number of grid velocities
+     * @param summaries Every propeller's summary, in catalogue order
+     */
+    PropellerQueryEngine(@NotNull MotorConfiguration motor, double velocityStep, int pointCount,
+                         @NotNull PropellerSummary[] summaries) {
+        this.motor = motor;
+        this.velocityStep = velocityStep;
+        this.pointCount = pointCount;
+        this.summaries = summaries;
+
+        int count = summaries.length;
+        double[] staticThrusts = new double[count];
+        double[] diameters = new double[count];
+        double[] pitches = new double[count];
+        double[] maxRPMs = new double[count];
+        double[] maxVelocities = new double[count];
+        double[][] thrustAtVelocities = new double[pointCount][count];
+        for (int i = 0; i < count; i++) {
+            PropellerSummary summary = summaries[i];
+            staticThrusts[i] = summary.getStaticThrust();
+            diameters[i] = summary.getDiameter();
+            pitches[i] = summary.getPitch();
+            maxRPMs[i] = summary.getMaxRPM();
+            maxVelocities[i] = summary.getMaxVelocity();
+            for (int point = 0; point < pointCount; point++) {
+                thrustAtVelocities[point][i] = summary.getEvaluation().getCurve().getThrust(point);
+            }
+        }
+
+        staticThrustIndex = new SortedIndex(staticThrusts);
+        diameterIndex = new SortedIndex(diameters);
+        pitchIndex = new SortedIndex(pitches);
+        maxRPMIndex = new SortedIndex(maxRPMs);
+        maxVelocityIndex = new SortedIndex(maxVelocities);
+        thrustAtVelocityIndexes = new SortedIndex[pointCount];
+        for (int point = 0; point < pointCount; point++) {
+            thrustAtVelocityIndexes[point] = new SortedIndex(thrustAtVelocities[point]);
+        }
+    }
+
+    /**
+     * Evaluates the catalogue against the motor on the default whole-mph velocity grid
+     * @param catalogue The loaded propellers
+     * @param motor The motor to evaluate against
+     * @return The query engine
+     * @throws InterruptedException If interrupted while evaluating
+     */
+    @NotNull
+    public static PropellerQueryEngine build(@NotNull PropellerDataLoader catalogue, @NotNull MotorConfiguration motor)
+            throws InterruptedException {
+        return build(catalogue, motor, DEFAULT_VELOCITY_STEP, DEFAULT_POINT_COUNT);
+    }
+
+    /**
+     * Evaluates the catalogue against the motor in parallel and indexes the results
+     * @param catalogue The loaded propellers
+     * @param motor The motor to evaluate against
+     * @param velocityStep The spacing of the velocity grid, in mph
+     * @param pointCount The number of grid velocities
+     * @return The query engine
+     * @throws InterruptedException If interrupted while evaluating
+     */
+    @NotNull
+    public static PropellerQueryEngine build(@NotNull PropellerDataLoader catalogue, @NotNull MotorConfiguration motor,
+                                             double velocityStep, int pointCount) throws InterruptedException {
+        PropellerSummary[] byPosition = new PropellerSummary[catalogue.getNumOfProps()];
+        SweepStats stats = new SweepEngine().run(
+            catalogue, Collections.singletonList(motor), velocityStep, pointCount,
+            (index, evaluation) -> byPosition[index] = new PropellerSummary(index, evaluation)
+        );
+
+        //Positions a lazy catalogue could not parse were skipped by the sweep and are left out
+        PropellerSummary[] summaries = new PropellerSummary[stats.getPropCount()];
+        int count = 0;
+        for (PropellerSummary summary : byPosition) {
+            if (summary != null) {
+                summaries[count++] = summary;
+            }
+        }
+        return new PropellerQueryEngine(motor, velocityStep, pointCount, summaries);
+    }
+
+    /**
+     * @return The motor every propeller was evaluated against
+     */
+    @NotNull
+    public MotorConfiguration getMotor() {
+        return motor;
+    }
+
+    /**
+     * @return Every propeller's summary, in catalogue order
+     */
+    @NotNull
+    public List<PropellerSummary> getSummaries() {
+        return Collections.unmodifiableList(Arrays.asList(summaries));
+    }
+
+    /**
+     * @param query The constraints and ranking
+     * @return The best propellers meeting the constraints, best first, at most the query's limit
+     */
+    @NotNull
+    public List<PropellerSummary> query(@NotNull PropellerQuery query) {
+        int cruisePoint = gridPoint(query);
+
+        //Picks the narrowest candidate range any constrained index allows
+        SortedIndex candidates = staticThrustIndex;
+        int from = staticThrustIndex.lowerBound(query.getMinStaticThrust());
+        int to = staticThrustIndex.size();
+        if (cruisePoint >= 0) {
+            SortedIndex index = thrustAtVelocityIndexes[cruisePoint];
+            int low = index.lowerBound(query.getMinCruiseThrust());
+            if (index.size() - low < to - from) {
+                candidates = index;
+                from = low;
+                to = index.size();
+            }
+        }
+        if (query.getMinDiameter() != Double.NEGATIVE_INFINITY || query.getMaxDiameter() != Double.POSITIVE_INFINITY) {
+            int low = diameterIndex.lowerBound(query.getMinDiameter());
+            int high = diameterIndex.upperBound(query.getMaxDiameter());
+            if (high - low < to - from) {
+                candidates = diameterIndex;
+                from = low;
+                to = Math.max(low, high);
+            }
+        }
+        if (query.getMinPitch() != Double.NEGATIVE_INFINITY || query.getMaxPitch() != Double.POSITIVE_INFINITY) {
+            int low = pitchIndex.lowerBound(query.getMinPitch());
+            int high = pitchIndex.upperBound(query.getMaxPitch());
+            if (high - low < to - from) {
+                candidates = pitchIndex;
+                from = low;
+                to = Math.max(low, high);
+            }
+        }
+        if (query.getMaxRPM() != Double.POSITIVE_INFINITY) {
+            int high = maxRPMIndex.upperBound(query.getMaxRPM());
+            if (high < to - from) {
+                candidates = maxRPMIndex;
+                from = 0;
+                to = high;
+            }
+        }
+
+        if (candidates == rankingIndex(query, cruisePoint)) {
+            return walkDescending(query, candidates, from, to);
+        }
+        return selectTop(query, candidates, from, to);
+    }
+
+    /**
+     * @param query The query
+     * @return The grid point of the query's cruise velocity, or -1 if it has none or it falls between grid points
+     */
+    private int gridPoint(@NotNull PropellerQuery query) {
+        if (!query.hasCruiseVelocity()) {
+            return -1;
+        }
+        double position = query.getCruiseVelocity() / velocityStep;
+        int point = (int) position;
+        return point == position && point < pointCount ? point : -1;
+    }
+
+    /**
+     * @param query The query
+     * @param cruisePoint The grid point of the cruise velocity, or -1
+     * @return The index sorted by the query's ranking score, or null if there is none
+     */
+    private SortedIndex rankingIndex(@NotNull PropellerQuery query, int cruisePoint) {
+        switch (query.getRanking()) {
+            case CRUISE_THRUST:
+                return cruisePoint >= 0 ? thrustAtVelocityIndexes[cruisePoint] : null;
+            case MAX_VELOCITY:
+                return maxVelocityIndex;
+            default:
+                return staticThrustIndex;
+        }
+    }
+
+    /**
+     * Walks a range of the ranking index from its highest key down, stopping once enough matches are found
+     * @param query The query
+     * @param index The index sorted by the query's ranking score
+     * @param from The first candidate position (inclusive)
+     * @param to The last candidate position (exclusive)
+     * @return The best matches, best first
+     */
+    @NotNull
+    private List<PropellerSummary> walkDescending(@NotNull PropellerQuery query, @NotNull SortedIndex index,
+                                                  int from, int to) {
+        List<PropellerSummary> results = new ArrayList<>(Math.min(query.getLimit(), to - from));
+        for (int position = to - 1; position >= from && results.size() < query.getLimit(); position--) {
+            PropellerSummary summary = summaries[index.propAt(position)];
+            if (query.matches(summary)) {
+                results.add(summary);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Keeps the best matches of a candidate range in a bounded heap
+     * @param query The query
+     * @param index The index the candidates come from
+     * @param from The first candidate position (inclusive)
+     * @param to The last candidate position (exclusive)
+     * @return The best matches, best first
+     */
+    @NotNull
+    private List<PropellerSummary> selectTop(@NotNull PropellerQuery query, @NotNull SortedIndex index,
+                                             int from, int to) {
+        Comparator<PropellerSummary> ranking = rankingOrder(query);
+        int capacity = Math.min(query.getLimit(), to - from) + 1;
+        PriorityQueue<PropellerSummary> best = new PriorityQueue<>(capacity, ranking.reversed());
+        for (int position = from; position < to; position++) {
+            PropellerSummary summary = summaries[index.propAt(position)];
+            if (query.matches(summary)) {
+                best.add(summary);
+                if (best.size() > query.getLimit()) {
+                    best.poll();
+                }
+            }
+        }
+        List<PropellerSummary> results = new ArrayList<>(best);
+        results.sort(ranking);
+        return results;
+    }
+
+    /**
+     * @param query The query
+     * @return Best first: the highest score, then the earliest in the catalogue
+     */
+    @NotNull
+    static Comparator<PropellerSummary> rankingOrder(@NotNull PropellerQuery query) {
+        return (a, b) -> {
+            int byScore = Double.compare(query.score(b), query.score(a));
+            return byScore != 0 ? byScore : Integer.compare(a.getCatalogueIndex(), b.getCatalogueIndex());
+        };
+    }
+
+    /**
+     * The catalogue indexes of every propeller sorted by one key, ascending. Ties are ordered by descending catalogue
+     * index, so walking from the top visits tied propellers in catalogue order. A NaN key, such as an unreachable
+     * velocity or a name without dimensions, sorts below every real key.
+     */
+    private static final class SortedIndex {
+
+        private final double[] keys;
+        private final int[] props;
+
+        /**
+         * @param values Each propeller's key, in catalogue order
+         */
+        SortedIndex(@NotNull double[] values) {
+            Integer[] order = new Integer[values.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byKey = Double.compare(sortKey(values[a]), sortKey(values[b]));
+                return byKey != 0 ? byKey : Integer.compare(b, a);
+            });
+
+            keys = new double[values.length];
+            props = new int[values.length];
+            for (int i = 0; i < order.length; i++) {
+                props[i] = order[i];
+                keys[i] = sortKey(values[order[i]]);
+            }
+        }
+
+        /**
+         * @param value A key
+         * @return The key, with NaN moved below every real number
+         */
+        private static double sortKey(double value) {
+            return Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value;
+        }
+
+        /**
+         * @return The number of propellers indexed
+         */
+        int size() {
+            return keys.length;
+        }
+
+        /**
+         * @param position A position in key order
+         * @return The catalogue index of the propeller there
+         */
+        int propAt(int position) {
+            return props[position];
+        }
+
+        /**
+         * @param key The key to search for
+         * @return The first position whose key is at least the given key
+         */
+        int lowerBound(double key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @param key The key to search for
+         * @return The first position whose key is greater than the given key
+         */
+        int upperBound(double key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dataAnalysis;
+
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDimensions;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The values a query filters and ranks one propeller by, taken from its evaluation against the engine's motor
+ */
+public final class PropellerSummary {
+
+    //The propeller's position in the catalogue
+    private final int catalogueIndex;
+
+    //The evaluation the summary was taken from
+    private final PropellerEvaluation evaluation;
+
+    //The dimensions parsed from the name, null if the name has none
+    private final PropellerDimensions dimensions;
+
+    //The highest power-matched RPM on the reachable curve, 0 if nothing is reachable
+    private final double maxRPM;
+
+    /**
+     * @param catalogueIndex The propeller's position in the catalogue
+     * @param evaluation The propeller's evaluation
+     */
+    PropellerSummary(int catalogueIndex, @NotNull PropellerEvaluation evaluation) {
+        this.catalogueIndex = catalogueIndex;
+        this.evaluation = evaluation;
+        this.dimensions = PropellerDimensions.parse(evaluation.getPropName());
+
+        PowerMatchedCurve curve = evaluation.getCurve();
+        double highest = 0;
+        for (int point = 0; point < curve.getReachableCount(); point++) {
+            highest = Math.max(highest, curve.getRPM(point));
+        }
+        this.maxRPM = highest;
+    }
+
+    /**
+     * @return The propeller's position in the catalogue
+     */
+    public int getCatalogueIndex() {
+        return catalogueIndex;
+    }
+
+    /**
+     * @return The propeller's name
+     */
+    @NotNull
+    public String getPropName() {
+        return evaluation.getPropName();
+    }
+
+    /**
+     * @return The evaluation the summary was taken from
+     */
+    @NotNull
+    public PropellerEvaluation getEvaluation() {
+        return evaluation;
+    }
+
+    /**
+     * @return The dimensions parsed from the name, or null if the name has none
+     */
+    @Nullable
+    public PropellerDimensions getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return The diameter in inches, or NaN if the name has none
+     */
+    public double getDiameter() {
+        return dimensions == null ? Double.NaN : dimensions.getDiameter();
+    }
+
+    /**
+     * @return The pitch in inches, or NaN if the name has none
+     */
+    public double getPitch() {
+        return dimensions == null ? Double.NaN : dimensions.getPitch();
+    }
+
+    /**
+     * @return The static thrust, in lbf
+     */
+    public double getStaticThrust() {
+        return evaluation.getStaticThrust();
+    }
+
+    /**
+     * @param velocity The velocity, in mph
+     * @return The power-matched thrust at the velocity, or NaN if the propeller cannot absorb the power there
+     */
+    public double getThrustAt(double velocity) {
+        return evaluation.getCurve().getThrustAt(velocity);
+    }
+
+    /**
+     * @return The highest velocity the propeller can absorb the motor's power at, or -1 if none
+     */
+    public double getMaxVelocity() {
+        return evaluation.getCurve().getMaxReachableVelocity();
+    }
+
+    /**
+     * @return The highest power-matched RPM on the reachable curve, 0 if nothing is reachable
+     */
+    public double getMaxRPM() {
+        return maxRPM;
+    }
+
+    /**
+     * @return The propeller name with its headline numbers
+     */
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: %.2f lbf static, max %.0f RPM, up to %.0f mph",
+            getPropName(), getStaticThrust(), maxRPM, getMaxVelocity()
+        );
+    }
+}
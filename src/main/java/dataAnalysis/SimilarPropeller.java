@@ -0,0 +1,54 @@
+package dataAnalysis;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One answer to a similarity query: a propeller and how far its curves are from the query's
+ */
+public final class SimilarPropeller {
+
+    //The propeller's position in the catalogue, and its name
+    private final int catalogueIndex;
+    private final String propName;
+
+    //The distance between the propeller's curve features and the query's
+    private final double distance;
+
+    /**
+     * @param catalogueIndex The propeller's position in the catalogue
+     * @param propName The propeller's name
+     * @param distance The distance between the propeller's curve features and the query's
+     */
+    SimilarPropeller(int catalogueIndex, @NotNull String propName, double distance) {
+        this.catalogueIndex = catalogueIndex;
+        this.propName = propName;
+        this.distance = distance;
+    }
+
+    /**
+     * @return The propeller's position in the catalogue
+     */
+    public int getCatalogueIndex() {
+        return catalogueIndex;
+    }
+
+    /**
+     * @return The propeller's name
+     */
+    @NotNull
+    public String getPropName() {
+        return propName;
+    }
+
+    /**
+     * @return The distance between the propeller's curve features and the query's
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.4f)", propName, distance);
+    }
+}
@@ -0,0 +1,709 @@
+package dataAnalysis;
+
+import dataMetrics.Log;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the propellers whose performance is closest to a given one, so an out-of-stock propeller can be substituted
+ * by how it flies rather than by name. Each propeller is reduced to a fixed-length feature vector, its power-matched
+ * thrust and weighted RPM at every FEATURE_VELOCITY_STEP mph, and the vectors are arranged in a vantage-point tree
+ * so a k-nearest-neighbour query under any CurveDistance only measures the few propellers it cannot rule out.
+ *
+ * The tree is implicit: the node over positions [from, to) of the order array has its vantage point at from, the
+ * points no farther from it than its radius at [from + 1, middle) and the rest at [middle, to), where middle is
+ * from + 1 + (to - from - 1) / 2. Features and tree are built in parallel, and the whole index can be written beside
+ * the catalogue snapshot and read back for as long as every propeller's data is unchanged.
+ *
+ * Layout (big endian): magic, format version, distance name, RPM weight, the motor configuration's five values,
+ * propeller count, dimensions, then per propeller its name and fingerprint, then every feature, the order array and
+ * the radii.
+ */
+public final class SimilarityIndex {
+
+    //Identifies a similarity index file ("APCI")
+    private static final int MAGIC = 0x41504349;
+
+    //Bumped whenever the layout or the features change, which invalidates older index files
+    private static final int FORMAT_VERSION = 1;
+
+    //The velocity grid the features sample, in mph: every 5 mph from 0 to 85
+    public static final double FEATURE_VELOCITY_STEP = 5;
+    public static final int FEATURE_POINT_COUNT = 18;
+
+    //The weight of RPM against thrust in lbf, so 1000 RPM weighs as much as 1 lbf
+    public static final double DEFAULT_RPM_WEIGHT = 0.001;
+
+    //Ranges of propellers above this size are featurized and split into subtrees in parallel
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    //How long each build of the index took
+    private static final Timer BUILD_TIME = MetricRegistry.global().timer(
+        "apc_phase_seconds", "Time spent in each phase of a run", "phase", "index"
+    );
+
+    //The motor configuration every propeller was matched against
+    private final MotorConfiguration motor;
+
+    //The distance features are compared under
+    private final CurveDistance distance;
+
+    //The weight of RPM against thrust in the features
+    private final double rpmWeight;
+
+    //Every propeller's name and data fingerprint, in catalogue order, and each name's catalogue position, the first
+    //winning when names repeat as in the loaders
+    private final String[] names;
+    private final long[] fingerprints;
+    private final Map<String, Integer> indexByName;
+
+    //Every propeller's features back to back, in catalogue order, and the number of features per propeller
+    private final double[] features;
+    private final int dimensions;
+
+    //The catalogue positions in tree order, and the radius of the node whose vantage point is at each position
+    private final int[] order;
+    private final double[] radii;
+
+    /**
+     * @param motor The motor configuration every propeller was matched against
+     * @param distance The distance features are compared under
+     * @param rpmWeight The weight of RPM against thrust in the features
+     * @param names Every propeller's name, in catalogue order
+     * @param fingerprints Every propeller's data fingerprint, in catalogue order
+     * @param features Every propeller's features back to back
+     * @param order The catalogue positions in tree order
+     * @param radii The radius of the node whose vantage point is at each position
+     */
+    private SimilarityIndex(@NotNull MotorConfiguration motor, @NotNull CurveDistance distance, double rpmWeight,
+                            @NotNull String[] names, @NotNull long[] fingerprints, @NotNull double[] features,
+                            @NotNull int[] order, @NotNull double[] radii) {
+        this.motor = motor;
+        this.distance = distance;
+        this.rpmWeight = rpmWeight;
+        this.names = names;
+        this.fingerprints = fingerprints;
+        this.features = features;
+        this.dimensions = 2 * FEATURE_POINT_COUNT;
+        this.order = order;
+        this.radii = radii;
+        this.indexByName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexByName.putIfAbsent(names[i], i);
+        }
+    }
+
+    /**
+     * Builds an index with the default RPM weight, using every available core
+     * @param catalogue The loaded propellers
+     * @param motor The motor configuration to match every propeller against
+     * @param distance The distance to compare features under
+     * @return The index
+     */
+    @NotNull
+    public static SimilarityIndex build(@NotNull PropellerDataLoader catalogue, @NotNull MotorConfiguration motor,
+                                        @NotNull CurveDistance distance) {
+        return build(catalogue, motor, distance, DEFAULT_RPM_WEIGHT, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes every propeller's features, then arranges them in a vantage-point tree
+     * @param catalogue The loaded propellers
+     * @param motor The motor configuration to match every propeller against
+     * @param distance The distance to compare features under
+     * @param rpmWeight The weight of RPM against thrust in lbf, 0 to compare thrust alone
+     * @param pool The fork-join pool to build on
+     * @return The index
+     */
+    @NotNull
+    public static SimilarityIndex build(@NotNull PropellerDataLoader catalogue, @NotNull MotorConfiguration motor,
+                                        @NotNull CurveDistance distance, double rpmWeight,
+                                        @NotNull ForkJoinPool pool) {
+        long start = System.nanoTime();
+        PropellerDataSet[] props = catalogue.getAllPropellerData().toArray(new PropellerDataSet[0]);
+        int propCount = props.length;
+        String[] names = new String[propCount];
+        long[] fingerprints = new long[propCount];
+        for (int i = 0; i < propCount; i++) {
+            names[i] = props[i].getName();
+            fingerprints[i] = props[i].getFingerprint();
+        }
+
+        int dimensions = 2 * FEATURE_POINT_COUNT;
+        double[] features = new double[propCount * dimensions];
+        pool.invoke(new FeatureRange(props, motor, rpmWeight, features, 0, propCount));
+
+        int[] order = new int[propCount];
+        for (int i = 0; i < propCount; i++) {
+            order[i] = i;
+        }
+        double[] radii = new double[propCount];
+        if (propCount > 0) {
+            pool.invoke(new TreeRange(distance, features, dimensions, order, radii, new double[propCount], 0,
+                propCount));
+        }
+
+        SimilarityIndex index = new SimilarityIndex(motor, distance, rpmWeight, names, fingerprints, features, order,
+            radii);
+        Log.info(String.format(
+            "Indexed %d propellers by %s curve distance in %.1f ms.", propCount, distance, BUILD_TIME.stop(start) / 1e6
+        ));
+        return index;
+    }
+
+    /**
+     * Reads the index file if it was written for the same catalogue, motor configuration and distance, otherwise
+     * builds the index and rewrites the file
+     * @param indexFile The index file to read and refresh
+     * @param catalogue The loaded propellers
+     * @param motor The motor configuration to match every propeller against
+     * @param distance The distance to compare features under
+     * @return The index
+     */
+    @NotNull
+    public static SimilarityIndex loadOrBuild(@NotNull Path indexFile, @NotNull PropellerDataLoader catalogue,
+                                              @NotNull MotorConfiguration motor, @NotNull CurveDistance distance) {
+        SimilarityIndex index = read(indexFile, catalogue, motor, distance, DEFAULT_RPM_WEIGHT);
+        if (index != null) {
+            Log.info("Restored the similarity index of " + index.size() + " propellers from " + indexFile + ".");
+            return index;
+        }
+        index = build(catalogue, motor, distance);
+        try {
+            index.write(indexFile);
+        }
+        catch (IOException e) {
+            Log.warn("Unable to write similarity index " + indexFile + ": " + e);
+        }
+        return index;
+    }
+
+    /**
+     * @param prop A propeller
+     * @param motor The motor configuration to match it against
+     * @param rpmWeight The weight of RPM against thrust in lbf
+     * @return The propeller's features: thrust at every feature velocity, then weighted RPM at every feature velocity,
+     *         both zero where the propeller cannot match the power
+     */
+    @NotNull
+    public static double[] featuresOf(@NotNull PropellerDataSet prop, @NotNull MotorConfiguration motor,
+                                      double rpmWeight) {
+        double[] vector = new double[2 * FEATURE_POINT_COUNT];
+        writeFeatures(prop, motor, rpmWeight, vector, 0);
+        return vector;
+    }
+
+    /**
+     * @param propName A propeller in the index
+     * @param k How many neighbours to find
+     * @return The k propellers closest to the named one, closest first, excluding the propeller itself
+     */
+    @NotNull
+    public List<SimilarPropeller> nearest(@NotNull String propName, int k) {
+        Integer index = indexByName.get(propName);
+        if (index == null) {
+            throw new IllegalArgumentException("No propeller named " + propName + " is indexed");
+        }
+        return nearest(features, index * dimensions, index, k);
+    }
+
+    /**
+     * @param query Features computed by featuresOf with this index's motor configuration and RPM weight
+     * @param k How many neighbours to find
+     * @return The k propellers closest to the features, closest first
+     */
+    @NotNull
+    public List<SimilarPropeller> nearest(@NotNull double[] query, int k) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Queries need " + dimensions + " features, not " + query.length);
+        }
+        return nearest(query, 0, -1, k);
+    }
+
+    /**
+     * @return The number of propellers indexed
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return The distance features are compared under
+     */
+    @NotNull
+    public CurveDistance getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return The motor configuration every propeller was matched against
+     */
+    @NotNull
+    public MotorConfiguration getMotor() {
+        return motor;
+    }
+
+    /**
+     * Writes the index. The file is written beside its destination and moved into place, so a concurrent reader
+     * never sees a partial index.
+     * @param indexFile Where to write the index
+     * @throws IOException If the index cannot be written
+     */
+    public void write(@NotNull Path indexFile) throws IOException {
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(tempFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(distance.name());
+            out.writeDouble(rpmWeight);
+            writeMotor(out, motor);
+            out.writeInt(names.length);
+            out.writeInt(dimensions);
+            for (int i = 0; i < names.length; i++) {
+                out.writeUTF(names[i]);
+                out.writeLong(fingerprints[i]);
+            }
+            for (double feature : features) {
+                out.writeDouble(feature);
+            }
+            for (int position : order) {
+                out.writeInt(position);
+            }
+            for (double radius : radii) {
+                out.writeDouble(radius);
+            }
+        }
+        catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads an index file, provided it was written for the catalogue as it is now, in the same order, and with the same
+     * motor configuration, distance and RPM weight
+     * @param indexFile The index file to read
+     * @param catalogue The loaded propellers
+     * @param motor The motor configuration the index must have been built against
+     * @param distance The distance the index must compare under
+     * @param rpmWeight The RPM weight the index must have been built with
+     * @return The index, or null if the file is missing, stale or unreadable
+     */
+    @Nullable
+    public static SimilarityIndex read(@NotNull Path indexFile, @NotNull PropellerDataLoader catalogue,
+                                       @NotNull MotorConfiguration motor, @NotNull CurveDistance distance,
+                                       double rpmWeight) {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+
+        try (InputStream fileIn = Files.newInputStream(indexFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(distance.name())
+                || Double.compare(in.readDouble(), rpmWeight) != 0 || !readMotor(in).equals(motor)) {
+                return null;
+            }
+            int propCount = in.readInt();
+            int dimensions = in.readInt();
+            List<PropellerDataSet> props = catalogue.getAllPropellerData();
+            if (propCount != props.size() || dimensions != 2 * FEATURE_POINT_COUNT) {
+                return null;
+            }
+
+            String[] names = new String[propCount];
+            long[] fingerprints = new long[propCount];
+            for (int i = 0; i < propCount; i++) {
+                names[i] = in.readUTF();
+                fingerprints[i] = in.readLong();
+                PropellerDataSet prop = props.get(i);
+                if (!names[i].equals(prop.getName()) || fingerprints[i] != prop.getFingerprint()) {
+                    return null;
+                }
+            }
+            double[] features = new double[propCount * dimensions];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = in.readDouble();
+            }
+            //The tree order must be a permutation of the catalogue, or a search would index outside the features
+            int[] order = new int[propCount];
+            boolean[] placed = new boolean[propCount];
+            for (int i = 0; i < propCount; i++) {
+                order[i] = in.readInt();
+                if (order[i] < 0 || order[i] >= propCount || placed[order[i]]) {
+                    throw new IllegalArgumentException("Tree position " + i + " holds invalid entry " + order[i]);
+                }
+                placed[order[i]] = true;
+            }
+            double[] radii = new double[propCount];
+            for (int i = 0; i < propCount; i++) {
+                radii[i] = in.readDouble();
+                if (!(radii[i] >= 0)) {
+                    throw new IllegalArgumentException("Tree position " + i + " has invalid radius " + radii[i]);
+                }
+            }
+            return new SimilarityIndex(motor, distance, rpmWeight, names, fingerprints, features, order, radii);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            Log.warn("Ignoring unreadable similarity index " + indexFile + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Searches the tree, keeping the k closest propellers seen so far and skipping every subtree the farthest of them
+     * rules out
+     * @param query The array holding the query's features
+     * @param queryOffset Where the query's features start
+     * @param exclude The catalogue position to leave out of the answer, or -1
+     * @param k How many neighbours to find
+     * @return The k closest propellers, closest first, ties in catalogue order
+     */
+    @NotNull
+    private List<SimilarPropeller> nearest(@NotNull double[] query, int queryOffset, int exclude, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one neighbour must be asked for, not " + k);
+        }
+        Neighbours best = new Neighbours(k);
+        if (order.length > 0) {
+            search(0, order.length, query, queryOffset, exclude, best);
+        }
+        List<SimilarPropeller> result = new ArrayList<>(best.heap);
+        result.sort(Neighbours.CLOSEST_FIRST);
+        return result;
+    }
+
+    /**
+     * @param from The node's first position (inclusive)
+     * @param to The node's last position (exclusive)
+     * @param query The array holding the query's features
+     * @param queryOffset Where the query's features start
+     * @param exclude The catalogue position to leave out of the answer, or -1
+     * @param best The closest propellers so far
+     */
+    private void search(int from, int to, @NotNull double[] query, int queryOffset, int exclude,
+                        @NotNull Neighbours best) {
+        int point = order[from];
+        double pointDistance = distance.between(query, queryOffset, features, point * dimensions, dimensions);
+        if (point != exclude && best.accepts(point, pointDistance)) {
+            best.add(new SimilarPropeller(point, names[point], pointDistance));
+        }
+        if (to - from == 1) {
+            return;
+        }
+
+        int middle = from + 1 + (to - from - 1) / 2;
+        double radius = radii[from];
+        boolean hasInside = middle > from + 1;
+        if (pointDistance < radius) {
+            if (hasInside && pointDistance - best.bound() <= radius) {
+                search(from + 1, middle, query, queryOffset, exclude, best);
+            }
+            if (pointDistance + best.bound() >= radius) {
+                search(middle, to, query, queryOffset, exclude, best);
+            }
+        }
+        else {
+            if (pointDistance + best.bound() >= radius) {
+                search(middle, to, query, queryOffset, exclude, best);
+            }
+            if (hasInside && pointDistance - best.bound() <= radius) {
+                search(from + 1, middle, query, queryOffset, exclude, best);
+            }
+        }
+    }
+
+    /**
+     * Writes one propeller's features at the given offset
+     * @param prop The propeller
+     * @param motor The motor configuration to match it against
+     * @param rpmWeight The weight of RPM against thrust in lbf
+     * @param vector Receives the features
+     * @param offset Where the features start
+     */
+    private static void writeFeatures(@NotNull PropellerDataSet prop, @NotNull MotorConfiguration motor,
+                                      double rpmWeight, @NotNull double[] vector, int offset) {
+        PowerMatchedCurve curve = prop.computePowerMatchedCurve(motor, FEATURE_VELOCITY_STEP, FEATURE_POINT_COUNT);
+        for (int i = 0; i < FEATURE_POINT_COUNT; i++) {
+            boolean reachable = curve.isReachable(i);
+            vector[offset + i] = reachable ? curve.getThrust(i) : 0;
+            vector[offset + FEATURE_POINT_COUNT + i] = reachable ? curve.getRPM(i) * rpmWeight : 0;
+        }
+    }
+
+    /**
+     * @param out The index file
+     * @param motor The motor configuration to write
+     * @throws IOException If it cannot be written
+     */
+    private static void writeMotor(@NotNull DataOutputStream out, @NotNull MotorConfiguration motor)
+        throws IOException {
+        out.writeDouble(motor.getKV());
+        out.writeDouble(motor.getVoltage());
+        out.writeDouble(motor.getEfficiency());
+        out.writeDouble(motor.getMotorPower());
+        out.writeDouble(motor.getReferencePitch());
+    }
+
+    /**
+     * @param in The index file
+     * @return The motor configuration read
+     * @throws IOException If it cannot be read
+     */
+    @NotNull
+    private static MotorConfiguration readMotor(@NotNull DataInputStream in) throws IOException {
+        return new MotorConfiguration(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+            in.readDouble());
+    }
+
+    /**
+     * The k closest propellers found so far, farthest on top so it is the one replaced
+     */
+    private static final class Neighbours {
+
+        //Orders answers by distance, then by catalogue position
+        static final Comparator<SimilarPropeller> CLOSEST_FIRST = Comparator
+            .comparingDouble(SimilarPropeller::getDistance)
+            .thenComparingInt(SimilarPropeller::getCatalogueIndex);
+
+        private final int k;
+        private final PriorityQueue<SimilarPropeller> heap;
+
+        /**
+         * @param k How many neighbours to keep
+         */
+        Neighbours(int k) {
+            this.k = k;
+            this.heap = new PriorityQueue<>(k, CLOSEST_FIRST.reversed());
+        }
+
+        /**
+         * @param catalogueIndex The catalogue position of a propeller the search reached
+         * @param distance The propeller's distance from the query
+         * @return If the propeller is among the k closest so far, so answers are only created for kept propellers
+         */
+        boolean accepts(int catalogueIndex, double distance) {
+            if (heap.size() < k) {
+                return true;
+            }
+            SimilarPropeller farthest = heap.peek();
+            return distance < farthest.getDistance()
+                || distance == farthest.getDistance() && catalogueIndex < farthest.getCatalogueIndex();
+        }
+
+        /**
+         * @param candidate A propeller accepts allowed, which replaces the farthest once k are kept
+         */
+        void add(@NotNull SimilarPropeller candidate) {
+            if (heap.size() == k) {
+                heap.poll();
+            }
+            heap.add(candidate);
+        }
+
+        /**
+         * @return The distance a propeller must be within to be kept, infinite until k have been found
+         */
+        double bound() {
+            return heap.size() < k ? Double.POSITIVE_INFINITY : heap.peek().getDistance();
+        }
+    }
+
+    /**
+     * Computes the features of the propellers [from, to), splitting the range in half until it is small enough to
+     * compute directly
+     */
+    private static final class FeatureRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PropellerDataSet[] props;
+        private final MotorConfiguration motor;
+        private final double rpmWeight;
+        private final double[] features;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param props The propellers
+         * @param motor The motor configuration to match against
+         * @param rpmWeight The weight of RPM against thrust in lbf
+         * @param features Receives every propeller's features
+         * @param from The first propeller (inclusive)
+         * @param to The last propeller (exclusive)
+         */
+        FeatureRange(PropellerDataSet[] props, MotorConfiguration motor, double rpmWeight, double[] features, int from,
+                     int to) {
+            this.props = props;
+            this.motor = motor;
+            this.rpmWeight = rpmWeight;
+            this.features = features;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    writeFeatures(props[i], motor, rpmWeight, features, i * 2 * FEATURE_POINT_COUNT);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new FeatureRange(props, motor, rpmWeight, features, from, middle),
+                new FeatureRange(props, motor, rpmWeight, features, middle, to)
+            );
+        }
+    }
+
+    /**
+     * Arranges the positions [from, to) of the order array as one node: picks the vantage point, partitions the rest
+     * around the median distance from it, then arranges both halves, in parallel while they are large
+     */
+    private static final class TreeRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CurveDistance distance;
+        private final double[] features;
+        private final int dimensions;
+        private final int[] order;
+        private final double[] radii;
+        private final double[] scratch;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param distance The distance to compare features under
+         * @param features Every propeller's features
+         * @param dimensions The number of features per propeller
+         * @param order The catalogue positions, rearranged into tree order
+         * @param radii Receives each node's radius
+         * @param scratch Holds each position's distance from its node's vantage point while partitioning
+         * @param from The node's first position (inclusive)
+         * @param to The node's last position (exclusive)
+         */
+        TreeRange(CurveDistance distance, double[] features, int dimensions, int[] order, double[] radii,
+                  double[] scratch, int from, int to) {
+            this.distance = distance;
+            this.features = features;
+            this.dimensions = dimensions;
+            this.order = order;
+            this.radii = radii;
+            this.scratch = scratch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                radii[from] = 0;
+                return;
+            }
+            swap(from, (from + to) >>> 1);
+            int vantage = order[from] * dimensions;
+            for (int i = from + 1; i < to; i++) {
+                scratch[i] = distance.between(features, vantage, features, order[i] * dimensions, dimensions);
+            }
+            int middle = from + 1 + (to - from - 1) / 2;
+            select(from + 1, to - 1, middle);
+            radii[from] = scratch[middle];
+
+            TreeRange outside = new TreeRange(distance, features, dimensions, order, radii, scratch, middle, to);
+            if (middle == from + 1) {
+                outside.compute();
+                return;
+            }
+            TreeRange inside = new TreeRange(distance, features, dimensions, order, radii, scratch, from + 1, middle);
+            if (to - from > PARALLEL_THRESHOLD) {
+                invokeAll(inside, outside);
+            }
+            else {
+                inside.compute();
+                outside.compute();
+            }
+        }
+
+        /**
+         * Rearranges [low, high] so the position nth holds the distance it would hold sorted, with no greater
+         * distance before it and no smaller one after it
+         * @param low The first position (inclusive)
+         * @param high The last position (inclusive)
+         * @param nth The position to settle
+         */
+        private void select(int low, int high, int nth) {
+            while (low < high) {
+                double pivot = scratch[(low + high) >>> 1];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (scratch[i] < pivot) {
+                        i++;
+                    }
+                    while (scratch[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i, j);
+                        i++;
+                        j--;
+                    }
+                }
+                if (nth <= j) {
+                    high = j;
+                }
+                else if (nth >= i) {
+                    low = i;
+                }
+                else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @param a A position
+         * @param b Another position
+         */
+        private void swap(int a, int b) {
+            int position = order[a];
+            order[a] = order[b];
+            order[b] = position;
+            double gap = scratch[a];
+            scratch[a] = scratch[b];
+            scratch[b] = gap;
+        }
+    }
+}
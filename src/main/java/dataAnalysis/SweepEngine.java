@@ -0,0 +1,209 @@
+package dataAnalysis;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates every propeller of a catalogue against every motor configuration of a grid. The propeller x configuration
+ * work units are split recursively across a work-stealing fork-join pool, and each finished evaluation is streamed to
+ * a SweepSink while the rest are still running.
+ */
+public class SweepEngine {
+
+    //Work units below this size are evaluated directly rather than split further
+    private static final int SPLIT_THRESHOLD = 16;
+
+    //How long the delivering thread waits for a result before checking the workers for failures
+    private static final long POLL_MILLIS = 10;
+
+    //The pool evaluations run on
+    private final ForkJoinPool pool;
+
+    //Where repeated evaluations are answered from, null to always evaluate
+    private final EvaluationCache cache;
+
+    /**
+     * A sweep engine using every available core
+     */
+    public SweepEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool The fork-join pool to run evaluations on
+     */
+    public SweepEngine(@NotNull ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * @param pool The fork-join pool to run evaluations on
+     * @param cache Where repeated evaluations are answered from, or null to always evaluate
+     */
+    public SweepEngine(@NotNull ForkJoinPool pool, @Nullable EvaluationCache cache) {
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    /**
+     * Builds every combination of the given KVs, voltages and rated powers on top of a base configuration
+     * @param base The configuration supplying every other value
+     * @param kvs The motor KVs to sweep
+     * @param voltages The pack voltages to sweep
+     * @param motorPowers The rated motor powers to sweep, in hp
+     * @return The configuration grid, KV varying slowest
+     */
+    @NotNull
+    public static List<MotorConfiguration> configurationGrid(@NotNull MotorConfiguration base,
+                                                             @NotNull double[] kvs, @NotNull double[] voltages,
+                                                             @NotNull double[] motorPowers) {
+        List<MotorConfiguration> grid = new ArrayList<>(kvs.length * voltages.length * motorPowers.length);
+        for (double kv : kvs) {
+            for (double voltage : voltages) {
+                for (double motorPower : motorPowers) {
+                    grid.add(base.withKV(kv).withVoltage(voltage).withMotorPower(motorPower));
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Evaluates every propeller against every configuration, streaming each result to the sink as it completes
+     * @param catalogue The loaded propellers
+     * @param motors The motor configurations to evaluate against
+     * @param velocityStep The spacing of each power-matched curve's velocity grid, in mph
+     * @param pointCount The number of grid velocities per curve
+     * @param sink Receives each evaluation on the calling thread
+     * @return The sweep's size and throughput
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results
+     * @throws IllegalArgumentException If the sweep has more work units than an array can index
+     */
+    @NotNull
+    public SweepStats run(@NotNull PropellerDataLoader catalogue, @NotNull List<MotorConfiguration> motors,
+                          double velocityStep, int pointCount, @NotNull SweepSink sink) throws InterruptedException {
+        long startTime = System.nanoTime();
+
+        //Files a lazy catalogue cannot parse are skipped, and each result keeps its propeller's catalogue position
+        int propCount = catalogue.getNumOfProps();
+        List<PropellerDataSet> props = new ArrayList<>(propCount);
+        int[] positions = new int[propCount];
+        for (int i = 0; i < propCount; i++) {
+            PropellerDataSet prop = catalogue.findPropellerDataAt(i);
+            if (prop != null) {
+                positions[props.size()] = i;
+                props.add(prop);
+            }
+        }
+        MotorConfiguration[] motorArray = motors.toArray(new MotorConfiguration[0]);
+        long units = (long) props.size() * motorArray.length;
+        if (units > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                "A sweep of " + props.size() + " propellers by " + motorArray.length + " configurations is too large"
+            );
+        }
+        int total = (int) units;
+
+        PropellerEvaluation[] results = new PropellerEvaluation[total];
+        LinkedBlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        ForkJoinTask<Void> task = pool.submit(
+            new EvaluateRange(props, motorArray, velocityStep, pointCount, cache, results, completed, 0, total)
+        );
+
+        try {
+            int delivered = 0;
+            while (delivered < total) {
+                Integer unit = completed.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (unit != null) {
+                    PropellerEvaluation evaluation = results[unit];
+                    results[unit] = null;
+                    sink.accept(positions[unit / motorArray.length], evaluation);
+                    delivered++;
+                }
+                else if (task.isCompletedAbnormally()) {
+                    throw new IllegalStateException("Sweep evaluation failed", task.getException());
+                }
+            }
+        }
+        finally {
+            task.cancel(true);
+        }
+        return new SweepStats(props.size(), motorArray.length, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Evaluates the work units [from, to), splitting the range in half until it is small enough to run directly.
+     * Unit i pairs propeller i / motorCount with motor configuration i % motorCount.
+     */
+    private static final class EvaluateRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<PropellerDataSet> props;
+        private final MotorConfiguration[] motors;
+        private final double velocityStep;
+        private final int pointCount;
+        private final EvaluationCache cache;
+        private final PropellerEvaluation[] results;
+        private final LinkedBlockingQueue<Integer> completed;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param props The propellers to evaluate
+         * @param motors The motor configurations to evaluate against
+         * @param velocityStep The spacing of each curve's velocity grid
+         * @param pointCount The number of grid velocities per curve
+         * @param cache Where repeated evaluations are answered from, or null
+         * @param results Receives each finished evaluation at its work unit
+         * @param completed Receives each finished work unit, after its evaluation is stored
+         * @param from The first work unit (inclusive)
+         * @param to The last work unit (exclusive)
+         */
+        EvaluateRange(List<PropellerDataSet> props, MotorConfiguration[] motors, double velocityStep, int pointCount,
+                      EvaluationCache cache, PropellerEvaluation[] results, LinkedBlockingQueue<Integer> completed,
+                      int from, int to) {
+            this.props = props;
+            this.motors = motors;
+            this.velocityStep = velocityStep;
+            this.pointCount = pointCount;
+            this.cache = cache;
+            this.results = results;
+            this.completed = completed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int unit = from; unit < to; unit++) {
+                    PropellerDataSet prop = props.get(unit / motors.length);
+                    MotorConfiguration motor = motors[unit % motors.length];
+                    results[unit] = cache != null
+                        ? cache.evaluate(prop, motor, velocityStep, pointCount)
+                        : prop.evaluate(motor, velocityStep, pointCount);
+                    completed.add(unit);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new EvaluateRange(props, motors, velocityStep, pointCount, cache, results, completed, from, middle),
+                new EvaluateRange(props, motors, velocityStep, pointCount, cache, results, completed, middle, to)
+            );
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dataAnalysis;
+
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the results of a design-space sweep as they complete. Results are delivered one at a time on the thread
+ * that started the sweep, in completion order, so implementations do not need to be thread-safe. Each result carries
+ * the catalogue position of its propeller, since names are not unique across a catalogue.
+ */
+public interface SweepSink {
+
+    /**
+     * @param propIndex The catalogue position of the evaluated propeller
+     * @param evaluation One completed propeller and motor configuration evaluation
+     */
+    void accept(int propIndex, @NotNull PropellerEvaluation evaluation);
+}
@@ -0,0 +1,63 @@
+package dataAnalysis;
+
+/**
+ * The size and throughput of a completed design-space sweep
+ */
+public final class SweepStats {
+
+    //The number of propellers swept
+    private final int propCount;
+
+    //The number of motor configurations swept
+    private final int motorCount;
+
+    //The wall time of the whole sweep, including delivery to the sink
+    private final long elapsedNanos;
+
+    /**
+     * @param propCount The number of propellers swept
+     * @param motorCount The number of motor configurations swept
+     * @param elapsedNanos The wall time of the whole sweep
+     */
+    SweepStats(int propCount, int motorCount, long elapsedNanos) {
+        this.propCount = propCount;
+        this.motorCount = motorCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The number of propellers swept
+     */
+    public int getPropCount() {
+        return propCount;
+    }
+
+    /**
+     * @return The number of propeller and motor configuration evaluations performed
+     */
+    public long getEvaluationCount() {
+        return (long) propCount * motorCount;
+    }
+
+    /**
+     * @return The wall time of the whole sweep, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The sweep's throughput, in evaluations per second
+     */
+    public double getEvaluationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getEvaluationCount() / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d props x %d motor configurations = %d evaluations in %.1f ms (%.0f evaluations/s)",
+            propCount, motorCount, getEvaluationCount(), elapsedNanos / 1e6, getEvaluationsPerSecond()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package dataMath;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocation-free linear interpolation. The scalar form evaluates y0 + (x - x0) * slope, the same expression (and so
+ * the same rounding) as a commons-math LinearInterpolator spline, without building a spline for a single point.
+ */
+public final class LinearKernel {
+
+    private LinearKernel() {
+    }
+
+    /**
+     * Interpolates on the line through two points
+     * @param x0 The first point's x
+     * @param y0 The first point's y
+     * @param x1 The second point's x
+     * @param y1 The second point's y
+     * @param x Where to evaluate the line
+     * @return The line's value at x
+     */
+    public static double lerp(double x0, double y0, double x1, double y1, double x) {
+        return y0 + (x - x0) * ((y1 - y0) / (x1 - x0));
+    }
+
+    /**
+     * Interpolates many independent segments at once, out[i] = lerp(x0[i], y0[i], x1[i], y1[i], x[i]). The loop is a
+     * plain element-wise pass over primitive arrays so the JIT can vectorize it.
+     * @param x0 The first point's x, per element
+     * @param y0 The first point's y, per element
+     * @param x1 The second point's x, per element
+     * @param y1 The second point's y, per element
+     * @param x Where to evaluate each segment
+     * @param out Receives the interpolated values
+     * @param count How many elements to interpolate
+     */
+    public static void lerp(@NotNull double[] x0, @NotNull double[] y0, @NotNull double[] x1, @NotNull double[] y1,
+                            @NotNull double[] x, @NotNull double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = y0[i] + (x[i] - x0[i]) * ((y1[i] - y0[i]) / (x1[i] - x0[i]));
+        }
+    }
+
+    /**
+     * Evaluates the piecewise linear function through (xs[k], ys[k]), from <= k < to, at every target, in one merge
+     * walk over the knots. xs must be ascending over the range, and targets ascending. A target equal to a knot is
+     * evaluated on the segment ending at it, except at the first knot, like PropellerTableStore.findVelocityBracket.
+     *
+     * The walk is segment by segment: a scalar scan finds the run of targets inside a segment, then one element-wise
+     * loop with the segment's slope hoisted evaluates the whole run. On dense targets, such as a fine velocity grid,
+     * that loop is where the time goes, and the JIT can vectorize it. It is the same expression as lerp.
+     * @param xs The knot x values
+     * @param ys The knot y values
+     * @param from The first knot (inclusive)
+     * @param to The last knot (exclusive)
+     * @param targets The ascending x values to evaluate at
+     * @param out Receives the value at each target
+     * @param count How many targets to evaluate
+     * @param outside The value given to targets outside the knots, or to every target if there are fewer than two
+     */
+    public static void interpolateSorted(@NotNull double[] xs, @NotNull double[] ys, int from, int to,
+                                         @NotNull double[] targets, @NotNull double[] out, int count, double outside) {
+        int i = 0;
+        if (to - from >= 2) {
+            double first = xs[from];
+            double last = xs[to - 1];
+            while (i < count && !(targets[i] >= first)) {
+                out[i++] = outside;
+            }
+
+            int upper = from + 1;
+            while (i < count && targets[i] <= last) {
+                double x = targets[i];
+                while (xs[upper] < x) {
+                    upper++;
+                }
+                double x0 = xs[upper - 1];
+                double y0 = ys[upper - 1];
+                double x1 = xs[upper];
+                double slope = (ys[upper] - y0) / (x1 - x0);
+
+                int runEnd = i + 1;
+                while (runEnd < count && targets[runEnd] <= x1) {
+                    runEnd++;
+                }
+                for (int j = i; j < runEnd; j++) {
+                    out[j] = y0 + (targets[j] - x0) * slope;
+                }
+                i = runEnd;
+            }
+        }
+        for (; i < count; i++) {
+            out[i] = outside;
+        }
+    }
+}
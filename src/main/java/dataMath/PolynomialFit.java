@@ -0,0 +1,102 @@
+package dataMath;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable least-squares polynomial fit and how well it matches the points it was fitted to
+ */
+public final class PolynomialFit {
+
+    //The coefficients, constant term first
+    private final double[] coefficients;
+
+    //The sum of squared residuals, the largest absolute residual, and the number of points fitted
+    private final double residualSumOfSquares;
+    private final double maxAbsoluteResidual;
+    private final int pointCount;
+
+    //The share of the points' variance the fit explains
+    private final double rSquared;
+
+    /**
+     * @param coefficients The coefficients, constant term first
+     * @param residualSumOfSquares The sum of squared residuals
+     * @param maxAbsoluteResidual The largest absolute residual
+     * @param rSquared The coefficient of determination
+     * @param pointCount The number of points fitted
+     */
+    PolynomialFit(@NotNull double[] coefficients, double residualSumOfSquares, double maxAbsoluteResidual,
+                  double rSquared, int pointCount) {
+        this.coefficients = coefficients;
+        this.residualSumOfSquares = residualSumOfSquares;
+        this.maxAbsoluteResidual = maxAbsoluteResidual;
+        this.rSquared = rSquared;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * @return The polynomial degree
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * @return A copy of the coefficients, constant term first
+     */
+    @NotNull
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * @param x Where to evaluate the polynomial
+     * @return The polynomial's value at x
+     */
+    public double valueAt(double x) {
+        return PolynomialFitter.evaluate(coefficients, 0, coefficients.length, x);
+    }
+
+    /**
+     * @return The sum of squared residuals
+     */
+    public double getResidualSumOfSquares() {
+        return residualSumOfSquares;
+    }
+
+    /**
+     * @return The root mean square residual, in the fitted values' unit
+     */
+    public double getRootMeanSquareError() {
+        return Math.sqrt(residualSumOfSquares / pointCount);
+    }
+
+    /**
+     * @return The largest absolute residual, in the fitted values' unit
+     */
+    public double getMaxAbsoluteResidual() {
+        return maxAbsoluteResidual;
+    }
+
+    /**
+     * @return The coefficient of determination: 1 for a perfect fit, 0 for one no better than the mean
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * @return The number of points fitted
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "degree %d fit of %d points, R^2 %.6f, RMS residual %.4g", getDegree(), pointCount, rSquared,
+            getRootMeanSquareError()
+        );
+    }
+}
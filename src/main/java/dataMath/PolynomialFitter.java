@@ -0,0 +1,273 @@
+package dataMath;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Closed-form least-squares polynomial fitting over a fixed set of x values. The pseudo-inverse of the Vandermonde
+ * matrix is found once, by solving the normal equations of the column-scaled matrix, so each fit is a single
+ * matrix-vector product with no iteration, and a batch of fits shares the same small matrix. Only a (degree + 1)
+ * square system is decomposed, so finding the pseudo-inverse takes time and memory linear in the number of x values.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class PolynomialFitter {
+
+    //The most grid fitters kept before the least recently used is dropped, as callers choose the grids
+    private static final int MAX_GRID_FITTERS = 8;
+
+    //Fitters over evenly spaced grids starting at 0, by step, point count and degree, least recently used first
+    private static final Map<GridKey, PolynomialFitter> GRID_FITTERS =
+        new LinkedHashMap<GridKey, PolynomialFitter>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GridKey, PolynomialFitter> eldest) {
+                return size() > MAX_GRID_FITTERS;
+            }
+        };
+
+    //The x values every fit is over
+    private final double[] xs;
+
+    //The polynomial degree
+    private final int degree;
+
+    //The pseudo-inverse, one row per coefficient, constant term first, each row one weight per x value
+    private final double[] projection;
+
+    /**
+     * Finds the pseudo-inverse for fits over the given x values
+     * @param xs The x values, at least degree + 1 of them distinct
+     * @param degree The polynomial degree, at least 0
+     */
+    public PolynomialFitter(@NotNull double[] xs, int degree) {
+        if (degree < 0) {
+            throw new IllegalArgumentException("Polynomial degree must not be negative: " + degree);
+        }
+        int pointCount = xs.length;
+        int coefficientCount = degree + 1;
+        this.xs = xs.clone();
+        this.degree = degree;
+
+        //Scaling each power of x to at most 1 keeps the normal equations well conditioned over wide x ranges; powers
+        //of two keep the scaling itself exact
+        double maxX = 0;
+        for (double x : xs) {
+            maxX = Math.max(maxX, Math.abs(x));
+        }
+        double xScale = maxX > 0 ? Math.scalb(1.0, -Math.getExponent(maxX)) : 1;
+
+        //The transposed Vandermonde matrix, one row per power of x, and its Gram matrix
+        RealMatrix transposed = new Array2DRowRealMatrix(coefficientCount, pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            double power = 1;
+            for (int k = 0; k < coefficientCount; k++) {
+                transposed.setEntry(k, i, power);
+                power *= xs[i] * xScale;
+            }
+        }
+        RealMatrix gram = transposed.multiply(transposed.transpose());
+
+        DecompositionSolver solver = new QRDecomposition(gram).getSolver();
+        if (pointCount < coefficientCount || !solver.isNonSingular()) {
+            throw new IllegalArgumentException(
+                pointCount + " x values cannot determine a degree " + degree + " polynomial"
+            );
+        }
+        RealMatrix pseudoInverse = solver.solve(transposed);
+
+        projection = new double[coefficientCount * pointCount];
+        double unscale = 1;
+        for (int k = 0; k < coefficientCount; k++) {
+            for (int i = 0; i < pointCount; i++) {
+                projection[k * pointCount + i] = pseudoInverse.getEntry(k, i) * unscale;
+            }
+            unscale *= xScale;
+        }
+    }
+
+    /**
+     * @param velocityStep The grid spacing
+     * @param pointCount The number of grid points, the first at 0
+     * @param degree The polynomial degree
+     * @return A fitter over the grid i * velocityStep for 0 <= i < pointCount, shared while the grid stays among the
+     * most recently used
+     */
+    @NotNull
+    public static PolynomialFitter forGrid(double velocityStep, int pointCount, int degree) {
+        GridKey key = new GridKey(velocityStep, pointCount, degree);
+        PolynomialFitter fitter;
+        synchronized (GRID_FITTERS) {
+            fitter = GRID_FITTERS.get(key);
+        }
+        if (fitter != null) {
+            return fitter;
+        }
+
+        //Built outside the lock; a race only builds an identical fitter twice
+        double[] grid = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            grid[i] = i * velocityStep;
+        }
+        fitter = new PolynomialFitter(grid, degree);
+        synchronized (GRID_FITTERS) {
+            GRID_FITTERS.put(key, fitter);
+        }
+        return fitter;
+    }
+
+    /**
+     * @return The polynomial degree
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * @return The number of x values every fit is over
+     */
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    /**
+     * @param ys The y value at each x value
+     * @return The least-squares fit and its quality
+     */
+    @NotNull
+    public PolynomialFit fit(@NotNull double[] ys) {
+        double[] coefficients = new double[degree + 1];
+        fitCoefficients(ys, 0, coefficients, 0);
+        return measure(ys, 0, coefficients);
+    }
+
+    /**
+     * Fits many series over the same x values in one pass, reusing the pseudo-inverse while it is in cache
+     * @param series The y values of each series, one row per series
+     * @return Each series' fit and its quality, in order
+     */
+    @NotNull
+    public PolynomialFit[] fitAll(@NotNull double[][] series) {
+        PolynomialFit[] fits = new PolynomialFit[series.length];
+        for (int s = 0; s < series.length; s++) {
+            fits[s] = fit(series[s]);
+        }
+        return fits;
+    }
+
+    /**
+     * Fits many series packed back to back into one array, without allocating
+     * @param ys The y values of every series, series s occupying [s * pointCount, (s + 1) * pointCount)
+     * @param seriesCount How many series to fit
+     * @param coefficients Receives the coefficients of every series, series s occupying
+     *                     [s * (degree + 1), (s + 1) * (degree + 1)), constant term first
+     */
+    public void fitAll(@NotNull double[] ys, int seriesCount, @NotNull double[] coefficients) {
+        for (int s = 0; s < seriesCount; s++) {
+            fitCoefficients(ys, s * xs.length, coefficients, s * (degree + 1));
+        }
+    }
+
+    /**
+     * @param coefficients Polynomial coefficients, constant term first
+     * @param from The first coefficient (inclusive)
+     * @param to The last coefficient (exclusive)
+     * @param x Where to evaluate the polynomial
+     * @return The polynomial's value at x, by Horner's rule
+     */
+    static double evaluate(@NotNull double[] coefficients, int from, int to, double x) {
+        double value = 0;
+        for (int k = to - 1; k >= from; k--) {
+            value = value * x + coefficients[k];
+        }
+        return value;
+    }
+
+    /**
+     * Multiplies the pseudo-inverse by one series
+     * @param ys The y values
+     * @param yOffset Where the series starts in ys
+     * @param coefficients Receives the coefficients
+     * @param coefficientOffset Where the coefficients start in the output
+     */
+    private void fitCoefficients(@NotNull double[] ys, int yOffset, @NotNull double[] coefficients,
+                                 int coefficientOffset) {
+        int pointCount = xs.length;
+        for (int k = 0; k <= degree; k++) {
+            int row = k * pointCount;
+            double sum = 0;
+            for (int i = 0; i < pointCount; i++) {
+                sum += projection[row + i] * ys[yOffset + i];
+            }
+            coefficients[coefficientOffset + k] = sum;
+        }
+    }
+
+    /**
+     * @param ys The fitted y values
+     * @param yOffset Where the series starts in ys
+     * @param coefficients The fit's coefficients
+     * @return The fit with its residuals and R squared
+     */
+    @NotNull
+    private PolynomialFit measure(@NotNull double[] ys, int yOffset, @NotNull double[] coefficients) {
+        int pointCount = xs.length;
+        double mean = 0;
+        for (int i = 0; i < pointCount; i++) {
+            mean += ys[yOffset + i];
+        }
+        mean /= pointCount;
+
+        double residualSum = 0;
+        double totalSum = 0;
+        double maxResidual = 0;
+        for (int i = 0; i < pointCount; i++) {
+            double y = ys[yOffset + i];
+            double residual = y - evaluate(coefficients, 0, coefficients.length, xs[i]);
+            residualSum += residual * residual;
+            totalSum += (y - mean) * (y - mean);
+            maxResidual = Math.max(maxResidual, Math.abs(residual));
+        }
+        double rSquared = totalSum > 0 ? 1 - residualSum / totalSum : residualSum == 0 ? 1 : 0;
+        return new PolynomialFit(coefficients, residualSum, maxResidual, rSquared, pointCount);
+    }
+
+    /**
+     * Identifies an evenly spaced grid and a degree
+     */
+    private static final class GridKey {
+
+        private final double step;
+        private final int pointCount;
+        private final int degree;
+
+        /**
+         * @param step The grid spacing
+         * @param pointCount The number of grid points
+         * @param degree The polynomial degree
+         */
+        GridKey(double step, int pointCount, int degree) {
+            this.step = step;
+            this.pointCount = pointCount;
+            this.degree = degree;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GridKey)) {
+                return false;
+            }
+            GridKey other = (GridKey) o;
+            return Double.compare(step, other.step) == 0 && pointCount == other.pointCount && degree == other.degree;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Double.hashCode(step) * 31 + pointCount) * 31 + degree;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dataMath;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocation-free power matching over many velocities at once. Each pass takes one pair of adjacent RPM tables, already
+ * interpolated at every velocity, and fills in the RPM and thrust wherever the pair brackets that velocity's power
+ * budget. The loop body is straight-line arithmetic over primitive arrays with selects instead of branches, so the
+ * JIT can unroll and vectorize it, and its interpolations are the same expression as LinearKernel.lerp.
+ */
+public final class PowerMatchKernel {
+
+    private PowerMatchKernel() {
+    }
+
+    /**
+     * Matches every still unmatched element against one pair of RPM tables. An element is unmatched while its thrust
+     * is NaN; it is matched when the lower table absorbs less than its budget, the upper table more, and the thrust
+     * interpolated between them is positive. Calling this for each adjacent pair from the lowest RPM up leaves every
+     * element matched to the lowest pair that qualifies.
+     * @param lowerPower The lower RPM table's power at each velocity
+     * @param lowerThrust The lower RPM table's thrust at each velocity
+     * @param lowerRPM The lower table's RPM
+     * @param upperPower The upper RPM table's power at each velocity
+     * @param upperThrust The upper RPM table's thrust at each velocity
+     * @param upperRPM The upper table's RPM
+     * @param powerBudgets The power to match at each velocity
+     * @param rpms Receives the matched RPM of each newly matched element
+     * @param thrusts Holds NaN for unmatched elements, and receives the matched thrust of each newly matched one
+     * @param count How many elements to match
+     */
+    public static void matchTablePair(@NotNull double[] lowerPower, @NotNull double[] lowerThrust, double lowerRPM,
+                                      @NotNull double[] upperPower, @NotNull double[] upperThrust, double upperRPM,
+                                      @NotNull double[] powerBudgets, @NotNull double[] rpms,
+                                      @NotNull double[] thrusts, int count) {
+        double rpmRise = upperRPM - lowerRPM;
+        for (int i = 0; i < count; i++) {
+            double power1 = lowerPower[i];
+            double power2 = upperPower[i];
+            double budget = powerBudgets[i];
+            double thrust1 = lowerThrust[i];
+            double offset = budget - power1;
+            double run = power2 - power1;
+
+            double thrust = thrust1 + offset * ((upperThrust[i] - thrust1) / run);
+            double rpm = lowerRPM + offset * (rpmRise / run);
+
+            double current = thrusts[i];
+            boolean take = current != current && power1 < budget && power2 > budget && thrust > 0;
+            thrusts[i] = take ? thrust : current;
+            rpms[i] = take ? rpm : rpms[i];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dataMetrics;
+
+import dataOutput.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, such as files parsed or rows written. Increments from many threads are striped across
+ * cells, so counting in a parallel hot loop does not contend on one cache line.
+ */
+public final class Counter extends Metric {
+
+    //The running count
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param name The metric name, ending in _total by Prometheus convention
+     * @param help What the counter counts
+     * @param labels Label names and values, alternating
+     */
+    Counter(@NotNull String name, @NotNull String help, @NotNull String[] labels) {
+        super(name, help, labels);
+    }
+
+    /**
+     * Adds one
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @param amount The non-negative amount to add
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * @return The count so far
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    @NotNull
+    @Override
+    String getType() {
+        return "counter";
+    }
+
+    @Override
+    void writeJsonValues(@NotNull JsonWriter json) {
+        json.name("value").value(get());
+    }
+
+    @Override
+    void writePrometheusSamples(@NotNull StringBuilder out) {
+        appendSample(out, "", null, null, get());
+    }
+}
@@ -0,0 +1,159 @@
+package dataMetrics;
+
+import dataOutput.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free distribution of non-negative whole values, such as rows per file. Each power of two is split into four
+ * equal buckets, so any percentile is reported to within 25% over the whole range of a long, and recording costs a
+ * bit scan and a few atomic updates. Exported to Prometheus as a summary with its 50th, 90th and 99th percentiles.
+ */
+public class Histogram extends Metric {
+
+    //Buckets per power of two
+    private static final int SUB_BUCKETS = 4;
+
+    //Values below this have a bucket each; above it every power of two is split into SUB_BUCKETS
+    private static final int LINEAR_LIMIT = SUB_BUCKETS;
+
+    //Enough buckets for Long.MAX_VALUE
+    private static final int BUCKET_COUNT = bucketOf(Long.MAX_VALUE) + 1;
+
+    //The quantiles exported to Prometheus
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    //How many values fell in each bucket
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    //The number of recorded values, their sum and the largest
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param name The metric name
+     * @param help What the histogram measures
+     * @param labels Label names and values, alternating
+     */
+    Histogram(@NotNull String name, @NotNull String help, @NotNull String[] labels) {
+        super(name, help, labels);
+    }
+
+    /**
+     * @param value The value to record, negative values counting as 0
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        total.increment();
+        sum.add(clamped);
+        long largest;
+        while (clamped > (largest = max.get()) && !max.compareAndSet(largest, clamped)) {
+            //Retries until this value is stored or a larger one is
+        }
+    }
+
+    /**
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * @return The sum of every recorded value
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return The largest recorded value, 0 before any
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the bucket holding the percentile, at most the largest value, 0 before any value
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @param value A non-negative value
+     * @return The bucket it falls in
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        //The highest set bit picks the power of two, the two bits below it the quarter
+        int octave = 63 - Long.numberOfLeadingZeros(value);
+        int quarter = (int) (value >>> (octave - 2)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (octave - 1) + quarter;
+    }
+
+    /**
+     * @param bucket A bucket
+     * @return The largest value the bucket holds
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int octave = bucket / SUB_BUCKETS + 1;
+        long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << (octave - 2);
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    @NotNull
+    @Override
+    String getType() {
+        return "summary";
+    }
+
+    @Override
+    void writeJsonValues(@NotNull JsonWriter json) {
+        json.name("count").value(getCount());
+        json.name("sum").value(getSum());
+        json.name("p50").value(getPercentile(50));
+        json.name("p99").value(getPercentile(99));
+        json.name("max").value(getMax());
+    }
+
+    @Override
+    void writePrometheusSamples(@NotNull StringBuilder out) {
+        for (double quantile : QUANTILES) {
+            appendSample(out, "", "quantile", Double.toString(quantile), scale(getPercentile(quantile * 100)));
+        }
+        appendSample(out, "_sum", null, null, scale(getSum()));
+        appendSample(out, "_count", null, null, getCount());
+    }
+
+    /**
+     * @param value A recorded value, or a sum or percentile of them
+     * @return The value in the unit the metric is exported in
+     */
+    double scale(long value) {
+        return value;
+    }
+}
@@ -0,0 +1,104 @@
+package dataMetrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Level-controlled console logging. Information goes to standard out and problems to standard error, as before, but
+ * anything below the current level is dropped before its message is built, so per-propeller detail can stay in hot
+ * loops at no cost. The level starts from the apc.log.level system property, INFO unless set.
+ */
+public final class Log {
+
+    /**
+     * How much to log, from least to most
+     */
+    public enum Level {
+        OFF, ERROR, WARN, INFO, DEBUG
+    }
+
+    //The most detailed level logged
+    private static volatile Level level = parseLevel(System.getProperty("apc.log.level"));
+
+    /**
+     * Not instantiable
+     */
+    private Log() {
+    }
+
+    /**
+     * @param newLevel The most detailed level to log from now on
+     */
+    public static void setLevel(@NotNull Level newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * @return The most detailed level logged
+     */
+    @NotNull
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @param messageLevel A level
+     * @return If messages at the level are logged
+     */
+    public static boolean isEnabled(@NotNull Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.compareTo(level) <= 0;
+    }
+
+    /**
+     * @param message Something that went wrong and lost work
+     */
+    public static void error(@NotNull String message) {
+        if (isEnabled(Level.ERROR)) {
+            System.err.println(message);
+        }
+    }
+
+    /**
+     * @param message Something that went wrong but was worked around
+     */
+    public static void warn(@NotNull String message) {
+        if (isEnabled(Level.WARN)) {
+            System.err.println(message);
+        }
+    }
+
+    /**
+     * @param message A summary of finished work
+     */
+    public static void info(@NotNull String message) {
+        if (isEnabled(Level.INFO)) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * @param message Builds per-item detail, only called when debug logging is on
+     */
+    public static void debug(@NotNull Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            System.out.println(message.get());
+        }
+    }
+
+    /**
+     * @param name A level name in any case, or null
+     * @return The named level, INFO when the name is null or unknown
+     */
+    @NotNull
+    private static Level parseLevel(String name) {
+        if (name != null) {
+            for (Level candidate : Level.values()) {
+                if (candidate.name().equalsIgnoreCase(name.trim())) {
+                    return candidate;
+                }
+            }
+        }
+        return Level.INFO;
+    }
+}
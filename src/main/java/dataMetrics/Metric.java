@@ -0,0 +1,144 @@
+package dataMetrics;
+
+import dataOutput.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A named measurement, optionally told apart from others of the same name by label pairs, that can be written to a
+ * JSON or Prometheus text snapshot. Instances are created through a MetricRegistry and are safe to update from any
+ * number of threads.
+ */
+public abstract class Metric {
+
+    //The metric name, in Prometheus style: lower case words joined by underscores
+    private final String name;
+
+    //What the metric measures
+    private final String help;
+
+    //Label names and values, alternating
+    private final String[] labels;
+
+    /**
+     * @param name The metric name
+     * @param help What the metric measures
+     * @param labels Label names and values, alternating
+     */
+    Metric(@NotNull String name, @NotNull String help, @NotNull String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels of " + name + " must be name and value pairs");
+        }
+        this.name = name;
+        this.help = help;
+        this.labels = labels.clone();
+    }
+
+    /**
+     * @return The metric name
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return What the metric measures
+     */
+    @NotNull
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * @return The Prometheus type the metric is exported as
+     */
+    @NotNull
+    abstract String getType();
+
+    /**
+     * Writes the metric's current values as the members of an already opened JSON object
+     * @param json The writer
+     */
+    abstract void writeJsonValues(@NotNull JsonWriter json);
+
+    /**
+     * Writes the metric's current values as Prometheus sample lines
+     * @param out The text so far
+     */
+    abstract void writePrometheusSamples(@NotNull StringBuilder out);
+
+    /**
+     * Writes the metric as one JSON object: its name, type, labels and current values
+     * @param json The writer, positioned for a value
+     */
+    final void writeJson(@NotNull JsonWriter json) {
+        json.beginObject().name("name").value(name).name("type").value(getType());
+        if (labels.length > 0) {
+            json.name("labels").beginObject();
+            for (int i = 0; i < labels.length; i += 2) {
+                json.name(labels[i]).value(labels[i + 1]);
+            }
+            json.endObject();
+        }
+        writeJsonValues(json);
+        json.endObject();
+    }
+
+    /**
+     * Writes one Prometheus sample line
+     * @param out The text so far
+     * @param suffix Appended to the metric name, such as _sum
+     * @param extraLabel A label only this sample carries, such as quantile, or null
+     * @param extraValue The extra label's value
+     * @param value The sample value
+     */
+    final void appendSample(@NotNull StringBuilder out, @NotNull String suffix, String extraLabel, String extraValue,
+                            double value) {
+        out.append(name).append(suffix);
+        if (labels.length > 0 || extraLabel != null) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                appendLabel(out, i > 0, labels[i], labels[i + 1]);
+            }
+            if (extraLabel != null) {
+                appendLabel(out, labels.length > 0, extraLabel, extraValue);
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        }
+        else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * @param out The text so far
+     * @param comma If a label precedes this one
+     * @param labelName The label name
+     * @param labelValue The label value, escaped as Prometheus requires
+     */
+    private static void appendLabel(@NotNull StringBuilder out, boolean comma, @NotNull String labelName,
+                                    @NotNull String labelValue) {
+        if (comma) {
+            out.append(',');
+        }
+        out.append(labelName).append("=\"");
+        for (int i = 0; i < labelValue.length(); i++) {
+            char c = labelValue.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            }
+            else if (c == '\n') {
+                out.append("\\n");
+            }
+            else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
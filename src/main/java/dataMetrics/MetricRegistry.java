@@ -0,0 +1,149 @@
+package dataMetrics;
+
+import dataOutput.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Holds every metric by name and labels, creating each on first use so instrumented code only needs to know its own
+ * metric's name. Snapshots list metrics sorted by name, then labels, as JSON or in the Prometheus text format.
+ *
+ * Hot paths should look their metrics up once, into a static field, rather than on every call.
+ */
+public final class MetricRegistry {
+
+    //The registry the application's own metrics are recorded in
+    private static final MetricRegistry GLOBAL = new MetricRegistry();
+
+    //Every metric, keyed by name then labels
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return The registry the application's own metrics are recorded in
+     */
+    @NotNull
+    public static MetricRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param name The metric name, ending in _total by Prometheus convention
+     * @param help What the counter counts
+     * @param labels Label names and values, alternating
+     * @return The counter with the name and labels, created if it does not exist
+     */
+    @NotNull
+    public Counter counter(@NotNull String name, @NotNull String help, @NotNull String... labels) {
+        return register(Counter.class, name, labels, key -> new Counter(name, help, labels));
+    }
+
+    /**
+     * @param name The metric name
+     * @param help What the histogram measures
+     * @param labels Label names and values, alternating
+     * @return The histogram with the name and labels, created if it does not exist
+     */
+    @NotNull
+    public Histogram histogram(@NotNull String name, @NotNull String help, @NotNull String... labels) {
+        return register(Histogram.class, name, labels, key -> new Histogram(name, help, labels));
+    }
+
+    /**
+     * @param name The metric name, ending in _seconds by Prometheus convention
+     * @param help What the timer times
+     * @param labels Label names and values, alternating
+     * @return The timer with the name and labels, created if it does not exist
+     */
+    @NotNull
+    public Timer timer(@NotNull String name, @NotNull String help, @NotNull String... labels) {
+        return register(Timer.class, name, labels, key -> new Timer(name, help, labels));
+    }
+
+    /**
+     * @return Every metric, sorted by name then labels
+     */
+    @NotNull
+    public List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * @return Every metric's current values, as one JSON document
+     */
+    @NotNull
+    public String toJson() {
+        JsonWriter json = new JsonWriter().beginObject().name("metrics").beginArray();
+        for (Metric metric : metrics.values()) {
+            metric.writeJson(json);
+        }
+        return json.endArray().endObject().toString();
+    }
+
+    /**
+     * @return Every metric's current values, in the Prometheus text exposition format
+     */
+    @NotNull
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        String previousName = null;
+        for (Metric metric : metrics.values()) {
+            //Metrics that differ only in labels share one HELP and TYPE header, and sort next to each other
+            if (!metric.getName().equals(previousName)) {
+                out.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+                out.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType()).append('\n');
+                previousName = metric.getName();
+            }
+            metric.writePrometheusSamples(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a snapshot beside the file and moves it into place, so a reader never sees a partial snapshot
+     * @param snapshotFile The file to write, in Prometheus text when its name ends in .prom and JSON otherwise
+     * @throws IOException If the snapshot cannot be written
+     */
+    public void writeSnapshot(@NotNull Path snapshotFile) throws IOException {
+        String snapshot = snapshotFile.getFileName().toString().endsWith(".prom") ? toPrometheus() : toJson();
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        Files.write(tempFile, snapshot.getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param type The metric class expected under the name
+     * @param name The metric name
+     * @param labels Label names and values, alternating
+     * @param factory Creates the metric when it does not exist
+     * @param <T> The metric type
+     * @return The existing or created metric
+     */
+    @NotNull
+    private <T extends Metric> T register(@NotNull Class<T> type, @NotNull String name, @NotNull String[] labels,
+                                          @NotNull Function<String, T> factory) {
+        //Space sorts before every character allowed in a name, so a name's labelled variants follow it directly
+        String key = labels.length == 0 ? name : name + ' ' + Arrays.toString(labels);
+        Metric metric = metrics.computeIfAbsent(key, factory);
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException(
+                name + " is already a " + metric.getClass().getSimpleName() + ", not a " + type.getSimpleName()
+            );
+        }
+        return type.cast(metric);
+    }
+}
@@ -0,0 +1,67 @@
+package dataMetrics;
+
+import dataOutput.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A distribution of durations, such as the parse time of each file. Durations are recorded in nanoseconds, reported
+ * in microseconds in JSON, and exported to Prometheus in seconds as the convention asks.
+ */
+public final class Timer extends Histogram {
+
+    /**
+     * @param name The metric name, ending in _seconds by Prometheus convention
+     * @param help What the timer times
+     * @param labels Label names and values, alternating
+     */
+    Timer(@NotNull String name, @NotNull String help, @NotNull String[] labels) {
+        super(name, help, labels);
+    }
+
+    /**
+     * Records the time since a start reading
+     * @param startNanos A System.nanoTime reading taken when the timed work began
+     * @return The recorded duration, in nanoseconds
+     */
+    public long stop(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @return The percentile duration, in microseconds
+     */
+    public double getPercentileMicros(double percentile) {
+        return getPercentile(percentile) / 1e3;
+    }
+
+    /**
+     * @return The sum of every recorded duration, in milliseconds
+     */
+    public double getTotalMillis() {
+        return getSum() / 1e6;
+    }
+
+    /**
+     * @return The longest recorded duration, in microseconds
+     */
+    public double getMaxMicros() {
+        return getMax() / 1e3;
+    }
+
+    @Override
+    void writeJsonValues(@NotNull JsonWriter json) {
+        json.name("count").value(getCount());
+        json.name("totalMillis").value(getTotalMillis());
+        json.name("p50Micros").value(getPercentileMicros(50));
+        json.name("p99Micros").value(getPercentileMicros(99));
+        json.name("maxMicros").value(getMaxMicros());
+    }
+
+    @Override
+    double scale(long nanos) {
+        return nanos / 1e9;
+    }
+}
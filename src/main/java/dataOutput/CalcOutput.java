@@ -1,16 +1,22 @@
 package dataOutput;
 
-import com.opencsv.CSVWriter;
+import dataMetrics.Log;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
+import dataParsing.MotorConfiguration;
 import dataParsing.PropellerDataLoader;
 import dataParsing.PropellerDataSet;
-import org.jetbrains.annotations.Contract;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-
-import static dataParsing.PropellerDataLoader.POWER_CONSTANT;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
 
 /**
  * Outputs a structured csv file using the given data set and constraints
@@ -20,127 +26,135 @@ public class CalcOutput {
     //The number of dynamic thrust data points to collect for each propeller
     public static final int NUM_DATA_POINTS = 85;
 
+    //How long each whole write of the catalogue took, evaluation included
+    private static final Timer OUTPUT_PHASE = MetricRegistry.global().timer(
+        "apc_phase_seconds", "Time spent in each phase of a run", "phase", "output"
+    );
+
+    //The directory output files are written to
+    private static final String OUTPUT_DIRECTORY = "src/CalcOutput";
+
     //The output name of the file that propeller data will be written to
     private static final String OUTPUT_FILE_NAME = "UsefulPropellerData";
 
-    //If this file output has been initialized or not
-    private static boolean fileInitialized = false;
-
-    //The output file that all propeller data is written to
-    private static File outputFile = new File("src/CalcOutput/" + OUTPUT_FILE_NAME + ".csv");
+    //The timestamp appended to every output file name, so each run gets its own file
+    private static final String TIMESTAMP_PATTERN = "yyyyMMdd-HHmmss-SSS";
 
     /**
-     * Writes each propeller data set's dynamic thrust data to the output file
+     * Writes each propeller data set's dynamic thrust data to a new timestamped csv file in the output directory
      * @param allPropData The propeller data set to write
+     * @param motor The motor configuration to evaluate every propeller against
      */
-    public static void writeDynamicThrustData(PropellerDataLoader allPropData) {
-        //Loops through every line of every RPM data of every propeller file
-        for (int i = 0; i < allPropData.getNumOfProps(); i++) {
-
-            PropellerDataSet propData = allPropData.getPropellerDataAt(i);
-            String propName = propData.getName();
-            System.out.println("Writing prop: " + propName);
-
-            ArrayList<Integer> propRPMS = new ArrayList<>(propData.getPropRPMs());
-
-            //Write static thrust
-            writeCalcOutput(
-                propName, 0, 0, POWER_CONSTANT, propData.getStaticThrust(),
-                propData.getDynamicThrustPrediction(0), ""
-            );
-
-
-            //Generates ~100-200 dynamic thrust numbers for each rpm
-            int velocityCounter = 1;
-
-            outerLoop:
-            for (int j = 0; j < propRPMS.size() - 1; j++) {
-                for (int k = 0; k < 200; k++) {
-
-                    double interRPM = propData.InterpolateRPM(velocityCounter, propRPMS.get(j), propRPMS.get(j + 1));
-                    double interThrust = propData.getDynamicThrust(velocityCounter, propRPMS.get(j), propRPMS.get(j + 1));
-                    double predictedThrust = propData.getDynamicThrustPrediction(velocityCounter);
-
-                    if (interThrust > 0 && velocityCounter < NUM_DATA_POINTS) {
-                            writeCalcOutput(
-                                    propName, velocityCounter, interRPM, POWER_CONSTANT, interThrust, predictedThrust, ""
-                            );
-                            if (velocityCounter == NUM_DATA_POINTS - 1) {
-                                velocityCounter++;
-                                writeCalcOutput(
-                                        propName, velocityCounter, interRPM, POWER_CONSTANT, interThrust, predictedThrust,
-                                        propData.getThrustFormula()
-                                );
-                                break outerLoop;
-                            }
-                        velocityCounter++;
-                    }
-                }
-            }
-        }
+    public static void writeDynamicThrustData(PropellerDataLoader allPropData, MotorConfiguration motor) {
+        writeDynamicThrustData(allPropData, motor, OutputFormat.CSV);
     }
 
     /**
-     * Creates an output csv file and writes the header.
+     * Writes each propeller data set's dynamic thrust data to a new timestamped file in the output directory
+     * @param allPropData The propeller data set to write
+     * @param motor The motor configuration to evaluate every propeller against
+     * @param format The file format to write
      */
-    private static void initOutputFile() {
-        int counter = 1;
-        while (outputFile.exists()) {
-            outputFile = new File("src/CalcOutput/" + OUTPUT_FILE_NAME + counter + ".csv");
-            counter++;
-        }
-
-        fileInitialized = true;
-
-        try {
-            FileWriter outputWriter = new FileWriter(outputFile, true);
-            CSVWriter writer = new CSVWriter(outputWriter);
-
-            String[] columnLabels = {
-                "PropName", "Velocity (mph)", "RPM", "Power (hp)", "Thrust (Lbf)",
-                "Predicted Thrust", "Thrust Formula"
-            };
-            writer.writeNext(columnLabels);
-
-            writer.close();
+    public static void writeDynamicThrustData(PropellerDataLoader allPropData, MotorConfiguration motor,
+                                              @NotNull OutputFormat format) {
+        Path outputFile = newOutputFile(format);
+        try (ResultWriter writer = format.open(outputFile)) {
+            writeDynamicThrustData(allPropData, motor, writer);
         }
         catch (IOException e) {
-            e.printStackTrace();
+            Log.error("Could not write " + outputFile + ": " + e);
         }
     }
 
     /**
-     * Writes to the output file the given data in a structured csv format
-     * @param propName The name of the prop to write
-     * @param velocity The velocity value to write
-     * @param RPM The RPM value to write out
-     * @param power The power value to write
-     * @param thrust The thrust value to write
-     * @param prediction The thrust prediction value to write
+     * Writes each propeller data set's dynamic thrust data to the given writer, leaving it open
+     * @param allPropData The propeller data set to write
+     * @param motor The motor configuration to evaluate every propeller against
+     * @param writer The destination of every row
+     * @throws IOException If the output cannot be written
      */
-    @Contract(pure = true)
-    private static void writeCalcOutput(
-            String propName, double velocity, double RPM, double power,
-            double thrust, double prediction, String thrustFormula) {
+    public static void writeDynamicThrustData(PropellerDataLoader allPropData, MotorConfiguration motor,
+                                              @NotNull ResultWriter writer) throws IOException {
+        long start = System.nanoTime();
 
-        if (!fileInitialized) {
-            initOutputFile();
+        //Loops through every line of every RPM data of every propeller file
+        for (PropellerDataSet propData : allPropData.getAllPropellerData()) {
+            Log.debug(() -> "Writing prop: " + propData.getName());
+
+            //Static thrust, power-matched RPM and thrust at every whole mph, and the thrust fit
+            PropellerEvaluation evaluation = evaluate(propData, motor);
+
+            //Write static thrust, then dynamic thrust until the propeller can no longer absorb the power
+            writer.writeEvaluation(evaluation, lastVelocity(evaluation));
         }
 
-        try {
-            FileWriter outputWriter = new FileWriter(outputFile, true);
-            CSVWriter writer = new CSVWriter(outputWriter);
+        writer.flush();
+        Log.info(String.format(
+            "Wrote %d rows to %s in %.1f ms.",
+            writer.getRowCount(), writer.getOutputFile(), OUTPUT_PHASE.stop(start) / 1e6
+        ));
+    }
 
-            String[] values = {
-                propName, String.valueOf(velocity), String.valueOf(RPM), String.valueOf(power),
-                String.valueOf(thrust), String.valueOf(prediction), thrustFormula
-            };
-            writer.writeNext(values);
+    /**
+     * Evaluates a propeller on the velocity grid every output row comes from
+     * @param propData The propeller to evaluate
+     * @param motor The motor configuration to evaluate against
+     * @return The evaluation
+     */
+    @NotNull
+    public static PropellerEvaluation evaluate(@NotNull PropellerDataSet propData, @NotNull MotorConfiguration motor) {
+        return propData.evaluate(motor, 1, NUM_DATA_POINTS + 1);
+    }
 
-            writer.close();
+    /**
+     * Replaces the output file with the rows of the given evaluations. The rows are written beside the file and moved
+     * into place, so a reader never sees a partial file.
+     * @param evaluations The evaluations to write, in output order
+     * @param format The file format to write
+     * @param outputFile The file to replace
+     * @throws IOException If the output cannot be written
+     */
+    public static void replaceOutput(@NotNull Collection<PropellerEvaluation> evaluations,
+                                     @NotNull OutputFormat format, @NotNull Path outputFile) throws IOException {
+        Path tempFile = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+        Files.deleteIfExists(tempFile);
+        try (ResultWriter writer = format.open(tempFile)) {
+            for (PropellerEvaluation evaluation : evaluations) {
+                writer.writeEvaluation(evaluation, lastVelocity(evaluation));
+            }
         }
         catch (IOException e) {
-            e.printStackTrace();
+            Files.deleteIfExists(tempFile);
+            throw e;
         }
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param evaluation An evaluated propeller
+     * @return The last whole mph to write, the last the propeller can absorb the power at or NUM_DATA_POINTS
+     */
+    private static int lastVelocity(@NotNull PropellerEvaluation evaluation) {
+        return Math.min(NUM_DATA_POINTS, evaluation.getCurve().getReachableCount() - 1);
+    }
+
+    /**
+     * @param format The file format, which decides the extension
+     * @return A file in the output directory named after the current time, so earlier runs are never overwritten
+     */
+    @NotNull
+    public static Path newOutputFile(@NotNull OutputFormat format) {
+        return newTimestampedFile(OUTPUT_FILE_NAME, format.getExtension());
+    }
+
+    /**
+     * @param name The start of the file name
+     * @param extension The file extension, with its dot
+     * @return A file in the output directory named after the current time, so earlier runs are never overwritten
+     */
+    @NotNull
+    static Path newTimestampedFile(@NotNull String name, @NotNull String extension) {
+        String timestamp = new SimpleDateFormat(TIMESTAMP_PATTERN).format(new Date());
+        return Paths.get(OUTPUT_DIRECTORY, name + "_" + timestamp + extension);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package dataOutput;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static dataOutput.ColumnarResultWriter.FORMAT_VERSION;
+import static dataOutput.ColumnarResultWriter.HEADER_BYTES;
+import static dataOutput.ColumnarResultWriter.MAGIC;
+import static dataOutput.ColumnarResultWriter.ROW_COLUMN_COUNT;
+
+/**
+ * Memory-maps a file written by ColumnarResultWriter. Every value is read in place from the mapping, so opening a file
+ * costs only the header checks and the propeller name dictionary, whatever the number of rows.
+ */
+public final class ColumnarResultReader {
+
+    //Row column indexes
+    public static final int VELOCITY = 0;
+    public static final int RPM = 1;
+    public static final int POWER = 2;
+    public static final int THRUST = 3;
+    public static final int PREDICTED_THRUST = 4;
+
+    //The mapped file
+    private final ByteBuffer buffer;
+
+    //Section sizes read from the header
+    private final int propCount;
+    private final int rowCount;
+    private final int coefficientCount;
+
+    //Where each section starts in the file
+    private final int rowStartsOffset;
+    private final int staticThrustOffset;
+    private final int coefficientOffset;
+    private final int rowColumnsOffset;
+
+    //The propeller names, in file order, and the index of each
+    private final String[] propNames;
+    private final Map<String, Integer> propIndexes;
+
+    /**
+     * @param buffer The mapped file
+     * @throws IOException If the file is not a columnar result file of a supported version
+     */
+    private ColumnarResultReader(@NotNull ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a columnar result file");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported columnar result version " + buffer.getInt(4));
+        }
+        propCount = buffer.getInt(8);
+        rowCount = buffer.getInt(12);
+        coefficientCount = buffer.getInt(16);
+        int nameBytes = buffer.getInt(20);
+
+        rowStartsOffset = HEADER_BYTES;
+        int nameOffsetsOffset = rowStartsOffset + 4 * (propCount + 1);
+        staticThrustOffset = nameOffsetsOffset + 4 * (propCount + 1);
+        coefficientOffset = staticThrustOffset + 8 * propCount;
+        rowColumnsOffset = coefficientOffset + 8 * propCount * coefficientCount;
+        int namesOffset = rowColumnsOffset + 8 * ROW_COLUMN_COUNT * rowCount;
+        if (propCount < 0 || rowCount < 0 || coefficientCount < 0 || namesOffset + nameBytes != buffer.capacity()) {
+            throw new IOException("Columnar result file is truncated or corrupt");
+        }
+
+        propNames = new String[propCount];
+        propIndexes = new HashMap<>(propCount * 2);
+        for (int p = 0; p < propCount; p++) {
+            int start = buffer.getInt(nameOffsetsOffset + 4 * p);
+            int end = buffer.getInt(nameOffsetsOffset + 4 * (p + 1));
+            byte[] name = new byte[end - start];
+            for (int i = 0; i < name.length; i++) {
+                name[i] = buffer.get(namesOffset + start + i);
+            }
+            propNames[p] = new String(name, StandardCharsets.UTF_8);
+            propIndexes.put(propNames[p], p);
+        }
+    }
+
+    /**
+     * Memory-maps a columnar result file
+     * @param resultFile The file to open
+     * @return The reader over the mapped file
+     * @throws IOException If the file cannot be mapped or is not a columnar result file
+     */
+    @NotNull
+    public static ColumnarResultReader open(@NotNull Path resultFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(resultFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ColumnarResultReader(buffer);
+        }
+    }
+
+    /**
+     * @return The number of propellers in the file
+     */
+    public int getPropCount() {
+        return propCount;
+    }
+
+    /**
+     * @return The number of rows across all propellers
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param prop The propeller index
+     * @return The propeller's name
+     */
+    @NotNull
+    public String getPropName(int prop) {
+        return propNames[prop];
+    }
+
+    /**
+     * @param propName The propeller name to find
+     * @return The propeller's index, or -1 if it is not in the file
+     */
+    public int indexOfProp(@NotNull String propName) {
+        Integer index = propIndexes.get(propName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param prop The propeller index
+     * @return The propeller's first row
+     */
+    public int getFirstRow(int prop) {
+        return buffer.getInt(rowStartsOffset + 4 * prop);
+    }
+
+    /**
+     * @param prop The propeller index
+     * @return The number of rows the propeller has
+     */
+    public int getRowCount(int prop) {
+        return getFirstRow(prop + 1) - getFirstRow(prop);
+    }
+
+    /**
+     * @param prop The propeller index
+     * @return The propeller's static thrust
+     */
+    public double getStaticThrust(int prop) {
+        return buffer.getDouble(staticThrustOffset + 8 * prop);
+    }
+
+    /**
+     * @return The number of fit coefficients stored per propeller
+     */
+    public int getFitCoefficientCount() {
+        return coefficientCount;
+    }
+
+    /**
+     * @param prop The propeller index
+     * @return The coefficients of the propeller's thrust over velocity fit, constant term first
+     */
+    @NotNull
+    public double[] getFitCoefficients(int prop) {
+        double[] coefficients = new double[coefficientCount];
+        for (int c = 0; c < coefficientCount; c++) {
+            coefficients[c] = buffer.getDouble(coefficientOffset + 8 * (prop * coefficientCount + c));
+        }
+        return coefficients;
+    }
+
+    /**
+     * @param prop The propeller index
+     * @param velocity The velocity to evaluate the fit at
+     * @return The thrust at the velocity given by the propeller's polynomial fit
+     */
+    public double getFittedThrust(int prop, double velocity) {
+        int base = coefficientOffset + 8 * prop * coefficientCount;
+        double thrust = 0;
+        for (int c = coefficientCount - 1; c >= 0; c--) {
+            thrust = thrust * velocity + buffer.getDouble(base + 8 * c);
+        }
+        return thrust;
+    }
+
+    /**
+     * @param row The row, across all propellers
+     * @param column The row column to read, such as VELOCITY or THRUST
+     * @return The stored value
+     */
+    public double getValue(int row, int column) {
+        return buffer.getDouble(rowColumnsOffset + 8 * (column * rowCount + row));
+    }
+
+    /**
+     * @param column The row column to view, such as VELOCITY or THRUST
+     * @return A read-only view of the whole column straight over the mapping, indexed by row
+     */
+    @NotNull
+    public DoubleBuffer column(int column) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(rowColumnsOffset + 8 * column * rowCount);
+        view.limit(view.position() + 8 * rowCount);
+        return view.slice().asDoubleBuffer().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,232 @@
+package dataOutput;
+
+import dataMetrics.Counter;
+import dataMetrics.MetricRegistry;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes results as primitive columns that ColumnarResultReader can memory-map without parsing. Rows are collected in
+ * memory and the whole file is written on close, because each column is stored contiguously.
+ *
+ * Layout (big endian, with every double section 8-byte aligned):
+ * header: magic, format version, propeller count P, row count R, fit coefficient count C, name bytes length N
+ * int[P + 1] first row of each propeller, the last entry being R
+ * int[P + 1] start of each propeller's name in the name bytes, the last entry being N
+ * double[P] static thrust, double[P * C] fit coefficients (constant term first, zero padded)
+ * double[R] velocity, RPM, power, thrust and predicted thrust columns, one after another
+ * byte[N] the UTF-8 propeller names, back to back
+ */
+public class ColumnarResultWriter implements ResultWriter {
+
+    //Identifies a columnar result file ("APCR")
+    static final int MAGIC = 0x41504352;
+
+    //Bumped whenever the layout changes
+    static final int FORMAT_VERSION = 1;
+
+    //Rows and bytes written to columnar files, counted as each file is written
+    private static final Counter ROWS_WRITTEN = MetricRegistry.global().counter(
+        "apc_rows_written_total", "Result rows written", "format", "columnar"
+    );
+    private static final Counter BYTES_WRITTEN = MetricRegistry.global().counter(
+        "apc_bytes_written_total", "Result file bytes written", "format", "columnar"
+    );
+
+    //The size of the fixed header, in bytes
+    static final int HEADER_BYTES = 24;
+
+    //The number of per-row columns
+    static final int ROW_COLUMN_COUNT = 5;
+
+    //The file to create on close
+    private final Path outputFile;
+
+    //Per-propeller values, in write order
+    private final List<String> propNames = new ArrayList<>();
+    private final List<double[]> fitCoefficients = new ArrayList<>();
+    private double[] staticThrusts = new double[64];
+    private int[] rowStarts = new int[65];
+
+    //The row columns: velocity, RPM, power, thrust and predicted thrust
+    private final double[][] rowColumns = new double[ROW_COLUMN_COUNT][1024];
+
+    //How many rows have been collected
+    private int rowCount;
+
+    //The widest fit seen so far
+    private int coefficientCount;
+
+    //If the file has been written
+    private boolean closed;
+
+    /**
+     * @param outputFile The file to create on close, which must not already exist
+     * @throws IOException If the file already exists or its directory cannot be created
+     */
+    public ColumnarResultWriter(@NotNull Path outputFile) throws IOException {
+        this.outputFile = outputFile;
+        if (Files.exists(outputFile)) {
+            throw new FileAlreadyExistsException(outputFile.toString());
+        }
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    /**
+     * Collects the rows and fit of one evaluated propeller
+     * @param evaluation The evaluated propeller
+     * @param lastVelocity The last whole mph to write a power-matched row for
+     */
+    @Override
+    public void writeEvaluation(@NotNull PropellerEvaluation evaluation, int lastVelocity) {
+        if (closed) {
+            throw new IllegalStateException("Writer for " + outputFile + " is closed");
+        }
+        int prop = propNames.size();
+        if (prop == staticThrusts.length) {
+            staticThrusts = Arrays.copyOf(staticThrusts, prop * 2);
+            rowStarts = Arrays.copyOf(rowStarts, prop * 2 + 1);
+        }
+
+        double[] coefficients = evaluation.getFitCoefficients();
+        propNames.add(evaluation.getPropName());
+        fitCoefficients.add(coefficients);
+        coefficientCount = Math.max(coefficientCount, coefficients.length);
+        staticThrusts[prop] = evaluation.getStaticThrust();
+        rowStarts[prop] = rowCount;
+
+        double powerBudget = evaluation.getMotor().getPowerBudget();
+        PowerMatchedCurve curve = evaluation.getCurve();
+        addRow(0, 0, powerBudget, evaluation.getStaticThrust(), evaluation.getDynamicThrustPrediction(0));
+        for (int velocity = 1; velocity <= lastVelocity; velocity++) {
+            addRow(
+                velocity, curve.getRPM(velocity), powerBudget, curve.getThrust(velocity),
+                evaluation.getDynamicThrustPrediction(velocity)
+            );
+        }
+        rowStarts[prop + 1] = rowCount;
+    }
+
+    /**
+     * @return How many data rows have been collected
+     */
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The file written on close
+     */
+    @NotNull
+    @Override
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Does nothing, as the columns can only be written once every row is known
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Writes every collected column to the output file
+     * @throws IOException If the file exists or cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        int propCount = propNames.size();
+        byte[][] names = new byte[propCount][];
+        int nameBytes = 0;
+        for (int p = 0; p < propCount; p++) {
+            names[p] = propNames.get(p).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[p].length;
+        }
+
+        try (OutputStream fileOut = Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(propCount);
+            out.writeInt(rowCount);
+            out.writeInt(coefficientCount);
+            out.writeInt(nameBytes);
+
+            for (int p = 0; p <= propCount; p++) {
+                out.writeInt(rowStarts[p]);
+            }
+            int nameOffset = 0;
+            out.writeInt(0);
+            for (int p = 0; p < propCount; p++) {
+                nameOffset += names[p].length;
+                out.writeInt(nameOffset);
+            }
+
+            for (int p = 0; p < propCount; p++) {
+                out.writeDouble(staticThrusts[p]);
+            }
+            for (double[] coefficients : fitCoefficients) {
+                for (int c = 0; c < coefficientCount; c++) {
+                    out.writeDouble(c < coefficients.length ? coefficients[c] : 0);
+                }
+            }
+            for (double[] column : rowColumns) {
+                for (int r = 0; r < rowCount; r++) {
+                    out.writeDouble(column[r]);
+                }
+            }
+            for (byte[] name : names) {
+                out.write(name);
+            }
+            out.flush();
+            ROWS_WRITTEN.add(rowCount);
+            BYTES_WRITTEN.add(out.size());
+        }
+    }
+
+    /**
+     * Appends one row to every row column
+     * @param velocity The velocity value
+     * @param rpm The RPM value
+     * @param power The power value
+     * @param thrust The thrust value
+     * @param prediction The thrust prediction value
+     */
+    private void addRow(double velocity, double rpm, double power, double thrust, double prediction) {
+        if (rowCount == rowColumns[0].length) {
+            for (int c = 0; c < ROW_COLUMN_COUNT; c++) {
+                rowColumns[c] = Arrays.copyOf(rowColumns[c], rowCount * 2);
+            }
+        }
+        rowColumns[0][rowCount] = velocity;
+        rowColumns[1][rowCount] = rpm;
+        rowColumns[2][rowCount] = power;
+        rowColumns[3][rowCount] = thrust;
+        rowColumns[4][rowCount] = prediction;
+        rowCount++;
+    }
+}
@@ -0,0 +1,169 @@
+package dataOutput;
+
+import dataMetrics.Counter;
+import dataMetrics.MetricRegistry;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes result rows to one csv file through a single long-lived buffered writer. Rows are assembled in a reusable
+ * CsvRowBuffer, with every field quoted the way opencsv's CSVWriter quotes them, so the file only sees a write when the
+ * buffer fills and on flush or close.
+ */
+public class CsvResultWriter implements ResultWriter {
+
+    //The csv column labels
+    private static final String[] COLUMN_LABELS = {
+        "PropName", "Velocity (mph)", "RPM", "Power (hp)", "Thrust (Lbf)", "Predicted Thrust", "Thrust Formula"
+    };
+
+    //Rows and bytes written to csv files, counted as each file is closed
+    private static final Counter ROWS_WRITTEN = MetricRegistry.global().counter(
+        "apc_rows_written_total", "Result rows written", "format", "csv"
+    );
+    private static final Counter BYTES_WRITTEN = MetricRegistry.global().counter(
+        "apc_bytes_written_total", "Result file bytes written", "format", "csv"
+    );
+
+    //The size of the underlying file buffer, in chars
+    private static final int FILE_BUFFER_SIZE = 1 << 16;
+
+    //The digits kept after the decimal point of every number
+    private static final int FRACTION_DIGITS = 9;
+
+    //The file being written
+    private final Path outputFile;
+
+    //The buffered writer over the output file
+    private final BufferedWriter writer;
+
+    //The row currently being assembled
+    private final CsvRowBuffer row = new CsvRowBuffer(FRACTION_DIGITS);
+
+    //How many data rows have been written, excluding the header
+    private long rowCount;
+
+    //If the file has been closed
+    private boolean closed;
+
+    /**
+     * Creates the output file, which must not already exist, and writes the header
+     * @param outputFile The csv file to create
+     * @throws IOException If the file exists or cannot be created
+     */
+    public CsvResultWriter(@NotNull Path outputFile) throws IOException {
+        this.outputFile = outputFile;
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = new BufferedWriter(
+            Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW),
+            FILE_BUFFER_SIZE
+        );
+
+        for (int i = 0; i < COLUMN_LABELS.length; i++) {
+            row.appendText(COLUMN_LABELS[i], i == 0);
+        }
+        row.endRow(writer);
+    }
+
+    /**
+     * Writes the rows of one evaluated propeller, with the thrust fit on its last power-matched row, or on its static
+     * row when it has no power-matched rows
+     * @param evaluation The evaluated propeller
+     * @param lastVelocity The last whole mph to write a power-matched row for
+     * @throws IOException If the file cannot be written
+     */
+    @Override
+    public void writeEvaluation(@NotNull PropellerEvaluation evaluation, int lastVelocity) throws IOException {
+        String propName = evaluation.getPropName();
+        double powerBudget = evaluation.getMotor().getPowerBudget();
+        PowerMatchedCurve curve = evaluation.getCurve();
+        String thrustFormula = evaluation.getThrustFormula();
+
+        writeRow(
+            propName, 0, 0, powerBudget, evaluation.getStaticThrust(), evaluation.getDynamicThrustPrediction(0),
+            lastVelocity < 1 ? thrustFormula : ""
+        );
+        for (int velocity = 1; velocity <= lastVelocity; velocity++) {
+            writeRow(
+                propName, velocity, curve.getRPM(velocity), powerBudget, curve.getThrust(velocity),
+                evaluation.getDynamicThrustPrediction(velocity), velocity == lastVelocity ? thrustFormula : ""
+            );
+        }
+    }
+
+    /**
+     * Writes one result row
+     * @param propName The name of the prop to write
+     * @param velocity The velocity value to write
+     * @param rpm The RPM value to write out
+     * @param power The power value to write
+     * @param thrust The thrust value to write
+     * @param prediction The thrust prediction value to write
+     * @param thrustFormula The thrust fit to write, usually empty except on a propeller's last row
+     * @throws IOException If the file cannot be written
+     */
+    public void writeRow(@NotNull String propName, double velocity, double rpm, double power, double thrust,
+                         double prediction, @NotNull String thrustFormula) throws IOException {
+        row.appendText(propName, true);
+        row.appendNumber(velocity, false);
+        row.appendNumber(rpm, false);
+        row.appendNumber(power, false);
+        row.appendNumber(thrust, false);
+        row.appendNumber(prediction, false);
+        row.appendText(thrustFormula, false);
+        row.endRow(writer);
+        rowCount++;
+    }
+
+    /**
+     * @return How many data rows have been written, excluding the header
+     */
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The file being written
+     */
+    @NotNull
+    @Override
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Pushes every buffered row to the file
+     * @throws IOException If the file cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes and closes the file
+     * @throws IOException If the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.close();
+        ROWS_WRITTEN.add(rowCount);
+        BYTES_WRITTEN.add(Files.size(outputFile));
+    }
+}
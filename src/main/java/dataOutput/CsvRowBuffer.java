@@ -0,0 +1,83 @@
+package dataOutput;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Assembles one csv row at a time in a reusable char buffer, with every field quoted the way opencsv's CSVWriter
+ * quotes them and numbers formatted without allocating, then hands the finished row to a writer in a single write
+ */
+final class CsvRowBuffer {
+
+    //Formats numbers without allocating
+    private final DoubleFormatter formatter;
+
+    //The row currently being assembled
+    private char[] row = new char[256];
+    private int rowLength;
+
+    /**
+     * @param fractionDigits The digits kept after the decimal point of every number
+     */
+    CsvRowBuffer(int fractionDigits) {
+        this.formatter = new DoubleFormatter(fractionDigits);
+    }
+
+    /**
+     * @param text The field to append, quoted with any quotes doubled
+     * @param first If this is the first field of the row
+     */
+    void appendText(@NotNull String text, boolean first) {
+        ensureCapacity(text.length() * 2 + 3);
+        if (!first) {
+            row[rowLength++] = ',';
+        }
+        row[rowLength++] = '"';
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                row[rowLength++] = '"';
+            }
+            row[rowLength++] = c;
+        }
+        row[rowLength++] = '"';
+    }
+
+    /**
+     * @param value The number to append as a quoted field
+     * @param first If this is the first field of the row
+     */
+    void appendNumber(double value, boolean first) {
+        ensureCapacity(DoubleFormatter.maxLength() + 3);
+        if (!first) {
+            row[rowLength++] = ',';
+        }
+        row[rowLength++] = '"';
+        rowLength = formatter.format(value, row, rowLength);
+        row[rowLength++] = '"';
+    }
+
+    /**
+     * Ends the current row and hands it to the writer
+     * @param writer The destination of the row
+     * @throws IOException If the row cannot be written
+     */
+    void endRow(@NotNull Writer writer) throws IOException {
+        ensureCapacity(1);
+        row[rowLength++] = '\n';
+        writer.write(row, 0, rowLength);
+        rowLength = 0;
+    }
+
+    /**
+     * @param extra How many more chars the row needs room for
+     */
+    private void ensureCapacity(int extra) {
+        if (rowLength + extra > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, rowLength + extra));
+        }
+    }
+}
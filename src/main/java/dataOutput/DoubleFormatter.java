@@ -0,0 +1,105 @@
+package dataOutput;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Formats doubles as plain decimal text straight into a char buffer, rounded to a fixed number of fraction digits
+ * with trailing zeros trimmed. Unlike String.valueOf it allocates nothing, and never switches to scientific notation
+ * for the magnitudes found in propeller data.
+ */
+public final class DoubleFormatter {
+
+    //Values at or beyond this magnitude could overflow the scaled long, and fall back to Double.toString
+    private static final double MAX_PLAIN_MAGNITUDE = 1e9;
+
+    //The most fraction digits a formatter can be configured with
+    public static final int MAX_FRACTION_DIGITS = 9;
+
+    //Powers of ten up to MAX_FRACTION_DIGITS
+    private static final long[] POWERS_OF_TEN = new long[MAX_FRACTION_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    //How many digits to keep after the decimal point
+    private final int fractionDigits;
+
+    /**
+     * @param fractionDigits How many digits to keep after the decimal point, at most MAX_FRACTION_DIGITS
+     */
+    public DoubleFormatter(int fractionDigits) {
+        if (fractionDigits < 1 || fractionDigits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("Fraction digits must be between 1 and " + MAX_FRACTION_DIGITS);
+        }
+        this.fractionDigits = fractionDigits;
+    }
+
+    /**
+     * @return The most characters a single formatted value can take
+     */
+    public static int maxLength() {
+        //Sign, up to 24 characters of Double.toString fallback
+        return 26;
+    }
+
+    /**
+     * Writes the value into the buffer, which must have at least maxLength() free characters from the offset
+     * @param value The value to format
+     * @param buffer The buffer to write into
+     * @param offset Where to start writing
+     * @return The offset just past the written text
+     */
+    public int format(double value, @NotNull char[] buffer, int offset) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= MAX_PLAIN_MAGNITUDE) {
+            String text = Double.toString(value);
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+
+        long scale = POWERS_OF_TEN[fractionDigits];
+        long scaled = Math.round(Math.abs(value) * scale);
+        long integerPart = scaled / scale;
+        long fractionPart = scaled % scale;
+
+        int position = offset;
+        if (value < 0 && scaled != 0) {
+            buffer[position++] = '-';
+        }
+        position = writeDigits(integerPart, buffer, position);
+        buffer[position++] = '.';
+
+        //Trailing zeros are trimmed, keeping at least one fraction digit
+        int digits = fractionDigits;
+        while (digits > 1 && fractionPart % 10 == 0) {
+            fractionPart /= 10;
+            digits--;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (char) ('0' + fractionPart % 10);
+            fractionPart /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * @param value A non-negative whole number
+     * @param buffer The buffer to write into
+     * @param offset Where to start writing
+     * @return The offset just past the written digits
+     */
+    private static int writeDigits(long value, @NotNull char[] buffer, int offset) {
+        int length = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            buffer[offset + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
+}
@@ -0,0 +1,191 @@
+package dataOutput;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A minimal streaming JSON builder for server responses and metric snapshots. Callers are trusted to open and close
+ * objects and arrays in order; the writer only tracks where commas go. Non-finite numbers are written as null.
+ */
+public final class JsonWriter {
+
+    //The document so far
+    private final StringBuilder json = new StringBuilder(256);
+
+    //If the next value in the current object or array needs a comma before it
+    private boolean needsComma;
+
+    /**
+     * @return This writer, after opening an object
+     */
+    @NotNull
+    public JsonWriter beginObject() {
+        separate();
+        json.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * @return This writer, after closing the current object
+     */
+    @NotNull
+    public JsonWriter endObject() {
+        json.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @return This writer, after opening an array
+     */
+    @NotNull
+    public JsonWriter beginArray() {
+        separate();
+        json.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * @return This writer, after closing the current array
+     */
+    @NotNull
+    public JsonWriter endArray() {
+        json.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @param name The member name for the value that follows
+     * @return This writer
+     */
+    @NotNull
+    public JsonWriter name(@NotNull String name) {
+        separate();
+        appendString(name);
+        json.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * @param value A string value
+     * @return This writer
+     */
+    @NotNull
+    public JsonWriter value(@NotNull String value) {
+        separate();
+        appendString(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @param value A number, written as null if it is NaN or infinite
+     * @return This writer
+     */
+    @NotNull
+    public JsonWriter value(double value) {
+        separate();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.append("null");
+        }
+        else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            json.append((long) value);
+        }
+        else {
+            json.append(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @param value A whole number
+     * @return This writer
+     */
+    @NotNull
+    public JsonWriter value(long value) {
+        separate();
+        json.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @param values Numbers, written as one array
+     * @param count How many leading values to write
+     * @return This writer
+     */
+    @NotNull
+    public JsonWriter array(@NotNull double[] values, int count) {
+        beginArray();
+        for (int i = 0; i < count; i++) {
+            value(values[i]);
+        }
+        return endArray();
+    }
+
+    /**
+     * @return The document as UTF-8
+     */
+    @NotNull
+    public byte[] toBytes() {
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The document
+     */
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+
+    /**
+     * Writes a comma if a value precedes the next one at the current level
+     */
+    private void separate() {
+        if (needsComma) {
+            json.append(',');
+        }
+    }
+
+    /**
+     * @param value The string to quote and escape
+     */
+    private void appendString(@NotNull String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,147 @@
+package dataOutput;
+
+import dataSimulation.MissionResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a mission ranking to one csv file, one row per propeller, quoted and formatted the way CsvResultWriter writes
+ * result rows. Milestones a propeller never reached are left empty.
+ */
+public class MissionRankingWriter implements Closeable {
+
+    //The output name of the file mission rankings are written to
+    private static final String OUTPUT_FILE_NAME = "MissionRanking";
+
+    //The csv column labels
+    private static final String[] COLUMN_LABELS = {
+        "Rank", "PropName", "Lift-off Time (s)", "Lift-off Distance (ft)", "Time to Target Speed (s)",
+        "Distance to Target Speed (ft)", "Energy to Target Speed (Wh)", "Max Speed (mph)", "Max Climb Rate (ft/min)",
+        "Distance (ft)", "Energy Used (Wh)"
+    };
+
+    //The digits kept after the decimal point of every number
+    private static final int FRACTION_DIGITS = 3;
+
+    //The file being written
+    private final Path outputFile;
+
+    //The buffered writer over the output file
+    private final BufferedWriter writer;
+
+    //The row currently being assembled
+    private final CsvRowBuffer row = new CsvRowBuffer(FRACTION_DIGITS);
+
+    //How many propellers have been written, excluding the header
+    private int rowCount;
+
+    /**
+     * Creates the output file, which must not already exist, and writes the header
+     * @param outputFile The csv file to create
+     * @throws IOException If the file exists or cannot be created
+     */
+    public MissionRankingWriter(@NotNull Path outputFile) throws IOException {
+        this.outputFile = outputFile;
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+
+        for (int i = 0; i < COLUMN_LABELS.length; i++) {
+            row.appendText(COLUMN_LABELS[i], i == 0);
+        }
+        row.endRow(writer);
+    }
+
+    /**
+     * Writes a whole ranking to a new timestamped csv file in the output directory. The rows are written beside the
+     * file and moved into place, so a reader never sees a partial file.
+     * @param ranking Every propeller's mission, best first
+     * @return The file written
+     * @throws IOException If the output cannot be written
+     */
+    @NotNull
+    public static Path writeRanking(@NotNull List<MissionResult> ranking) throws IOException {
+        Path outputFile = CalcOutput.newTimestampedFile(OUTPUT_FILE_NAME, ".csv");
+        Path tempFile = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+        Files.deleteIfExists(tempFile);
+        try (MissionRankingWriter writer = new MissionRankingWriter(tempFile)) {
+            for (MissionResult result : ranking) {
+                writer.writeResult(result);
+            }
+        }
+        catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return outputFile;
+    }
+
+    /**
+     * Writes the next propeller's row, ranked one below the last
+     * @param result The propeller's mission
+     * @throws IOException If the file cannot be written
+     */
+    public void writeResult(@NotNull MissionResult result) throws IOException {
+        rowCount++;
+        row.appendText(Integer.toString(rowCount), true);
+        row.appendText(result.getPropName(), false);
+        appendMilestone(result.getLiftOffTime());
+        appendMilestone(result.getLiftOffDistance());
+        appendMilestone(result.getTimeToTargetSpeed());
+        appendMilestone(result.getDistanceToTargetSpeed());
+        appendMilestone(result.getEnergyToTargetSpeed());
+        appendMilestone(result.getMaxSpeed());
+        appendMilestone(result.getMaxClimbRate());
+        appendMilestone(result.getDistance());
+        appendMilestone(result.getEnergyUsed());
+        row.endRow(writer);
+    }
+
+    /**
+     * @return How many propellers have been written, excluding the header
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The file being written
+     */
+    @NotNull
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Flushes and closes the file
+     * @throws IOException If the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * @param value A mission value, NaN for a milestone never reached, which is written as an empty field
+     */
+    private void appendMilestone(double value) {
+        if (Double.isNaN(value)) {
+            row.appendText("", false);
+        }
+        else {
+            row.appendNumber(value, false);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dataOutput;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The file formats CalcOutput can write results in
+ */
+public enum OutputFormat {
+
+    //Quoted text rows, for spreadsheets and people
+    CSV(".csv") {
+        @NotNull
+        @Override
+        public ResultWriter open(@NotNull Path outputFile) throws IOException {
+            return new CsvResultWriter(outputFile);
+        }
+    },
+
+    //Binary primitive columns, for tools that memory-map the results with ColumnarResultReader
+    COLUMNAR(".apcr") {
+        @NotNull
+        @Override
+        public ResultWriter open(@NotNull Path outputFile) throws IOException {
+            return new ColumnarResultWriter(outputFile);
+        }
+    };
+
+    //The file extension, including the dot
+    private final String extension;
+
+    /**
+     * @param extension The file extension, including the dot
+     */
+    OutputFormat(@NotNull String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return The file extension, including the dot
+     */
+    @NotNull
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Creates a writer in this format
+     * @param outputFile The file to create, which must not already exist
+     * @return The open writer
+     * @throws IOException If the file exists or cannot be created
+     */
+    @NotNull
+    public abstract ResultWriter open(@NotNull Path outputFile) throws IOException;
+}
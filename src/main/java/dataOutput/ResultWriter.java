@@ -0,0 +1,35 @@
+package dataOutput;
+
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A destination for evaluated propellers. Each evaluation becomes one row per velocity: a static thrust row at
+ * velocity 0 with RPM 0, followed by the power-matched row at every whole mph from 1 up to the given last velocity.
+ */
+public interface ResultWriter extends Closeable, Flushable {
+
+    /**
+     * Writes the rows of one evaluated propeller
+     * @param evaluation The evaluated propeller
+     * @param lastVelocity The last whole mph to write a power-matched row for, which must be reachable on the curve
+     * @throws IOException If the output cannot be written
+     */
+    void writeEvaluation(@NotNull PropellerEvaluation evaluation, int lastVelocity) throws IOException;
+
+    /**
+     * @return How many data rows have been written
+     */
+    long getRowCount();
+
+    /**
+     * @return The file being written
+     */
+    @NotNull
+    Path getOutputFile();
+}
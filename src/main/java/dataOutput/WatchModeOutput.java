@@ -0,0 +1,118 @@
+package dataOutput;
+
+import dataMetrics.Log;
+import dataParsing.CatalogueChange;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerCatalogue;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerDataWatcher;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps one output file in step with a watched propeller data directory. Every propeller is evaluated once at start;
+ * afterwards each batch of file changes re-evaluates only the added and updated propellers, drops removed ones, and
+ * replaces the output file with the refreshed rows.
+ */
+public class WatchModeOutput implements Closeable {
+
+    //The catalogue being watched
+    private final PropellerCatalogue catalogue;
+
+    //The motor configuration every propeller is evaluated against
+    private final MotorConfiguration motor;
+
+    //The file format and file kept up to date
+    private final OutputFormat format;
+    private final Path outputFile;
+
+    //The current evaluation of every propeller, keyed and ordered by source file
+    private final Map<Path, PropellerEvaluation> evaluations = new TreeMap<>();
+
+    //The watcher applying file changes, null until started
+    private volatile PropellerDataWatcher watcher;
+
+    /**
+     * @param catalogue The catalogue to watch
+     * @param motor The motor configuration to evaluate every propeller against
+     * @param format The file format to write
+     * @param outputFile The file to keep up to date
+     */
+    public WatchModeOutput(@NotNull PropellerCatalogue catalogue, @NotNull MotorConfiguration motor,
+                           @NotNull OutputFormat format, @NotNull Path outputFile) {
+        this.catalogue = catalogue;
+        this.motor = motor;
+        this.format = format;
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Registers for changes, catches up on any made since the catalogue was loaded, evaluates and writes every
+     * propeller, then starts applying changes. Changes made while the output is written queue up and are applied once
+     * the watcher starts, so none are missed.
+     * @throws IOException If the output cannot be written or the directory cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        long start = System.nanoTime();
+        watcher = new PropellerDataWatcher(catalogue, this::onChanges);
+        for (CatalogueChange change : catalogue.rescan()) {
+            Log.info(change.toString());
+        }
+
+        for (Map.Entry<Path, PropellerDataSet> entry : catalogue.getPropellersByFile().entrySet()) {
+            evaluations.put(entry.getKey(), CalcOutput.evaluate(entry.getValue(), motor));
+        }
+        CalcOutput.replaceOutput(evaluations.values(), format, outputFile);
+        Log.info(String.format(
+            "Wrote %d propellers to %s in %.1f ms, watching %s for changes.",
+            evaluations.size(), outputFile, (System.nanoTime() - start) / 1e6, catalogue.getRoot()
+        ));
+        watcher.start();
+    }
+
+    /**
+     * Re-evaluates the changed propellers and rewrites the output
+     * @param changes The batch of catalogue changes
+     */
+    private synchronized void onChanges(@NotNull List<CatalogueChange> changes) {
+        long start = System.nanoTime();
+        for (CatalogueChange change : changes) {
+            Log.info(change.toString());
+            if (change.isRemoved()) {
+                evaluations.remove(change.getPath());
+            }
+            else {
+                evaluations.put(change.getPath(), CalcOutput.evaluate(change.getCurrent(), motor));
+            }
+        }
+
+        try {
+            CalcOutput.replaceOutput(evaluations.values(), format, outputFile);
+            Log.info(String.format(
+                "Recomputed %d of %d propellers and rewrote %s in %.1f ms.",
+                changes.size(), evaluations.size(), outputFile, (System.nanoTime() - start) / 1e6
+            ));
+        }
+        catch (IOException e) {
+            Log.error("Could not rewrite " + outputFile + ": " + e);
+        }
+    }
+
+    /**
+     * Stops watching. Not synchronized, so it never waits behind a batch of changes being applied.
+     * @throws IOException If the watcher cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
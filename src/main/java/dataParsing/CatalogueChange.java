@@ -0,0 +1,87 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * One propeller data file that was added to, updated in or removed from a PropellerCatalogue
+ */
+public final class CatalogueChange {
+
+    //The source file that changed
+    private final Path path;
+
+    //The data set before the change, null if the file was added
+    private final PropellerDataSet previous;
+
+    //The data set after the change, null if the file was removed
+    private final PropellerDataSet current;
+
+    /**
+     * @param path The source file that changed
+     * @param previous The data set before the change, null if the file was added
+     * @param current The data set after the change, null if the file was removed
+     */
+    CatalogueChange(@NotNull Path path, @Nullable PropellerDataSet previous, @Nullable PropellerDataSet current) {
+        this.path = path;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    /**
+     * @return The source file that changed
+     */
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return The data set before the change, or null if the file was added
+     */
+    @Nullable
+    public PropellerDataSet getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return The data set after the change, or null if the file was removed
+     */
+    @Nullable
+    public PropellerDataSet getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return If the file is new to the catalogue
+     */
+    public boolean isAdded() {
+        return previous == null;
+    }
+
+    /**
+     * @return If the file left the catalogue
+     */
+    public boolean isRemoved() {
+        return current == null;
+    }
+
+    /**
+     * @return The name of the propeller after the change, or before it if the file was removed
+     */
+    @NotNull
+    public String getPropName() {
+        return current != null ? current.getName() : previous.getName();
+    }
+
+    /**
+     * @return What happened to which propeller
+     */
+    @Override
+    public String toString() {
+        String action = isAdded() ? "Added" : isRemoved() ? "Removed" : "Updated";
+        return action + " " + getPropName() + " (" + path.getFileName() + ")";
+    }
+}
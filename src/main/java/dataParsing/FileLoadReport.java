@@ -0,0 +1,86 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of loading a single propeller data file: how long it took, and either the parsed data set or the
+ * reason it could not be parsed
+ */
+public final class FileLoadReport {
+
+    //The file this report describes
+    private final Path path;
+
+    //The parsed data set, null if the file failed to load
+    private final PropellerDataSet dataSet;
+
+    //Why the file failed to load, null if it loaded successfully
+    private final Throwable failure;
+
+    //The wall time spent reading and parsing the file
+    private final long elapsedNanos;
+
+    /**
+     * @param path The file this report describes
+     * @param dataSet The parsed data set, or null on failure
+     * @param failure The failure cause, or null on success
+     * @param elapsedNanos The time spent loading the file
+     */
+    FileLoadReport(@NotNull Path path, @Nullable PropellerDataSet dataSet, @Nullable Throwable failure,
+                   long elapsedNanos) {
+        this.path = path;
+        this.dataSet = dataSet;
+        this.failure = failure;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The file this report describes
+     */
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return The parsed data set, or null if the file failed to load
+     */
+    @Nullable
+    public PropellerDataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return Why the file failed to load, or null if it loaded successfully
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return If the file was parsed into a data set
+     */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * @return The wall time spent loading the file, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String timing = String.format("%.2f ms", elapsedNanos / 1e6);
+        if (isSuccess()) {
+            return path.getFileName() + " -> " + dataSet.getName() + " (" + timing + ")";
+        }
+        return path.getFileName() + " failed after " + timing + ": " + failure;
+    }
+}
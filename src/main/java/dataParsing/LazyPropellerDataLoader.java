@@ -0,0 +1,355 @@
+package dataParsing;
+
+import dataMetrics.Counter;
+import dataMetrics.Log;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A catalogue that only reads each data file's header line up front and parses a propeller the first time it is
+ * asked for, so answering about one propeller costs one file parse rather than the whole catalogue's. Every file
+ * with a readable header line keeps its position for the life of the catalogue. A file whose body fails to parse is
+ * marked unparsable the first time it is asked for and reported in getLoadReports; its position then stays taken but
+ * answers with an exception, and its name is no longer indexed. Positions therefore match the eager loader's for the
+ * same directory only when every file parses, since the eager loader leaves failed files out altogether.
+ *
+ * Parsed propellers are kept in two tiers: the most recently used ones strongly, up to a fixed count, and every other
+ * one parsed so far softly, so it is reused until the collector needs the memory back. All accessors are safe to call
+ * from any thread; two threads missing on the same propeller may both parse it, and the first to finish is kept.
+ * Whole-catalogue passes should go through getAllPropellerData or findPropellerDataAt, which skip unparsable files.
+ */
+public class LazyPropellerDataLoader extends PropellerDataLoader {
+
+    //The most propellers kept strongly when no count is given
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    //The most header bytes read to find the name, which APC header lines are far shorter than
+    private static final int HEADER_BYTES = 512;
+
+    //How many propeller lookups were answered from memory and how many had to parse the file
+    private static final Counter CACHE_HITS = MetricRegistry.global().counter(
+        "apc_catalogue_cache_requests_total", "Lazy catalogue propeller lookups", "result", "hit"
+    );
+    private static final Counter CACHE_MISSES = MetricRegistry.global().counter(
+        "apc_catalogue_cache_requests_total", "Lazy catalogue propeller lookups", "result", "miss"
+    );
+
+    //How long each whole load took, which for a lazy catalogue is reading the header lines
+    private static final Timer LOAD_PHASE = MetricRegistry.global().timer(
+        "apc_phase_seconds", "Time spent in each phase of a run", "phase", "load"
+    );
+
+    //Every data file with a readable header line, in sorted file order, which never changes once indexed
+    private final List<PropellerFileEntry> entries = new ArrayList<>();
+
+    //The failed parse of each position whose file body could not be parsed, null where it parsed or was never tried;
+    //guarded by recent
+    private final FileLoadReport[] parseFailures;
+
+    //Each parsable propeller's catalogue position, by name, the first file winning when names repeat; guarded by
+    //recent
+    private final Map<String, Integer> indexByName = new HashMap<>();
+
+    //The files whose header line could not be read, then those whose body failed to parse, in the order they
+    //failed; guarded by recent
+    private final List<FileLoadReport> failures = new ArrayList<>();
+
+    //The most recently used propellers, by position, least recently used first; guarded by itself
+    private final LinkedHashMap<Integer, PropellerDataSet> recent;
+
+    //Every propeller parsed so far, by position, until the collector clears it; guarded by recent
+    private final Map<Integer, SoftReference<PropellerDataSet>> parsed = new HashMap<>();
+
+    /**
+     * A lazy catalogue keeping DEFAULT_CACHE_SIZE propellers strongly
+     * @param dataPath The root path of propeller data files
+     */
+    public LazyPropellerDataLoader(String dataPath) {
+        this(dataPath, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Indexes every data file's header line
+     * @param dataPath The root path of propeller data files
+     * @param cacheSize The most recently used propellers to keep strongly, at least 1
+     */
+    public LazyPropellerDataLoader(String dataPath, int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("A lazy catalogue must keep at least one propeller: " + cacheSize);
+        }
+        this.recent = new LinkedHashMap<Integer, PropellerDataSet>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PropellerDataSet> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        indexDataFiles(dataPath);
+        this.parseFailures = new FileLoadReport[entries.size()];
+    }
+
+    /**
+     * Reads the header line of every file under the given folder, in sorted path order
+     * @param dataPath The folder path to index
+     */
+    private void indexDataFiles(String dataPath) {
+        long startTime = System.nanoTime();
+
+        //The walk already reads every file's attributes, so sizes come with the listing instead of another stat each
+        Map<Path, Long> sizes = new HashMap<>();
+        List<Path> dataFiles;
+        try (Stream<Path> paths = Files.find(Paths.get(dataPath), Integer.MAX_VALUE, (path, attributes) -> {
+            if (attributes.isRegularFile()) {
+                sizes.put(path, attributes.size());
+                return true;
+            }
+            return false;
+        })) {
+            dataFiles = paths.sorted().collect(Collectors.toList());
+        }
+        catch (IOException | UncheckedIOException e) {
+            Log.error("Unable to list propeller data files in " + dataPath + ": " + e);
+            return;
+        }
+
+        byte[] header = new byte[HEADER_BYTES];
+        for (Path dataFile : dataFiles) {
+            long fileStart = System.nanoTime();
+            try (InputStream in = new FileInputStream(dataFile.toFile())) {
+                int length = 0;
+                int headerEnd = -1;
+                while (headerEnd < 0 && length < header.length) {
+                    int read = in.read(header, length, header.length - length);
+                    if (read < 0) {
+                        break;
+                    }
+                    for (int i = length; i < length + read && headerEnd < 0; i++) {
+                        if (header[i] == '\n') {
+                            headerEnd = i;
+                        }
+                    }
+                    length += read;
+                }
+                if (length == 0) {
+                    throw new IOException("Empty propeller data file");
+                }
+                String name = PropellerDataTokenizer.nameFromHeader(header, headerEnd < 0 ? length : headerEnd);
+                indexByName.putIfAbsent(name, entries.size());
+                entries.add(new PropellerFileEntry(name, dataFile, sizes.get(dataFile)));
+            }
+            catch (IOException | RuntimeException e) {
+                FileLoadReport report = new FileLoadReport(dataFile, null, e, System.nanoTime() - fileStart);
+                failures.add(report);
+                Log.warn("Skipped " + report);
+            }
+        }
+        Log.info(String.format(
+            "Indexed %d propeller data files in %.1f ms (%d failed), parsing on first use.",
+            entries.size(), LOAD_PHASE.stop(startTime) / 1e6, failures.size()
+        ));
+    }
+
+    /**
+     * @return The size of the indexed catalogue, including any file that has since failed to parse
+     */
+    @Override
+    public int getNumOfProps() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the propeller from memory, or parses its file if it was never parsed or the collector has cleared it
+     * @param propIndex The propeller data file index
+     * @return The propeller data set at the given index
+     * @throws IllegalStateException If the file can no longer be read or parsed, now or on an earlier call
+     */
+    @Override
+    public PropellerDataSet getPropellerDataAt(int propIndex) {
+        PropellerDataSet dataSet = findPropellerDataAt(propIndex);
+        if (dataSet == null) {
+            FileLoadReport report;
+            synchronized (recent) {
+                report = parseFailures[propIndex];
+            }
+            throw new IllegalStateException("Could not parse " + entries.get(propIndex), report.getFailure());
+        }
+        return dataSet;
+    }
+
+    /**
+     * Returns the propeller from memory, or parses its file, marking the position unparsable if that fails
+     * @param propIndex The propeller data file index
+     * @return The propeller data set at the given index, or null if its file can no longer be read or parsed
+     */
+    @Nullable
+    @Override
+    public PropellerDataSet findPropellerDataAt(int propIndex) {
+        PropellerFileEntry entry = entries.get(propIndex);
+        synchronized (recent) {
+            if (parseFailures[propIndex] != null) {
+                return null;
+            }
+            PropellerDataSet dataSet = cached(propIndex);
+            if (dataSet != null) {
+                CACHE_HITS.increment();
+                return dataSet;
+            }
+        }
+
+        CACHE_MISSES.increment();
+        FileLoadReport report = loadFile(entry.getFile());
+        if (!report.isSuccess()) {
+            markUnparsable(propIndex, report);
+            return null;
+        }
+
+        synchronized (recent) {
+            PropellerDataSet raced = cached(propIndex);
+            if (raced != null) {
+                return raced;
+            }
+            recent.put(propIndex, report.getDataSet());
+            parsed.put(propIndex, new SoftReference<>(report.getDataSet()));
+        }
+        Log.debug(() -> "Parsed " + entry + " on first use");
+        return report.getDataSet();
+    }
+
+    /**
+     * Records that a position's file failed to parse, unless another thread already has, and hands its name to the
+     * next parsable file sharing it
+     * @param propIndex The propeller data file index
+     * @param report The failed parse
+     */
+    private void markUnparsable(int propIndex, @NotNull FileLoadReport report) {
+        synchronized (recent) {
+            if (parseFailures[propIndex] != null) {
+                return;
+            }
+            parseFailures[propIndex] = report;
+            failures.add(report);
+            String name = entries.get(propIndex).getName();
+            Integer indexed = indexByName.get(name);
+            if (indexed != null && indexed == propIndex) {
+                indexByName.remove(name);
+                for (int i = propIndex + 1; i < entries.size(); i++) {
+                    if (parseFailures[i] == null && entries.get(i).getName().equals(name)) {
+                        indexByName.put(name, i);
+                        break;
+                    }
+                }
+            }
+        }
+        Log.warn("Skipped " + report);
+    }
+
+    /**
+     * Looks the propeller up in both tiers, promoting it to most recently used. Callers hold the lock on recent.
+     * @param propIndex The propeller data file index
+     * @return The propeller, or null if it must be parsed
+     */
+    @Nullable
+    private PropellerDataSet cached(int propIndex) {
+        PropellerDataSet dataSet = recent.get(propIndex);
+        if (dataSet == null) {
+            SoftReference<PropellerDataSet> reference = parsed.get(propIndex);
+            dataSet = reference == null ? null : reference.get();
+            if (dataSet != null) {
+                recent.put(propIndex, dataSet);
+            }
+        }
+        return dataSet;
+    }
+
+    /**
+     * @param propIndex The propeller data file index
+     * @return The name of the propeller at the given index, from its header line
+     */
+    @NotNull
+    @Override
+    public String getPropellerName(int propIndex) {
+        return entries.get(propIndex).getName();
+    }
+
+    /**
+     * @param propName A propeller name, such as 10x7E
+     * @return The index of the first parsable propeller with the name, or -1 if none has it
+     */
+    @Override
+    public int indexOf(@NotNull String propName) {
+        synchronized (recent) {
+            Integer propIndex = indexByName.get(propName);
+            return propIndex == null ? -1 : propIndex;
+        }
+    }
+
+    /**
+     * @param propIndex The propeller data file index
+     * @return What the index knows about the propeller's file, without parsing it
+     */
+    @NotNull
+    public PropellerFileEntry getEntry(int propIndex) {
+        return entries.get(propIndex);
+    }
+
+    /**
+     * @return The number of propellers currently parsed and in memory
+     */
+    public int getParsedCount() {
+        synchronized (recent) {
+            int count = 0;
+            for (SoftReference<PropellerDataSet> reference : parsed.values()) {
+                if (reference.get() != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * @return An estimate of the heap held by the tables of every propeller currently in memory, in bytes
+     */
+    @Override
+    public long getMemoryFootprint() {
+        synchronized (recent) {
+            long bytes = 0;
+            for (SoftReference<PropellerDataSet> reference : parsed.values()) {
+                PropellerDataSet dataSet = reference.get();
+                if (dataSet != null) {
+                    bytes += dataSet.getMemoryFootprint();
+                }
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * @return The reports of the files whose header line could not be read, then of the files dropped so far for
+     * failing to parse on first use, in the order they failed
+     */
+    @Override
+    public List<FileLoadReport> getLoadReports() {
+        synchronized (recent) {
+            return Collections.unmodifiableList(new ArrayList<>(failures));
+        }
+    }
+}
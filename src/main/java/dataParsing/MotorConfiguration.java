@@ -0,0 +1,173 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable motor and battery configuration to evaluate propellers against. One loaded catalogue can be evaluated
+ * against any number of configurations without reloading.
+ */
+public final class MotorConfiguration {
+
+    //Converts feet per second to miles per hour
+    private static final double FPS_TO_MPH = 0.6818182;
+
+    //The configuration the calculator was originally written for: a 310 KV motor at 90% efficiency on a 6S (22.2 V)
+    //pack, rated for 1.34 hp, with airspeed estimated from a 13 inch pitch
+    public static final MotorConfiguration DEFAULT = new MotorConfiguration(310, 22.2, 0.9, 1.34, 13);
+
+    //The motor's RPM per volt
+    private final double kv;
+
+    //The battery pack voltage
+    private final double voltage;
+
+    //The fraction of the motor's rated power that reaches the propeller
+    private final double efficiency;
+
+    //The motor's rated power, in hp
+    private final double motorPower;
+
+    //The propeller pitch used to estimate the maximum forward airspeed, in inches
+    private final double referencePitch;
+
+    /**
+     * @param kv The motor's RPM per volt
+     * @param voltage The battery pack voltage
+     * @param efficiency The fraction of the motor's rated power that reaches the propeller
+     * @param motorPower The motor's rated power, in hp
+     * @param referencePitch The propeller pitch used to estimate the maximum forward airspeed, in inches
+     */
+    public MotorConfiguration(double kv, double voltage, double efficiency, double motorPower, double referencePitch) {
+        if (!(kv > 0) || !(voltage > 0) || !(efficiency > 0) || !(motorPower > 0) || !(referencePitch > 0)) {
+            throw new IllegalArgumentException("Motor configuration values must be positive: kv=" + kv
+                + ", voltage=" + voltage + ", efficiency=" + efficiency + ", motorPower=" + motorPower
+                + ", referencePitch=" + referencePitch);
+        }
+        this.kv = kv;
+        this.voltage = voltage;
+        this.efficiency = efficiency;
+        this.motorPower = motorPower;
+        this.referencePitch = referencePitch;
+    }
+
+    /**
+     * @return The motor's RPM per volt
+     */
+    public double getKV() {
+        return kv;
+    }
+
+    /**
+     * @return The battery pack voltage
+     */
+    public double getVoltage() {
+        return voltage;
+    }
+
+    /**
+     * @return The fraction of the motor's rated power that reaches the propeller
+     */
+    public double getEfficiency() {
+        return efficiency;
+    }
+
+    /**
+     * @return The motor's rated power, in hp
+     */
+    public double getMotorPower() {
+        return motorPower;
+    }
+
+    /**
+     * @return The propeller pitch used to estimate the maximum forward airspeed, in inches
+     */
+    public double getReferencePitch() {
+        return referencePitch;
+    }
+
+    /**
+     * @return The power delivered to the propeller, in hp
+     */
+    public double getPowerBudget() {
+        return motorPower * efficiency;
+    }
+
+    /**
+     * @return The unloaded motor RPM at the pack voltage, which no power-matched operating point exceeds
+     */
+    public double getMaxRPM() {
+        return kv * voltage;
+    }
+
+    /**
+     * @return The pitch speed at the unloaded motor RPM, in mph
+     */
+    public double getMaxForwardAirspeed() {
+        return (kv * voltage * referencePitch / 12 / 60) * FPS_TO_MPH;
+    }
+
+    /**
+     * @param newKV The motor's RPM per volt
+     * @return A copy of this configuration with the given KV
+     */
+    @NotNull
+    public MotorConfiguration withKV(double newKV) {
+        return new MotorConfiguration(newKV, voltage, efficiency, motorPower, referencePitch);
+    }
+
+    /**
+     * @param newVoltage The battery pack voltage
+     * @return A copy of this configuration with the given voltage
+     */
+    @NotNull
+    public MotorConfiguration withVoltage(double newVoltage) {
+        return new MotorConfiguration(kv, newVoltage, efficiency, motorPower, referencePitch);
+    }
+
+    /**
+     * @param newEfficiency The fraction of the motor's rated power that reaches the propeller
+     * @return A copy of this configuration with the given efficiency
+     */
+    @NotNull
+    public MotorConfiguration withEfficiency(double newEfficiency) {
+        return new MotorConfiguration(kv, voltage, newEfficiency, motorPower, referencePitch);
+    }
+
+    /**
+     * @param newMotorPower The motor's rated power, in hp
+     * @return A copy of this configuration with the given rated power
+     */
+    @NotNull
+    public MotorConfiguration withMotorPower(double newMotorPower) {
+        return new MotorConfiguration(kv, voltage, efficiency, newMotorPower, referencePitch);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MotorConfiguration)) {
+            return false;
+        }
+        MotorConfiguration other = (MotorConfiguration) o;
+        return Double.compare(kv, other.kv) == 0 && Double.compare(voltage, other.voltage) == 0
+            && Double.compare(efficiency, other.efficiency) == 0 && Double.compare(motorPower, other.motorPower) == 0
+            && Double.compare(referencePitch, other.referencePitch) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(kv);
+        result = 31 * result + Double.hashCode(voltage);
+        result = 31 * result + Double.hashCode(efficiency);
+        result = 31 * result + Double.hashCode(motorPower);
+        result = 31 * result + Double.hashCode(referencePitch);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.0f KV, %.1f V, %.0f%% of %.2f hp", kv, voltage, efficiency * 100, motorPower);
+    }
+}
@@ -0,0 +1,143 @@
+package dataParsing;
+
+import dataMath.LinearKernel;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The RPM and thrust of one propeller when absorbing a fixed power budget, precomputed on an evenly spaced velocity
+ * grid. Any velocity on or between grid points is then answered in O(1) without touching the RPM tables again.
+ *
+ * A curve is reachable from velocity 0 up to the first grid velocity where no pair of adjacent RPM tables brackets the
+ * power budget with positive thrust; from there on it has no values.
+ */
+public final class PowerMatchedCurve {
+
+    //The power the propeller is matched to, in hp
+    private final double powerBudget;
+
+    //The spacing of the velocity grid, in mph
+    private final double velocityStep;
+
+    //The power-matched RPM and thrust at each grid velocity, NaN where unreachable
+    private final double[] rpms;
+    private final double[] thrusts;
+
+    //How many grid points, from velocity 0, are reachable
+    private final int reachableCount;
+
+    /**
+     * @param powerBudget The power the propeller is matched to
+     * @param velocityStep The spacing of the velocity grid
+     * @param rpms The matched RPM at each grid velocity
+     * @param thrusts The matched thrust at each grid velocity
+     * @param reachableCount How many leading grid points are reachable
+     */
+    PowerMatchedCurve(double powerBudget, double velocityStep, @NotNull double[] rpms, @NotNull double[] thrusts,
+                      int reachableCount) {
+        this.powerBudget = powerBudget;
+        this.velocityStep = velocityStep;
+        this.rpms = rpms;
+        this.thrusts = thrusts;
+        this.reachableCount = reachableCount;
+    }
+
+    /**
+     * @return The power the propeller is matched to, in hp
+     */
+    public double getPowerBudget() {
+        return powerBudget;
+    }
+
+    /**
+     * @return The spacing of the velocity grid, in mph
+     */
+    public double getVelocityStep() {
+        return velocityStep;
+    }
+
+    /**
+     * @return The number of grid points, reachable or not
+     */
+    public int getPointCount() {
+        return rpms.length;
+    }
+
+    /**
+     * @return How many grid points, from velocity 0, are reachable
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * @return The highest reachable grid velocity, or -1 if none is reachable
+     */
+    public double getMaxReachableVelocity() {
+        return reachableCount == 0 ? -1 : (reachableCount - 1) * velocityStep;
+    }
+
+    /**
+     * @param point The grid point
+     * @return If the propeller can absorb the power budget with positive thrust at the point
+     */
+    public boolean isReachable(int point) {
+        return point >= 0 && point < reachableCount;
+    }
+
+    /**
+     * @param point The grid point
+     * @return The velocity of the grid point
+     */
+    public double getVelocity(int point) {
+        return point * velocityStep;
+    }
+
+    /**
+     * @param point The grid point
+     * @return The power-matched RPM at the point, NaN if unreachable
+     */
+    public double getRPM(int point) {
+        return rpms[point];
+    }
+
+    /**
+     * @param point The grid point
+     * @return The power-matched thrust at the point, NaN if unreachable
+     */
+    public double getThrust(int point) {
+        return thrusts[point];
+    }
+
+    /**
+     * @param velocity Any velocity
+     * @return The power-matched thrust, linearly interpolated between grid points, or NaN if unreachable
+     */
+    public double getThrustAt(double velocity) {
+        return valueAt(thrusts, velocity);
+    }
+
+    /**
+     * @param velocity Any velocity
+     * @return The power-matched RPM, linearly interpolated between grid points, or NaN if unreachable
+     */
+    public double getRPMAt(double velocity) {
+        return valueAt(rpms, velocity);
+    }
+
+    /**
+     * @param values The per-point values
+     * @param velocity The velocity to look up
+     * @return The value at the velocity, interpolated between the two surrounding grid points
+     */
+    private double valueAt(@NotNull double[] values, double velocity) {
+        double position = velocity / velocityStep;
+        if (!(position >= 0) || position > reachableCount - 1) {
+            return Double.NaN;
+        }
+        int lower = Math.min((int) position, reachableCount - 2);
+        if (lower < 0) {
+            return values[0];
+        }
+        return LinearKernel.lerp(lower, values[lower], lower + 1, values[lower + 1], position);
+    }
+}
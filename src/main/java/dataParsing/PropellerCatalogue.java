@@ -0,0 +1,249 @@
+package dataParsing;
+
+import dataMetrics.Log;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A propeller catalogue that can be updated one source file at a time while other threads read it. Each data set is
+ * keyed by the file it was parsed from, and replacing, adding or removing one is a single atomic map operation, so
+ * readers always see every propeller either before or after a change, never half-parsed.
+ */
+public class PropellerCatalogue {
+
+    //The directory the propeller data files live in
+    private final Path root;
+
+    //Every loaded propeller, with the file state it was parsed from, in sorted file order
+    private final ConcurrentSkipListMap<Path, Entry> entries = new ConcurrentSkipListMap<>();
+
+    /**
+     * Loads every file under the directory
+     * @param dataPath The root path of propeller data files
+     * @param parallel Whether to parse the data files concurrently
+     */
+    public PropellerCatalogue(String dataPath, boolean parallel) {
+        this.root = Paths.get(dataPath).toAbsolutePath().normalize();
+        PropellerDataLoader loader = new PropellerDataLoader(root.toString(), parallel);
+        for (FileLoadReport report : loader.getLoadReports()) {
+            if (report.isSuccess()) {
+                try {
+                    Path path = normalize(report.getPath());
+                    entries.put(path, new Entry(report.getDataSet(), readAttributes(path)));
+                }
+                catch (IOException e) {
+                    Log.warn("Skipped " + report.getPath() + ", which vanished while loading: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The directory the propeller data files live in
+     */
+    @NotNull
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return The number of loaded propellers
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Every loaded propeller at this moment, in sorted file order
+     */
+    @NotNull
+    public List<PropellerDataSet> getPropellers() {
+        List<PropellerDataSet> propellers = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            propellers.add(entry.dataSet);
+        }
+        return propellers;
+    }
+
+    /**
+     * @return Every loaded propeller keyed by its source file at this moment, in sorted file order
+     */
+    @NotNull
+    public Map<Path, PropellerDataSet> getPropellersByFile() {
+        Map<Path, PropellerDataSet> propellers = new LinkedHashMap<>();
+        for (Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            propellers.put(entry.getKey(), entry.getValue().dataSet);
+        }
+        return propellers;
+    }
+
+    /**
+     * @param file A source file
+     * @return The propeller parsed from the file, or null if it is not loaded
+     */
+    @Nullable
+    public PropellerDataSet get(@NotNull Path file) {
+        Entry entry = entries.get(normalize(file));
+        return entry == null ? null : entry.dataSet;
+    }
+
+    /**
+     * Brings one source file up to date: re-parses it if it exists and removes it if it does not. A file that fails
+     * to parse, such as one still being written, keeps its previous data set.
+     * @param file The source file that may have changed
+     * @return The change, or null if the catalogue was already up to date or the file could not be parsed
+     */
+    @Nullable
+    public CatalogueChange reload(@NotNull Path file) {
+        Path path = normalize(file);
+        BasicFileAttributes attributes;
+        try {
+            attributes = readAttributes(path);
+        }
+        catch (NoSuchFileException e) {
+            Entry removed = entries.remove(path);
+            return removed == null ? null : new CatalogueChange(path, removed.dataSet, null);
+        }
+        catch (IOException e) {
+            Log.warn("Unable to read " + path + ": " + e);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        FileLoadReport report = PropellerDataLoader.loadFile(path);
+        if (!report.isSuccess()) {
+            Log.warn("Skipped " + report);
+            return null;
+        }
+        Entry previous = entries.put(path, new Entry(report.getDataSet(), attributes));
+        if (previous != null && previous.dataSet.getFingerprint() == report.getDataSet().getFingerprint()
+                && previous.dataSet.getName().equals(report.getDataSet().getName())) {
+            return null;
+        }
+        return new CatalogueChange(path, previous == null ? null : previous.dataSet, report.getDataSet());
+    }
+
+    /**
+     * Reloads every file whose size or modification time differs from when it was parsed, every new file, and every
+     * file that has disappeared, such as after the watcher missed events
+     * @return Every change made
+     */
+    @NotNull
+    public List<CatalogueChange> rescan() {
+        List<CatalogueChange> changes = new ArrayList<>();
+        Set<Path> onDisk = new HashSet<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path file : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                Path path = normalize(file);
+                onDisk.add(path);
+                Entry entry = entries.get(path);
+                if (entry == null || !entry.matches(readAttributes(path))) {
+                    addChange(changes, reload(path));
+                }
+            }
+        }
+        catch (IOException e) {
+            Log.warn("Unable to rescan " + root + ": " + e);
+            return changes;
+        }
+
+        for (Path path : entries.keySet()) {
+            if (!onDisk.contains(path)) {
+                addChange(changes, reload(path));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Reloads every loaded file under a directory, such as one that was deleted or moved away
+     * @param directory The directory
+     * @return Every change made
+     */
+    @NotNull
+    public List<CatalogueChange> reloadUnder(@NotNull Path directory) {
+        Path prefix = normalize(directory);
+        List<CatalogueChange> changes = new ArrayList<>();
+        for (Path path : entries.keySet()) {
+            if (path.startsWith(prefix)) {
+                addChange(changes, reload(path));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @param changes The changes so far
+     * @param change A change, or null for none
+     */
+    private static void addChange(@NotNull List<CatalogueChange> changes, @Nullable CatalogueChange change) {
+        if (change != null) {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * @param file A file, relative to the working directory or absolute
+     * @return The absolute, normalized path entries are keyed by
+     */
+    @NotNull
+    private static Path normalize(@NotNull Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @param file The file to inspect
+     * @return The file's attributes
+     * @throws IOException If the file does not exist or cannot be inspected
+     */
+    @NotNull
+    private static BasicFileAttributes readAttributes(@NotNull Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+
+    /**
+     * A loaded propeller with the size and modification time of the file it was parsed from
+     */
+    private static final class Entry {
+
+        private final PropellerDataSet dataSet;
+        private final long size;
+        private final long lastModified;
+
+        /**
+         * @param dataSet The parsed propeller
+         * @param attributes The source file's attributes when it was read
+         */
+        Entry(@NotNull PropellerDataSet dataSet, @NotNull BasicFileAttributes attributes) {
+            this.dataSet = dataSet;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        /**
+         * @param attributes The source file's current attributes
+         * @return If the file looks unchanged since it was parsed
+         */
+        boolean matches(@NotNull BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package dataParsing;
 
+import dataMetrics.Counter;
+import dataMetrics.Histogram;
+import dataMetrics.Log;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.*;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Set;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -16,101 +29,216 @@ import java.util.stream.Stream;
  */
 public class PropellerDataLoader {
 
-    private static final double MOTOR_EFFICIENCY = 0.9;
-    private static final int MOTOR_KV = 310;
+    //How many data files were parsed and failed, how many table rows they held, and how long each took
+    private static final Counter FILES_PARSED = MetricRegistry.global().counter(
+        "apc_files_parsed_total", "Propeller data files parsed"
+    );
+    private static final Counter PARSE_FAILURES = MetricRegistry.global().counter(
+        "apc_file_parse_failures_total", "Propeller data files that could not be parsed"
+    );
+    private static final Histogram ROWS_PER_FILE = MetricRegistry.global().histogram(
+        "apc_file_table_rows", "Table rows parsed from one propeller data file"
+    );
+    private static final Timer PARSE_TIME = MetricRegistry.global().timer(
+        "apc_file_parse_seconds", "Time to read and parse one propeller data file"
+    );
 
-    public static final double MAX_FORWARD_AIRSPEED = (MOTOR_KV * 22.2*13/12/60) * 0.6818182; //In MPH
-    public static final double POWER_CONSTANT = 1.34 * MOTOR_EFFICIENCY;
+    //How long each whole load took, from a snapshot or the data files
+    private static final Timer LOAD_PHASE = MetricRegistry.global().timer(
+        "apc_phase_seconds", "Time spent in each phase of a run", "phase", "load"
+    );
 
-    //The list that contains all propeller data of all propellers
+    //The list that contains all propeller data of all propellers, in sorted file order
     private final ArrayList<PropellerDataSet> allPropellerData = new ArrayList<>();
 
+    //The per-file timing and failure reports of the last load, in sorted file order
+    private final ArrayList<FileLoadReport> loadReports = new ArrayList<>();
+
+    //Each loaded propeller's catalogue position, by name, the first file winning when names repeat
+    private final Map<String, Integer> indexByName = new HashMap<>();
+
+    //If the data sets were restored from a snapshot rather than parsed
+    private boolean loadedFromSnapshot = false;
+
     /**
-     * A loaded propeller dataset
+     * A loaded propeller dataset, parsed one file at a time
      * @param dataPath The root path of propeller data files
      */
     public PropellerDataLoader(String dataPath) {
-        loadDataFiles(dataPath);
+        this(dataPath, false);
+    }
+
+    /**
+     * A loaded propeller dataset
+     * @param dataPath The root path of propeller data files
+     * @param parallel Whether to parse the data files concurrently, one task per file
+     */
+    public PropellerDataLoader(String dataPath, boolean parallel) {
+        this(dataPath, parallel, null);
+    }
+
+    /**
+     * A loaded propeller dataset, restored from a binary snapshot when the source files have not changed since it was
+     * written. The snapshot is rewritten after any full parse that loaded every file.
+     * @param dataPath The root path of propeller data files
+     * @param parallel Whether to parse the data files concurrently when the snapshot cannot be used
+     * @param snapshotPath The snapshot file to read and write, or null to always parse
+     */
+    public PropellerDataLoader(String dataPath, boolean parallel, @Nullable String snapshotPath) {
+        loadDataFiles(dataPath, parallel, snapshotPath == null ? null : Paths.get(snapshotPath));
+        for (int i = 0; i < allPropellerData.size(); i++) {
+            indexByName.putIfAbsent(allPropellerData.get(i).getName(), i);
+        }
+    }
+
+    /**
+     * A loader holding nothing, for subclasses that load propellers on demand and override every accessor
+     */
+    protected PropellerDataLoader() {
     }
 
     /**
      * Parses each file from the given folder path into a PropellerDataSet, then adds that set to allPropellerData.
+     * Files are always merged in sorted path order, so both loading modes produce the same catalogue.
      * @param dataPath The folder path to parse data from
+     * @param parallel Whether to parse the files concurrently
+     * @param snapshotFile The snapshot to restore from and refresh, or null to always parse
      */
-    private void loadDataFiles(String dataPath) {
-        try (Stream<Path> paths = Files.walk(Paths.get(dataPath))) {
-            paths.filter(Files::isRegularFile).forEach(path -> {
-                try {
-                    //Parses every file
-                    parseDataFile(new FileReader(path.toFile()));
-                } catch (FileNotFoundException e) {
-                    e.printStackTrace();
+    private void loadDataFiles(String dataPath, boolean parallel, @Nullable Path snapshotFile) {
+        long startTime = System.nanoTime();
+        Path root = Paths.get(dataPath);
+        List<Path> dataFiles;
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            dataFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        catch (IOException e) {
+            Log.error("Unable to list propeller data files in " + dataPath + ": " + e);
+            return;
+        }
+
+        byte[] sourceHash = null;
+        if (snapshotFile != null) {
+            try {
+                sourceHash = PropellerDataSnapshot.hashSourceFiles(root, dataFiles);
+                List<PropellerDataSet> restored = PropellerDataSnapshot.read(snapshotFile, sourceHash);
+                if (restored != null) {
+                    allPropellerData.addAll(restored);
+                    loadedFromSnapshot = true;
+                    Log.info(String.format(
+                        "Restored %d propeller data sets from %s in %.1f ms (%.1f MB of tables).",
+                        allPropellerData.size(), snapshotFile, LOAD_PHASE.stop(startTime) / 1e6,
+                        getMemoryFootprint() / 1e6
+                    ));
+                    return;
                 }
-            });
-            System.out.println("Organized " + allPropellerData.size() + " propeller data files.");
-        } catch (IOException e) {
-            e.printStackTrace();
+            }
+            catch (IOException e) {
+                Log.warn("Unable to hash propeller data files, skipping snapshot: " + e);
+            }
+        }
+
+        if (parallel) {
+            loadReports.addAll(loadFilesParallel(dataFiles));
+        }
+        else {
+            for (Path dataFile : dataFiles) {
+                loadReports.add(loadFile(dataFile));
+            }
+        }
+
+        int failures = 0;
+        for (FileLoadReport report : loadReports) {
+            if (report.isSuccess()) {
+                allPropellerData.add(report.getDataSet());
+            }
+            else {
+                failures++;
+                Log.warn("Skipped " + report);
+            }
+        }
+        Log.info(String.format(
+            "Organized %d propeller data files in %.1f ms (%d failed, %.1f MB of tables).",
+            allPropellerData.size(), LOAD_PHASE.stop(startTime) / 1e6, failures, getMemoryFootprint() / 1e6
+        ));
+
+        //Only complete catalogues are snapshotted, so failed files keep being reported on later runs
+        if (sourceHash != null && failures == 0) {
+            try {
+                PropellerDataSnapshot.write(snapshotFile, sourceHash, allPropellerData);
+            }
+            catch (IOException e) {
+                Log.warn("Unable to write propeller snapshot " + snapshotFile + ": " + e);
+            }
         }
     }
 
     /**
-     * Parses the given single data file into its own PropellerDataSet
-     * @param fileToParse The given propeller data file to parse
+     * Parses the given files concurrently on a pool bounded by the number of available processors
+     * @param dataFiles The sorted files to parse
+     * @return One report per file, in the same order as dataFiles
      */
-    private void parseDataFile(FileReader fileToParse) {
-        BufferedReader br = new BufferedReader(fileToParse);
-        try {
-            String currentLine = br.readLine();
-            String propName = currentLine.substring(currentLine.indexOf(" (") + 2, currentLine.lastIndexOf("."));
+    @NotNull
+    private List<FileLoadReport> loadFilesParallel(@NotNull List<Path> dataFiles) {
+        int threads = Math.max(1, Math.min(dataFiles.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<FileLoadReport> reports = new ArrayList<>(dataFiles.size());
 
-            //Parsed data store
-            ArrayList<String[]> dataTable = new ArrayList<>();
+        try {
+            List<Future<FileLoadReport>> pending = new ArrayList<>(dataFiles.size());
+            for (Path dataFile : dataFiles) {
+                pending.add(executor.submit(() -> loadFile(dataFile)));
+            }
 
-            //Parses each line of file into usable data
-            while ((currentLine = br.readLine()) != null) {
-                String[] parsedLine = parseLine(currentLine);
-                if (parsedLine != null) {
-                    dataTable.add(parsedLine);
+            //Futures are collected in submission order, which keeps the merge deterministic
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    reports.add(pending.get(i).get());
+                }
+                catch (ExecutionException e) {
+                    reports.add(new FileLoadReport(dataFiles.get(i), null, e.getCause(), 0));
                 }
             }
-            allPropellerData.add(new PropellerDataSet(propName, dataTable));
-        } catch (IOException e) {
-            System.err.println(e);
         }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.error("Interrupted while loading propeller data files");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return reports;
     }
 
     /**
-     * Parses the given line into usable data, which is either an RPM number, or a list of propeller data values
-     * @param lineToParse The given line to parse
-     * @return Each element sequentially, parsed
+     * Loads a single data file, capturing its timing and any failure instead of throwing
+     * @param dataFile The file to load
+     * @return The load report for the file
      */
-    @Nullable
-    private String[] parseLine(@NotNull String lineToParse) {
-        //Replace characters to allow for easier regex
-        lineToParse = lineToParse.replace("-", " -");
-        lineToParse = lineToParse.replace("-NaN", " 0.00");
-        lineToParse = lineToParse.trim().replaceAll(" +", " ");
-
-        //Splits between every number
-        String[] lineSplit = lineToParse.split("[^0-9.,-]");
-        for (String s : lineSplit) {
-
-            //Filter garbage data
-            if (!s.isEmpty() && (s.length() > 2)) {
-
-                //RPM is always whole number, not a float (RPM has no '.')
-                if (!s.contains(".")) {
-                    String[] rpm = new String[1];
-                    rpm[0] = s.trim();
-                    return rpm;
-                } else {
-                    return lineSplit;
-                }
-            }
+    @NotNull
+    static FileLoadReport loadFile(@NotNull Path dataFile) {
+        long startTime = System.nanoTime();
+        try {
+            PropellerDataSet dataSet = parseDataFile(dataFile);
+            FILES_PARSED.increment();
+            ROWS_PER_FILE.record(dataSet.getTableStore().getTotalRowCount());
+            return new FileLoadReport(dataFile, dataSet, null, PARSE_TIME.stop(startTime));
+        }
+        catch (IOException | RuntimeException e) {
+            PARSE_FAILURES.increment();
+            return new FileLoadReport(dataFile, null, e, System.nanoTime() - startTime);
         }
+    }
 
-        //Returns null if the line is unable to be parsed
-        return null;
+    /**
+     * Parses the given single data file into its own PropellerDataSet
+     * @param fileToParse The given propeller data file to parse
+     * @return The parsed data set
+     * @throws IOException If the file cannot be read or has no header line
+     */
+    @NotNull
+    private static PropellerDataSet parseDataFile(@NotNull Path fileToParse) throws IOException {
+        return PropellerDataTokenizer.parse(Files.readAllBytes(fileToParse));
     }
 
     /**
@@ -127,4 +255,86 @@ public class PropellerDataLoader {
     public PropellerDataSet getPropellerDataAt(int propIndex) {
         return allPropellerData.get(propIndex);
     }
+
+    /**
+     * @param propIndex The propeller data file index
+     * @return The propeller data set at the given index, or null if its file cannot be parsed. Every loaded
+     * propeller parsed, so only catalogues that parse on demand return null.
+     */
+    @Nullable
+    public PropellerDataSet findPropellerDataAt(int propIndex) {
+        return getPropellerDataAt(propIndex);
+    }
+
+    /**
+     * Every propeller of the catalogue that parses, in catalogue order, skipping any file a catalogue that parses on
+     * demand finds it cannot parse. Whole-catalogue passes should start from this rather than getPropellerDataAt.
+     * @return Every parsable propeller data set, in catalogue order
+     */
+    @NotNull
+    public List<PropellerDataSet> getAllPropellerData() {
+        int propCount = getNumOfProps();
+        List<PropellerDataSet> props = new ArrayList<>(propCount);
+        for (int i = 0; i < propCount; i++) {
+            PropellerDataSet dataSet = findPropellerDataAt(i);
+            if (dataSet != null) {
+                props.add(dataSet);
+            }
+        }
+        return props;
+    }
+
+    /**
+     * @param propIndex The propeller data file index
+     * @return The name of the propeller at the given index
+     */
+    @NotNull
+    public String getPropellerName(int propIndex) {
+        return getPropellerDataAt(propIndex).getName();
+    }
+
+    /**
+     * @param propName A propeller name, such as 10x7E
+     * @return The index of the propeller with the name, or -1 if none has it
+     */
+    public int indexOf(@NotNull String propName) {
+        Integer propIndex = indexByName.get(propName);
+        return propIndex == null ? -1 : propIndex;
+    }
+
+    /**
+     * @param propName A propeller name, such as 10x7E
+     * @return The propeller data set with the name, or null if none has it or its file cannot be parsed
+     */
+    @Nullable
+    public PropellerDataSet getPropellerData(@NotNull String propName) {
+        int propIndex = indexOf(propName);
+        return propIndex < 0 ? null : findPropellerDataAt(propIndex);
+    }
+
+    /**
+     * @return An estimate of the heap held by every loaded propeller's tables, in bytes
+     */
+    public long getMemoryFootprint() {
+        long bytes = 0;
+        for (PropellerDataSet dataSet : allPropellerData) {
+            bytes += dataSet.getMemoryFootprint();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return If the data sets were restored from a snapshot rather than parsed
+     */
+    public boolean isLoadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
+    /**
+     * @return The per-file timing and failure reports of the load, in sorted file order. Empty when the data sets
+     * were restored from a snapshot.
+     */
+    public List<FileLoadReport> getLoadReports() {
+        return Collections.unmodifiableList(loadReports);
+    }
 }
\ No newline at end of file
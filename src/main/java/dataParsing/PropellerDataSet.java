@@ -1,123 +1,83 @@
 package dataParsing;
 
-import dataOutput.CalcOutput;
-import org.apache.commons.math3.analysis.interpolation.LinearInterpolator;
-import org.apache.commons.math3.analysis.polynomials.PolynomialSplineFunction;
-import org.apache.commons.math3.fitting.PolynomialCurveFitter;
-import org.apache.commons.math3.fitting.WeightedObservedPoints;
+import dataMath.LinearKernel;
+import dataMath.PolynomialFit;
+import dataMath.PolynomialFitter;
+import dataMath.PowerMatchKernel;
+import dataMetrics.Counter;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
 import org.jetbrains.annotations.NotNull;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.IntStream;
 
-import static dataParsing.PropellerDataLoader.MAX_FORWARD_AIRSPEED;
-import static dataParsing.PropellerDataLoader.POWER_CONSTANT;
+import static dataParsing.PropellerTableStore.POWER;
+import static dataParsing.PropellerTableStore.THRUST;
+import static dataParsing.PropellerTableStore.VELOCITY;
 
 /**
- * Organizes a propeller data file into a LinkedHashMap(Integer (RPM), double[][] (actual data)) structure
+ * Organizes a propeller data file into a columnar PropellerTableStore, and interpolates thrust and RPM from it.
+ * Instances are immutable: every query is a pure function of the tables and its arguments, so one loaded catalogue can
+ * be shared by any number of threads without locking. Per-motor results are returned as PropellerEvaluations.
  */
 public class PropellerDataSet {
 
-    //Interpolator used for any linear interpolations
-    private static final LinearInterpolator linInterp = new LinearInterpolator();
-
-    //Interpolator used to fit function to propdata
-    private static final PolynomialCurveFitter curveFit = PolynomialCurveFitter.create(3);
-
-    //The velocities used for this data set (x axis)
-    private static final double[] velocities = IntStream.rangeClosed(0, CalcOutput.NUM_DATA_POINTS).asDoubleStream().toArray();
-
-    //The thrusts used for this data set (y axis)
-    private final double[] interpolatedThrusts = new double[CalcOutput.NUM_DATA_POINTS + 1];
+    //How many table values power-matched curves have interpolated, and how long evaluations and their fits took.
+    //Interpolations are counted once per curve, so the single-velocity paths stay free of shared writes.
+    private static final Counter INTERPOLATIONS = MetricRegistry.global().counter(
+        "apc_interpolations_total", "Power and thrust values interpolated from tables for power-matched curves"
+    );
+    private static final Timer EVALUATION_TIME = MetricRegistry.global().timer(
+        "apc_evaluation_seconds", "Time to evaluate one propeller against one motor configuration"
+    );
+    private static final Timer FIT_TIME = MetricRegistry.global().timer(
+        "apc_curve_fit_seconds", "Time to fit one thrust curve"
+    );
+
+    //The degree of the polynomial every evaluation fits to thrust over velocity
+    public static final int FIT_DEGREE = 3;
 
     //The name of this propeller
     private final String name;
 
     //The main data structure that holds all the propeller data for this propeller
-    private final LinkedHashMap<Integer, double[][]> mappedData;
+    private final PropellerTableStore tableStore;
 
-    //The static thrust number for this propeller
-    private double staticThrust;
+    //The RPM of each table, ascending, boxed once for callers that iterate them
+    private final Set<Integer> propRPMs;
 
-    //Table indexes
-    private static final int VELOCITY = 0;
-    private static final int ADVANCE_RATIO = 1;
-    private static final int EFFICIENCY = 2;
-    private static final int THRUST_COEFFICIENT = 3;
-    private static final int POWER_COEFFICIENT = 4;
-    private static final int POWER = 5;
-    private static final int TORQUE = 6;
-    private static final int THRUST = 7;
+    //A hash of the tables' content, identifying the source data the propeller was loaded from
+    private final long fingerprint;
 
     /**
-     * Organizes propeller data upon object creation
+     * Creates a data set from already organized row-major RPM tables
      * @param propName The name of the propeller associated with this object
-     * @param rawData The parsed (cleaned) unorganized data from the data-set loader
+     * @param organizedData The RPM tables, keyed by RPM
      */
-    PropellerDataSet(String propName, ArrayList<String[]> rawData) {
-        System.out.print("Created data set for " + propName + ", organizing data ...");
-        this.name = propName;
-        this.mappedData = new LinkedHashMap<>();
-        organizeData(rawData);
-        System.out.print("Data organized! \n");
+    PropellerDataSet(String propName, LinkedHashMap<Integer, double[][]> organizedData) {
+        this(propName, PropellerTableStore.fromTables(organizedData));
     }
 
     /**
-     * Organizes rawData into the mappedData structure.
-     * @param rawData The given rawData
+     * Creates a data set over an existing columnar store, such as one restored from a snapshot
+     * @param propName The name of the propeller associated with this object
+     * @param tableStore The propeller's RPM tables
      */
-    protected void organizeData(@NotNull ArrayList<String[]> rawData) {
-        int tableStartIndex = 1;
-        int tableEndIndex = 1;
-
-        for (int i = 0; i < rawData.size(); i++) {
-            if (rawData.get(i).length == 1) {
-                tableEndIndex = i;
-                if (tableEndIndex - tableStartIndex > 0) {
-                    mappedData.put(
-                        Integer.parseInt(rawData.get(tableStartIndex - 1)[0]),
-                        createDataArray(rawData, tableStartIndex, tableEndIndex)
-                    );
-                }
-                tableStartIndex = i + 1;
-            }
-            else {
-                tableEndIndex++;
-            }
-        }
-    }
+    PropellerDataSet(String propName, PropellerTableStore tableStore) {
+        this.name = propName;
+        this.tableStore = tableStore;
 
-    /**
-     * Creates a 2D array from an entire (specified) RPM table (excluding the RPM value itself)
-     * @param rawData All of the rawData
-     * @param tableStartIndex (Inclusive) The start of the relevant RPM table data
-     * @param tableEndIndex (Inclusive) The end of the relevant RPM table data
-     * @return The populated 2D array containing exactly one complete RPM table
-     */
-    @NotNull
-    private double[][] createDataArray(@NotNull ArrayList<String[]> rawData, int tableStartIndex, int tableEndIndex) {
-        if (rawData.get(1).length <= 1) {
-            tableStartIndex++;
+        LinkedHashSet<Integer> rpms = new LinkedHashSet<>();
+        for (int t = 0; t < tableStore.getTableCount(); t++) {
+            rpms.add(tableStore.getRPM(t));
         }
-
-        double[][] dataArray = new double[tableEndIndex - tableStartIndex][rawData.get(tableStartIndex).length];
-        for (int i = tableStartIndex; i < tableEndIndex; i++) {
-            if (rawData.get(i).length <= 1) {
-                System.out.println("Next set ...");
-                break;
-            }
-            else {
-                for (int k = 0; k < rawData.get(i).length; k++) {
-                    if (!rawData.get(i)[k].equals("-")) {
-                        dataArray[i - tableStartIndex][k] = Double.parseDouble(rawData.get(i)[k]);
-                    }
-                }
-            }
-        }
-        return dataArray;
+        this.propRPMs = Collections.unmodifiableSet(rpms);
+        this.fingerprint = tableStore.getContentFingerprint();
     }
 
     /**
@@ -127,54 +87,40 @@ public class PropellerDataSet {
         return name;
     }
 
+    /**
+     * @param other The data set to compare against
+     * @return If both data sets have the same name and identical RPM tables
+     */
+    public boolean hasSameData(@NotNull PropellerDataSet other) {
+        return name.equals(other.name) && tableStore.hasSameContent(other.tableStore);
+    }
+
     /**
      * @return All RPM values of this propeller data file
      */
     public Set<Integer> getPropRPMs() {
-        return mappedData.keySet();
+        return propRPMs;
     }
 
     /**
-     * @param propRPM The RPM to match with RPM data table
-     * @param propRPMTableRowNum The line number of a given (by index proxy) RPM data table
-     * @param index The index of the table line to get
-     * @return Whatever value is at the given indexes
+     * @return The columnar store holding every RPM table of this propeller
      */
-    private double getTableValue(int propRPM, int propRPMTableRowNum, int index) {
-        return mappedData.get(propRPM)[propRPMTableRowNum][index];
+    public PropellerTableStore getTableStore() {
+        return tableStore;
     }
 
     /**
-     * Gets the number of rows in a given RPM table data set
-     * @param propRPM The RPM table to look at
-     * @return The num of rows in the given RPM table
+     * @return A hash of the tables' content, which changes whenever the propeller's source data does
      */
-    private int getRPMTableNumOfRows(int propRPM) {
-        return mappedData.get(propRPM).length;
+    public long getFingerprint() {
+        return fingerprint;
     }
 
     /**
-     * Finds the closest two velocity line numbers in the RPM data table to the given velocity
-     * @param velocity The given velocity to compare against
-     * @param propRPM The RPM whose table is used
-     * @return The two closest velocity value line numbers
+     * @return An estimate of the heap held by this propeller's tables, in bytes
      */
-    private int[] findClosestVelocities(double velocity, int propRPM) {
-
-        BigDecimal realVelocity = BigDecimal.valueOf(velocity);
-        int[] closestVelocities = new int[2];
-
-        for (int i = 0; i < getRPMTableNumOfRows(propRPM); i++) {
-
-            BigDecimal tableVelocity = BigDecimal.valueOf(getTableValue(propRPM, i, VELOCITY));
-
-            if (tableVelocity.max(realVelocity).equals(tableVelocity)) {
-                closestVelocities[1] = i;
-                closestVelocities[0] = i - 1;
-                break;
-            }
-        }
-        return closestVelocities;
+    public long getMemoryFootprint() {
+        return tableStore.getMemoryFootprint();
     }
 
     /**
@@ -182,65 +128,363 @@ public class PropellerDataSet {
      * @param targetVelocity The velocity to interpolate at
      * @param propRPM The RPM whose table to use
      * @param thrustInterpolate Whether or not to interpolate thrust. Interpolates power if false
-     * @return The interpolated either power or thrust number at the given velocity
+     * @return The interpolated either power or thrust number at the given velocity, 0 outside the table
      */
     private double interpolateAtVelocity(double targetVelocity, int propRPM, boolean thrustInterpolate) {
-        int[] closestVelocities = findClosestVelocities(targetVelocity, propRPM);
+        //The lower of the two closest velocity lines, the higher being the next line
+        int tableIndex = tableStore.indexOfRPM(propRPM);
+        int lowerRow = tableIndex < 0 ? -1 : tableStore.findVelocityBracket(tableIndex, targetVelocity);
 
-        double[] x = new double[2];
-        double[] y = new double[2];
+        if (lowerRow > -1) {
+            int row = tableStore.getRowOffset(tableIndex) + lowerRow;
+            double[] x = tableStore.column(VELOCITY);
+            double[] y = tableStore.column(thrustInterpolate ? THRUST : POWER);
 
-        if (closestVelocities[0] > -1 && closestVelocities[1] > -1 && (closestVelocities[0] != closestVelocities[1])) {
-            x[0] = getTableValue(propRPM, closestVelocities[0], VELOCITY);
-            x[1] = getTableValue(propRPM, closestVelocities[1], VELOCITY);
-
-            if (thrustInterpolate) {
-                y[0] = getTableValue(propRPM, closestVelocities[0], THRUST);
-                y[1] = getTableValue(propRPM, closestVelocities[1], THRUST);
-            }
-            else {
-                y[0] = getTableValue(propRPM, closestVelocities[0], POWER);
-                y[1] = getTableValue(propRPM, closestVelocities[1], POWER);
-            }
-
-            return linInterp.interpolate(x, y).value(targetVelocity);
+            return LinearKernel.lerp(x[row], y[row], x[row + 1], y[row + 1], targetVelocity);
         }
         return 0;
     }
 
+    /**
+     * Interpolates either power or thrust at every velocity of an ascending array, in one pass over the given
+     * propRPM's data table. Equivalent to interpolateAtVelocity for each velocity, without allocating.
+     * @param propRPM The RPM whose table to use
+     * @param thrustInterpolate Whether or not to interpolate thrust. Interpolates power if false
+     * @param targetVelocities The ascending velocities to interpolate at
+     * @param out Receives the interpolated value at each velocity, 0 outside the table
+     * @param count How many velocities to interpolate
+     */
+    public void interpolateAtVelocities(int propRPM, boolean thrustInterpolate, @NotNull double[] targetVelocities,
+                                        @NotNull double[] out, int count) {
+        int tableIndex = tableStore.indexOfRPM(propRPM);
+        if (tableIndex < 0) {
+            Arrays.fill(out, 0, count, 0);
+            return;
+        }
+        LinearKernel.interpolateSorted(
+            tableStore.column(VELOCITY), tableStore.column(thrustInterpolate ? THRUST : POWER),
+            tableStore.getRowOffset(tableIndex), tableStore.getRowOffset(tableIndex + 1),
+            targetVelocities, out, count, 0
+        );
+    }
+
     /**
      * Interpolates dynamic thrust at the given velocity using rpm1 and rpm2's respective data tables
      * @param velocity The velocity to get thrust numbers at
      * @param rpm1 The lower RPM to use to interpolate data from
      * @param rpm2 The higher RPM to use to interpolate data from
+     * @param motor The motor configuration whose power budget the thrust is matched to
      * @return The dynamic thrust number at the given velocity
      */
-    public double getDynamicThrust(int velocity, int rpm1, int rpm2) {
-        double[] x = new double[2];
-        double[] y = new double[2];
+    public double getDynamicThrust(int velocity, int rpm1, int rpm2, @NotNull MotorConfiguration motor) {
+        double powerBudget = motor.getPowerBudget();
+        double power1 = interpolateAtVelocity(velocity, rpm1, false);
+        double power2 = interpolateAtVelocity(velocity, rpm2, false);
+
+        if (power2 > powerBudget && power1 < powerBudget) {
+            double thrust1 = interpolateAtVelocity(velocity, rpm1, true);
+            double thrust2 = interpolateAtVelocity(velocity, rpm2, true);
+            return LinearKernel.lerp(power1, thrust1, power2, thrust2, powerBudget);
+        }
+        else {
+            return -1;
+        }
+    }
 
-        x[0] = interpolateAtVelocity(velocity, rpm1, false);
-        x[1] = interpolateAtVelocity(velocity, rpm2, false);
+    /**
+     * Precomputes the RPM and thrust at which this propeller absorbs the given power, at every velocity of an evenly
+     * spaced grid starting at 0. Power and thrust are interpolated for the whole grid one RPM table at a time, then at
+     * each velocity the power budget is bracketed by adjacent RPM tables. As velocity rises the bracketing pair only
+     * ever moves to higher RPMs. Where matching the budget would take the propeller past the motor's unloaded RPM, the
+     * motor is RPM-limited instead and the propeller runs at that RPM, absorbing less than the budget. The curve ends
+     * at the first velocity with no operating point of positive thrust.
+     * @param motor The motor configuration whose power budget and unloaded RPM to match
+     * @param velocityStep The spacing of the velocity grid, in mph
+     * @param pointCount The number of grid velocities
+     * @return The power-matched curve
+     */
+    @NotNull
+    public PowerMatchedCurve computePowerMatchedCurve(@NotNull MotorConfiguration motor, double velocityStep,
+                                                      int pointCount) {
+        double powerBudget = motor.getPowerBudget();
+        int tableCount = tableStore.getTableCount();
+        double[] gridVelocities = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            gridVelocities[i] = i * velocityStep;
+        }
 
-        y[0] = interpolateAtVelocity(velocity, rpm1, true);
-        y[1] = interpolateAtVelocity(velocity, rpm2, true);
+        double[][] powers = new double[tableCount][pointCount];
+        double[][] thrusts = new double[tableCount][pointCount];
+        for (int t = 0; t < tableCount; t++) {
+            int rpm = tableStore.getRPM(t);
+            interpolateAtVelocities(rpm, false, gridVelocities, powers[t], pointCount);
+            interpolateAtVelocities(rpm, true, gridVelocities, thrusts[t], pointCount);
+        }
+        INTERPOLATIONS.add(2L * tableCount * pointCount);
+
+        double[] matchedRPMs = new double[pointCount];
+        double[] matchedThrusts = new double[pointCount];
+        Arrays.fill(matchedRPMs, Double.NaN);
+        Arrays.fill(matchedThrusts, Double.NaN);
+
+        double maxRPM = motor.getMaxRPM();
+        int ceiling = ceilingTable(maxRPM);
+
+        int pair = 0;
+        int reachable = 0;
+        for (; reachable < pointCount; reachable++) {
+            boolean matched = false;
+            for (; pair < tableCount - 1; pair++) {
+                double power1 = powers[pair][reachable];
+                double power2 = powers[pair + 1][reachable];
+
+                if (power2 > powerBudget && power1 < powerBudget) {
+                    double thrust = LinearKernel.lerp(
+                        power1, thrusts[pair][reachable], power2, thrusts[pair + 1][reachable], powerBudget
+                    );
+                    if (thrust > 0) {
+                        matchedThrusts[reachable] = thrust;
+                        matchedRPMs[reachable] = LinearKernel.lerp(
+                            power1, tableStore.getRPM(pair), power2, tableStore.getRPM(pair + 1), powerBudget
+                        );
+                        matched = true;
+                        break;
+                    }
+                }
+            }
 
-        if (x[1] > POWER_CONSTANT && x[0] < POWER_CONSTANT) {
-            interpolatedThrusts[velocity] = linInterp.interpolate(x, y).value(POWER_CONSTANT);
-            return interpolatedThrusts[velocity];
+            if (ceiling < 0) {
+                break;
+            }
+            if (ceiling < tableCount) {
+                int lowerRPM = tableStore.getRPM(ceiling);
+                int upperRPM = tableStore.getRPM(ceiling + 1);
+                double ceilingPower = LinearKernel.lerp(
+                    lowerRPM, powers[ceiling][reachable], upperRPM, powers[ceiling + 1][reachable], maxRPM
+                );
+                if (ceilingPower < powerBudget || (matched && matchedRPMs[reachable] > maxRPM)) {
+                    double ceilingThrust = LinearKernel.lerp(
+                        lowerRPM, thrusts[ceiling][reachable], upperRPM, thrusts[ceiling + 1][reachable], maxRPM
+                    );
+                    matched = ceilingThrust > 0;
+                    matchedThrusts[reachable] = matched ? ceilingThrust : Double.NaN;
+                    matchedRPMs[reachable] = matched ? maxRPM : Double.NaN;
+                }
+            }
+            if (!matched) {
+                break;
+            }
         }
-        else {
+        return new PowerMatchedCurve(powerBudget, velocityStep, matchedRPMs, matchedThrusts, reachable);
+    }
+
+    /**
+     * Matches one power budget at every velocity of an ascending array, in one pass over the RPM tables, limited to
+     * the motor's unloaded RPM
+     * @param velocities The ascending velocities to match at, in mph, at any spacing
+     * @param motor The motor configuration whose power budget and unloaded RPM to match
+     * @param rpms Receives the power-matched RPM at each velocity, NaN where no pair of tables matches
+     * @param thrusts Receives the power-matched thrust at each velocity, NaN where no pair of tables matches
+     * @param count How many velocities to match
+     */
+    public void computeThrustCurve(@NotNull double[] velocities, @NotNull MotorConfiguration motor,
+                                   @NotNull double[] rpms, @NotNull double[] thrusts, int count) {
+        double[] powerBudgets = new double[count];
+        Arrays.fill(powerBudgets, motor.getPowerBudget());
+        computeThrustCurve(velocities, powerBudgets, motor.getMaxRPM(), rpms, thrusts, count);
+    }
+
+    /**
+     * Matches a power budget per velocity at every velocity of an ascending array, in one pass over the RPM tables.
+     * Each table is interpolated at all the velocities at most once, then each adjacent pair of tables fills in the
+     * velocities whose budget it brackets with positive thrust, the lowest such pair winning. Pairs whose row powers
+     * rule out bracketing any of the budgets are skipped without interpolating. Unlike computePowerMatchedCurve,
+     * every velocity is matched on its own, so a velocity past one the propeller cannot match may still be matched,
+     * as may one with a budget that differs from its neighbours'. Velocities where matching the budget would take the
+     * propeller past maxRPM run at maxRPM instead, as computeCeilingCurve describes.
+     * @param velocities The ascending velocities to match at, in mph, at any spacing
+     * @param powerBudgets The power to match at each velocity, in hp
+     * @param maxRPM The motor's unloaded RPM, or positive infinity for no limit
+     * @param rpms Receives the power-matched RPM at each velocity, NaN where no pair of tables matches
+     * @param thrusts Receives the power-matched thrust at each velocity, NaN where no pair of tables matches
+     * @param count How many velocities to match
+     */
+    public void computeThrustCurve(@NotNull double[] velocities, @NotNull double[] powerBudgets, double maxRPM,
+                                   @NotNull double[] rpms, @NotNull double[] thrusts, int count) {
+        for (int i = 1; i < count; i++) {
+            if (!(velocities[i] >= velocities[i - 1])) {
+                throw new IllegalArgumentException("Velocities must be ascending, but " + velocities[i]
+                    + " follows " + velocities[i - 1]);
+            }
+        }
+        Arrays.fill(rpms, 0, count, Double.NaN);
+        Arrays.fill(thrusts, 0, count, Double.NaN);
+        int tableCount = tableStore.getTableCount();
+        if (tableCount < 2) {
+            return;
+        }
+
+        double minBudget = Double.POSITIVE_INFINITY;
+        double maxBudget = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minBudget = Math.min(minBudget, powerBudgets[i]);
+            maxBudget = Math.max(maxBudget, powerBudgets[i]);
+        }
+
+        //Only two tables' values are held at a time, the upper of one pair becoming the lower of the next
+        double[] lowerPower = new double[count];
+        double[] lowerThrust = new double[count];
+        double[] upperPower = new double[count];
+        double[] upperThrust = new double[count];
+        int lowerTable = -1;
+        int interpolatedTables = 0;
+
+        for (int t = 1; t < tableCount; t++) {
+            if (!canBracket(t - 1, minBudget, maxBudget, velocities[0], velocities[count - 1])) {
+                continue;
+            }
+            if (lowerTable != t - 1) {
+                interpolateAtVelocities(tableStore.getRPM(t - 1), false, velocities, lowerPower, count);
+                interpolateAtVelocities(tableStore.getRPM(t - 1), true, velocities, lowerThrust, count);
+                interpolatedTables++;
+            }
+            int rpm = tableStore.getRPM(t);
+            interpolateAtVelocities(rpm, false, velocities, upperPower, count);
+            interpolateAtVelocities(rpm, true, velocities, upperThrust, count);
+            interpolatedTables++;
+            PowerMatchKernel.matchTablePair(
+                lowerPower, lowerThrust, tableStore.getRPM(t - 1), upperPower, upperThrust, rpm,
+                powerBudgets, rpms, thrusts, count
+            );
+
+            double[] swap = lowerPower;
+            lowerPower = upperPower;
+            upperPower = swap;
+            swap = lowerThrust;
+            lowerThrust = upperThrust;
+            upperThrust = swap;
+            lowerTable = t;
+        }
+        INTERPOLATIONS.add(2L * interpolatedTables * count);
+
+        //The upper pair of buffers is free once every pair is matched, and holds the operating point at the ceiling
+        if (ceilingTable(maxRPM) == tableCount) {
+            return;
+        }
+        computeCeilingCurve(velocities, maxRPM, upperPower, upperThrust, count);
+        for (int i = 0; i < count; i++) {
+            if (upperPower[i] < powerBudgets[i] || rpms[i] > maxRPM) {
+                boolean positive = upperThrust[i] > 0;
+                rpms[i] = positive ? maxRPM : Double.NaN;
+                thrusts[i] = positive ? upperThrust[i] : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Interpolates the power and thrust of the propeller running at the motor's unloaded RPM, between the two tables
+     * whose RPMs bracket it, at every velocity of an ascending array. A propeller that absorbs less than the power
+     * budget there is RPM-limited, so that is its operating point. An unloaded RPM below every table's gives zero
+     * power and thrust, since the motor cannot reach any tabulated operating point, and one above every table's gives
+     * infinite power, since the propeller absorbs any budget the tables cover before reaching it.
+     * @param velocities The ascending velocities to interpolate at, in mph
+     * @param maxRPM The motor's unloaded RPM
+     * @param powers Receives the power absorbed at the unloaded RPM at each velocity, in hp
+     * @param thrusts Receives the thrust at the unloaded RPM at each velocity, NaN where the RPM is above every table
+     * @param count How many velocities to interpolate
+     */
+    public void computeCeilingCurve(@NotNull double[] velocities, double maxRPM, @NotNull double[] powers,
+                                    @NotNull double[] thrusts, int count) {
+        int tableCount = tableStore.getTableCount();
+        int ceiling = ceilingTable(maxRPM);
+        if (ceiling < 0) {
+            Arrays.fill(powers, 0, count, 0);
+            Arrays.fill(thrusts, 0, count, 0);
+            return;
+        }
+        if (ceiling == tableCount) {
+            Arrays.fill(powers, 0, count, Double.POSITIVE_INFINITY);
+            Arrays.fill(thrusts, 0, count, Double.NaN);
+            return;
+        }
+
+        //The lower table's values are interpolated into the outputs, then blended with the upper table's in place
+        int lowerRPM = tableStore.getRPM(ceiling);
+        int upperRPM = tableStore.getRPM(ceiling + 1);
+        double[] upper = new double[count];
+        interpolateAtVelocities(lowerRPM, false, velocities, powers, count);
+        interpolateAtVelocities(upperRPM, false, velocities, upper, count);
+        for (int i = 0; i < count; i++) {
+            powers[i] = LinearKernel.lerp(lowerRPM, powers[i], upperRPM, upper[i], maxRPM);
+        }
+        interpolateAtVelocities(lowerRPM, true, velocities, thrusts, count);
+        interpolateAtVelocities(upperRPM, true, velocities, upper, count);
+        for (int i = 0; i < count; i++) {
+            thrusts[i] = LinearKernel.lerp(lowerRPM, thrusts[i], upperRPM, upper[i], maxRPM);
+        }
+        INTERPOLATIONS.add(4L * count);
+    }
+
+    /**
+     * @param maxRPM The motor's unloaded RPM
+     * @return The lower of the two tables whose RPMs bracket the unloaded RPM, -1 if it is below every table's, or the
+     * table count if it is above every table's, where it never limits the match
+     */
+    private int ceilingTable(double maxRPM) {
+        int tableCount = tableStore.getTableCount();
+        if (tableCount == 0 || maxRPM < tableStore.getRPM(0)) {
             return -1;
         }
+        if (tableCount == 1 || maxRPM > tableStore.getRPM(tableCount - 1)) {
+            return tableCount;
+        }
+        int table = 0;
+        while (table < tableCount - 2 && tableStore.getRPM(table + 1) <= maxRPM) {
+            table++;
+        }
+        return table;
     }
 
     /**
-     * Predicts dynamic thrust at the given velocity using constants and the static thrust
-     * @param velocity The velocity to predict at
-     * @return The dynamic thrust prediction
+     * Decides from row powers alone whether the pair of tables lowerTable and lowerTable + 1 can bracket any budget at
+     * any velocity. Interpolated power never leaves the range of the rows it comes from, and is 0 outside a table, so
+     * the upper table must have a row above the smallest budget, and the lower table must either have a row below the
+     * largest budget or not cover every velocity.
+     * @param lowerTable The lower table of the pair
+     * @param minBudget The smallest budget
+     * @param maxBudget The largest budget
+     * @param firstVelocity The lowest velocity matched at
+     * @param lastVelocity The highest velocity matched at
+     * @return If the pair may match some velocity
      */
-    public double getDynamicThrustPrediction(int velocity) {
-        return staticThrust - ((staticThrust * velocity) / MAX_FORWARD_AIRSPEED);
+    private boolean canBracket(int lowerTable, double minBudget, double maxBudget, double firstVelocity,
+                               double lastVelocity) {
+        double[] power = tableStore.column(POWER);
+        double[] velocity = tableStore.column(VELOCITY);
+
+        int upperStart = tableStore.getRowOffset(lowerTable + 1);
+        int upperEnd = tableStore.getRowOffset(lowerTable + 2);
+        boolean upperExceeds = false;
+        for (int row = upperStart; row < upperEnd && !upperExceeds; row++) {
+            upperExceeds = power[row] > minBudget;
+        }
+        if (!upperExceeds) {
+            return false;
+        }
+
+        int lowerStart = tableStore.getRowOffset(lowerTable);
+        int lowerEnd = upperStart;
+        boolean coversEveryVelocity = lowerEnd - lowerStart >= 2
+            && velocity[lowerStart] <= firstVelocity && velocity[lowerEnd - 1] >= lastVelocity;
+        if (!coversEveryVelocity) {
+            return true;
+        }
+        for (int row = lowerStart; row < lowerEnd; row++) {
+            if (power[row] < maxBudget) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -248,20 +492,16 @@ public class PropellerDataSet {
      * @param velocity The velocity to interpolate at
      * @param rpm1 The lower bound RPM
      * @param rpm2 The higher bound RPM
+     * @param motor The motor configuration whose power budget the RPM is matched to
      * @return The interpolated RPM number
      */
-    public double InterpolateRPM(int velocity, int rpm1, int rpm2) {
-        double[] x = new double[2];
-        double[] y = new double[2];
-
-        x[0] = interpolateAtVelocity(velocity, rpm1, false);
-        x[1] = interpolateAtVelocity(velocity, rpm2, false);
+    public double InterpolateRPM(int velocity, int rpm1, int rpm2, @NotNull MotorConfiguration motor) {
+        double powerBudget = motor.getPowerBudget();
+        double power1 = interpolateAtVelocity(velocity, rpm1, false);
+        double power2 = interpolateAtVelocity(velocity, rpm2, false);
 
-        y[0] = rpm1;
-        y[1] = rpm2;
-
-        if (x[1] > POWER_CONSTANT && x[0] < POWER_CONSTANT) {
-            return linInterp.interpolate(x, y).value(POWER_CONSTANT);
+        if (power2 > powerBudget && power1 < powerBudget) {
+            return LinearKernel.lerp(power1, rpm1, power2, rpm2, powerBudget);
         }
         else {
             return -1;
@@ -269,55 +509,136 @@ public class PropellerDataSet {
     }
 
     /**
-     * Interpolates the static thrust at the RPMs that are closest to the max output of the motor (POWER_CONSTANT)
-     * @return The interpolated static thrust
+     * Interpolates the static thrust at the RPMs that are closest to the max output of the motor, between the first
+     * rows of the two RPM tables whose power brackets the budget. When matching the budget would take the propeller
+     * past the motor's unloaded RPM, the thrust at that RPM is interpolated between the first rows of the two tables
+     * bracketing it instead.
+     * @param motor The motor configuration whose power budget and unloaded RPM the thrust is matched to
+     * @return The interpolated static thrust, or 0 if neither brackets the motor's operating point
      */
-    public double getStaticThrust() {
-        ArrayList<Integer> propRPMS = new ArrayList<>(getPropRPMs());
-
-        for (int i = 0; i < propRPMS.size(); i++) {
-            double currentPower = getTableValue(propRPMS.get(i), 0, POWER);
-
-            if (currentPower > POWER_CONSTANT) {
-                double[] x = new double[2];
-                double[] y = new double[2];
-
-                x[0] = getTableValue(propRPMS.get(i - 1), 0, POWER);
-                x[1] = currentPower;
-                y[0] = getTableValue(propRPMS.get(i - 1), 0, THRUST);
-                y[1] = getTableValue(propRPMS.get(i), 0, THRUST);
+    public double getStaticThrust(@NotNull MotorConfiguration motor) {
+        double powerBudget = motor.getPowerBudget();
+        double[] power = tableStore.column(POWER);
+        double[] thrust = tableStore.column(THRUST);
+
+        double maxRPM = motor.getMaxRPM();
+        int ceiling = ceilingTable(maxRPM);
+        if (ceiling < 0) {
+            return 0;
+        }
+        if (ceiling < tableStore.getTableCount() && tableStore.getRowCount(ceiling) > 0
+            && tableStore.getRowCount(ceiling + 1) > 0) {
+            int lowerRow = tableStore.getRowOffset(ceiling);
+            int upperRow = tableStore.getRowOffset(ceiling + 1);
+            int lowerRPM = tableStore.getRPM(ceiling);
+            int upperRPM = tableStore.getRPM(ceiling + 1);
+            if (LinearKernel.lerp(lowerRPM, power[lowerRow], upperRPM, power[upperRow], maxRPM) < powerBudget) {
+                return Math.max(0, LinearKernel.lerp(lowerRPM, thrust[lowerRow], upperRPM, thrust[upperRow], maxRPM));
+            }
+        }
 
-                PolynomialSplineFunction test = linInterp.interpolate(x, y);
-                staticThrust = test.value(POWER_CONSTANT);
-                interpolatedThrusts[0] = staticThrust;
-                return staticThrust;
+        //The first row of every table is the static (zero velocity) row
+        for (int t = 0; t < tableStore.getTableCount(); t++) {
+            int row = tableStore.getRowOffset(t);
+            if (tableStore.getRowCount(t) > 0 && power[row] > powerBudget) {
+                if (t == 0) {
+                    //Even the lowest RPM absorbs more than the budget, so there is nothing to interpolate from
+                    return 0;
+                }
+                int previousRow = tableStore.getRowOffset(t - 1);
+                return LinearKernel.lerp(power[previousRow], thrust[previousRow], power[row], thrust[row], powerBudget);
             }
         }
         return 0;
     }
 
     /**
-     * Fits a function to this data set, x-axis being velocity and y-axis being thrust. Returns the coefficients of
-     * the fit function as a comma separated string.
-     * @return The comma separated coefficients as a string
+     * Evaluates this propeller against a motor configuration without changing any state, so any number of threads may
+     * evaluate the same data set at once
+     * @param motor The motor configuration to evaluate against
+     * @param velocityStep The spacing of the power-matched curve's velocity grid, in mph
+     * @param pointCount The number of grid velocities
+     * @return The static thrust, power-matched curve and thrust fit of this propeller for the motor
      */
-    public String getThrustFormula() {
-        StringBuilder function = new StringBuilder();
-        WeightedObservedPoints wop = new WeightedObservedPoints();
+    @NotNull
+    public PropellerEvaluation evaluate(@NotNull MotorConfiguration motor, double velocityStep, int pointCount) {
+        long start = System.nanoTime();
+        double staticThrust = getStaticThrust(motor);
+        PowerMatchedCurve curve = computePowerMatchedCurve(motor, velocityStep, pointCount);
+
+        long fitStart = System.nanoTime();
+        double[] fit = fitThrustCurve(staticThrust, curve);
+        FIT_TIME.stop(fitStart);
+
+        PropellerEvaluation evaluation = new PropellerEvaluation(name, motor, staticThrust, curve, fit);
+        EVALUATION_TIME.stop(start);
+        return evaluation;
+    }
 
-        for (int i = 0; i < interpolatedThrusts.length; i++) {
-            wop.add(velocities[i], interpolatedThrusts[i]);
-        }
+    /**
+     * Fits a cubic to thrust over velocity, x-axis being velocity and y-axis being thrust. Every evaluation ends with
+     * this fit.
+     * @param staticThrust The thrust used for the first point of the curve
+     * @param curve The power-matched curve to fit, whose unreachable points count as zero thrust
+     * @return The fit coefficients, constant term first
+     */
+    @NotNull
+    public static double[] fitThrustCurve(double staticThrust, @NotNull PowerMatchedCurve curve) {
+        double[] coefficients = new double[FIT_DEGREE + 1];
+        PolynomialFitter.forGrid(curve.getVelocityStep(), curve.getPointCount(), FIT_DEGREE)
+            .fitAll(thrustSeries(staticThrust, curve), 1, coefficients);
+        return coefficients;
+    }
 
-        double[] coeff = curveFit.fit(wop.toList());
-        //coeff[0] = staticThrust;
+    /**
+     * Fits a polynomial of any degree to thrust over velocity, with how well it fits
+     * @param staticThrust The thrust used for the first point of the curve
+     * @param curve The power-matched curve to fit, whose unreachable points count as zero thrust
+     * @param degree The polynomial degree
+     * @return The fit and its residuals
+     */
+    @NotNull
+    public static PolynomialFit fitThrustCurve(double staticThrust, @NotNull PowerMatchedCurve curve, int degree) {
+        return PolynomialFitter.forGrid(curve.getVelocityStep(), curve.getPointCount(), degree)
+            .fit(thrustSeries(staticThrust, curve));
+    }
 
-        for (int i = 0; i < coeff.length; i++) {
-            function.append(coeff[i]);
-            if(i != coeff.length - 1) {
-                function.append(", ");
+    /**
+     * Refits many evaluations' thrust curves in one batch, sharing one precomputed solve
+     * @param evaluations The evaluations to refit, all on the same velocity grid
+     * @param degree The polynomial degree
+     * @return Each evaluation's fit and its residuals, in order
+     */
+    @NotNull
+    public static PolynomialFit[] fitThrustCurves(@NotNull List<PropellerEvaluation> evaluations, int degree) {
+        if (evaluations.isEmpty()) {
+            return new PolynomialFit[0];
+        }
+        PowerMatchedCurve first = evaluations.get(0).getCurve();
+        double[][] series = new double[evaluations.size()][];
+        for (int i = 0; i < series.length; i++) {
+            PowerMatchedCurve curve = evaluations.get(i).getCurve();
+            if (curve.getVelocityStep() != first.getVelocityStep() || curve.getPointCount() != first.getPointCount()) {
+                throw new IllegalArgumentException(
+                    "Thrust curves fitted together must share one velocity grid: " + evaluations.get(i).getPropName()
+                );
             }
+            series[i] = thrustSeries(evaluations.get(i).getStaticThrust(), curve);
+        }
+        return PolynomialFitter.forGrid(first.getVelocityStep(), first.getPointCount(), degree).fitAll(series);
+    }
+
+    /**
+     * @param staticThrust The thrust used for the first point of the curve
+     * @param curve The power-matched curve
+     * @return The thrust at every grid point, static thrust first and zero wherever the curve is unreachable
+     */
+    @NotNull
+    private static double[] thrustSeries(double staticThrust, @NotNull PowerMatchedCurve curve) {
+        double[] thrusts = new double[curve.getPointCount()];
+        for (int i = 0; i < thrusts.length; i++) {
+            thrusts[i] = i == 0 ? staticThrust : curve.isReachable(i) ? curve.getThrust(i) : 0;
         }
-        return function.toString();
+        return thrusts;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package dataParsing;
+
+import dataMetrics.Log;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes a compact binary snapshot of parsed propeller data, so later runs can skip text parsing entirely.
+ * A snapshot is keyed by a content hash of every source file, and is ignored as soon as any of them changes.
+ *
+ * Layout (big endian): magic, format version, source hash, propeller count, then per propeller its UTF-8 name,
+ * table count, column count, RPMs, row offsets and finally each column's values, mirroring PropellerTableStore.
+ */
+public final class PropellerDataSnapshot {
+
+    //Identifies a propeller snapshot file ("APCS")
+    private static final int MAGIC = 0x41504353;
+
+    //Bumped whenever the layout changes, which invalidates older snapshots
+    private static final int FORMAT_VERSION = 2;
+
+    //The digest used to key a snapshot to its source files
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private PropellerDataSnapshot() {
+    }
+
+    /**
+     * Hashes the relative path and content of every source file, in the given order
+     * @param root The data directory the files belong to
+     * @param dataFiles The sorted source files
+     * @return The content hash of the source directory
+     * @throws IOException If any source file cannot be read
+     */
+    @NotNull
+    public static byte[] hashSourceFiles(@NotNull Path root, @NotNull List<Path> dataFiles) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+
+        for (Path dataFile : dataFiles) {
+            byte[] content = Files.readAllBytes(dataFile);
+            digest.update(root.relativize(dataFile).toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(ByteBuffer.allocate(8).putLong(content.length).array());
+            digest.update(content);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes the given data sets as a snapshot. The file is written beside its destination and moved into place, so
+     * a concurrent reader never sees a partial snapshot.
+     * @param snapshotFile Where to write the snapshot
+     * @param sourceHash The content hash of the files the data sets were parsed from
+     * @param dataSets The data sets to write, in catalogue order
+     * @throws IOException If the snapshot cannot be written
+     */
+    public static void write(@NotNull Path snapshotFile, @NotNull byte[] sourceHash,
+                             @NotNull List<PropellerDataSet> dataSets) throws IOException {
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(tempFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(sourceHash.length);
+            out.write(sourceHash);
+            out.writeInt(dataSets.size());
+
+            for (PropellerDataSet dataSet : dataSets) {
+                byte[] name = dataSet.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+
+                PropellerTableStore store = dataSet.getTableStore();
+                out.writeInt(store.getTableCount());
+                out.writeInt(store.getColumnCount());
+                for (int rpm : store.rpms()) {
+                    out.writeInt(rpm);
+                }
+                for (int offset : store.rowOffsets()) {
+                    out.writeInt(offset);
+                }
+                for (int c = 0; c < store.getColumnCount(); c++) {
+                    for (double value : store.column(c)) {
+                        out.writeDouble(value);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Memory-maps and reads a snapshot, provided it was written from source files with the expected hash
+     * @param snapshotFile The snapshot to read
+     * @param expectedHash The content hash of the current source files
+     * @return The restored data sets in catalogue order, or null if the snapshot is missing, stale or unreadable
+     */
+    @Nullable
+    public static List<PropellerDataSet> read(@NotNull Path snapshotFile, @NotNull byte[] expectedHash) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int hashLength = buffer.getInt();
+            if (hashLength != expectedHash.length) {
+                return null;
+            }
+            byte[] storedHash = new byte[hashLength];
+            buffer.get(storedHash);
+            if (!Arrays.equals(storedHash, expectedHash)) {
+                return null;
+            }
+
+            int propCount = buffer.getInt();
+            if (propCount < 0 || propCount > buffer.remaining()) {
+                Log.warn("Ignoring propeller snapshot " + snapshotFile + " with an invalid count of " + propCount);
+                return null;
+            }
+            List<PropellerDataSet> dataSets = new ArrayList<>(propCount);
+            for (int i = 0; i < propCount; i++) {
+                PropellerDataSet dataSet = readDataSet(buffer);
+                if (dataSet == null) {
+                    Log.warn("Ignoring propeller snapshot " + snapshotFile + " with corrupt tables at propeller " + i);
+                    return null;
+                }
+                dataSets.add(dataSet);
+            }
+            return dataSets;
+        }
+        catch (IOException | RuntimeException e) {
+            //A corrupt count or length surfaces as any of several runtime exceptions while decoding
+            Log.warn("Ignoring unreadable propeller snapshot " + snapshotFile + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads one propeller's name and columnar tables from the current position of the buffer, checking every count
+     * fits the buffer, the RPMs ascend and the row offsets start at 0 and never decrease, so a corrupt snapshot is
+     * rejected here rather than failing a query later
+     * @param buffer The mapped snapshot
+     * @return The restored data set, or null if the tables are corrupt
+     */
+    @Nullable
+    private static PropellerDataSet readDataSet(@NotNull ByteBuffer buffer) {
+        int nameLength = buffer.getInt();
+        if (nameLength < 0 || nameLength > buffer.remaining()) {
+            return null;
+        }
+        byte[] name = new byte[nameLength];
+        buffer.get(name);
+
+        int tableCount = buffer.getInt();
+        int columnCount = buffer.getInt();
+        if (tableCount < 0 || columnCount < 0 || tableCount > buffer.remaining() / Integer.BYTES) {
+            return null;
+        }
+        int[] rpms = new int[tableCount];
+        int[] rowOffsets = new int[tableCount + 1];
+        buffer.asIntBuffer().get(rpms);
+        buffer.position(buffer.position() + rpms.length * Integer.BYTES);
+        buffer.asIntBuffer().get(rowOffsets);
+        buffer.position(buffer.position() + rowOffsets.length * Integer.BYTES);
+
+        if (rowOffsets[0] != 0) {
+            return null;
+        }
+        for (int t = 0; t < tableCount; t++) {
+            if (rowOffsets[t + 1] < rowOffsets[t] || (t > 0 && rpms[t] <= rpms[t - 1])) {
+                return null;
+            }
+        }
+        int rowCount = rowOffsets[tableCount];
+        if ((long) rowCount * columnCount > buffer.remaining() / Double.BYTES) {
+            return null;
+        }
+        double[][] columns = new double[columnCount][rowCount];
+        for (double[] column : columns) {
+            buffer.asDoubleBuffer().get(column);
+            buffer.position(buffer.position() + column.length * Double.BYTES);
+        }
+        return new PropellerDataSet(new String(name, StandardCharsets.UTF_8),
+            new PropellerTableStore(rpms, rowOffsets, columns));
+    }
+}
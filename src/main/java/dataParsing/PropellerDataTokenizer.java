@@ -0,0 +1,356 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * A single-pass scanner over the raw bytes of an APC data file. Numbers are parsed straight into a primitive buffer
+ * for the current RPM table, without building a String per line or per token.
+ *
+ * It reads the same tokens the original regex-based parser did: a '-' always starts a new number (values are often
+ * glued together as "0.050-0.002"), "-NaN" reads as 0, and a line is an RPM header when its first token longer than
+ * two characters has no '.', and a data row otherwise. Tables are also assembled the same way, see
+ * {@link #commitTable()}.
+ */
+public final class PropellerDataTokenizer {
+
+    //Powers of ten that are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    //The largest mantissa that converts to a double without rounding
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    //The file being scanned
+    private final byte[] data;
+
+    //Start (inclusive) and end (exclusive) offsets of the tokens on the current line
+    private int[] tokenBounds = new int[64];
+    private int tokenCount;
+
+    //The RPM tables organized so far, keyed by RPM in file order
+    private final LinkedHashMap<Integer, double[][]> tables = new LinkedHashMap<>();
+
+    //Row-major values of the table currently being read
+    private double[] tableValues = new double[1024];
+    private int tableRows;
+    private int tableColumns;
+
+    //The RPM of the table currently being read, -1 before the first RPM header
+    private int tableRPM = -1;
+
+    //How many header or data lines have been seen, and if the second one was an RPM header
+    private int lineEvents;
+    private boolean secondEventWasHeader;
+
+    /**
+     * @param data The raw file content
+     */
+    private PropellerDataTokenizer(@NotNull byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Parses the raw content of one APC data file
+     * @param data The file content
+     * @return The parsed data set
+     * @throws IOException If the content has no header line
+     */
+    @NotNull
+    public static PropellerDataSet parse(@NotNull byte[] data) throws IOException {
+        return new PropellerDataTokenizer(data).parseFile();
+    }
+
+    /**
+     * Reads the name from the header line, then scans every remaining line
+     * @return The parsed data set
+     * @throws IOException If the content has no header line
+     */
+    @NotNull
+    private PropellerDataSet parseFile() throws IOException {
+        if (data.length == 0) {
+            throw new IOException("Empty propeller data file");
+        }
+
+        int headerEnd = lineEnd(0);
+        String propName = nameFromHeader(data, headerEnd);
+
+        int lineStart = headerEnd + 1;
+        while (lineStart < data.length) {
+            int end = lineEnd(lineStart);
+            scanLine(lineStart, end);
+            lineStart = end + 1;
+        }
+        return new PropellerDataSet(propName, tables);
+    }
+
+    /**
+     * Reads the propeller name from a file's header line, such as " 10x7E.dat (10x7E.dat)"
+     * @param data The start of the file content
+     * @param headerEnd The offset of the header line's '\n', or the end of the data
+     * @return The name between the opening parenthesis and the extension
+     */
+    @NotNull
+    static String nameFromHeader(@NotNull byte[] data, int headerEnd) {
+        String header = new String(data, 0, headerEnd, StandardCharsets.ISO_8859_1);
+        if (header.endsWith("\r")) {
+            header = header.substring(0, header.length() - 1);
+        }
+        return header.substring(header.indexOf(" (") + 2, header.lastIndexOf("."));
+    }
+
+    /**
+     * @param from The offset to search from
+     * @return The offset of the next '\n', or the end of the data
+     */
+    private int lineEnd(int from) {
+        int i = from;
+        while (i < data.length && data[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Splits one line into tokens, classifies it, then either starts a new RPM table or appends a data row
+     * @param start The first offset of the line
+     * @param end The offset just past the line
+     */
+    private void scanLine(int start, int end) {
+        tokenCount = 0;
+        int tokenStart = -1;
+
+        for (int i = start; i < end; i++) {
+            byte c = data[i];
+
+            if (c == '-') {
+                if (tokenStart >= 0) {
+                    addToken(tokenStart, i);
+                }
+                //"-NaN" is read as a zero, which covers its four characters
+                if (i + 3 < end && data[i + 1] == 'N' && data[i + 2] == 'a' && data[i + 3] == 'N') {
+                    addToken(i, i + 4);
+                    tokenStart = -1;
+                    i += 3;
+                }
+                else {
+                    tokenStart = i;
+                }
+            }
+            else if ((c >= '0' && c <= '9') || c == '.' || c == ',') {
+                if (tokenStart < 0) {
+                    tokenStart = i;
+                }
+            }
+            else if (tokenStart >= 0) {
+                addToken(tokenStart, i);
+                tokenStart = -1;
+            }
+        }
+        if (tokenStart >= 0) {
+            addToken(tokenStart, end);
+        }
+
+        //The first token longer than two characters decides what the line is
+        for (int t = 0; t < tokenCount; t++) {
+            int from = tokenBounds[2 * t];
+            int to = tokenBounds[2 * t + 1];
+            if (to - from > 2) {
+                if (isNaNToken(from) || containsDot(from, to)) {
+                    onDataRow();
+                }
+                else {
+                    onRPMHeader(parseRPM(from, to));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param from The token start
+     * @param to The token end
+     */
+    private void addToken(int from, int to) {
+        if (2 * tokenCount + 1 >= tokenBounds.length) {
+            tokenBounds = Arrays.copyOf(tokenBounds, tokenBounds.length * 2);
+        }
+        tokenBounds[2 * tokenCount] = from;
+        tokenBounds[2 * tokenCount + 1] = to;
+        tokenCount++;
+    }
+
+    /**
+     * Closes the table being read, then starts a new one for the given RPM
+     * @param rpm The RPM of the new table
+     */
+    private void onRPMHeader(int rpm) {
+        recordEvent(true);
+        if (tableRPM >= 0) {
+            commitTable();
+        }
+        tableRPM = rpm;
+        tableRows = 0;
+        tableColumns = 0;
+    }
+
+    /**
+     * Parses every token of the current line into a new row of the table being read
+     */
+    private void onDataRow() {
+        recordEvent(false);
+        if (tableRPM < 0) {
+            //Rows before the first RPM header have no table to belong to
+            return;
+        }
+        if (tableRows == 0) {
+            tableColumns = tokenCount;
+        }
+
+        int rowStart = tableRows * tableColumns;
+        if (rowStart + tableColumns > tableValues.length) {
+            tableValues = Arrays.copyOf(tableValues, Math.max(tableValues.length * 2, rowStart + tableColumns));
+        }
+        Arrays.fill(tableValues, rowStart, rowStart + tableColumns, 0);
+
+        int columns = Math.min(tokenCount, tableColumns);
+        for (int t = 0; t < columns; t++) {
+            tableValues[rowStart + t] = parseValue(tokenBounds[2 * t], tokenBounds[2 * t + 1]);
+        }
+        tableRows++;
+    }
+
+    /**
+     * @param header If the line was an RPM header rather than a data row
+     */
+    private void recordEvent(boolean header) {
+        lineEvents++;
+        if (lineEvents == 2) {
+            secondEventWasHeader = header;
+        }
+    }
+
+    /**
+     * Stores the table being read. As with the original organizer, a table is only stored once the next RPM header is
+     * reached, a table with no rows is skipped, and every table loses its first row when the second header or data
+     * line of the file was itself a header.
+     */
+    private void commitTable() {
+        if (tableRows == 0) {
+            return;
+        }
+
+        int firstRow = secondEventWasHeader ? 1 : 0;
+        double[][] table = new double[tableRows - firstRow][tableColumns];
+        for (int r = firstRow; r < tableRows; r++) {
+            System.arraycopy(tableValues, r * tableColumns, table[r - firstRow], 0, tableColumns);
+        }
+        tables.put(tableRPM, table);
+    }
+
+    /**
+     * @param from The token start
+     * @param to The token end
+     * @return If the token contains a '.'
+     */
+    private boolean containsDot(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param from The token start
+     * @return If the token is a "-NaN"
+     */
+    private boolean isNaNToken(int from) {
+        return data[from] == '-' && from + 1 < data.length && data[from + 1] == 'N';
+    }
+
+    /**
+     * @param from The token start
+     * @param to The token end
+     * @return The RPM the header token holds
+     */
+    private int parseRPM(int from, int to) {
+        int rpm = 0;
+        for (int i = from; i < to; i++) {
+            byte c = data[i];
+            if (c < '0' || c > '9' || rpm > (Integer.MAX_VALUE - 9) / 10) {
+                throw new NumberFormatException("Invalid RPM: " + token(from, to));
+            }
+            rpm = rpm * 10 + (c - '0');
+        }
+        return rpm;
+    }
+
+    /**
+     * Parses a plain decimal token. Mantissas and exponents small enough to be exact doubles are divided directly,
+     * which rounds exactly like Double.parseDouble; anything else is handed to Double.parseDouble.
+     * @param from The token start
+     * @param to The token end
+     * @return The token's value, 0 for "-" and "-NaN"
+     */
+    private double parseValue(int from, int to) {
+        int i = from;
+        boolean negative = data[i] == '-';
+        if (negative) {
+            i++;
+            if (i == to || data[i] == 'N') {
+                return 0;
+            }
+        }
+
+        long mantissa = 0;
+        int fractionDigits = -1;
+        int digits = 0;
+        for (; i < to; i++) {
+            byte c = data[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    return Double.parseDouble(token(from, to));
+                }
+            }
+            else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            }
+            else {
+                return Double.parseDouble(token(from, to));
+            }
+        }
+
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(token(from, to));
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param from The token start
+     * @param to The token end
+     * @return The token as a String, only used on slow and failing paths
+     */
+    @NotNull
+    private String token(int from, int to) {
+        return new String(data, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,204 @@
+package dataParsing;
+
+import dataMetrics.Log;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a PropellerCatalogue in step with its data directory on a background thread. File events are gathered until
+ * the directory has been quiet for a short while, so a file being written in several steps is parsed once, and then
+ * only the files that changed are reloaded. Every batch of changes is handed to a listener on the watcher's thread.
+ */
+public class PropellerDataWatcher implements Closeable {
+
+    //How long the directory must be quiet before a batch of events is applied
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    //The catalogue being kept up to date
+    private final PropellerCatalogue catalogue;
+
+    //Receives each non-empty batch of changes
+    private final Consumer<List<CatalogueChange>> listener;
+
+    //The service delivering file events
+    private final WatchService watchService;
+
+    //The directory each registered key watches
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    //The thread applying changes
+    private final Thread thread;
+
+    /**
+     * Registers the catalogue's directory tree for file events. Call start to begin applying them.
+     * @param catalogue The catalogue to keep up to date
+     * @param listener Receives each non-empty batch of changes, on the watcher's thread
+     * @throws IOException If the directory tree cannot be watched
+     */
+    public PropellerDataWatcher(@NotNull PropellerCatalogue catalogue,
+                                @NotNull Consumer<List<CatalogueChange>> listener) throws IOException {
+        this.catalogue = catalogue;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerTree(catalogue.getRoot());
+
+        this.thread = new Thread(this::watchLoop, "propeller-data-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts applying file events on the background thread
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops watching and waits briefly for the background thread to finish
+     * @throws IOException If the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for events, gathers them until the directory is quiet, applies them, and repeats until closed
+     */
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                boolean overflowed = drain(watchService.take(), changed);
+
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflowed |= drain(key, changed);
+                }
+
+                List<CatalogueChange> changes = overflowed ? catalogue.rescan() : apply(changed);
+                if (!changes.isEmpty()) {
+                    listener.accept(Collections.unmodifiableList(changes));
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            //Closed, nothing left to do
+        }
+        catch (RuntimeException e) {
+            Log.error("Propeller data watcher stopped: " + e);
+        }
+    }
+
+    /**
+     * Collects the paths of one key's events and re-arms it
+     * @param key The signalled key
+     * @param changed Receives every changed path
+     * @return If events were lost and the directory needs a full rescan
+     */
+    private boolean drain(@NotNull WatchKey key, @NotNull Set<Path> changed) {
+        boolean overflowed = false;
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflowed = true;
+            }
+            else if (directory != null) {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+        return overflowed;
+    }
+
+    /**
+     * Reloads each changed path: files are reparsed or dropped, new directories are watched and loaded, and deleted
+     * directories drop every file under them
+     * @param changed The changed paths
+     * @return Every change made to the catalogue
+     */
+    @NotNull
+    private List<CatalogueChange> apply(@NotNull Set<Path> changed) {
+        List<CatalogueChange> changes = new ArrayList<>();
+        for (Path path : changed) {
+            if (Files.isDirectory(path)) {
+                try {
+                    registerTree(path);
+                    try (Stream<Path> paths = Files.walk(path)) {
+                        for (Path file : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                            addChange(changes, catalogue.reload(file));
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    Log.warn("Unable to watch new directory " + path + ": " + e);
+                }
+            }
+            else if (Files.exists(path)) {
+                addChange(changes, catalogue.reload(path));
+            }
+            else {
+                addChange(changes, catalogue.reload(path));
+                changes.addAll(catalogue.reloadUnder(path));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @param changes The changes so far
+     * @param change A change, or null for none
+     */
+    private static void addChange(@NotNull List<CatalogueChange> changes, CatalogueChange change) {
+        if (change != null) {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Watches a directory and every directory under it
+     * @param directory The top directory
+     * @throws IOException If a directory cannot be registered
+     */
+    private void registerTree(@NotNull Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path subdirectory : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                WatchKey key = subdirectory.register(
+                    watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+                );
+                watchedDirectories.put(key, subdirectory);
+            }
+        }
+    }
+}
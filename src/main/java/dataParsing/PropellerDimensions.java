@@ -0,0 +1,92 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The diameter, pitch and model suffix encoded in an APC propeller name, such as 10x4.5 for a 10 inch diameter and
+ * 4.5 inch pitch, or 10x7E for the electric variant of a 10x7
+ */
+public final class PropellerDimensions {
+
+    //Diameter, 'x', pitch, then anything else as the model suffix
+    private static final Pattern NAME_PATTERN = Pattern.compile("^\\s*(\\d+(?:\\.\\d+)?)\\s*[xX]\\s*(\\d+(?:\\.\\d+)?)(.*)$");
+
+    //The propeller diameter, in inches
+    private final double diameter;
+
+    //The propeller pitch, in inches
+    private final double pitch;
+
+    //Whatever follows the pitch, such as E or SF, empty for none
+    private final String suffix;
+
+    /**
+     * @param diameter The propeller diameter, in inches
+     * @param pitch The propeller pitch, in inches
+     * @param suffix The model suffix, empty for none
+     */
+    PropellerDimensions(double diameter, double pitch, @NotNull String suffix) {
+        this.diameter = diameter;
+        this.pitch = pitch;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @param propName A propeller name such as 10x7E
+     * @return The dimensions in the name, or null if it does not start with a diameter x pitch pair
+     */
+    @Nullable
+    public static PropellerDimensions parse(@NotNull String propName) {
+        Matcher matcher = NAME_PATTERN.matcher(propName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new PropellerDimensions(
+            Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2)), matcher.group(3).trim()
+        );
+    }
+
+    /**
+     * @return The propeller diameter, in inches
+     */
+    public double getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * @return The propeller pitch, in inches
+     */
+    public double getPitch() {
+        return pitch;
+    }
+
+    /**
+     * @return The model suffix, such as E or SF, empty for none
+     */
+    @NotNull
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return The dimensions in APC's diameter x pitch notation
+     */
+    @Override
+    public String toString() {
+        return plain(diameter) + "x" + plain(pitch) + suffix;
+    }
+
+    /**
+     * @param inches A dimension
+     * @return The dimension without trailing zeros, so 10.0 becomes 10
+     */
+    @NotNull
+    private static String plain(double inches) {
+        return BigDecimal.valueOf(inches).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,184 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The immutable result of evaluating one propeller against one motor configuration: its static thrust, power-matched
+ * thrust curve, and a cubic fit of that curve
+ */
+public final class PropellerEvaluation {
+
+    //The evaluated propeller's name
+    private final String propName;
+
+    //The motor configuration the propeller was evaluated against
+    private final MotorConfiguration motor;
+
+    //The static thrust at the motor's power budget, in lbf
+    private final double staticThrust;
+
+    //The power-matched RPM and thrust across velocity
+    private final PowerMatchedCurve curve;
+
+    //The coefficients of the thrust over velocity fit, constant term first
+    private final double[] fitCoefficients;
+
+    /**
+     * @param propName The evaluated propeller's name
+     * @param motor The motor configuration the propeller was evaluated against
+     * @param staticThrust The static thrust at the motor's power budget
+     * @param curve The power-matched RPM and thrust across velocity
+     * @param fitCoefficients The coefficients of the thrust over velocity fit, constant term first
+     */
+    PropellerEvaluation(@NotNull String propName, @NotNull MotorConfiguration motor, double staticThrust,
+                        @NotNull PowerMatchedCurve curve, @NotNull double[] fitCoefficients) {
+        this.propName = propName;
+        this.motor = motor;
+        this.staticThrust = staticThrust;
+        this.curve = curve;
+        this.fitCoefficients = fitCoefficients;
+    }
+
+    /**
+     * @return The evaluated propeller's name
+     */
+    @NotNull
+    public String getPropName() {
+        return propName;
+    }
+
+    /**
+     * @return The motor configuration the propeller was evaluated against
+     */
+    @NotNull
+    public MotorConfiguration getMotor() {
+        return motor;
+    }
+
+    /**
+     * @return The static thrust at the motor's power budget, in lbf
+     */
+    public double getStaticThrust() {
+        return staticThrust;
+    }
+
+    /**
+     * @return The power-matched RPM and thrust across velocity
+     */
+    @NotNull
+    public PowerMatchedCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * Predicts dynamic thrust at the given velocity using the static thrust and the motor's maximum forward airspeed
+     * @param velocity The velocity to predict at
+     * @return The dynamic thrust prediction
+     */
+    public double getDynamicThrustPrediction(double velocity) {
+        return staticThrust - ((staticThrust * velocity) / motor.getMaxForwardAirspeed());
+    }
+
+    /**
+     * @return A copy of the thrust over velocity fit coefficients, constant term first
+     */
+    @NotNull
+    public double[] getFitCoefficients() {
+        return fitCoefficients.clone();
+    }
+
+    /**
+     * @return The fit coefficients as a comma separated string, constant term first
+     */
+    @NotNull
+    public String getThrustFormula() {
+        StringBuilder function = new StringBuilder();
+        for (int i = 0; i < fitCoefficients.length; i++) {
+            function.append(fitCoefficients[i]);
+            if (i != fitCoefficients.length - 1) {
+                function.append(", ");
+            }
+        }
+        return function.toString();
+    }
+
+    /**
+     * Writes every value of this evaluation, so readFrom can restore it exactly
+     * @param out The destination
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeTo(@NotNull DataOutput out) throws IOException {
+        out.writeUTF(propName);
+        out.writeDouble(motor.getKV());
+        out.writeDouble(motor.getVoltage());
+        out.writeDouble(motor.getEfficiency());
+        out.writeDouble(motor.getMotorPower());
+        out.writeDouble(motor.getReferencePitch());
+        out.writeDouble(staticThrust);
+
+        out.writeDouble(curve.getPowerBudget());
+        out.writeDouble(curve.getVelocityStep());
+        out.writeInt(curve.getPointCount());
+        out.writeInt(curve.getReachableCount());
+        for (int point = 0; point < curve.getPointCount(); point++) {
+            out.writeDouble(curve.getRPM(point));
+            out.writeDouble(curve.getThrust(point));
+        }
+
+        out.writeInt(fitCoefficients.length);
+        for (double coefficient : fitCoefficients) {
+            out.writeDouble(coefficient);
+        }
+    }
+
+    /**
+     * Restores an evaluation written by writeTo
+     * @param in The source
+     * @return The restored evaluation
+     * @throws IOException If the source cannot be read or holds an invalid evaluation
+     */
+    @NotNull
+    public static PropellerEvaluation readFrom(@NotNull DataInput in) throws IOException {
+        String propName = in.readUTF();
+        MotorConfiguration motor;
+        try {
+            motor = new MotorConfiguration(
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()
+            );
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Invalid motor configuration for " + propName, e);
+        }
+        double staticThrust = in.readDouble();
+
+        double powerBudget = in.readDouble();
+        double velocityStep = in.readDouble();
+        int pointCount = in.readInt();
+        int reachableCount = in.readInt();
+        if (pointCount < 0 || reachableCount < 0 || reachableCount > pointCount) {
+            throw new IOException("Invalid curve size for " + propName);
+        }
+        double[] rpms = new double[pointCount];
+        double[] thrusts = new double[pointCount];
+        for (int point = 0; point < pointCount; point++) {
+            rpms[point] = in.readDouble();
+            thrusts[point] = in.readDouble();
+        }
+
+        int coefficientCount = in.readInt();
+        if (coefficientCount < 0) {
+            throw new IOException("Invalid fit size for " + propName);
+        }
+        double[] fitCoefficients = new double[coefficientCount];
+        for (int i = 0; i < coefficientCount; i++) {
+            fitCoefficients[i] = in.readDouble();
+        }
+
+        PowerMatchedCurve curve = new PowerMatchedCurve(powerBudget, velocityStep, rpms, thrusts, reachableCount);
+        return new PropellerEvaluation(propName, motor, staticThrust, curve, fitCoefficients);
+    }
+}
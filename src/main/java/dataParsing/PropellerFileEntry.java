@@ -0,0 +1,71 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * What a lazy catalogue knows about one propeller data file before parsing it: the name from its header line, where
+ * it is, how large it is, and the diameter and pitch the name encodes
+ */
+public final class PropellerFileEntry {
+
+    //The propeller name from the header line
+    private final String name;
+
+    //The data file and its size, in bytes
+    private final Path file;
+    private final long size;
+
+    //The dimensions parsed from the name, null if the name has none
+    private final PropellerDimensions dimensions;
+
+    /**
+     * @param name The propeller name from the header line
+     * @param file The data file
+     * @param size The data file's size, in bytes
+     */
+    PropellerFileEntry(@NotNull String name, @NotNull Path file, long size) {
+        this.name = name;
+        this.file = file;
+        this.size = size;
+        this.dimensions = PropellerDimensions.parse(name);
+    }
+
+    /**
+     * @return The propeller name from the header line
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The data file
+     */
+    @NotNull
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return The data file's size, in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The dimensions parsed from the name, or null if the name has none
+     */
+    @Nullable
+    public PropellerDimensions getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + file + ", " + size + " bytes)";
+    }
+}
@@ -0,0 +1,251 @@
+package dataParsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Columnar storage for every RPM table of one propeller. RPMs are kept in one sorted int[], and each column
+ * (VELOCITY, POWER, THRUST, ...) is one contiguous double[] holding the rows of every table back to back, so the rows
+ * of table t are the range [rowOffsets[t], rowOffsets[t + 1]) of any column.
+ */
+public final class PropellerTableStore {
+
+    //Column indexes
+    public static final int VELOCITY = 0;
+    public static final int ADVANCE_RATIO = 1;
+    public static final int EFFICIENCY = 2;
+    public static final int THRUST_COEFFICIENT = 3;
+    public static final int POWER_COEFFICIENT = 4;
+    public static final int POWER = 5;
+    public static final int TORQUE = 6;
+    public static final int THRUST = 7;
+
+    //64-bit FNV-1a parameters, used for the content fingerprint
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    //Rough JVM object and array header sizes, used for the memory footprint estimate
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+
+    //The RPM of each table, ascending
+    private final int[] rpms;
+
+    //Where each table's rows start in every column, with one extra entry marking the end of the last table
+    private final int[] rowOffsets;
+
+    //One array per column, holding the rows of every table back to back
+    private final double[][] columns;
+
+    /**
+     * @param rpms The RPM of each table, ascending
+     * @param rowOffsets The first row of each table, followed by the total row count
+     * @param columns The column arrays, each as long as the total row count
+     */
+    PropellerTableStore(@NotNull int[] rpms, @NotNull int[] rowOffsets, @NotNull double[][] columns) {
+        this.rpms = rpms;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+    }
+
+    /**
+     * Transposes row-major RPM tables into columns. Tables are ordered by RPM, and rows narrower than the widest row
+     * are padded with zeros.
+     * @param tables The row-major tables, keyed by RPM
+     * @return The columnar store
+     */
+    @NotNull
+    static PropellerTableStore fromTables(@NotNull Map<Integer, double[][]> tables) {
+        int[] rpms = new int[tables.size()];
+        int t = 0;
+        for (int rpm : tables.keySet()) {
+            rpms[t++] = rpm;
+        }
+        Arrays.sort(rpms);
+
+        int[] rowOffsets = new int[rpms.length + 1];
+        int columnCount = 0;
+        for (t = 0; t < rpms.length; t++) {
+            double[][] table = tables.get(rpms[t]);
+            rowOffsets[t + 1] = rowOffsets[t] + table.length;
+            for (double[] row : table) {
+                columnCount = Math.max(columnCount, row.length);
+            }
+        }
+
+        double[][] columns = new double[columnCount][rowOffsets[rpms.length]];
+        for (t = 0; t < rpms.length; t++) {
+            double[][] table = tables.get(rpms[t]);
+            for (int r = 0; r < table.length; r++) {
+                for (int c = 0; c < table[r].length; c++) {
+                    columns[c][rowOffsets[t] + r] = table[r][c];
+                }
+            }
+        }
+        return new PropellerTableStore(rpms, rowOffsets, columns);
+    }
+
+    /**
+     * @return The number of RPM tables
+     */
+    public int getTableCount() {
+        return rpms.length;
+    }
+
+    /**
+     * @return The number of columns in every table
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @return The number of rows across all tables
+     */
+    public int getTotalRowCount() {
+        return rowOffsets[rpms.length];
+    }
+
+    /**
+     * @param tableIndex The table to look at
+     * @return The RPM of the table
+     */
+    public int getRPM(int tableIndex) {
+        return rpms[tableIndex];
+    }
+
+    /**
+     * @param rpm The RPM to find
+     * @return The index of the table with the given RPM, or a negative number if there is none
+     */
+    public int indexOfRPM(int rpm) {
+        return Arrays.binarySearch(rpms, rpm);
+    }
+
+    /**
+     * @param tableIndex The table to look at
+     * @return The index, in every column, of the table's first row
+     */
+    public int getRowOffset(int tableIndex) {
+        return rowOffsets[tableIndex];
+    }
+
+    /**
+     * @param tableIndex The table to look at
+     * @return The number of rows in the table
+     */
+    public int getRowCount(int tableIndex) {
+        return rowOffsets[tableIndex + 1] - rowOffsets[tableIndex];
+    }
+
+    /**
+     * @param tableIndex The table to read
+     * @param row The row within the table
+     * @param column The column to read
+     * @return The stored value
+     */
+    public double getValue(int tableIndex, int row, int column) {
+        return columns[column][rowOffsets[tableIndex] + row];
+    }
+
+    /**
+     * Finds the two adjacent rows of a table whose velocities bracket the given velocity, by binary search over the
+     * table's ascending VELOCITY column. A velocity equal to a row's velocity is bracketed by that row and the one
+     * before it, except at the first row, which is bracketed with the row after it.
+     * @param tableIndex The table to search
+     * @param velocity The velocity to bracket
+     * @return The lower row of the bracket within the table, the upper being the next row, or -1 if the velocity is
+     * outside the table's velocity range or the table has fewer than two rows
+     */
+    public int findVelocityBracket(int tableIndex, double velocity) {
+        double[] velocities = columns[VELOCITY];
+        int first = rowOffsets[tableIndex];
+        int last = rowOffsets[tableIndex + 1] - 1;
+
+        if (last - first < 1 || !(velocity >= velocities[first]) || velocity > velocities[last]) {
+            return -1;
+        }
+
+        //Finds the first row whose velocity is at least the target
+        int low = first;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (velocities[mid] < velocity) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return Math.max(low - 1, first) - first;
+    }
+
+    /**
+     * @param column The column to get
+     * @return The shared, not copied, array of the column across all tables, indexed by getRowOffset(t) + row
+     */
+    double[] column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * @return The shared RPM array
+     */
+    int[] rpms() {
+        return rpms;
+    }
+
+    /**
+     * @return The shared row offset array
+     */
+    int[] rowOffsets() {
+        return rowOffsets;
+    }
+
+    /**
+     * @return An estimate of the heap held by this store, in bytes
+     */
+    public long getMemoryFootprint() {
+        long bytes = OBJECT_HEADER_BYTES + 3L * REFERENCE_BYTES;
+        bytes += ARRAY_HEADER_BYTES + 4L * rpms.length;
+        bytes += ARRAY_HEADER_BYTES + 4L * rowOffsets.length;
+        bytes += ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * columns.length;
+        for (double[] column : columns) {
+            bytes += ARRAY_HEADER_BYTES + 8L * column.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param other The store to compare against
+     * @return If both stores hold exactly the same tables
+     */
+    public boolean hasSameContent(@NotNull PropellerTableStore other) {
+        return Arrays.equals(rpms, other.rpms) && Arrays.equals(rowOffsets, other.rowOffsets)
+            && Arrays.deepEquals(columns, other.columns);
+    }
+
+    /**
+     * @return A 64-bit hash of every RPM, row offset and stored value, which changes whenever the tables do
+     */
+    public long getContentFingerprint() {
+        long hash = FNV_OFFSET_BASIS;
+        for (int rpm : rpms) {
+            hash = (hash ^ rpm) * FNV_PRIME;
+        }
+        for (int offset : rowOffsets) {
+            hash = (hash ^ offset) * FNV_PRIME;
+        }
+        for (double[] column : columns) {
+            hash = (hash ^ column.length) * FNV_PRIME;
+            for (double value : column) {
+                hash = (hash ^ Double.doubleToLongBits(value)) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+}
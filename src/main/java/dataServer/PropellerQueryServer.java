@@ -0,0 +1,664 @@
+package dataServer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dataAnalysis.EvaluationCache;
+import dataAnalysis.PropellerQuery;
+import dataAnalysis.PropellerQueryEngine;
+import dataAnalysis.PropellerSummary;
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
+import dataOutput.JsonWriter;
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static dataAnalysis.PropellerQueryEngine.DEFAULT_POINT_COUNT;
+import static dataAnalysis.PropellerQueryEngine.DEFAULT_VELOCITY_STEP;
+
+/**
+ * Answers propeller questions over HTTP on the loopback interface, so the catalogue is loaded once and queried many
+ * times. Requests are handled on a fixed thread pool; evaluations are shared through an EvaluationCache and best
+ * propeller queries through one PropellerQueryEngine per motor configuration.
+ *
+ * Every endpoint takes GET parameters and answers JSON. Motor parameters (kv, voltage, efficiency, power in hp, pitch)
+ * default to MotorConfiguration.DEFAULT.
+ * /props                                    every propeller name
+ * /static-thrust?prop=                      static thrust
+ * /thrust-curve?prop=[&amp;format=binary]      the power-matched RPM and thrust at every reachable whole mph, and the fit
+ * /rpm?prop=&amp;velocity=                      power-matched RPM and thrust at one velocity
+ * /best?[minStaticThrust, cruise, minCruiseThrust, minDiameter, maxDiameter, minPitch, maxPitch, maxRPM, rank, limit]
+ *                                           limit is 1 to the catalogue size; a few new motors a minute are indexed
+ * /stats                                    request count and p50/p99/max latency per endpoint
+ * /metrics, /metrics.json                   every application metric, in Prometheus text or JSON
+ *
+ * The JDK server writes headers and body separately, so unless the JVM is launched with
+ * -Dsun.net.httpserver.nodelay=true every keep-alive response after the first waits out the client's delayed ACK,
+ * around 40 ms. Main's serve mode sets it when it is not given.
+ */
+public class PropellerQueryServer implements Closeable {
+
+    //The most query engines, one per motor configuration, kept before the least recently used is dropped
+    private static final int MAX_ENGINES = 16;
+
+    //The most query engines built for new motor configurations per minute, as each evaluates the whole catalogue
+    private static final int MAX_ENGINE_BUILDS_PER_MINUTE = 4;
+    private static final long ENGINE_BUILD_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    //The most evaluations kept in the shared cache
+    private static final int CACHE_ENTRIES_PER_PROP = 8;
+
+    //The loaded propellers
+    private final PropellerDataLoader catalogue;
+
+    //Evaluations shared between requests
+    private final EvaluationCache cache;
+
+    //Query engines by motor configuration, least recently used first
+    private final LinkedHashMap<MotorConfiguration, PropellerQueryEngine> engines =
+        new LinkedHashMap<MotorConfiguration, PropellerQueryEngine>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MotorConfiguration, PropellerQueryEngine> eldest) {
+                return size() > MAX_ENGINES;
+            }
+        };
+
+    //Held while a query engine is built, so builds for new motors never run side by side
+    private final Object engineBuildLock = new Object();
+
+    //When each query engine built in the last minute was started, oldest first, guarded by engineBuildLock
+    private final ArrayDeque<Long> engineBuildTimes = new ArrayDeque<>();
+
+    //The latency of every endpoint, by path
+    private final Map<String, Timer> latencies = new ConcurrentSkipListMap<>();
+
+    //The HTTP server and the pool its handlers run on
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Binds the server to the loopback interface. Call start to begin answering requests.
+     * @param catalogue The loaded propellers
+     * @param port The port to listen on, or 0 for any free port
+     * @param threads The number of request handler threads
+     * @throws IOException If the port cannot be bound
+     */
+    public PropellerQueryServer(@NotNull PropellerDataLoader catalogue, int port, int threads) throws IOException {
+        this.catalogue = catalogue;
+        this.cache = new EvaluationCache(Math.max(1, catalogue.getNumOfProps() * CACHE_ENTRIES_PER_PROP));
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+
+        addEndpoint("/props", this::handleProps);
+        addEndpoint("/static-thrust", this::handleStaticThrust);
+        addEndpoint("/thrust-curve", this::handleThrustCurve);
+        addEndpoint("/rpm", this::handleRPM);
+        addEndpoint("/best", this::handleBest);
+        addEndpoint("/stats", parameters -> Response.json(statsJson()));
+        addEndpoint("/metrics", parameters -> new Response(
+            200, "text/plain; version=0.0.4; charset=utf-8",
+            MetricRegistry.global().toPrometheus().getBytes(StandardCharsets.UTF_8)
+        ));
+        addEndpoint("/metrics.json", parameters -> new Response(
+            200, "application/json", MetricRegistry.global().toJson().getBytes(StandardCharsets.UTF_8)
+        ));
+    }
+
+    /**
+     * Starts answering requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return The port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The evaluation cache shared between requests
+     */
+    @NotNull
+    public EvaluationCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return The request count and latency percentiles of every endpoint
+     */
+    @NotNull
+    public String getStats() {
+        return statsJson().toString();
+    }
+
+    /**
+     * Stops accepting requests, lets in-flight ones finish for up to a second, and stops the handler threads
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves an endpoint, recording its latency and turning failures into error responses
+     * @param path The endpoint's path
+     * @param handler Answers the endpoint's requests
+     */
+    private void addEndpoint(@NotNull String path, @NotNull Handler handler) {
+        Timer timer = MetricRegistry.global().timer(
+            "apc_http_request_seconds", "Time to answer one HTTP request", "endpoint", path
+        );
+        latencies.put(path, timer);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            Response response;
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    response = Response.error(404, "No such endpoint");
+                }
+                else if (!"GET".equals(exchange.getRequestMethod())) {
+                    response = Response.error(405, "Only GET is supported");
+                }
+                else {
+                    response = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+                }
+            }
+            catch (NotFoundException e) {
+                response = Response.error(404, e.getMessage());
+            }
+            catch (TooManyRequestsException e) {
+                response = Response.error(429, e.getMessage());
+            }
+            catch (IllegalArgumentException e) {
+                response = Response.error(400, e.getMessage());
+            }
+            catch (Exception e) {
+                response = Response.error(500, e.toString());
+            }
+            send(exchange, response);
+            timer.stop(start);
+        });
+    }
+
+    /**
+     * @param parameters Unused
+     * @return Every propeller name
+     */
+    @NotNull
+    private Response handleProps(@NotNull Map<String, String> parameters) {
+        JsonWriter json = new JsonWriter().beginObject().name("count").value(catalogue.getNumOfProps()).name("props");
+        json.beginArray();
+        for (int i = 0; i < catalogue.getNumOfProps(); i++) {
+            json.value(catalogue.getPropellerName(i));
+        }
+        return Response.json(json.endArray().endObject());
+    }
+
+    /**
+     * @param parameters The propeller and motor parameters
+     * @return The propeller's static thrust
+     */
+    @NotNull
+    private Response handleStaticThrust(@NotNull Map<String, String> parameters) {
+        PropellerEvaluation evaluation = evaluate(parameters);
+        JsonWriter json = new JsonWriter().beginObject().name("prop").value(evaluation.getPropName());
+        writeMotor(json.name("motor"), evaluation.getMotor());
+        json.name("staticThrust").value(evaluation.getStaticThrust());
+        return Response.json(json.endObject());
+    }
+
+    /**
+     * @param parameters The propeller and motor parameters, and format=binary for a binary response
+     * @return The propeller's power-matched curve over every reachable grid velocity, and its fit
+     * @throws IOException Never, as the binary response is built in memory
+     */
+    @NotNull
+    private Response handleThrustCurve(@NotNull Map<String, String> parameters) throws IOException {
+        PropellerEvaluation evaluation = evaluate(parameters);
+        PowerMatchedCurve curve = evaluation.getCurve();
+        int reachable = curve.getReachableCount();
+        double[] velocities = new double[reachable];
+        double[] rpms = new double[reachable];
+        double[] thrusts = new double[reachable];
+        for (int point = 0; point < reachable; point++) {
+            velocities[point] = curve.getVelocity(point);
+            rpms[point] = curve.getRPM(point);
+            thrusts[point] = curve.getThrust(point);
+        }
+        double[] fit = evaluation.getFitCoefficients();
+
+        if ("binary".equals(parameters.get("format"))) {
+            //Big endian: point count, velocities, RPMs, thrusts, fit coefficient count, fit coefficients
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 24 * reachable + 8 * fit.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(reachable);
+            for (double[] column : new double[][] {velocities, rpms, thrusts}) {
+                for (double value : column) {
+                    out.writeDouble(value);
+                }
+            }
+            out.writeInt(fit.length);
+            for (double coefficient : fit) {
+                out.writeDouble(coefficient);
+            }
+            return new Response(200, "application/octet-stream", bytes.toByteArray());
+        }
+
+        JsonWriter json = new JsonWriter().beginObject().name("prop").value(evaluation.getPropName());
+        writeMotor(json.name("motor"), evaluation.getMotor());
+        json.name("powerBudget").value(curve.getPowerBudget());
+        json.name("staticThrust").value(evaluation.getStaticThrust());
+        json.name("velocity").array(velocities, reachable);
+        json.name("rpm").array(rpms, reachable);
+        json.name("thrust").array(thrusts, reachable);
+        json.name("fit").array(fit, fit.length);
+        return Response.json(json.endObject());
+    }
+
+    /**
+     * @param parameters The propeller, velocity and motor parameters
+     * @return The power-matched RPM and thrust at the velocity, null where the propeller cannot absorb the power
+     */
+    @NotNull
+    private Response handleRPM(@NotNull Map<String, String> parameters) {
+        double velocity = requireDouble(parameters, "velocity");
+        PropellerEvaluation evaluation = evaluate(parameters);
+        JsonWriter json = new JsonWriter().beginObject().name("prop").value(evaluation.getPropName());
+        json.name("velocity").value(velocity);
+        json.name("rpm").value(evaluation.getCurve().getRPMAt(velocity));
+        json.name("thrust").value(evaluation.getCurve().getThrustAt(velocity));
+        return Response.json(json.endObject());
+    }
+
+    /**
+     * @param parameters The constraints, ranking, limit and motor parameters
+     * @return The best propellers for the constraints, best first
+     * @throws InterruptedException If interrupted while building a query engine
+     */
+    @NotNull
+    private Response handleBest(@NotNull Map<String, String> parameters) throws InterruptedException {
+        MotorConfiguration motor = parseMotor(parameters);
+        PropellerQuery query = PropellerQuery.ANY;
+        if (parameters.containsKey("minStaticThrust")) {
+            query = query.withMinStaticThrust(requireDouble(parameters, "minStaticThrust"));
+        }
+        if (parameters.containsKey("cruise")) {
+            query = query.withMinThrustAt(
+                requireDouble(parameters, "cruise"), optionalDouble(parameters, "minCruiseThrust", 0)
+            );
+        }
+        if (parameters.containsKey("minDiameter") || parameters.containsKey("maxDiameter")) {
+            query = query.withDiameterRange(
+                optionalDouble(parameters, "minDiameter", Double.NEGATIVE_INFINITY),
+                optionalDouble(parameters, "maxDiameter", Double.POSITIVE_INFINITY)
+            );
+        }
+        if (parameters.containsKey("minPitch") || parameters.containsKey("maxPitch")) {
+            query = query.withPitchRange(
+                optionalDouble(parameters, "minPitch", Double.NEGATIVE_INFINITY),
+                optionalDouble(parameters, "maxPitch", Double.POSITIVE_INFINITY)
+            );
+        }
+        if (parameters.containsKey("maxRPM")) {
+            query = query.withMaxRPM(requireDouble(parameters, "maxRPM"));
+        }
+        if (parameters.containsKey("rank")) {
+            query = query.rankedBy(PropellerQuery.Ranking.valueOf(parameters.get("rank").toUpperCase()));
+        }
+        if (parameters.containsKey("limit")) {
+            int limit = requireInt(parameters, "limit");
+            if (limit < 1 || limit > catalogue.getNumOfProps()) {
+                throw new IllegalArgumentException(
+                    "Parameter limit must be from 1 to " + catalogue.getNumOfProps() + ": " + limit
+                );
+            }
+            query = query.withLimit(limit);
+        }
+        if (query.getRanking() == PropellerQuery.Ranking.CRUISE_THRUST && !query.hasCruiseVelocity()) {
+            throw new IllegalArgumentException("Ranking by cruise thrust needs a cruise velocity");
+        }
+
+        JsonWriter json = new JsonWriter().beginObject();
+        writeMotor(json.name("motor"), motor);
+        json.name("results").beginArray();
+        for (PropellerSummary summary : engineFor(motor).query(query)) {
+            json.beginObject();
+            json.name("prop").value(summary.getPropName());
+            json.name("staticThrust").value(summary.getStaticThrust());
+            if (query.hasCruiseVelocity()) {
+                json.name("cruiseThrust").value(summary.getThrustAt(query.getCruiseVelocity()));
+            }
+            json.name("maxRPM").value(summary.getMaxRPM());
+            json.name("maxVelocity").value(summary.getMaxVelocity());
+            json.endObject();
+        }
+        return Response.json(json.endArray().endObject());
+    }
+
+    /**
+     * @param motor The motor configuration
+     * @return The query engine for the motor, building it on first use
+     * @throws InterruptedException If interrupted while building the engine
+     * @throws TooManyRequestsException If too many engines have been built for new motors in the last minute
+     */
+    @NotNull
+    private PropellerQueryEngine engineFor(@NotNull MotorConfiguration motor) throws InterruptedException {
+        PropellerQueryEngine engine;
+        synchronized (engines) {
+            engine = engines.get(motor);
+        }
+        if (engine != null) {
+            return engine;
+        }
+
+        //Built outside the engines lock so queries for indexed motors are not held up
+        synchronized (engineBuildLock) {
+            synchronized (engines) {
+                engine = engines.get(motor);
+            }
+            if (engine != null) {
+                return engine;
+            }
+            reserveEngineBuild();
+            engine = PropellerQueryEngine.build(catalogue, motor);
+            synchronized (engines) {
+                engines.put(motor, engine);
+            }
+            return engine;
+        }
+    }
+
+    /**
+     * Records an engine build against the per-minute allowance. Must be called holding engineBuildLock.
+     * @throws TooManyRequestsException If the allowance for the last minute is used up
+     */
+    private void reserveEngineBuild() {
+        long now = System.nanoTime();
+        while (!engineBuildTimes.isEmpty() && now - engineBuildTimes.peekFirst() >= ENGINE_BUILD_WINDOW_NANOS) {
+            engineBuildTimes.removeFirst();
+        }
+        if (engineBuildTimes.size() >= MAX_ENGINE_BUILDS_PER_MINUTE) {
+            long waitSeconds = TimeUnit.NANOSECONDS.toSeconds(
+                engineBuildTimes.peekFirst() + ENGINE_BUILD_WINDOW_NANOS - now
+            ) + 1;
+            throw new TooManyRequestsException(
+                "Too many new motor configurations, try again in " + waitSeconds + " s"
+            );
+        }
+        engineBuildTimes.addLast(now);
+    }
+
+    /**
+     * @param parameters The request parameters, naming the propeller and optionally the motor
+     * @return The propeller's evaluation, from the cache when possible
+     */
+    @NotNull
+    private PropellerEvaluation evaluate(@NotNull Map<String, String> parameters) {
+        String name = parameters.get("prop");
+        if (name == null) {
+            throw new IllegalArgumentException("Missing parameter prop");
+        }
+        PropellerDataSet prop = catalogue.getPropellerData(name);
+        if (prop == null) {
+            throw new NotFoundException("No propeller named " + name);
+        }
+        return cache.evaluate(prop, parseMotor(parameters), DEFAULT_VELOCITY_STEP, DEFAULT_POINT_COUNT);
+    }
+
+    /**
+     * @param parameters The request parameters
+     * @return The motor configuration they describe, defaulting each value to MotorConfiguration.DEFAULT
+     */
+    @NotNull
+    private static MotorConfiguration parseMotor(@NotNull Map<String, String> parameters) {
+        MotorConfiguration base = MotorConfiguration.DEFAULT;
+        return new MotorConfiguration(
+            optionalDouble(parameters, "kv", base.getKV()),
+            optionalDouble(parameters, "voltage", base.getVoltage()),
+            optionalDouble(parameters, "efficiency", base.getEfficiency()),
+            optionalDouble(parameters, "power", base.getMotorPower()),
+            optionalDouble(parameters, "pitch", base.getReferencePitch())
+        );
+    }
+
+    /**
+     * @param json The writer, positioned for a value
+     * @param motor The motor configuration to write
+     */
+    private static void writeMotor(@NotNull JsonWriter json, @NotNull MotorConfiguration motor) {
+        json.beginObject();
+        json.name("kv").value(motor.getKV());
+        json.name("voltage").value(motor.getVoltage());
+        json.name("efficiency").value(motor.getEfficiency());
+        json.name("power").value(motor.getMotorPower());
+        json.name("pitch").value(motor.getReferencePitch());
+        json.endObject();
+    }
+
+    /**
+     * @return The request count and latency percentiles of every endpoint, and the cache counters
+     */
+    @NotNull
+    private JsonWriter statsJson() {
+        JsonWriter json = new JsonWriter().beginObject().name("endpoints").beginObject();
+        for (Map.Entry<String, Timer> entry : latencies.entrySet()) {
+            Timer timer = entry.getValue();
+            json.name(entry.getKey()).beginObject();
+            json.name("count").value(timer.getCount());
+            json.name("p50Micros").value(timer.getPercentileMicros(50));
+            json.name("p99Micros").value(timer.getPercentileMicros(99));
+            json.name("maxMicros").value(timer.getMaxMicros());
+            json.endObject();
+        }
+        json.endObject().name("cache").beginObject();
+        json.name("size").value(cache.size());
+        json.name("hits").value(cache.getHitCount());
+        json.name("misses").value(cache.getMissCount());
+        json.name("evictions").value(cache.getEvictionCount());
+        return json.endObject().endObject();
+    }
+
+    /**
+     * @param rawQuery The URL-encoded query string, or null for none
+     * @return The decoded parameters, the last value winning for repeated names
+     */
+    @NotNull
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), "UTF-8");
+                String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+                parameters.put(name, value);
+            }
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+        return parameters;
+    }
+
+    /**
+     * @param parameters The request parameters
+     * @param name The parameter to read
+     * @return The parameter's number
+     */
+    private static double requireDouble(@NotNull Map<String, String> parameters, @NotNull String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        try {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * @param parameters The request parameters
+     * @param name The parameter to read
+     * @return The parameter's whole number
+     */
+    private static int requireInt(@NotNull Map<String, String> parameters, @NotNull String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " is not a whole number: " + value);
+        }
+    }
+
+    /**
+     * @param parameters The request parameters
+     * @param name The parameter to read
+     * @param fallback The value when the parameter is absent
+     * @return The parameter's number, or the fallback
+     */
+    private static double optionalDouble(@NotNull Map<String, String> parameters, @NotNull String name,
+                                         double fallback) {
+        return parameters.containsKey(name) ? requireDouble(parameters, name) : fallback;
+    }
+
+    /**
+     * Writes a response and closes the exchange
+     * @param exchange The exchange to answer
+     * @param response The response
+     * @throws IOException If the client has gone away
+     */
+    private static void send(@NotNull HttpExchange exchange, @NotNull Response response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response.body);
+        }
+    }
+
+    /**
+     * Answers one endpoint's requests
+     */
+    private interface Handler {
+
+        /**
+         * @param parameters The decoded query parameters
+         * @return The response
+         * @throws Exception If the request cannot be answered
+         */
+        @NotNull
+        Response handle(@NotNull Map<String, String> parameters) throws Exception;
+    }
+
+    /**
+     * A response status, content type and body
+     */
+    private static final class Response {
+
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        /**
+         * @param status The HTTP status
+         * @param contentType The body's content type
+         * @param body The body
+         */
+        Response(int status, @NotNull String contentType, @NotNull byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        /**
+         * @param json The finished document
+         * @return A successful JSON response
+         */
+        @NotNull
+        static Response json(@NotNull JsonWriter json) {
+            return new Response(200, "application/json", json.toBytes());
+        }
+
+        /**
+         * @param status The HTTP status
+         * @param message What went wrong
+         * @return A JSON error response
+         */
+        @NotNull
+        static Response error(int status, String message) {
+            JsonWriter json = new JsonWriter().beginObject().name("error").value(String.valueOf(message)).endObject();
+            return new Response(status, "application/json", json.toBytes());
+        }
+    }
+
+    /**
+     * Thrown when a request names something the catalogue does not have
+     */
+    private static final class NotFoundException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param message What was not found
+         */
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a request would start more work than the server allows in a period
+     */
+    private static final class TooManyRequestsException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param message What was refused and when to retry
+         */
+        TooManyRequestsException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package dataSimulation;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable airframe to simulate missions with: its weight, its drag polar and how it leaves the ground. Drag is
+ * parasitic drag from the zero-lift drag coefficient plus, once airborne, induced drag from the lift needed to carry
+ * the weight in level flight.
+ */
+public final class AirframeModel {
+
+    //Sea-level air density, in slug per cubic foot
+    static final double AIR_DENSITY = 0.002377;
+
+    //A 6 lb trainer with a 6 square foot wing that lifts off at 25 mph, sized for the default motor
+    public static final AirframeModel DEFAULT = new AirframeModel(6, 6, 0.035, 0.06, 0.05, 25);
+
+    //The all-up weight, in lbf
+    private final double weight;
+
+    //The wing area the coefficients refer to, in square feet
+    private final double wingArea;
+
+    //The zero-lift drag coefficient
+    private final double parasiticDragCoefficient;
+
+    //The induced drag factor k, so the induced drag coefficient is k times the lift coefficient squared
+    private final double inducedDragFactor;
+
+    //The rolling friction coefficient of the landing gear during the takeoff roll
+    private final double rollingFriction;
+
+    //The speed the airframe leaves the ground at, in mph
+    private final double liftOffSpeed;
+
+    /**
+     * @param weight The all-up weight, in lbf
+     * @param wingArea The wing area the coefficients refer to, in square feet
+     * @param parasiticDragCoefficient The zero-lift drag coefficient
+     * @param inducedDragFactor The induced drag factor k, so the induced drag coefficient is k * CL^2
+     * @param rollingFriction The rolling friction coefficient during the takeoff roll
+     * @param liftOffSpeed The speed the airframe leaves the ground at, in mph
+     */
+    public AirframeModel(double weight, double wingArea, double parasiticDragCoefficient, double inducedDragFactor,
+                         double rollingFriction, double liftOffSpeed) {
+        if (!(weight > 0) || !(wingArea > 0) || !(liftOffSpeed > 0)) {
+            throw new IllegalArgumentException("Airframe weight, wing area and lift-off speed must be positive: weight="
+                + weight + ", wingArea=" + wingArea + ", liftOffSpeed=" + liftOffSpeed);
+        }
+        if (!(parasiticDragCoefficient >= 0) || !(inducedDragFactor >= 0) || !(rollingFriction >= 0)) {
+            throw new IllegalArgumentException("Airframe drag and friction coefficients must not be negative: CD0="
+                + parasiticDragCoefficient + ", k=" + inducedDragFactor + ", rollingFriction=" + rollingFriction);
+        }
+        this.weight = weight;
+        this.wingArea = wingArea;
+        this.parasiticDragCoefficient = parasiticDragCoefficient;
+        this.inducedDragFactor = inducedDragFactor;
+        this.rollingFriction = rollingFriction;
+        this.liftOffSpeed = liftOffSpeed;
+    }
+
+    /**
+     * @return The all-up weight, in lbf
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The wing area the coefficients refer to, in square feet
+     */
+    public double getWingArea() {
+        return wingArea;
+    }
+
+    /**
+     * @return The zero-lift drag coefficient
+     */
+    public double getParasiticDragCoefficient() {
+        return parasiticDragCoefficient;
+    }
+
+    /**
+     * @return The induced drag factor k
+     */
+    public double getInducedDragFactor() {
+        return inducedDragFactor;
+    }
+
+    /**
+     * @return The rolling friction coefficient during the takeoff roll
+     */
+    public double getRollingFriction() {
+        return rollingFriction;
+    }
+
+    /**
+     * @return The speed the airframe leaves the ground at, in mph
+     */
+    public double getLiftOffSpeed() {
+        return liftOffSpeed;
+    }
+
+    /**
+     * @param newWeight The all-up weight, in lbf
+     * @return A copy of this airframe with the given weight
+     */
+    @NotNull
+    public AirframeModel withWeight(double newWeight) {
+        return new AirframeModel(
+            newWeight, wingArea, parasiticDragCoefficient, inducedDragFactor, rollingFriction, liftOffSpeed
+        );
+    }
+
+    /**
+     * @param newParasiticDragCoefficient The zero-lift drag coefficient
+     * @param newInducedDragFactor The induced drag factor k
+     * @return A copy of this airframe with the given drag polar
+     */
+    @NotNull
+    public AirframeModel withDrag(double newParasiticDragCoefficient, double newInducedDragFactor) {
+        return new AirframeModel(
+            weight, wingArea, newParasiticDragCoefficient, newInducedDragFactor, rollingFriction, liftOffSpeed
+        );
+    }
+
+    /**
+     * @param newLiftOffSpeed The speed the airframe leaves the ground at, in mph
+     * @return A copy of this airframe with the given lift-off speed
+     */
+    @NotNull
+    public AirframeModel withLiftOffSpeed(double newLiftOffSpeed) {
+        return new AirframeModel(
+            weight, wingArea, parasiticDragCoefficient, inducedDragFactor, rollingFriction, newLiftOffSpeed
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AirframeModel)) {
+            return false;
+        }
+        AirframeModel other = (AirframeModel) o;
+        return Double.compare(weight, other.weight) == 0 && Double.compare(wingArea, other.wingArea) == 0
+            && Double.compare(parasiticDragCoefficient, other.parasiticDragCoefficient) == 0
+            && Double.compare(inducedDragFactor, other.inducedDragFactor) == 0
+            && Double.compare(rollingFriction, other.rollingFriction) == 0
+            && Double.compare(liftOffSpeed, other.liftOffSpeed) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(weight);
+        result = 31 * result + Double.hashCode(wingArea);
+        result = 31 * result + Double.hashCode(parasiticDragCoefficient);
+        result = 31 * result + Double.hashCode(inducedDragFactor);
+        result = 31 * result + Double.hashCode(rollingFriction);
+        result = 31 * result + Double.hashCode(liftOffSpeed);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%.1f lbf, %.1f sq ft, CD0 %.3f, k %.3f, lift-off at %.0f mph", weight, wingArea, parasiticDragCoefficient,
+            inducedDragFactor, liftOffSpeed
+        );
+    }
+}
@@ -0,0 +1,159 @@
+package dataSimulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+
+/**
+ * How one propeller flew a simulated mission. Milestones the propeller never reached are NaN.
+ */
+public final class MissionResult {
+
+    //Ranks propellers reaching the target speed first, soonest first, then the rest by the highest speed reached
+    public static final Comparator<MissionResult> RANKING = Comparator
+        .comparing((MissionResult result) -> !result.reachedTargetSpeed())
+        .thenComparingDouble(result -> result.reachedTargetSpeed() ? result.timeToTargetSpeed : -result.maxSpeed)
+        .thenComparing(MissionResult::getPropName);
+
+    //The propeller flown
+    private final String propName;
+
+    //When and how far along the takeoff roll the airframe left the ground, in seconds and feet
+    private final double liftOffTime;
+    private final double liftOffDistance;
+
+    //When, how far along and on how much energy the airframe first reached the target speed, in seconds, feet and Wh
+    private final double timeToTargetSpeed;
+    private final double distanceToTargetSpeed;
+    private final double energyToTargetSpeed;
+
+    //The highest speed reached, in mph, and the highest climb rate the excess power allowed once airborne, in ft/min
+    private final double maxSpeed;
+    private final double maxClimbRate;
+
+    //The distance covered and the battery energy used over the whole mission, in feet and Wh, the energy being the
+    //shaft power the propeller absorbed drawn through the motor's efficiency
+    private final double distance;
+    private final double energyUsed;
+
+    /**
+     * @param propName The propeller flown
+     * @param liftOffTime When the airframe left the ground, in seconds
+     * @param liftOffDistance The length of the takeoff roll, in feet
+     * @param timeToTargetSpeed When the airframe first reached the target speed, in seconds
+     * @param distanceToTargetSpeed The distance covered before reaching the target speed, in feet
+     * @param energyToTargetSpeed The battery energy used before reaching the target speed, in Wh
+     * @param maxSpeed The highest speed reached, in mph
+     * @param maxClimbRate The highest climb rate the excess power allowed once airborne, in ft/min
+     * @param distance The distance covered over the whole mission, in feet
+     * @param energyUsed The battery energy used over the whole mission, in Wh
+     */
+    MissionResult(@NotNull String propName, double liftOffTime, double liftOffDistance, double timeToTargetSpeed,
+                  double distanceToTargetSpeed, double energyToTargetSpeed, double maxSpeed, double maxClimbRate,
+                  double distance, double energyUsed) {
+        this.propName = propName;
+        this.liftOffTime = liftOffTime;
+        this.liftOffDistance = liftOffDistance;
+        this.timeToTargetSpeed = timeToTargetSpeed;
+        this.distanceToTargetSpeed = distanceToTargetSpeed;
+        this.energyToTargetSpeed = energyToTargetSpeed;
+        this.maxSpeed = maxSpeed;
+        this.maxClimbRate = maxClimbRate;
+        this.distance = distance;
+        this.energyUsed = energyUsed;
+    }
+
+    /**
+     * @return The propeller flown
+     */
+    @NotNull
+    public String getPropName() {
+        return propName;
+    }
+
+    /**
+     * @return If the airframe left the ground
+     */
+    public boolean liftedOff() {
+        return !Double.isNaN(liftOffTime);
+    }
+
+    /**
+     * @return When the airframe left the ground, in seconds, or NaN if it never did
+     */
+    public double getLiftOffTime() {
+        return liftOffTime;
+    }
+
+    /**
+     * @return The length of the takeoff roll, in feet, or NaN if the airframe never left the ground
+     */
+    public double getLiftOffDistance() {
+        return liftOffDistance;
+    }
+
+    /**
+     * @return If the airframe reached the target speed
+     */
+    public boolean reachedTargetSpeed() {
+        return !Double.isNaN(timeToTargetSpeed);
+    }
+
+    /**
+     * @return When the airframe first reached the target speed, in seconds, or NaN if it never did
+     */
+    public double getTimeToTargetSpeed() {
+        return timeToTargetSpeed;
+    }
+
+    /**
+     * @return The distance covered before reaching the target speed, in feet, or NaN if it was never reached
+     */
+    public double getDistanceToTargetSpeed() {
+        return distanceToTargetSpeed;
+    }
+
+    /**
+     * @return The battery energy used before reaching the target speed, in Wh, or NaN if it was never reached
+     */
+    public double getEnergyToTargetSpeed() {
+        return energyToTargetSpeed;
+    }
+
+    /**
+     * @return The highest speed reached, in mph
+     */
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * @return The highest climb rate the excess power allowed once airborne, in ft/min, or NaN if never airborne
+     */
+    public double getMaxClimbRate() {
+        return maxClimbRate;
+    }
+
+    /**
+     * @return The distance covered over the whole mission, in feet
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return The battery energy used over the whole mission, in Wh
+     */
+    public double getEnergyUsed() {
+        return energyUsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: lift-off %.2f s after %.0f ft, target speed %.2f s after %.0f ft, top speed %.1f mph, climb %.0f ft/min,"
+                + " %.2f Wh", propName, liftOffTime, liftOffDistance, timeToTargetSpeed, distanceToTargetSpeed,
+            maxSpeed, maxClimbRate, energyUsed
+        );
+    }
+}
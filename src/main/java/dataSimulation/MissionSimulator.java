@@ -0,0 +1,250 @@
+package dataSimulation;
+
+import dataMetrics.MetricRegistry;
+import dataMetrics.Timer;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Flies an airframe through a throttle profile behind each propeller of a catalogue, integrating speed and distance
+ * over fixed time steps from a standing start, and ranks the propellers by how the mission went. Each propeller's
+ * power-matched thrust is tabulated once over velocity and throttle, so the steps themselves only look thrust up and
+ * never allocate; propellers are simulated in parallel on a fork-join pool.
+ */
+public class MissionSimulator {
+
+    //Gravitational acceleration, in feet per second squared
+    private static final double GRAVITY = 32.174;
+
+    //Converts feet per second to miles per hour
+    private static final double FPS_TO_MPH = 0.6818182;
+
+    //Converts hp to W
+    private static final double HP_TO_WATTS = 745.7;
+
+    //The spacing of each thrust table's velocity grid, in mph, and its number of throttle settings
+    private static final double TABLE_VELOCITY_STEP = 0.25;
+    private static final int TABLE_THROTTLE_LEVELS = 21;
+
+    //Propeller ranges below this size are simulated directly rather than split further
+    private static final int SPLIT_THRESHOLD = 4;
+
+    //How long each propeller's thrust table and mission took
+    private static final Timer SIMULATION_TIME = MetricRegistry.global().timer(
+        "apc_mission_simulation_seconds", "Time to tabulate one propeller's thrust and simulate its mission"
+    );
+
+    //The airframe flown
+    private final AirframeModel airframe;
+
+    //The motor configuration whose power the profile's throttle is a fraction of
+    private final MotorConfiguration motor;
+
+    //The speed a mission is timed to, in mph
+    private final double targetSpeed;
+
+    //The integration time step, in seconds
+    private final double timeStep;
+
+    //The throttle at the start of every step, sampled from the profile once for every propeller
+    private final double[] throttles;
+
+    //The pool propellers are simulated on
+    private final ForkJoinPool pool;
+
+    /**
+     * A simulator using every available core
+     * @param airframe The airframe to fly
+     * @param motor The motor configuration whose power the profile's throttle is a fraction of
+     * @param profile The throttle over the mission
+     * @param targetSpeed The speed to time each mission to, in mph
+     * @param duration The mission length, in seconds
+     * @param timeStep The integration time step, in seconds
+     */
+    public MissionSimulator(@NotNull AirframeModel airframe, @NotNull MotorConfiguration motor,
+                            @NotNull PowerProfile profile, double targetSpeed, double duration, double timeStep) {
+        this(airframe, motor, profile, targetSpeed, duration, timeStep, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param airframe The airframe to fly
+     * @param motor The motor configuration whose power the profile's throttle is a fraction of
+     * @param profile The throttle over the mission
+     * @param targetSpeed The speed to time each mission to, in mph
+     * @param duration The mission length, in seconds
+     * @param timeStep The integration time step, in seconds
+     * @param pool The fork-join pool to simulate propellers on
+     */
+    public MissionSimulator(@NotNull AirframeModel airframe, @NotNull MotorConfiguration motor,
+                            @NotNull PowerProfile profile, double targetSpeed, double duration, double timeStep,
+                            @NotNull ForkJoinPool pool) {
+        if (!(targetSpeed > 0) || !(timeStep > 0) || !(duration >= timeStep)) {
+            throw new IllegalArgumentException("A mission needs a positive target speed and time step, and to last at "
+                + "least one step: targetSpeed=" + targetSpeed + ", duration=" + duration + ", timeStep=" + timeStep);
+        }
+        this.airframe = airframe;
+        this.motor = motor;
+        this.targetSpeed = targetSpeed;
+        this.timeStep = timeStep;
+        this.throttles = new double[(int) Math.round(duration / timeStep)];
+        profile.sample(timeStep, throttles, throttles.length);
+        this.pool = pool;
+    }
+
+    /**
+     * @return The number of time steps every mission is integrated over
+     */
+    public int getStepCount() {
+        return throttles.length;
+    }
+
+    /**
+     * Simulates every propeller of the catalogue
+     * @param catalogue The loaded propellers
+     * @return Every propeller's mission, best first by MissionResult.RANKING
+     */
+    @NotNull
+    public List<MissionResult> simulateCatalogue(@NotNull PropellerDataLoader catalogue) {
+        PropellerDataSet[] props = catalogue.getAllPropellerData().toArray(new PropellerDataSet[0]);
+        MissionResult[] results = new MissionResult[props.length];
+        pool.invoke(new SimulateRange(props, results, 0, props.length));
+
+        List<MissionResult> ranking = new ArrayList<>(Arrays.asList(results));
+        ranking.sort(MissionResult.RANKING);
+        return ranking;
+    }
+
+    /**
+     * Tabulates the propeller's thrust and simulates its mission
+     * @param prop The propeller
+     * @return How the mission went
+     */
+    @NotNull
+    public MissionResult simulate(@NotNull PropellerDataSet prop) {
+        long start = System.nanoTime();
+        int velocityCount = (int) Math.ceil(motor.getMaxForwardAirspeed() / TABLE_VELOCITY_STEP) + 1;
+        ThrustTable table = new ThrustTable(prop, motor, TABLE_VELOCITY_STEP, velocityCount, TABLE_THROTTLE_LEVELS);
+        MissionResult result = simulate(prop.getName(), table);
+        SIMULATION_TIME.stop(start);
+        return result;
+    }
+
+    /**
+     * Integrates the mission with semi-implicit Euler steps: each step's thrust and drag come from the speed at its
+     * start, the new speed moves the airframe, and the speed never drops below standing still. The airframe rolls
+     * against gear friction until it reaches lift-off speed and is airborne from then on, paying induced drag. Energy
+     * is the shaft power the propeller absorbs at each step's operating point, drawn through the motor's efficiency.
+     * @param propName The propeller's name
+     * @param table The propeller's thrust over velocity and throttle
+     * @return How the mission went
+     */
+    @NotNull
+    public MissionResult simulate(@NotNull String propName, @NotNull ThrustTable table) {
+        double weight = airframe.getWeight();
+        double massInverse = GRAVITY / weight;
+        double parasiticArea = airframe.getParasiticDragCoefficient() * airframe.getWingArea();
+        double inducedNumerator = airframe.getInducedDragFactor() * weight * weight / airframe.getWingArea();
+        double rollingDrag = airframe.getRollingFriction() * weight;
+        double liftOffSpeed = airframe.getLiftOffSpeed() / FPS_TO_MPH;
+        double liftOffDynamicPressure = 0.5 * AirframeModel.AIR_DENSITY * liftOffSpeed * liftOffSpeed;
+        double target = targetSpeed / FPS_TO_MPH;
+        double wattHoursPerHpStep = HP_TO_WATTS * timeStep / 3600 / motor.getEfficiency();
+
+        double speed = 0;
+        double distance = 0;
+        double energy = 0;
+        double maxSpeed = 0;
+        boolean airborne = false;
+        double liftOffTime = Double.NaN;
+        double liftOffDistance = Double.NaN;
+        double timeToTarget = Double.NaN;
+        double distanceToTarget = Double.NaN;
+        double energyToTarget = Double.NaN;
+        double maxExcessPower = Double.NEGATIVE_INFINITY;
+
+        for (int step = 0; step < throttles.length; step++) {
+            double throttle = throttles[step];
+            double thrust = table.thrustAt(speed * FPS_TO_MPH, throttle);
+            energy += table.absorbedPowerAt(speed * FPS_TO_MPH, throttle) * wattHoursPerHpStep;
+            double dynamicPressure = 0.5 * AirframeModel.AIR_DENSITY * speed * speed;
+            double drag = dynamicPressure * parasiticArea;
+            if (airborne) {
+                drag += inducedNumerator / Math.max(dynamicPressure, liftOffDynamicPressure);
+                maxExcessPower = Math.max(maxExcessPower, (thrust - drag) * speed);
+            }
+            else if (speed > 0 || thrust > rollingDrag) {
+                drag += rollingDrag;
+            }
+            else {
+                drag = thrust;
+            }
+
+            speed = Math.max(0, speed + (thrust - drag) * massInverse * timeStep);
+            distance += speed * timeStep;
+            maxSpeed = Math.max(maxSpeed, speed);
+
+            if (!airborne && speed >= liftOffSpeed) {
+                airborne = true;
+                liftOffTime = (step + 1) * timeStep;
+                liftOffDistance = distance;
+            }
+            if (Double.isNaN(timeToTarget) && speed >= target) {
+                timeToTarget = (step + 1) * timeStep;
+                distanceToTarget = distance;
+                energyToTarget = energy;
+            }
+        }
+
+        double maxClimbRate = airborne ? maxExcessPower / weight * 60 : Double.NaN;
+        return new MissionResult(
+            propName, liftOffTime, liftOffDistance, timeToTarget, distanceToTarget, energyToTarget,
+            maxSpeed * FPS_TO_MPH, maxClimbRate, distance, energy
+        );
+    }
+
+    /**
+     * Simulates the propellers of [from, to), splitting the range in half until it is small enough to run directly
+     */
+    private final class SimulateRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PropellerDataSet[] props;
+        private final MissionResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param props The propellers to simulate
+         * @param results Receives each propeller's mission at its index
+         * @param from The first propeller (inclusive)
+         * @param to The last propeller (exclusive)
+         */
+        SimulateRange(PropellerDataSet[] props, MissionResult[] results, int from, int to) {
+            this.props = props;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = simulate(props[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SimulateRange(props, results, from, middle), new SimulateRange(props, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dataSimulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * An immutable throttle schedule: the fraction of the motor's power used over time, linear between breakpoints and
+ * held at the last breakpoint's throttle after it
+ */
+public final class PowerProfile {
+
+    //Full power from the start to the end of the mission
+    public static final PowerProfile FULL_THROTTLE = constant(1);
+
+    //The ascending breakpoint times, in seconds, the first at 0
+    private final double[] times;
+
+    //The throttle at each breakpoint, from 0 to 1
+    private final double[] throttles;
+
+    /**
+     * @param times The ascending breakpoint times, in seconds, the first at 0
+     * @param throttles The throttle at each breakpoint, from 0 to 1
+     */
+    public PowerProfile(@NotNull double[] times, @NotNull double[] throttles) {
+        if (times.length == 0 || times.length != throttles.length || times[0] != 0) {
+            throw new IllegalArgumentException(
+                "A power profile needs one throttle per breakpoint time, the first time 0: " + Arrays.toString(times)
+            );
+        }
+        for (int i = 0; i < times.length; i++) {
+            if (i > 0 && !(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Power profile times must ascend: " + Arrays.toString(times));
+            }
+            if (!(throttles[i] >= 0 && throttles[i] <= 1)) {
+                throw new IllegalArgumentException("Throttle must be from 0 to 1: " + throttles[i]);
+            }
+        }
+        this.times = times.clone();
+        this.throttles = throttles.clone();
+    }
+
+    /**
+     * @param throttle The throttle for the whole mission, from 0 to 1
+     * @return A profile holding the throttle
+     */
+    @NotNull
+    public static PowerProfile constant(double throttle) {
+        return new PowerProfile(new double[] {0}, new double[] {throttle});
+    }
+
+    /**
+     * Parses breakpoints written as time:throttle pairs separated by commas, such as "0:1,20:1,25:0.6"
+     * @param text The breakpoints
+     * @return The profile
+     */
+    @NotNull
+    public static PowerProfile parse(@NotNull String text) {
+        String[] pairs = text.split(",");
+        double[] times = new double[pairs.length];
+        double[] throttles = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String[] parts = pairs[i].split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Power profile breakpoints must be time:throttle, not " + pairs[i]);
+            }
+            times[i] = Double.parseDouble(parts[0].trim());
+            throttles[i] = Double.parseDouble(parts[1].trim());
+        }
+        return new PowerProfile(times, throttles);
+    }
+
+    /**
+     * @param time The mission time, in seconds
+     * @return The throttle at the time
+     */
+    public double throttleAt(double time) {
+        int segment = 0;
+        while (segment + 1 < times.length && times[segment + 1] <= time) {
+            segment++;
+        }
+        return throttleIn(segment, time);
+    }
+
+    /**
+     * Samples the throttle at every step of a fixed time step, walking the breakpoints once
+     * @param timeStep The time between samples, in seconds
+     * @param samples Receives the throttle at time i * timeStep for each i
+     * @param count How many samples to take
+     */
+    public void sample(double timeStep, @NotNull double[] samples, int count) {
+        int segment = 0;
+        for (int i = 0; i < count; i++) {
+            double time = i * timeStep;
+            while (segment + 1 < times.length && times[segment + 1] <= time) {
+                segment++;
+            }
+            samples[i] = throttleIn(segment, time);
+        }
+    }
+
+    /**
+     * @return The highest throttle anywhere in the profile
+     */
+    public double getMaxThrottle() {
+        double max = 0;
+        for (double throttle : throttles) {
+            max = Math.max(max, throttle);
+        }
+        return max;
+    }
+
+    /**
+     * @param segment The breakpoint at or before the time
+     * @param time The mission time, in seconds
+     * @return The throttle interpolated between the breakpoint and the next
+     */
+    private double throttleIn(int segment, double time) {
+        if (segment + 1 == times.length) {
+            return throttles[segment];
+        }
+        double fraction = (time - times[segment]) / (times[segment + 1] - times[segment]);
+        return throttles[segment] + fraction * (throttles[segment + 1] - throttles[segment]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PowerProfile)) {
+            return false;
+        }
+        PowerProfile other = (PowerProfile) o;
+        return Arrays.equals(times, other.times) && Arrays.equals(throttles, other.throttles);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(times) + Arrays.hashCode(throttles);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < times.length; i++) {
+            text.append(i == 0 ? "" : ",").append(times[i]).append(':').append(throttles[i]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package dataSimulation;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A propeller's power-matched thrust, and the shaft power it absorbs doing so, sampled on a regular grid of velocities
+ * and throttle settings, so a simulation step looks both up with two multiplies and a bilinear blend instead of
+ * matching power against the RPM tables. Thrust and absorbed power count as zero wherever the propeller cannot match
+ * the power, as thrust does in the thrust fit, and above the grid's highest velocity. Lookups never allocate, and a
+ * built table may be shared between threads.
+ */
+public final class ThrustTable {
+
+    //The spacing of the velocity grid and its inverse, in mph
+    private final double velocityStep;
+    private final double inverseVelocityStep;
+
+    //The number of grid velocities, the first at 0
+    private final int velocityCount;
+
+    //The number of throttle settings, evenly spaced from 0 to full power
+    private final int throttleLevels;
+
+    //The thrust at each throttle setting and velocity, one row of velocities per setting, in lbf
+    private final double[] thrusts;
+
+    //The shaft power absorbed at each throttle setting and velocity, laid out like the thrust, in hp
+    private final double[] absorbedPowers;
+
+    /**
+     * Matches the propeller against every throttle setting of the motor at every grid velocity
+     * @param prop The propeller
+     * @param motor The motor configuration whose power budget full throttle delivers
+     * @param velocityStep The spacing of the velocity grid, in mph
+     * @param velocityCount The number of grid velocities, the first at 0
+     * @param throttleLevels The number of throttle settings from 0 to full power, at least 2
+     */
+    public ThrustTable(@NotNull PropellerDataSet prop, @NotNull MotorConfiguration motor, double velocityStep,
+                       int velocityCount, int throttleLevels) {
+        if (!(velocityStep > 0) || velocityCount < 2 || throttleLevels < 2) {
+            throw new IllegalArgumentException("A thrust table needs a positive velocity step, 2 or more velocities "
+                + "and 2 or more throttle levels: " + velocityStep + ", " + velocityCount + ", " + throttleLevels);
+        }
+        this.velocityStep = velocityStep;
+        this.inverseVelocityStep = 1 / velocityStep;
+        this.velocityCount = velocityCount;
+        this.throttleLevels = throttleLevels;
+        this.thrusts = new double[velocityCount * throttleLevels];
+        this.absorbedPowers = new double[velocityCount * throttleLevels];
+
+        double[] velocities = new double[velocityCount];
+        double[] budgets = new double[velocityCount];
+        double[] rpms = new double[velocityCount];
+        double[] levelThrusts = new double[velocityCount];
+        for (int i = 0; i < velocityCount; i++) {
+            velocities[i] = i * velocityStep;
+        }
+
+        //Where a throttle setting is RPM-limited, the propeller absorbs what it does at the motor's unloaded RPM
+        double maxRPM = motor.getMaxRPM();
+        double[] ceilingPowers = new double[velocityCount];
+        prop.computeCeilingCurve(velocities, maxRPM, ceilingPowers, new double[velocityCount], velocityCount);
+
+        //The first row, no throttle, stays all zero
+        for (int level = 1; level < throttleLevels; level++) {
+            double budget = motor.getPowerBudget() * level / (throttleLevels - 1);
+            Arrays.fill(budgets, budget);
+            prop.computeThrustCurve(velocities, budgets, maxRPM, rpms, levelThrusts, velocityCount);
+            int row = level * velocityCount;
+            for (int i = 0; i < velocityCount; i++) {
+                boolean matched = !Double.isNaN(levelThrusts[i]);
+                thrusts[row + i] = matched ? levelThrusts[i] : 0;
+                absorbedPowers[row + i] = !matched ? 0 : rpms[i] >= maxRPM ? ceilingPowers[i] : budget;
+            }
+        }
+    }
+
+    /**
+     * @param velocity The airspeed, in mph
+     * @param throttle The fraction of full power, from 0 to 1
+     * @return The thrust blended from the four surrounding grid points, in lbf
+     */
+    public double thrustAt(double velocity, double throttle) {
+        return blend(thrusts, velocity, throttle);
+    }
+
+    /**
+     * @param velocity The airspeed, in mph
+     * @param throttle The fraction of full power, from 0 to 1
+     * @return The shaft power the propeller absorbs, blended from the four surrounding grid points, in hp
+     */
+    public double absorbedPowerAt(double velocity, double throttle) {
+        return blend(absorbedPowers, velocity, throttle);
+    }
+
+    /**
+     * @param values A value at each throttle setting and velocity, one row of velocities per setting
+     * @param velocity The airspeed, in mph
+     * @param throttle The fraction of full power, from 0 to 1
+     * @return The value blended from the four surrounding grid points, or 0 off the velocity grid
+     */
+    private double blend(@NotNull double[] values, double velocity, double throttle) {
+        double velocityPosition = velocity * inverseVelocityStep;
+        if (!(velocityPosition >= 0) || velocityPosition >= velocityCount - 1) {
+            return 0;
+        }
+        int column = (int) velocityPosition;
+        double velocityFraction = velocityPosition - column;
+
+        double levelPosition = Math.max(0, Math.min(1, throttle)) * (throttleLevels - 1);
+        int level = Math.min((int) levelPosition, throttleLevels - 2);
+        double levelFraction = levelPosition - level;
+
+        int lower = level * velocityCount + column;
+        int upper = lower + velocityCount;
+        double lowerValue = values[lower] + velocityFraction * (values[lower + 1] - values[lower]);
+        double upperValue = values[upper] + velocityFraction * (values[upper + 1] - values[upper]);
+        return lowerValue + levelFraction * (upperValue - lowerValue);
+    }
+
+    /**
+     * @return The highest velocity the table covers, in mph
+     */
+    public double getMaxVelocity() {
+        return (velocityCount - 1) * velocityStep;
+    }
+
+    /**
+     * @return The number of throttle settings, evenly spaced from 0 to full power
+     */
+    public int getThrottleLevels() {
+        return throttleLevels;
+    }
+}
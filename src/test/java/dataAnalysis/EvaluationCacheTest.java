@@ -0,0 +1,158 @@
+package dataAnalysis;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerDataSet;
+import dataParsing.PropellerEvaluation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the evaluation cache's eviction order and its invalidation when a propeller's data changes
+ */
+public class EvaluationCacheTest {
+
+    //The data file the test catalogue is copied from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //The velocity grid every evaluation is over
+    private static final double VELOCITY_STEP = 1;
+    private static final int POINT_COUNT = 40;
+
+    //Three distinct motor configurations
+    private static final MotorConfiguration[] MOTORS = {
+        MotorConfiguration.DEFAULT, MotorConfiguration.DEFAULT.withKV(300), MotorConfiguration.DEFAULT.withKV(290)
+    };
+
+    //Where the test catalogue and cache file are written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    //The catalogue directory and the fixture's text
+    private File directory;
+    private String fixture;
+
+    /**
+     * Writes a catalogue of two propellers, the fixture and a renamed copy
+     * @throws IOException If the catalogue cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("propellerData");
+        Path fixtureFile = directory.toPath().resolve("PER3_10x7E.dat");
+        try (InputStream in = EvaluationCacheTest.class.getResourceAsStream(FIXTURE)) {
+            Files.copy(in, fixtureFile);
+        }
+        fixture = new String(Files.readAllBytes(fixtureFile), StandardCharsets.US_ASCII);
+        writeDataFile("PER3_11x7.dat", fixture.replace("10x7E", "11x7"));
+    }
+
+    /**
+     * The least recently used entry is evicted first, where a hit counts as a use
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        PropellerDataSet prop = new PropellerDataLoader(directory.getPath()).getPropellerData("10x7E");
+        EvaluationCache cache = new EvaluationCache(2);
+
+        PropellerEvaluation first = cache.evaluate(prop, MOTORS[0], VELOCITY_STEP, POINT_COUNT);
+        PropellerEvaluation second = cache.evaluate(prop, MOTORS[1], VELOCITY_STEP, POINT_COUNT);
+        assertSame(first, cache.evaluate(prop, MOTORS[0], VELOCITY_STEP, POINT_COUNT));
+        cache.evaluate(prop, MOTORS[2], VELOCITY_STEP, POINT_COUNT);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(first, cache.evaluate(prop, MOTORS[0], VELOCITY_STEP, POINT_COUNT));
+        assertNotSame(second, cache.evaluate(prop, MOTORS[1], VELOCITY_STEP, POINT_COUNT));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    /**
+     * A propeller whose data changed no longer matches the entries of its old data, even under the same name
+     * @throws IOException If the changed data file cannot be written
+     */
+    @Test
+    public void missesWhenDataChanges() throws IOException {
+        PropellerDataSet before = new PropellerDataLoader(directory.getPath()).getPropellerData("10x7E");
+        writeDataFile("PER3_10x7E.dat", changedFixture());
+        PropellerDataSet after = new PropellerDataLoader(directory.getPath()).getPropellerData("10x7E");
+        assertNotEquals(before.getFingerprint(), after.getFingerprint());
+
+        EvaluationCache cache = new EvaluationCache(8);
+        PropellerEvaluation old = cache.evaluate(before, MOTORS[0], VELOCITY_STEP, POINT_COUNT);
+        assertNotSame(old, cache.evaluate(after, MOTORS[0], VELOCITY_STEP, POINT_COUNT));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    /**
+     * Loading a saved cache keeps only the entries of propellers whose data is unchanged
+     * @throws IOException If the catalogue or cache cannot be written
+     */
+    @Test
+    public void loadsOnlyUnchangedPropellers() throws IOException {
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        EvaluationCache saved = new EvaluationCache(8);
+        for (PropellerDataSet prop : catalogue.getAllPropellerData()) {
+            for (MotorConfiguration motor : MOTORS) {
+                saved.evaluate(prop, motor, VELOCITY_STEP, POINT_COUNT);
+            }
+        }
+        Path cacheFile = folder.getRoot().toPath().resolve("cache").resolve("evaluations.bin");
+        saved.save(cacheFile);
+
+        writeDataFile("PER3_10x7E.dat", changedFixture());
+        PropellerDataLoader changed = new PropellerDataLoader(directory.getPath());
+        EvaluationCache loaded = new EvaluationCache(8);
+        assertEquals(MOTORS.length, loaded.load(cacheFile, changed));
+
+        PropellerEvaluation unchanged = loaded.evaluate(
+            changed.getPropellerData("11x7"), MOTORS[1], VELOCITY_STEP, POINT_COUNT
+        );
+        assertEquals(1, loaded.getHitCount());
+        assertEquals("11x7", unchanged.getPropName());
+        loaded.evaluate(changed.getPropellerData("10x7E"), MOTORS[1], VELOCITY_STEP, POINT_COUNT);
+        assertEquals(1, loaded.getMissCount());
+    }
+
+    /**
+     * A cache file that is not a saved cache loads nothing
+     * @throws IOException If the file cannot be written
+     */
+    @Test
+    public void ignoresOtherFiles() throws IOException {
+        Path cacheFile = folder.getRoot().toPath().resolve("evaluations.bin");
+        Files.write(cacheFile, fixture.getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0, new EvaluationCache(8).load(cacheFile, new PropellerDataLoader(directory.getPath())));
+    }
+
+    /**
+     * @return The fixture with its first static thrust changed
+     */
+    private String changedFixture() {
+        return fixture.replaceFirst("0\\.110", "0.120");
+    }
+
+    /**
+     * @param fileName The data file to write in the catalogue directory
+     * @param contents The file's text
+     * @throws IOException If the file cannot be written
+     */
+    private void writeDataFile(String fileName, String contents) throws IOException {
+        Files.write(directory.toPath().resolve(fileName), contents.getBytes(StandardCharsets.US_ASCII));
+    }
+}
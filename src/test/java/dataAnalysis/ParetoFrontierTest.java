@@ -0,0 +1,177 @@
+package dataAnalysis;
+
+import dataOutput.CalcOutput;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataTokenizer;
+import dataParsing.PropellerEvaluation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests reducing evaluations to the ones no other evaluation dominates
+ */
+public class ParetoFrontierTest {
+
+    //The data file the candidate evaluations are copies of
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //One evaluation, written out so each candidate can be a distinct copy of it
+    private static byte[] evaluation;
+
+    //The objective values of each candidate, by identity
+    private final Map<PropellerEvaluation, double[]> values = new IdentityHashMap<>();
+
+    /**
+     * Evaluates the fixture once
+     * @throws IOException If the fixture cannot be read
+     */
+    @BeforeClass
+    public static void evaluateFixture() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (InputStream in = ParetoFrontierTest.class.getResourceAsStream(FIXTURE)) {
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                file.write(buffer, 0, read);
+            }
+        }
+        PropellerEvaluation evaluated = CalcOutput.evaluate(
+            PropellerDataTokenizer.parse(file.toByteArray()), MotorConfiguration.DEFAULT
+        );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            evaluated.writeTo(out);
+        }
+        evaluation = bytes.toByteArray();
+    }
+
+    /**
+     * Dominated candidates are dropped, while equal candidates and trade-offs are all kept, in candidate order
+     * @throws IOException If a candidate cannot be copied
+     */
+    @Test
+    public void keepsNonDominatedCandidates() throws IOException {
+        List<PropellerEvaluation> candidates = candidates(new double[][] {
+            {1, 5}, {3, 1}, {1, 4}, {2, 4}, {0, 0}, {2, 4}, {2, 3}
+        });
+
+        List<PropellerEvaluation> frontier = new ParetoFrontier(Arrays.asList(objective(0, true), objective(1, true)))
+            .compute(candidates);
+        assertEquals(
+            Arrays.asList(candidates.get(0), candidates.get(1), candidates.get(3), candidates.get(5)), frontier
+        );
+    }
+
+    /**
+     * Minimized objectives prefer lower values, and an unreachable value is worse than any other
+     * @throws IOException If a candidate cannot be copied
+     */
+    @Test
+    public void ordersByObjectiveDirection() throws IOException {
+        List<PropellerEvaluation> candidates = candidates(new double[][] {
+            {5, 10}, {5, 9}, {Double.NaN, 10}, {4, 8}, {6, Double.NaN}
+        });
+
+        List<PropellerEvaluation> frontier = new ParetoFrontier(Arrays.asList(objective(0, false), objective(1, true)))
+            .compute(candidates);
+        assertEquals(Arrays.asList(candidates.get(0), candidates.get(3)), frontier);
+    }
+
+    /**
+     * Candidate sets large enough to be filtered in parallel blocks must give the same frontier as comparing every
+     * pair, as must small ones filtered on the calling thread
+     * @throws IOException If a candidate cannot be copied
+     */
+    @Test
+    public void matchesPairwiseComparison() throws IOException {
+        Random random = new Random(3);
+        List<ParetoObjective> objectives = Arrays.asList(objective(0, true), objective(1, false), objective(2, true));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int size : new int[] {500, 6000}) {
+                //Few distinct values, so ties and equal candidates are common
+                double[][] points = new double[size][3];
+                for (double[] point : points) {
+                    for (int o = 0; o < point.length; o++) {
+                        point[o] = random.nextInt(40);
+                    }
+                }
+                List<PropellerEvaluation> candidates = candidates(points);
+
+                List<PropellerEvaluation> expected = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    boolean dominated = false;
+                    for (int j = 0; j < size && !dominated; j++) {
+                        dominated = dominates(points[j], points[i]);
+                    }
+                    if (!dominated) {
+                        expected.add(candidates.get(i));
+                    }
+                }
+                assertEquals(expected, new ParetoFrontier(objectives, pool).compute(candidates));
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param a A point, the second objective minimized and the others maximized
+     * @param b Another point
+     * @return If a is at least as good as b on every objective and strictly better on one
+     */
+    private static boolean dominates(double[] a, double[] b) {
+        double[] utilityA = {a[0], -a[1], a[2]};
+        double[] utilityB = {b[0], -b[1], b[2]};
+        boolean better = false;
+        for (int o = 0; o < utilityA.length; o++) {
+            if (utilityA[o] < utilityB[o]) {
+                return false;
+            }
+            better |= utilityA[o] > utilityB[o];
+        }
+        return better;
+    }
+
+    /**
+     * @param points The objective values of each candidate
+     * @return One distinct evaluation per point, each reading its values through objective
+     * @throws IOException If an evaluation cannot be copied
+     */
+    private List<PropellerEvaluation> candidates(double[][] points) throws IOException {
+        List<PropellerEvaluation> candidates = new ArrayList<>(points.length);
+        for (double[] point : points) {
+            PropellerEvaluation candidate = PropellerEvaluation.readFrom(
+                new DataInputStream(new ByteArrayInputStream(evaluation))
+            );
+            values.put(candidate, point);
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+
+    /**
+     * @param index Which of a candidate's values to read
+     * @param maximize If higher values are better
+     * @return The objective reading that value
+     */
+    private ParetoObjective objective(int index, boolean maximize) {
+        return new ParetoObjective("value " + index, maximize, candidate -> values.get(candidate)[index]);
+    }
+}
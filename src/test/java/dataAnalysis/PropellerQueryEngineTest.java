@@ -0,0 +1,95 @@
+package dataAnalysis;
+
+import dataParsing.LazyPropellerDataLoader;
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Tests building and querying a PropellerQueryEngine over a catalogue read from disk
+ */
+public class PropellerQueryEngineTest {
+
+    //The data file every test catalogue is copied from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //A motor the fixture propeller can absorb the power of
+    private static final MotorConfiguration MOTOR = MotorConfiguration.DEFAULT.withMotorPower(0.3);
+
+    //Where each test's catalogue is written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Two data files naming the same propeller must each keep their own catalogue slot
+     * @throws Exception If the catalogue cannot be written or evaluated
+     */
+    @Test
+    public void buildsWithRepeatedPropellerNames() throws Exception {
+        File directory = folder.newFolder("propellerData");
+        copyFixture(directory.toPath().resolve("PER3_10x7E.dat"));
+        copyFixture(directory.toPath().resolve("PER3_10x7E_copy.dat"));
+
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        assertEquals(2, catalogue.getNumOfProps());
+
+        PropellerQueryEngine engine = PropellerQueryEngine.build(catalogue, MOTOR);
+        List<PropellerSummary> summaries = engine.getSummaries();
+        assertEquals(2, summaries.size());
+        for (int i = 0; i < summaries.size(); i++) {
+            assertEquals(i, summaries.get(i).getCatalogueIndex());
+            assertEquals("10x7E", summaries.get(i).getPropName());
+        }
+        assertNotSame(summaries.get(0).getEvaluation(), summaries.get(1).getEvaluation());
+
+        List<PropellerSummary> best = engine.query(PropellerQuery.ANY.withLimit(2));
+        assertEquals(2, best.size());
+        assertEquals(1, best.get(0).getCatalogueIndex() + best.get(1).getCatalogueIndex());
+    }
+
+    /**
+     * A file a lazy catalogue cannot parse is left out of the engine, and every other summary keeps its position
+     * @throws Exception If the catalogue cannot be written or evaluated
+     */
+    @Test
+    public void buildsWithoutUnparsableFiles() throws Exception {
+        File directory = folder.newFolder("propellerData");
+        copyFixture(directory.toPath().resolve("PER3_10x7E.dat"));
+        Files.write(
+            directory.toPath().resolve("PER3_10x7E_bad.dat"),
+            " 9x6E.dat (9x6E.dat)\n\n    PROP RPM =  99999999999\n".getBytes(StandardCharsets.US_ASCII)
+        );
+        copyFixture(directory.toPath().resolve("PER3_10x7E_copy.dat"));
+
+        PropellerDataLoader catalogue = new LazyPropellerDataLoader(directory.getPath());
+        PropellerQueryEngine engine = PropellerQueryEngine.build(catalogue, MOTOR);
+        List<PropellerSummary> summaries = engine.getSummaries();
+        assertEquals(2, summaries.size());
+        assertEquals(0, summaries.get(0).getCatalogueIndex());
+        assertEquals(2, summaries.get(1).getCatalogueIndex());
+        assertEquals(2, engine.query(PropellerQuery.ANY.withLimit(2)).size());
+    }
+
+    /**
+     * @param target Where to write a copy of the fixture data file
+     * @throws IOException If the fixture cannot be read or the copy written
+     */
+    private static void copyFixture(Path target) throws IOException {
+        try (InputStream in = PropellerQueryEngineTest.class.getResourceAsStream(FIXTURE)) {
+            Files.copy(in, target);
+        }
+    }
+}
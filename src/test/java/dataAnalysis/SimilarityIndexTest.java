@@ -0,0 +1,193 @@
+package dataAnalysis;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PropellerDataLoader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests writing a similarity index and reading it back only while it still describes the catalogue
+ */
+public class SimilarityIndexTest {
+
+    //The data file the test catalogue is made from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //How much each test propeller's thrust is scaled from the fixture's
+    private static final double[] THRUST_SCALES = {1, 1.05, 0.9, 1.2, 0.8, 1.1};
+
+    //Where the test catalogue and index are written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    //The catalogue directory, the fixture's text and the index file
+    private File directory;
+    private String fixture;
+    private Path indexFile;
+
+    /**
+     * Writes a catalogue of propellers that differ only in thrust
+     * @throws IOException If the catalogue cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("propellerData");
+        try (InputStream in = SimilarityIndexTest.class.getResourceAsStream(FIXTURE)) {
+            Path fixtureFile = folder.getRoot().toPath().resolve("fixture.dat");
+            Files.copy(in, fixtureFile);
+            fixture = new String(Files.readAllBytes(fixtureFile), StandardCharsets.US_ASCII);
+        }
+        for (int p = 0; p < THRUST_SCALES.length; p++) {
+            writeProp(p, THRUST_SCALES[p]);
+        }
+        indexFile = folder.getRoot().toPath().resolve("index").resolve("similarity.bin");
+    }
+
+    /**
+     * A written index must read back with the same answers
+     * @throws IOException If the index cannot be written
+     */
+    @Test
+    public void roundTripsIndex() throws IOException {
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        SimilarityIndex built = SimilarityIndex.build(catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN);
+        built.write(indexFile);
+
+        SimilarityIndex read = readDefault(catalogue);
+        assertNotNull(read);
+        assertEquals(built.size(), read.size());
+        for (int p = 0; p < THRUST_SCALES.length; p++) {
+            assertSameNeighbours(built.nearest(propName(p), 3), read.nearest(propName(p), 3));
+        }
+
+        //The propeller scaled least from the fixture is its nearest neighbour
+        assertEquals(propName(1), read.nearest(propName(0), 1).get(0).getPropName());
+    }
+
+    /**
+     * An index written for another motor, distance or RPM weight is not read
+     * @throws IOException If the index cannot be written
+     */
+    @Test
+    public void ignoresIndexOfOtherSettings() throws IOException {
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        SimilarityIndex.build(catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN).write(indexFile);
+
+        double rpmWeight = SimilarityIndex.DEFAULT_RPM_WEIGHT;
+        MotorConfiguration motor = MotorConfiguration.DEFAULT.withKV(300);
+        assertNull(SimilarityIndex.read(indexFile, catalogue, motor, CurveDistance.EUCLIDEAN, rpmWeight));
+        assertNull(SimilarityIndex.read(
+            indexFile, catalogue, MotorConfiguration.DEFAULT, CurveDistance.MANHATTAN, rpmWeight
+        ));
+        assertNull(SimilarityIndex.read(indexFile, catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN, 0));
+    }
+
+    /**
+     * An index written before a propeller's data changed, or before one was added, is rebuilt and rewritten
+     * @throws IOException If the index or catalogue cannot be written
+     */
+    @Test
+    public void rebuildsIndexOfChangedCatalogue() throws IOException {
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        SimilarityIndex.loadOrBuild(indexFile, catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN);
+        assertTrue(Files.isRegularFile(indexFile));
+
+        writeProp(2, 0.95);
+        PropellerDataLoader changed = new PropellerDataLoader(directory.getPath());
+        assertNull(readDefault(changed));
+        SimilarityIndex rebuilt = SimilarityIndex.loadOrBuild(
+            indexFile, changed, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN
+        );
+        assertEquals(THRUST_SCALES.length, rebuilt.size());
+        assertNotNull(readDefault(changed));
+
+        writeProp(THRUST_SCALES.length, 1.3);
+        PropellerDataLoader grown = new PropellerDataLoader(directory.getPath());
+        assertNull(readDefault(grown));
+    }
+
+    /**
+     * A truncated index file is not read
+     * @throws IOException If the index cannot be written
+     */
+    @Test
+    public void ignoresTruncatedIndex() throws IOException {
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+        SimilarityIndex.build(catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN).write(indexFile);
+        byte[] bytes = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(bytes, bytes.length - 12));
+
+        assertNull(readDefault(catalogue));
+    }
+
+    /**
+     * @param catalogue The loaded propellers
+     * @return The index file read with the default settings, or null if it is missing, stale or unreadable
+     */
+    private SimilarityIndex readDefault(PropellerDataLoader catalogue) {
+        return SimilarityIndex.read(
+            indexFile, catalogue, MotorConfiguration.DEFAULT, CurveDistance.EUCLIDEAN,
+            SimilarityIndex.DEFAULT_RPM_WEIGHT
+        );
+    }
+
+    /**
+     * @param expected The neighbours found by one index
+     * @param actual The neighbours found by another
+     */
+    private static void assertSameNeighbours(List<SimilarPropeller> expected, List<SimilarPropeller> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPropName(), actual.get(i).getPropName());
+            assertEquals(expected.get(i).getCatalogueIndex(), actual.get(i).getCatalogueIndex());
+            assertEquals(expected.get(i).getDistance(), actual.get(i).getDistance(), 0);
+        }
+    }
+
+    /**
+     * @param prop A test propeller number
+     * @return Its name
+     */
+    private static String propName(int prop) {
+        return "1" + prop + "x7";
+    }
+
+    /**
+     * Writes a test propeller, the fixture with every thrust scaled
+     * @param prop The test propeller number
+     * @param thrustScale How much to scale its thrust by
+     * @throws IOException If the file cannot be written
+     */
+    private void writeProp(int prop, double thrustScale) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : fixture.replace("10x7E", propName(prop)).split("\n", -1)) {
+            String[] tokens = line.trim().split(" +");
+            if (tokens.length == 8 && tokens[7].matches("[0-9]+\\.[0-9]+")) {
+                String thrust = String.format(Locale.ROOT, "%.3f", Double.parseDouble(tokens[7]) * thrustScale);
+                line = line.substring(0, line.lastIndexOf(tokens[7])) + thrust;
+            }
+            text.append(line).append('\n');
+        }
+        Files.write(
+            directory.toPath().resolve("PER3_" + propName(prop) + ".dat"),
+            text.toString().getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+}
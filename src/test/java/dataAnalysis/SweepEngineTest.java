@@ -0,0 +1,65 @@
+package dataAnalysis;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataLoader;
+import dataParsing.PropellerEvaluation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests sweeping a catalogue over a grid of motor configurations
+ */
+public class SweepEngineTest {
+
+    //The data file the test catalogue is copied from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //Where the test catalogue is written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Two KVs on the same pack must give the propeller different operating points, not only different predictions
+     * @throws Exception If the catalogue cannot be written or swept
+     */
+    @Test
+    public void kvChangesOperatingPoint() throws Exception {
+        File directory = folder.newFolder("propellerData");
+        try (InputStream in = SweepEngineTest.class.getResourceAsStream(FIXTURE)) {
+            Files.copy(in, directory.toPath().resolve("PER3_10x7E.dat"));
+        }
+        PropellerDataLoader catalogue = new PropellerDataLoader(directory.getPath());
+
+        List<MotorConfiguration> motors = SweepEngine.configurationGrid(
+            MotorConfiguration.DEFAULT.withMotorPower(0.3), new double[] {200, 1000}, new double[] {22.2},
+            new double[] {0.3}
+        );
+        List<PropellerEvaluation> evaluations = new ArrayList<>();
+        SweepStats stats = new SweepEngine().run(catalogue, motors, 1, 40, (index, evaluation) -> {
+            assertEquals(0, index);
+            evaluations.add(evaluation);
+        });
+        assertEquals(2, stats.getEvaluationCount());
+        evaluations.sort((a, b) -> Double.compare(a.getMotor().getKV(), b.getMotor().getKV()));
+
+        PowerMatchedCurve slow = evaluations.get(0).getCurve();
+        PowerMatchedCurve fast = evaluations.get(1).getCurve();
+        assertTrue(slow.isReachable(0) && fast.isReachable(0));
+        assertEquals(200 * 22.2, slow.getRPM(0), 1e-9);
+        assertTrue(fast.getRPM(0) > slow.getRPM(0));
+        assertTrue(fast.getThrust(0) > slow.getThrust(0));
+        assertNotEquals(evaluations.get(0).getStaticThrust(), evaluations.get(1).getStaticThrust(), 1e-9);
+    }
+}
@@ -0,0 +1,99 @@
+package dataMath;
+
+import org.apache.commons.math3.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math3.fitting.PolynomialCurveFitter;
+import org.apache.commons.math3.fitting.WeightedObservedPoints;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the closed-form polynomial fitter against commons-math's iterative fitter
+ */
+public class PolynomialFitterTest {
+
+    //A grid like the sweep's, one point per unit of airspeed, and the degree the results are fitted with
+    private static final int POINT_COUNT = 79;
+    private static final int DEGREE = 3;
+
+    /**
+     * A noisy thrust-like curve must fit to the same polynomial commons-math finds
+     */
+    @Test
+    public void matchesCurveFitter() {
+        Random random = new Random(42);
+        double[] xs = new double[POINT_COUNT];
+        double[] ys = new double[POINT_COUNT];
+        WeightedObservedPoints points = new WeightedObservedPoints();
+        for (int i = 0; i < POINT_COUNT; i++) {
+            xs[i] = i;
+            ys[i] = 5.2 - 0.058 * i - 3.6e-4 * i * i + 3.5e-6 * i * i * i + random.nextGaussian() * 0.05;
+            points.add(xs[i], ys[i]);
+        }
+
+        PolynomialFit fit = new PolynomialFitter(xs, DEGREE).fit(ys);
+        double[] expected = PolynomialCurveFitter.create(DEGREE).fit(points.toList());
+        PolynomialFunction reference = new PolynomialFunction(expected);
+
+        for (int k = 0; k <= DEGREE; k++) {
+            assertEquals(expected[k], fit.getCoefficients()[k], Math.abs(expected[k]) * 1e-6);
+        }
+        for (double x : xs) {
+            assertEquals(reference.value(x), fit.valueAt(x), 1e-9);
+        }
+    }
+
+    /**
+     * Points lying on a polynomial of the fitted degree must give that polynomial back with no residual
+     */
+    @Test
+    public void recoversExactPolynomial() {
+        double[] coefficients = {2, -0.5, 0.03, -2e-4};
+        PolynomialFitter fitter = PolynomialFitter.forGrid(0.5, POINT_COUNT, DEGREE);
+        double[] ys = new double[POINT_COUNT];
+        for (int i = 0; i < POINT_COUNT; i++) {
+            ys[i] = PolynomialFitter.evaluate(coefficients, 0, coefficients.length, i * 0.5);
+        }
+
+        PolynomialFit fit = fitter.fit(ys);
+        assertArrayEquals(coefficients, fit.getCoefficients(), 1e-10);
+        assertEquals(0, fit.getMaxAbsoluteResidual(), 1e-10);
+        assertEquals(1, fit.getRSquared(), 1e-12);
+    }
+
+    /**
+     * Packed series must fit to the same coefficients as fitting each series alone
+     */
+    @Test
+    public void packedFitsMatchSingleFits() {
+        Random random = new Random(7);
+        int seriesCount = 3;
+        double[] packed = new double[seriesCount * POINT_COUNT];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = random.nextDouble();
+        }
+        PolynomialFitter fitter = PolynomialFitter.forGrid(1, POINT_COUNT, DEGREE);
+        double[] coefficients = new double[seriesCount * (DEGREE + 1)];
+        fitter.fitAll(packed, seriesCount, coefficients);
+
+        for (int s = 0; s < seriesCount; s++) {
+            double[] ys = new double[POINT_COUNT];
+            System.arraycopy(packed, s * POINT_COUNT, ys, 0, POINT_COUNT);
+            double[] single = fitter.fit(ys).getCoefficients();
+            for (int k = 0; k <= DEGREE; k++) {
+                assertEquals(single[k], coefficients[s * (DEGREE + 1) + k], 0);
+            }
+        }
+    }
+
+    /**
+     * Too few distinct x values cannot determine the polynomial
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooFewDistinctPoints() {
+        new PolynomialFitter(new double[] {0, 1, 1, 0, 1}, DEGREE);
+    }
+}
@@ -0,0 +1,121 @@
+package dataOutput;
+
+import dataParsing.MotorConfiguration;
+import dataParsing.PowerMatchedCurve;
+import dataParsing.PropellerDataTokenizer;
+import dataParsing.PropellerEvaluation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests writing evaluations to a columnar result file and reading them back
+ */
+public class ColumnarResultWriterTest {
+
+    //The data file both test propellers are read from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //Where the result files are written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Every value written must read back exactly, each propeller's rows starting where the last one's ended
+     * @throws IOException If the fixture cannot be read or the result file cannot be written or read
+     */
+    @Test
+    public void roundTripsEvaluations() throws IOException {
+        String fixture = new String(readFixture(), StandardCharsets.US_ASCII);
+        PropellerEvaluation[] evaluations = {
+            CalcOutput.evaluate(
+                PropellerDataTokenizer.parse(fixture.getBytes(StandardCharsets.US_ASCII)), MotorConfiguration.DEFAULT
+            ),
+            CalcOutput.evaluate(
+                PropellerDataTokenizer.parse(fixture.replace("10x7E", "11x7").getBytes(StandardCharsets.US_ASCII)),
+                MotorConfiguration.DEFAULT.withKV(1000).withMotorPower(0.3)
+            )
+        };
+        int[] lastVelocities = {
+            evaluations[0].getCurve().getReachableCount() - 1, evaluations[1].getCurve().getReachableCount() - 1
+        };
+
+        Path file = folder.getRoot().toPath().resolve("results.apcr");
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(file)) {
+            for (int p = 0; p < evaluations.length; p++) {
+                writer.writeEvaluation(evaluations[p], lastVelocities[p]);
+            }
+            assertEquals(lastVelocities[0] + lastVelocities[1] + 2, writer.getRowCount());
+        }
+
+        ColumnarResultReader reader = ColumnarResultReader.open(file);
+        assertEquals(2, reader.getPropCount());
+        assertEquals(lastVelocities[0] + lastVelocities[1] + 2, reader.getRowCount());
+        assertEquals(1, reader.indexOfProp("11x7"));
+        assertEquals(-1, reader.indexOfProp("9x6E"));
+
+        int row = 0;
+        for (int p = 0; p < evaluations.length; p++) {
+            PropellerEvaluation evaluation = evaluations[p];
+            PowerMatchedCurve curve = evaluation.getCurve();
+            assertEquals(evaluation.getPropName(), reader.getPropName(p));
+            assertEquals(row, reader.getFirstRow(p));
+            assertEquals(lastVelocities[p] + 1, reader.getRowCount(p));
+            assertEquals(evaluation.getStaticThrust(), reader.getStaticThrust(p), 0);
+            assertArrayEquals(evaluation.getFitCoefficients(), reader.getFitCoefficients(p), 0);
+            double[] fit = evaluation.getFitCoefficients();
+            double fitted = ((fit[3] * 12.5 + fit[2]) * 12.5 + fit[1]) * 12.5 + fit[0];
+            assertEquals(fitted, reader.getFittedThrust(p, 12.5), 0);
+
+            assertEquals(0, reader.getValue(row, ColumnarResultReader.RPM), 0);
+            assertEquals(evaluation.getStaticThrust(), reader.getValue(row, ColumnarResultReader.THRUST), 0);
+            for (int velocity = 1; velocity <= lastVelocities[p]; velocity++) {
+                int velocityRow = row + velocity;
+                assertEquals(velocity, reader.getValue(velocityRow, ColumnarResultReader.VELOCITY), 0);
+                assertEquals(curve.getRPM(velocity), reader.getValue(velocityRow, ColumnarResultReader.RPM), 0);
+                assertEquals(curve.getThrust(velocity), reader.column(ColumnarResultReader.THRUST).get(velocityRow), 0);
+                assertEquals(
+                    evaluation.getDynamicThrustPrediction(velocity),
+                    reader.getValue(velocityRow, ColumnarResultReader.PREDICTED_THRUST), 0
+                );
+            }
+            row += lastVelocities[p] + 1;
+        }
+    }
+
+    /**
+     * A file that is not a columnar result file is refused rather than misread
+     * @throws IOException If the file cannot be written, or is refused as expected
+     */
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("results.apcr");
+        Files.write(file, readFixture());
+        ColumnarResultReader.open(file);
+    }
+
+    /**
+     * @return The fixture data file's bytes
+     * @throws IOException If the fixture cannot be read
+     */
+    private static byte[] readFixture() throws IOException {
+        try (InputStream in = ColumnarResultWriterTest.class.getResourceAsStream(FIXTURE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dataOutput;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests formatting doubles as plain decimal text
+ */
+public class DoubleFormatterTest {
+
+    /**
+     * Values are rounded half up to the fraction digits, with trailing zeros trimmed to at least one digit
+     */
+    @Test
+    public void roundsAndTrimsFractions() {
+        DoubleFormatter formatter = new DoubleFormatter(3);
+        assertEquals("0.0", format(formatter, 0));
+        assertEquals("2.0", format(formatter, 2));
+        assertEquals("1.5", format(formatter, 1.5));
+        assertEquals("0.001", format(formatter, 0.0005));
+        assertEquals("1000.0", format(formatter, 999.9996));
+        assertEquals("-12.346", format(formatter, -12.3456));
+    }
+
+    /**
+     * Negative values that round to zero are written without a sign
+     */
+    @Test
+    public void dropsSignOfNegativeZero() {
+        DoubleFormatter formatter = new DoubleFormatter(3);
+        assertEquals("0.0", format(formatter, -0.0));
+        assertEquals("0.0", format(formatter, -0.0001));
+    }
+
+    /**
+     * Values too large for plain text, infinities and NaN are written like Double.toString
+     */
+    @Test
+    public void fallsBackForLargeAndNonFiniteValues() {
+        DoubleFormatter formatter = new DoubleFormatter(9);
+        assertEquals("1.0E9", format(formatter, 1e9));
+        assertEquals("-2.5E12", format(formatter, -2.5e12));
+        assertEquals("NaN", format(formatter, Double.NaN));
+        assertEquals("-Infinity", format(formatter, Double.NEGATIVE_INFINITY));
+    }
+
+    /**
+     * Random values must format like BigDecimal rounding, at both the precisions the writers use
+     */
+    @Test
+    public void matchesBigDecimalRounding() {
+        Random random = new Random(11);
+        DoubleFormatter coarse = new DoubleFormatter(3);
+        DoubleFormatter fine = new DoubleFormatter(9);
+        for (int i = 0; i < 10000; i++) {
+            double large = (random.nextDouble() - 0.5) * 2000;
+            double small = random.nextDouble() - 0.5;
+            assertEquals(expected(large, 3), format(coarse, large));
+            assertEquals(expected(small, 9), format(fine, small));
+        }
+    }
+
+    /**
+     * Fraction digits outside 1 to MAX_FRACTION_DIGITS are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyFractionDigits() {
+        new DoubleFormatter(DoubleFormatter.MAX_FRACTION_DIGITS + 1);
+    }
+
+    /**
+     * @param formatter The formatter to use
+     * @param value The value to format
+     * @return The formatted text, written at an offset into a buffer
+     */
+    private static String format(DoubleFormatter formatter, double value) {
+        char[] buffer = new char[DoubleFormatter.maxLength() + 4];
+        int end = formatter.format(value, buffer, 4);
+        return new String(buffer, 4, end - 4);
+    }
+
+    /**
+     * @param value A value of plain magnitude
+     * @param fractionDigits The digits to round to
+     * @return The value rounded half up, trailing zeros trimmed to at least one fraction digit
+     */
+    private static String expected(double value, int fractionDigits) {
+        BigDecimal rounded = new BigDecimal(value).setScale(fractionDigits, RoundingMode.HALF_UP).stripTrailingZeros();
+        if (rounded.signum() == 0) {
+            return "0.0";
+        }
+        String text = rounded.toPlainString();
+        return text.contains(".") ? text : text + ".0";
+    }
+}
@@ -0,0 +1,134 @@
+package dataParsing;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests how a LazyPropellerDataLoader indexes a directory and handles files that only fail once parsed
+ */
+public class LazyPropellerDataLoaderTest {
+
+    //The data file every test catalogue is copied from
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //A data file whose header line reads but whose body does not parse, the RPM overflowing an int
+    private static final byte[] CORRUPT = (
+        "         9x6E.dat             (9x6E.dat)\n\n    PROP RPM =  99999999999\n"
+    ).getBytes(StandardCharsets.US_ASCII);
+
+    //Where each test's catalogue is written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    //The catalogue directory of the current test
+    private Path directory;
+
+    /**
+     * @throws IOException If the catalogue directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("propellerData").toPath();
+    }
+
+    /**
+     * A corrupt file between two good ones keeps its position, and the good files keep theirs
+     * @throws IOException If the catalogue cannot be written
+     */
+    @Test
+    public void keepsPositionsAfterCorruptFile() throws IOException {
+        copyFixture("PER3_10x7E.dat");
+        Files.write(directory.resolve("PER3_10x7E_bad.dat"), CORRUPT);
+        copyFixture("PER3_10x7E_copy.dat");
+
+        LazyPropellerDataLoader catalogue = new LazyPropellerDataLoader(directory.toString());
+        assertEquals(3, catalogue.getNumOfProps());
+        assertEquals(1, catalogue.indexOf("9x6E"));
+        PropellerDataSet last = catalogue.getPropellerDataAt(2);
+
+        assertNull(catalogue.findPropellerDataAt(1));
+        assertEquals(3, catalogue.getNumOfProps());
+        assertEquals(-1, catalogue.indexOf("9x6E"));
+        assertNull(catalogue.getPropellerData("9x6E"));
+        assertEquals(0, catalogue.indexOf("10x7E"));
+        assertEquals("9x6E", catalogue.getPropellerName(1));
+        assertSame(last, catalogue.getPropellerDataAt(2));
+        try {
+            catalogue.getPropellerDataAt(1);
+            fail("An unparsable position must not answer with another propeller");
+        }
+        catch (IllegalStateException expected) {
+            assertEquals(NumberFormatException.class, expected.getCause().getClass());
+        }
+
+        List<FileLoadReport> reports = catalogue.getLoadReports();
+        assertEquals(1, reports.size());
+        assertFalse(reports.get(0).isSuccess());
+        assertEquals(directory.resolve("PER3_10x7E_bad.dat"), reports.get(0).getPath());
+    }
+
+    /**
+     * A corrupt file sorting last is skipped by a whole-catalogue pass instead of failing it
+     * @throws IOException If the catalogue cannot be written
+     */
+    @Test
+    public void skipsCorruptLastFile() throws IOException {
+        copyFixture("PER3_10x7E.dat");
+        Files.write(directory.resolve("PER3_zz_bad.dat"), CORRUPT);
+
+        LazyPropellerDataLoader catalogue = new LazyPropellerDataLoader(directory.toString());
+        List<PropellerDataSet> props = catalogue.getAllPropellerData();
+        assertEquals(1, props.size());
+        assertEquals("10x7E", props.get(0).getName());
+        assertEquals(2, catalogue.getNumOfProps());
+        assertEquals(1, catalogue.getLoadReports().size());
+
+        //A second pass finds the failure already recorded rather than parsing or reporting it again
+        assertEquals(1, catalogue.getAllPropellerData().size());
+        assertEquals(1, catalogue.getLoadReports().size());
+    }
+
+    /**
+     * When the first file of a repeated name fails, the name moves to the next file that parses
+     * @throws IOException If the catalogue cannot be written
+     */
+    @Test
+    public void handsRepeatedNameToNextParsableFile() throws IOException {
+        Files.write(
+            directory.resolve("PER3_10x7E.dat"),
+            " 10x7E.dat (10x7E.dat)\n\n    PROP RPM =  99999999999\n".getBytes(StandardCharsets.US_ASCII)
+        );
+        copyFixture("PER3_10x7E_copy.dat");
+
+        LazyPropellerDataLoader catalogue = new LazyPropellerDataLoader(directory.toString());
+        assertEquals(0, catalogue.indexOf("10x7E"));
+        assertNull(catalogue.findPropellerDataAt(0));
+        assertEquals(1, catalogue.indexOf("10x7E"));
+        assertSame(catalogue.getPropellerDataAt(1), catalogue.getPropellerData("10x7E"));
+    }
+
+    /**
+     * @param name The name to copy the fixture data file to in the catalogue directory
+     * @throws IOException If the fixture cannot be read or the copy written
+     */
+    private void copyFixture(String name) throws IOException {
+        try (InputStream in = LazyPropellerDataLoaderTest.class.getResourceAsStream(FIXTURE)) {
+            Files.copy(in, directory.resolve(name));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package dataParsing;
+
+import dataMetrics.Log;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * The original regex-based parser, which builds a String[] per line before organizing the tables. The loader uses
+ * {@link PropellerDataTokenizer} instead; this is kept with the tests as the reference it is checked and benchmarked
+ * against.
+ */
+public final class LegacyDataParser {
+
+    private LegacyDataParser() {
+    }
+
+    /**
+     * Parses the given single data file into its own PropellerDataSet
+     * @param br The given propeller data file to parse
+     * @return The parsed data set
+     * @throws IOException If the file cannot be read or has no header line
+     */
+    @NotNull
+    public static PropellerDataSet parse(@NotNull BufferedReader br) throws IOException {
+        String currentLine = br.readLine();
+        if (currentLine == null) {
+            throw new IOException("Empty propeller data file");
+        }
+        String propName = currentLine.substring(currentLine.indexOf(" (") + 2, currentLine.lastIndexOf("."));
+
+        //Parsed data store
+        ArrayList<String[]> dataTable = new ArrayList<>();
+
+        //Parses each line of file into usable data
+        while ((currentLine = br.readLine()) != null) {
+            String[] parsedLine = parseLine(currentLine);
+            if (parsedLine != null) {
+                dataTable.add(parsedLine);
+            }
+        }
+        return new PropellerDataSet(propName, organizeData(dataTable));
+    }
+
+    /**
+     * Parses the given line into usable data, which is either an RPM number, or a list of propeller data values
+     * @param lineToParse The given line to parse
+     * @return Each element sequentially, parsed
+     */
+    @Nullable
+    private static String[] parseLine(@NotNull String lineToParse) {
+        //Replace characters to allow for easier regex
+        lineToParse = lineToParse.replace("-", " -");
+        lineToParse = lineToParse.replace("-NaN", " 0.00");
+        lineToParse = lineToParse.trim().replaceAll(" +", " ");
+
+        //Splits between every number
+        String[] lineSplit = lineToParse.split("[^0-9.,-]");
+        for (String s : lineSplit) {
+
+            //Filter garbage data
+            if (!s.isEmpty() && (s.length() > 2)) {
+
+                //RPM is always whole number, not a float (RPM has no '.')
+                if (!s.contains(".")) {
+                    String[] rpm = new String[1];
+                    rpm[0] = s.trim();
+                    return rpm;
+                } else {
+                    return lineSplit;
+                }
+            }
+        }
+
+        //Returns null if the line is unable to be parsed
+        return null;
+    }
+
+    /**
+     * Organizes rawData into row-major RPM tables.
+     * @param rawData The given rawData
+     * @return The RPM tables, keyed by RPM in file order
+     */
+    @NotNull
+    private static LinkedHashMap<Integer, double[][]> organizeData(@NotNull ArrayList<String[]> rawData) {
+        LinkedHashMap<Integer, double[][]> mappedData = new LinkedHashMap<>();
+        int tableStartIndex = 1;
+        int tableEndIndex = 1;
+
+        for (int i = 0; i < rawData.size(); i++) {
+            if (rawData.get(i).length == 1) {
+                tableEndIndex = i;
+                if (tableEndIndex - tableStartIndex > 0) {
+                    mappedData.put(
+                        Integer.parseInt(rawData.get(tableStartIndex - 1)[0]),
+                        createDataArray(rawData, tableStartIndex, tableEndIndex)
+                    );
+                }
+                tableStartIndex = i + 1;
+            }
+            else {
+                tableEndIndex++;
+            }
+        }
+        return mappedData;
+    }
+
+    /**
+     * Creates a 2D array from an entire (specified) RPM table (excluding the RPM value itself)
+     * @param rawData All of the rawData
+     * @param tableStartIndex (Inclusive) The start of the relevant RPM table data
+     * @param tableEndIndex (Inclusive) The end of the relevant RPM table data
+     * @return The populated 2D array containing exactly one complete RPM table
+     */
+    @NotNull
+    private static double[][] createDataArray(@NotNull ArrayList<String[]> rawData, int tableStartIndex,
+                                              int tableEndIndex) {
+        if (rawData.get(1).length <= 1) {
+            tableStartIndex++;
+        }
+
+        double[][] dataArray = new double[tableEndIndex - tableStartIndex][rawData.get(tableStartIndex).length];
+        for (int i = tableStartIndex; i < tableEndIndex; i++) {
+            if (rawData.get(i).length <= 1) {
+                Log.debug(() -> "Next set ...");
+                break;
+            }
+            else {
+                for (int k = 0; k < rawData.get(i).length; k++) {
+                    if (!rawData.get(i)[k].equals("-")) {
+                        dataArray[i - tableStartIndex][k] = Double.parseDouble(rawData.get(i)[k]);
+                    }
+                }
+            }
+        }
+        return dataArray;
+    }
+}
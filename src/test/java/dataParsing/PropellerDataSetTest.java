@@ -0,0 +1,102 @@
+package dataParsing;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests matching a propeller against a motor's power budget and unloaded RPM
+ */
+public class PropellerDataSetTest {
+
+    //The data file every test propeller is parsed from, with tables from 1000 to 8000 RPM
+    private static final String FIXTURE = "/propellerData/PER3_10x7E.dat";
+
+    //A motor too fast to limit the fixture's power match: 1000 KV on 22.2 V, 0.3 hp at the propeller
+    private static final MotorConfiguration FAST = MotorConfiguration.DEFAULT.withKV(1000).withMotorPower(0.3);
+
+    //The fixture propeller
+    private static PropellerDataSet prop;
+
+    /**
+     * @throws IOException If the fixture cannot be read
+     */
+    @BeforeClass
+    public static void parseFixture() throws IOException {
+        prop = PropellerDataTokenizer.parse(readFixture());
+    }
+
+    /**
+     * A motor whose unloaded RPM is below the power-matched RPM runs at its unloaded RPM instead
+     */
+    @Test
+    public void limitsOperatingPointToUnloadedRPM() {
+        PowerMatchedCurve free = prop.computePowerMatchedCurve(FAST, 1, 40);
+        assertTrue(free.isReachable(0));
+
+        //Just below the free-running RPM at rest, so the ceiling binds from the first point
+        double kv = Math.floor(free.getRPM(0) * 0.9 / FAST.getVoltage());
+        MotorConfiguration slow = FAST.withKV(kv);
+        PowerMatchedCurve limited = prop.computePowerMatchedCurve(slow, 1, 40);
+
+        assertTrue(limited.isReachable(0));
+        for (int i = 0; i < limited.getReachableCount(); i++) {
+            assertEquals(slow.getMaxRPM(), limited.getRPM(i), 1e-9);
+            assertTrue(limited.getThrust(i) < free.getThrust(i));
+        }
+        assertTrue(prop.getStaticThrust(slow) < prop.getStaticThrust(FAST));
+    }
+
+    /**
+     * The batched thrust curve applies the same ceiling as the power-matched curve
+     */
+    @Test
+    public void batchedCurveMatchesPowerMatchedCurve() {
+        MotorConfiguration slow = FAST.withKV(200);
+        PowerMatchedCurve curve = prop.computePowerMatchedCurve(slow, 1, 40);
+        double[] velocities = new double[40];
+        for (int i = 0; i < velocities.length; i++) {
+            velocities[i] = i;
+        }
+        double[] rpms = new double[40];
+        double[] thrusts = new double[40];
+        prop.computeThrustCurve(velocities, slow, rpms, thrusts, 40);
+
+        for (int i = 0; i < curve.getReachableCount(); i++) {
+            assertEquals(curve.getRPM(i), rpms[i], 1e-9);
+            assertEquals(curve.getThrust(i), thrusts[i], 1e-9);
+        }
+    }
+
+    /**
+     * A motor whose unloaded RPM is below every table has no operating point the data covers
+     */
+    @Test
+    public void unloadedRPMBelowEveryTableIsUnreachable() {
+        MotorConfiguration crawling = FAST.withKV(10);
+        assertEquals(0, prop.computePowerMatchedCurve(crawling, 1, 40).getReachableCount());
+        assertEquals(0, prop.getStaticThrust(crawling), 0);
+    }
+
+    /**
+     * @return The fixture data file's content
+     * @throws IOException If the fixture cannot be read
+     */
+    static byte[] readFixture() throws IOException {
+        try (InputStream in = PropellerDataSetTest.class.getResourceAsStream(FIXTURE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dataParsing;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests writing and reading back binary snapshots of parsed propeller tables
+ */
+public class PropellerDataSnapshotTest {
+
+    //The content hash every test snapshot is keyed to, as long as a SHA-256 digest
+    private static final byte[] HASH = new byte[32];
+
+    //Where each test's snapshot is written
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A snapshot reads back the same names and tables it was written from
+     * @throws IOException If the snapshot cannot be written
+     */
+    @Test
+    public void roundTripsTables() throws IOException {
+        List<PropellerDataSet> written = Arrays.asList(fixture(), fixture());
+        Path snapshot = folder.getRoot().toPath().resolve("propellers.snapshot");
+        PropellerDataSnapshot.write(snapshot, HASH, written);
+
+        List<PropellerDataSet> read = PropellerDataSnapshot.read(snapshot, HASH);
+        assertNotNull(read);
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            PropellerTableStore expected = written.get(i).getTableStore();
+            PropellerTableStore actual = read.get(i).getTableStore();
+            assertEquals(written.get(i).getName(), read.get(i).getName());
+            assertArrayEquals(expected.rpms(), actual.rpms());
+            assertArrayEquals(expected.rowOffsets(), actual.rowOffsets());
+            assertEquals(expected.getColumnCount(), actual.getColumnCount());
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertArrayEquals(expected.column(c), actual.column(c), 0);
+            }
+            assertEquals(written.get(i).getFingerprint(), read.get(i).getFingerprint());
+        }
+    }
+
+    /**
+     * A snapshot written from other source files is ignored
+     * @throws IOException If the snapshot cannot be written
+     */
+    @Test
+    public void ignoresStaleHash() throws IOException {
+        Path snapshot = folder.getRoot().toPath().resolve("propellers.snapshot");
+        PropellerDataSnapshot.write(snapshot, HASH, Arrays.asList(fixture()));
+
+        byte[] otherHash = HASH.clone();
+        otherHash[0] = 1;
+        assertNull(PropellerDataSnapshot.read(snapshot, otherHash));
+    }
+
+    /**
+     * A snapshot whose hash matches but whose RPMs no longer ascend is rejected while decoding
+     * @throws IOException If the snapshot cannot be written or corrupted
+     */
+    @Test
+    public void rejectsUnsortedRPMs() throws IOException {
+        PropellerDataSet prop = fixture();
+        Path snapshot = folder.getRoot().toPath().resolve("propellers.snapshot");
+        PropellerDataSnapshot.write(snapshot, HASH, Arrays.asList(prop));
+
+        //Magic, version, hash length, hash, propeller count, name length, name, table count, column count
+        long firstRPM = 4 + 4 + 4 + HASH.length + 4 + 4 + prop.getName().getBytes(StandardCharsets.UTF_8).length + 8;
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(firstRPM);
+            assertEquals(prop.getTableStore().getRPM(0), file.readInt());
+            file.seek(firstRPM);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+        assertNull(PropellerDataSnapshot.read(snapshot, HASH));
+    }
+
+    /**
+     * A snapshot whose hash matches but whose row offsets decrease is rejected while decoding
+     * @throws IOException If the snapshot cannot be written or corrupted
+     */
+    @Test
+    public void rejectsDecreasingRowOffsets() throws IOException {
+        PropellerDataSet prop = fixture();
+        Path snapshot = folder.getRoot().toPath().resolve("propellers.snapshot");
+        PropellerDataSnapshot.write(snapshot, HASH, Arrays.asList(prop));
+
+        int tableCount = prop.getTableStore().getTableCount();
+        long secondOffset = 4 + 4 + 4 + HASH.length + 4 + 4 + prop.getName().getBytes(StandardCharsets.UTF_8).length
+            + 8 + 4L * tableCount + 4;
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(secondOffset);
+            assertEquals(prop.getTableStore().getRowOffset(1), file.readInt());
+            file.seek(secondOffset);
+            file.writeInt(-1);
+        }
+        assertNull(PropellerDataSnapshot.read(snapshot, HASH));
+    }
+
+    /**
+     * @return The fixture propeller, freshly parsed
+     * @throws IOException If the fixture cannot be read
+     */
+    private static PropellerDataSet fixture() throws IOException {
+        return PropellerDataTokenizer.parse(PropellerDataSetTest.readFixture());
+    }
+}
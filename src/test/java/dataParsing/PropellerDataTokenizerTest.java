@@ -0,0 +1,92 @@
+package dataParsing;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the tokenizer reads data files into the same tables as the original regex-based parser
+ */
+public class PropellerDataTokenizerTest {
+
+    //A file in APC's layout with the quirks both parsers handle: values glued together by a '-', "-NaN", Windows line
+    //endings and no trailing newline
+    private static final String GLUED = " 9x6E.dat             (9x6E.dat)\r\n"
+        + "\r\n"
+        + "                          PROP RPM =     2000\r\n"
+        + "\r\n"
+        + "     V          J         Pe       Ct       Cp       PWR      Torque     Thrust\r\n"
+        + "   (mph)     (Adv_Ratio)   -        -        -       (Hp)     (In-Lbf)    (Lbf)\r\n"
+        + "   0.00     0.0000      -NaN   0.1000   0.0500     0.004     0.126     0.230\r\n"
+        + "   1.00     0.0500    0.4000   0.0900-0.0020     0.004     0.120     0.210\r\n"
+        + "\r\n"
+        + "                          PROP RPM =     3000\r\n"
+        + "\r\n"
+        + "   0.00     0.0000      -NaN   0.1000   0.0500     0.013     0.284     0.520\r\n"
+        + "   1.00     0.0330    0.4000   0.0950   0.0480     0.012     0.270-0.010\r\n"
+        + "\r\n"
+        + "                          PROP RPM =     4000\r\n"
+        + "\r\n"
+        + "   0.00     0.0000      -NaN   0.1000   0.0500     0.031     0.505     0.920";
+
+    /**
+     * The fixture must parse into identical tables with either parser
+     * @throws IOException If the fixture cannot be read
+     */
+    @Test
+    public void matchesLegacyParserOnFixture() throws IOException {
+        byte[] file = PropellerDataSetTest.readFixture();
+        PropellerDataSet tokenized = PropellerDataTokenizer.parse(file);
+
+        //Neither parser keeps the last table, which no following RPM header closes
+        assertEquals("10x7E", tokenized.getName());
+        assertEquals(7, tokenized.getPropRPMs().size());
+        assertTrue(tokenized.hasSameData(parseLegacy(file)));
+    }
+
+    /**
+     * Glued values, "-NaN" and Windows line endings must be read the way the original parser read them
+     * @throws IOException If a parser finds no header line
+     */
+    @Test
+    public void matchesLegacyParserOnGluedValues() throws IOException {
+        byte[] file = GLUED.getBytes(StandardCharsets.US_ASCII);
+        PropellerDataSet tokenized = PropellerDataTokenizer.parse(file);
+
+        assertEquals("9x6E", tokenized.getName());
+        assertEquals(2, tokenized.getPropRPMs().size());
+        assertTrue(tokenized.hasSameData(parseLegacy(file)));
+    }
+
+    /**
+     * A changed value must make the data sets differ, so the equality checks above compare the tables themselves
+     * @throws IOException If a parser finds no header line
+     */
+    @Test
+    public void detectsChangedValue() throws IOException {
+        byte[] changed = GLUED.replace("0.270-0.010", "0.270-0.011").getBytes(StandardCharsets.US_ASCII);
+
+        assertFalse(PropellerDataTokenizer.parse(changed).hasSameData(
+            parseLegacy(GLUED.getBytes(StandardCharsets.US_ASCII))
+        ));
+    }
+
+    /**
+     * @param file A data file's bytes
+     * @return The data set the original parser reads from them
+     * @throws IOException If the file has no header line
+     */
+    private static PropellerDataSet parseLegacy(byte[] file) throws IOException {
+        return LegacyDataParser.parse(new BufferedReader(new InputStreamReader(
+            new ByteArrayInputStream(file), StandardCharsets.US_ASCII
+        )));
+    }
+}
@@ -0,0 +1,72 @@
+package dataParsing;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests finding the rows that bracket a velocity in a columnar table store
+ */
+public class PropellerTableStoreTest {
+
+    //Tables at 1000, 2000 and 3000 RPM, the second starting part way into every column and the last a single row
+    private PropellerTableStore store;
+
+    /**
+     * Builds the store
+     */
+    @Before
+    public void setUp() {
+        Map<Integer, double[][]> tables = new HashMap<>();
+        tables.put(1000, new double[][] {{0, 1}, {2, 1}, {4, 1}});
+        tables.put(2000, new double[][] {{0, 1}, {1, 1}, {3, 1}, {6, 1}});
+        tables.put(3000, new double[][] {{0, 1}});
+        store = PropellerTableStore.fromTables(tables);
+    }
+
+    /**
+     * The first row's velocity is bracketed with the row after it
+     */
+    @Test
+    public void bracketsFirstRowWithNextRow() {
+        assertEquals(0, store.findVelocityBracket(0, 0));
+        assertEquals(0, store.findVelocityBracket(1, 0));
+    }
+
+    /**
+     * The last row's velocity is bracketed with the row before it
+     */
+    @Test
+    public void bracketsLastRowWithPreviousRow() {
+        assertEquals(1, store.findVelocityBracket(0, 4));
+        assertEquals(2, store.findVelocityBracket(1, 6));
+    }
+
+    /**
+     * Velocities between rows, or equal to an inner row, give the row below them, counted within the table
+     */
+    @Test
+    public void bracketsInnerVelocities() {
+        assertEquals(0, store.findVelocityBracket(1, 0.5));
+        assertEquals(0, store.findVelocityBracket(1, 1));
+        assertEquals(1, store.findVelocityBracket(1, 1.5));
+        assertEquals(1, store.findVelocityBracket(1, 3));
+        assertEquals(2, store.findVelocityBracket(1, 5.9));
+    }
+
+    /**
+     * Velocities outside the table, NaN, and tables of one row have no bracket
+     */
+    @Test
+    public void rejectsOutOfRangeVelocities() {
+        assertEquals(-1, store.findVelocityBracket(0, -0.001));
+        assertEquals(-1, store.findVelocityBracket(0, 4.001));
+        assertEquals(-1, store.findVelocityBracket(1, Double.POSITIVE_INFINITY));
+        assertEquals(-1, store.findVelocityBracket(1, Double.NaN));
+        assertEquals(-1, store.findVelocityBracket(2, 0));
+    }
+}